@@ -0,0 +1,142 @@
+package geometries;
+
+import geometries.Intersectable.Intersection;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the ray intersection kernels of the geometries.<br>
+ * Every geometry is a unit sized shape at the origin, shot by the same seeded set of rays
+ * from z = 10 towards the plane z = 0, so that a part of the rays misses each shape
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntersectionBenchmark {
+    /**
+     * Seed of the rays, fixed for reproducible results
+     */
+    private static final long SEED = 5785;
+    /**
+     * Amount of rays - a power of 2
+     */
+    private static final int RAYS = 1024;
+
+    /**
+     * The rays the geometries are shot by
+     */
+    private final Ray[] rays = new Ray[RAYS];
+    /**
+     * Index of the last used ray
+     */
+    private int next = 0;
+
+    /**
+     * Unit sphere
+     */
+    private Sphere sphere;
+    /**
+     * Triangle in the plane z = 0
+     */
+    private Triangle triangle;
+    /**
+     * Square in the plane z = 0
+     */
+    private Polygon polygon;
+    /**
+     * The plane z = 0
+     */
+    private Plane plane;
+    /**
+     * Cylinder along the Y axis
+     */
+    private Cylinder cylinder;
+
+    /**
+     * Creates the geometries and the rays
+     */
+    @Setup
+    public void setup() {
+        sphere = new Sphere(Point.ZERO, 1);
+        triangle = new Triangle(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(0, 1, 0));
+        polygon = new Polygon(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(1, 1, 0), new Point(-1, 1, 0));
+        plane = new Plane(Point.ZERO, new Vector(0, 0, 1));
+        cylinder = new Cylinder(1, new Ray(new Point(0, -1, 0), new Vector(0, 1, 0)), 2);
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < RAYS; ++i) {
+            Point origin = new Point(random.nextDouble(-2, 2), random.nextDouble(-2, 2), 10);
+            Point target = new Point(random.nextDouble(-1.5, 1.5), random.nextDouble(-1.5, 1.5), 0);
+            rays[i] = new Ray(origin, target.subtract(origin));
+        }
+    }
+
+    /**
+     * Gets the next ray, cyclically
+     *
+     * @return the ray
+     */
+    private Ray nextRay() {
+        next = (next + 1) & (RAYS - 1);
+        return rays[next];
+    }
+
+    /**
+     * Intersections with a sphere
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<Intersection> sphere() {
+        return sphere.calculateIntersections(nextRay());
+    }
+
+    /**
+     * Intersections with a triangle
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<Intersection> triangle() {
+        return triangle.calculateIntersections(nextRay());
+    }
+
+    /**
+     * Intersections with a polygon
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<Intersection> polygon() {
+        return polygon.calculateIntersections(nextRay());
+    }
+
+    /**
+     * Intersections with a plane
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<Intersection> plane() {
+        return plane.calculateIntersections(nextRay());
+    }
+
+    /**
+     * Intersections with a cylinder
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<Intersection> cylinder() {
+        return cylinder.calculateIntersections(nextRay());
+    }
+}
@@ -0,0 +1,75 @@
+package renderer;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macrobenchmarks rendering the teapot scene and the mini project scene
+ * (see {@link TeapotTest} and {@link Minip1Tests}) at a fixed resolution,
+ * for each type of ray tracer and multi-threading mode.<br>
+ * The random parts of the scenes are generated from a fixed seed, and the acceleration
+ * structures are built before the measurement, so only the rendering itself is timed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+    /**
+     * Seed of the random parts of the scenes, fixed for reproducible results
+     */
+    private static final long SEED = 5785;
+    /**
+     * Width and height of the rendered images in pixels
+     */
+    private static final int RESOLUTION = 200;
+
+    /**
+     * The rendered scene
+     */
+    @Param({"teapot", "minip1"})
+    public String scene;
+    /**
+     * The ray tracer type
+     */
+    @Param({"SIMPLE", "VOXEL", "HIERARCHICAL_VOXEL"})
+    public RayTracerType rayTracer;
+    /**
+     * The multi-threading mode (see {@link Camera.Builder#setMultithreading(int)})
+     */
+    @Param({"0", "-1", "-2"})
+    public int threads;
+
+    /**
+     * The rendering camera
+     */
+    private Camera camera;
+
+    /**
+     * Builds the scene, the ray tracer and the camera
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Util.setRandomSeed(SEED);
+        Camera.Builder builder = switch (scene) {
+            case "teapot" -> new TeapotTest().prepareTeapot(rayTracer);
+            case "minip1" -> new Minip1Tests().prepareScene(rayTracer);
+            default -> throw new IllegalArgumentException("Unknown scene " + scene);
+        };
+        camera = builder.setResolution(RESOLUTION, RESOLUTION).setMultithreading(threads).setDebugPrint(0).build();
+    }
+
+    /**
+     * Renders the image
+     *
+     * @return the camera
+     */
+    @Benchmark
+    public Camera render() {
+        return camera.renderImage();
+    }
+}
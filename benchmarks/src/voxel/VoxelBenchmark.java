@@ -0,0 +1,149 @@
+package voxel;
+
+import geometries.Intersectable;
+import geometries.Intersectable.Intersection;
+import geometries.Sphere;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the voxel acceleration: bounding box tests, building a grid
+ * and traversing it.<br>
+ * The grid holds small spheres scattered (by a fixed seed) in a cube of 100 units,
+ * and the rays cross the cube between random points of two opposite faces
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VoxelBenchmark {
+    /**
+     * Seed of the objects and the rays, fixed for reproducible results
+     */
+    private static final long SEED = 5785;
+    /**
+     * Amount of rays - a power of 2
+     */
+    private static final int RAYS = 1024;
+    /**
+     * Half of the size of the cube the objects are scattered in
+     */
+    private static final double HALF_SIZE = 50;
+
+    /**
+     * Amount of objects in the grid
+     */
+    @Param({"100", "1000", "10000"})
+    public int objects;
+
+    /**
+     * The objects in the grid
+     */
+    private final List<Intersectable> spheres = new ArrayList<>();
+    /**
+     * The bounding boxes of the objects
+     */
+    private final List<AABB> boxes = new ArrayList<>();
+    /**
+     * The bounding box of all the objects
+     */
+    private AABB bounds;
+    /**
+     * The grid of the objects
+     */
+    private VoxelGrid grid;
+    /**
+     * The rays crossing the grid
+     */
+    private final Ray[] rays = new Ray[RAYS];
+    /**
+     * Index of the last used ray
+     */
+    private int next = 0;
+
+    /**
+     * Creates the objects, the grid and the rays
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        spheres.clear();
+        boxes.clear();
+        for (int i = 0; i < objects; ++i) {
+            Sphere sphere = new Sphere(new Point(random.nextDouble(-HALF_SIZE, HALF_SIZE),
+                    random.nextDouble(-HALF_SIZE, HALF_SIZE), random.nextDouble(-HALF_SIZE, HALF_SIZE)),
+                    random.nextDouble(0.5, 2));
+            spheres.add(sphere);
+            boxes.add(sphere.getBoundingBox());
+        }
+        bounds = boxes.stream().reduce(AABB::union).orElseThrow();
+        grid = buildGrid();
+
+        double far = 2 * HALF_SIZE;
+        for (int i = 0; i < RAYS; ++i) {
+            Point origin = new Point(random.nextDouble(-HALF_SIZE, HALF_SIZE), random.nextDouble(-HALF_SIZE, HALF_SIZE), far);
+            Point target = new Point(random.nextDouble(-HALF_SIZE, HALF_SIZE), random.nextDouble(-HALF_SIZE, HALF_SIZE), -far);
+            rays[i] = new Ray(origin, target.subtract(origin));
+        }
+    }
+
+    /**
+     * Gets the next ray, cyclically
+     *
+     * @return the ray
+     */
+    private Ray nextRay() {
+        next = (next + 1) & (RAYS - 1);
+        return rays[next];
+    }
+
+    /**
+     * Bounding box test of a ray
+     *
+     * @return whether the ray hits the box of all the objects
+     */
+    @Benchmark
+    public boolean boundingBox() {
+        return bounds.hasIntersection(nextRay());
+    }
+
+    /**
+     * Building the grid of the objects, sized as in the voxel ray tracer
+     *
+     * @return the grid
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public VoxelGrid buildGrid() {
+        return VoxelGridTuner.build(bounds, VoxelGridTuner.size(bounds, boxes), spheres, boxes);
+    }
+
+    /**
+     * Traversal of the grid for the closest intersection (as for primary and secondary rays)
+     *
+     * @return the closest intersection
+     */
+    @Benchmark
+    public Intersection closestIntersection() {
+        return grid.findClosestIntersection(nextRay());
+    }
+
+    /**
+     * Traversal of the grid for all the intersections up to a distance (as for shadow rays)
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<Intersection> intersectionsToDistance() {
+        return grid.findIntersections(nextRay(), 2 * HALF_SIZE);
+    }
+}
@@ -30,6 +30,15 @@ public class Cylinder extends Tube {
         this.height = height;
     }
 
+    /**
+     * Getter for the height
+     *
+     * @return the height of the cylinder
+     */
+    public double getHeight() {
+        return height;
+    }
+
     @Override
     public Vector getNormal(Point p) {
         // Assume these fields exist:
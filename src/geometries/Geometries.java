@@ -3,19 +3,40 @@ package geometries;
 import primitives.Point;
 import primitives.Ray;
 import voxel.AABB;
+import voxel.VoxelGrid;
+import voxel.VoxelGridTuner;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Represents a collection of shapes in 3D space
+ * Represents a collection of shapes in 3D space.<br>
+ * A collection may build its own voxel grid (see {@link #build()}), so that rays which reach it test only the
+ * shapes along their path instead of all of them. A scene is then accelerated in two levels - the grid of the
+ * ray tracer spans the collections, and each collection has a grid of its shapes - and a collection is
+ * rebuilt or refitted by itself when its shapes change.
  */
 public class Geometries extends Intersectable {
     /**
      * list of shapes in 3D space
      */
     private final List<Intersectable> geometries = new LinkedList<>();
+    /**
+     * The voxel grid of the bounded shapes, null if the collection is not built
+     */
+    private VoxelGrid grid = null;
+    /**
+     * The shapes without a bounding box, tested by every ray when the collection is built
+     */
+    private List<Intersectable> unbounded = List.of();
+    /**
+     * The bounding box of the collection when it is built
+     */
+    private AABB bounds = null;
 
     /**
      * Empty constructor
@@ -34,16 +55,19 @@ public class Geometries extends Intersectable {
     }
 
     /**
-     * adds the geometries to the space
+     * adds the geometries to the space. The grid of a built collection is dropped until it is built again
      *
      * @param geometries the geometries to add to the space
      */
     public void add(Intersectable... geometries) {
         Collections.addAll(this.geometries, geometries);
+        grid = null;
+        bounds = null;
     }
 
     /**
      * Returns the list of geometries in this collection.
+     * A built collection must be built again (or refitted) after the list is changed directly.
      *
      * @return list of geometries
      */
@@ -51,12 +75,128 @@ public class Geometries extends Intersectable {
         return geometries;
     }
 
+    /**
+     * Checks whether the collection has its voxel grid
+     *
+     * @return true if the collection is built
+     */
+    public boolean isBuilt() {
+        return grid != null;
+    }
+
+    /**
+     * Builds the voxel grid of the collection, sized by the amount of its shapes and the shape of their bounds
+     * (see {@link VoxelGridTuner#size(AABB, List)}), after building the nested collections (also those of instances)
+     *
+     * @return this collection
+     */
+    public Geometries build() {
+        buildNested();
+        fill(boxes(), null);
+        return this;
+    }
+
+    /**
+     * Builds the nested collections (also those of instances) which are not built yet,
+     * without building the grid of this collection
+     *
+     * @return this collection
+     */
+    public Geometries buildNested() {
+        for (Intersectable geometry : geometries) {
+            Geometries nested = nested(geometry);
+            if (nested != null && !nested.isBuilt()) nested.build();
+        }
+        return this;
+    }
+
+    /**
+     * Refits the collection after its shapes moved: the nested collections are refitted and the shapes are
+     * placed again in a grid of the same size, without choosing the size again.
+     * A collection which is not built is only built
+     *
+     * @return this collection
+     */
+    public Geometries refit() {
+        if (grid == null) return build();
+        refitNested();
+        fill(boxes(), grid.getSize());
+        return this;
+    }
+
+    /**
+     * Refits the nested collections (also those of instances, each shared collection once),
+     * without refitting the grid of this collection
+     *
+     * @return this collection
+     */
+    public Geometries refitNested() {
+        Set<Geometries> refitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Intersectable geometry : geometries) {
+            Geometries nested = nested(geometry);
+            if (nested != null && refitted.add(nested)) nested.refit();
+        }
+        return this;
+    }
+
+    /**
+     * Finds the collection which a geometry is or instances
+     *
+     * @param geometry the geometry
+     * @return the collection, or null if the geometry is not a collection
+     */
+    private static Geometries nested(Intersectable geometry) {
+        while (geometry instanceof Instance instance) geometry = instance.getGeometry();
+        return geometry instanceof Geometries nested ? nested : null;
+    }
+
+    /**
+     * Finds the bounding boxes of the shapes
+     *
+     * @return the bounding boxes in the order of the shapes, null for an unbounded shape
+     */
+    private List<AABB> boxes() {
+        return VoxelGrid.boundingBoxes(geometries);
+    }
+
+    /**
+     * Places the shapes in a new grid over their bounding boxes
+     *
+     * @param boxes the bounding boxes of the shapes
+     * @param size  the amounts of voxels along the X, Y and Z axes, null to choose them by the shapes
+     */
+    private void fill(List<AABB> boxes, int[] size) {
+        List<Intersectable> unboundedGeometries = new ArrayList<>();
+        int i = 0;
+        for (Intersectable geometry : geometries)
+            if (boxes.get(i++) == null) unboundedGeometries.add(geometry);
+        AABB boundingBox = VoxelGrid.bounds(boxes);
+
+        VoxelGrid voxelGrid = null;
+        if (boundingBox != null) {
+            if (size == null) size = VoxelGridTuner.size(boundingBox, boxes);
+            voxelGrid = new VoxelGrid(boundingBox, size[0], size[1], size[2]);
+            voxelGrid.addObjects(new ArrayList<>(geometries), boxes);
+        } else {
+            // only unbounded shapes, an empty grid keeps the collection built
+            voxelGrid = new VoxelGrid(new AABB(Point.ZERO, Point.ZERO), 1, 1, 1);
+        }
+        unbounded = unboundedGeometries;
+        bounds = unboundedGeometries.isEmpty() ? boundingBox : null;
+        grid = voxelGrid;
+    }
 
     @Override
     protected List<Intersection> calculateIntersectionsHelper(Ray ray, double maxDistance) {
         List<Intersection> intersections = null;
+        VoxelGrid voxelGrid = grid;
+        if (voxelGrid != null) {
+            List<Intersection> gridIntersections = voxelGrid.findIntersections(ray, maxDistance);
+            if (!gridIntersections.isEmpty())
+                intersections = gridIntersections;
+        }
 
-        for (Intersectable geometry : geometries) {
+        for (Intersectable geometry : voxelGrid == null ? geometries : unbounded) {
             List<Intersection> geometryIntersections = geometry.calculateIntersectionsHelper(ray, maxDistance);
             if (geometryIntersections != null) {
                 if (intersections == null)
@@ -66,16 +206,21 @@ public class Geometries extends Intersectable {
         }
         return intersections;
     }
+
     @Override
     public AABB getBoundingBox() {
+        if (grid != null)
+            return bounds;
         if (geometries.isEmpty()) {
             return null; // או AABB ריק שתבחר איך לייצג אותו
         }
 
-        AABB boundingBox = geometries.get(0).getBoundingBox();
-
-        for (int i = 1; i < geometries.size(); i++) {
-            boundingBox = boundingBox.union(geometries.get(i).getBoundingBox());
+        // iterate, the geometries are a linked list; a shape without a bounding box leaves the collection unbounded
+        AABB boundingBox = null;
+        for (Intersectable geometry : geometries) {
+            AABB box = geometry.getBoundingBox();
+            if (box == null) return null;
+            boundingBox = boundingBox == null ? box : boundingBox.union(box);
         }
 
         return boundingBox;
@@ -0,0 +1,129 @@
+package geometries;
+
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+import voxel.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents an instance of a shared geometry (or a collection of geometries) placed in the world by a transform.
+ * Any amount of instances reference the same geometry, so replicating a mesh costs only the instances.<br>
+ * Rays are transformed into the space of the geometry, and the intersections back into the world.
+ * The bounding box of the instance is in the world space, for the acceleration structures.
+ */
+public class Instance extends Intersectable {
+    /**
+     * The shared geometry
+     */
+    private final Intersectable geometry;
+    /**
+     * The transform from the space of the geometry to the world
+     */
+    private Transform transform;
+    /**
+     * The material of the instance, null for the materials of the geometry
+     */
+    private Material material = null;
+
+    /**
+     * Constructor
+     *
+     * @param geometry  the shared geometry
+     * @param transform the transform from the space of the geometry to the world
+     */
+    public Instance(Intersectable geometry, Transform transform) {
+        if (geometry == null || transform == null)
+            throw new IllegalArgumentException("Instance must have a geometry and a transform");
+        this.geometry = geometry;
+        this.transform = transform;
+    }
+
+    /**
+     * Getter for the shared geometry
+     *
+     * @return the shared geometry
+     */
+    public Intersectable getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Getter for the transform
+     *
+     * @return the transform from the space of the geometry to the world
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Moves the instance by another transform, e.g. between the frames of an animation.
+     * The acceleration structures containing the instance must be refitted afterwards
+     *
+     * @param transform the transform from the space of the geometry to the world
+     * @return this instance
+     */
+    public Instance setTransform(Transform transform) {
+        if (transform == null)
+            throw new IllegalArgumentException("Instance must have a transform");
+        this.transform = transform;
+        return this;
+    }
+
+    /**
+     * Sets a material for the instance instead of the materials of the geometry
+     *
+     * @param material the material, null for the materials of the geometry
+     * @return this instance
+     */
+    public Instance setMaterial(Material material) {
+        this.material = material;
+        return this;
+    }
+
+    @Override
+    protected List<Intersection> calculateIntersectionsHelper(Ray ray, double maxDistance) {
+        // the distances in the space of the geometry are scaled by the length of the transformed direction
+        Vector direction = transform.applyInverse(ray.getDirection());
+        double scale = direction.length();
+        Ray localRay = new Ray(transform.applyInverse(ray.getPoint(0)), direction);
+        List<Intersection> intersections = geometry.calculateIntersectionsHelper(localRay, maxDistance * scale);
+        if (intersections == null)
+            return null;
+
+        List<Intersection> result = new ArrayList<>(intersections.size());
+        for (Intersection intersection : intersections)
+            result.add(intersection.transformed(transform, material));
+        return result;
+    }
+
+    @Override
+    public AABB getBoundingBox() {
+        AABB box = geometry.getBoundingBox();
+        if (box == null)
+            return null;
+
+        // the bounding box of the transformed corners
+        Point min = box.getMin(), max = box.getMax();
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int corner = 0; corner < 8; ++corner) {
+            Point p = transform.apply(new Point(
+                    (corner & 1) == 0 ? min.getX() : max.getX(),
+                    (corner & 2) == 0 ? min.getY() : max.getY(),
+                    (corner & 4) == 0 ? min.getZ() : max.getZ()));
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new AABB(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+    }
+}
@@ -4,6 +4,7 @@ import lighting.LightSource;
 import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Transform;
 import primitives.Vector;
 
 import java.util.List;
@@ -113,6 +114,14 @@ public abstract class Intersectable {
          * The dot product of the light direction and the normal vector.
          */
         public double dotProductLightSource;
+        /**
+         * The transform from the space of the geometry to the world, null if the geometry is not instanced
+         */
+        private Transform transform = null;
+        /**
+         * The point of the intersection in the space of the geometry, when the geometry is instanced
+         */
+        private Point localPoint = null;
 
         /**
          * Constructor
@@ -121,11 +130,65 @@ public abstract class Intersectable {
          * @param point    the intersection point
          */
         public Intersection(Geometry geometry, Point point) {
+            this(geometry, point, geometry == null ? null : geometry.getMaterial());
+        }
+
+        /**
+         * Constructor with a material other than the one of the geometry
+         *
+         * @param geometry the intersection geometry
+         * @param point    the intersection point
+         * @param material the material at the intersection
+         */
+        private Intersection(Geometry geometry, Point point, Material material) {
             this.geometry = geometry;
             this.point = point;
-            this.material = geometry == null ? null : geometry.getMaterial();
+            this.material = material;
+        }
+
+        /**
+         * Calculates the normal of the geometry at the intersection point, in the world space
+         * (also when the geometry is instanced)
+         *
+         * @return the normal
+         */
+        public Vector getNormal() {
+            return transform == null
+                    ? geometry.getNormal(point)
+                    : transform.applyNormal(geometry.getNormal(localPoint));
         }
 
+        /**
+         * Creates the intersection seen through an instance of the geometry
+         *
+         * @param transform the transform of the instance
+         * @param material  the material of the instance, null for the material of this intersection
+         * @return the intersection in the space of the instance
+         */
+        Intersection transformed(Transform transform, Material material) {
+            Intersection result = new Intersection(geometry, transform.apply(point),
+                    material == null ? this.material : material);
+            result.localPoint = this.transform == null ? point : localPoint;
+            result.transform = this.transform == null ? transform : this.transform.then(transform);
+            return result;
+        }
+
+
+        /**
+         * Checks whether a ray intersects the geometry of this intersection, placed in the world
+         * as in this intersection (also when the geometry is instanced)
+         *
+         * @param ray         the ray
+         * @param maxDistance the maximal distance of the intersection from the head of the ray
+         * @return true if the ray intersects the geometry within the distance
+         */
+        public boolean intersects(Ray ray, double maxDistance) {
+            if (transform == null)
+                return geometry.calculateIntersectionsHelper(ray, maxDistance) != null;
+            Vector localDirection = transform.applyInverse(ray.getDirection());
+            Ray localRay = new Ray(transform.applyInverse(ray.getPoint(0)), localDirection);
+            return geometry.calculateIntersectionsHelper(localRay, maxDistance * localDirection.length()) != null;
+        }
 
         @Override
         public boolean equals(Object obj) {
@@ -0,0 +1,256 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import voxel.AABB;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a triangle of a single-precision mesh.<br>
+ * The vertices of all the triangles of a mesh are stored once, as floats, in a shared array, and a triangle
+ * keeps only the positions of its vertices in the array - instead of the points, the vertex list and the plane
+ * of a {@link Triangle}. The intersection is calculated in floats, with tolerances relative to the size of the
+ * triangle and to the distance of the ray from it, since float resolution is far above the absolute threshold
+ * of {@link primitives.Util#isZero(double)}.<br>
+ * In the validation mode, every intersection is calculated again by a double-precision {@link Triangle},
+ * and the results which differ are counted.<br>
+ * Only the mesh is in single precision. The voxel grids, their bounds and traversal, and the shading and
+ * the color accumulation stay in double precision: they use the shared {@link primitives.Point} and
+ * {@link primitives.Color} types, their bounds are computed while building and not kept per triangle,
+ * and the image keeps packed RGB pixels - so they hold little of the memory of a large mesh.
+ */
+public class MeshTriangle extends Geometry {
+    /**
+     * Relative tolerance of the determinant - a ray closer to parallel to the triangle misses it
+     */
+    private static final float PARALLEL_EPSILON = 1e-7f;
+    /**
+     * Relative tolerance of the distance - a closer hit is the surface the ray starts on
+     */
+    private static final float DISTANCE_EPSILON = 1e-5f;
+    /**
+     * Relative tolerance of the distance when comparing to the double-precision intersection in the validation mode
+     */
+    private static final double VALIDATION_EPSILON = 1e-4;
+
+    /**
+     * Whether intersections are validated against the double-precision triangle
+     */
+    private static volatile boolean validation = false;
+    /**
+     * Amount of validated intersections
+     */
+    private static final LongAdder validated = new LongAdder();
+    /**
+     * Amount of validated intersections which differ from the double-precision intersection
+     */
+    private static final LongAdder mismatches = new LongAdder();
+
+    /**
+     * The coordinates of the vertices of the mesh, 3 for each vertex
+     */
+    private final float[] vertices;
+    /**
+     * Position of the first coordinate of the first vertex in the array
+     */
+    private final int v0;
+    /**
+     * Position of the first coordinate of the second vertex in the array
+     */
+    private final int v1;
+    /**
+     * Position of the first coordinate of the third vertex in the array
+     */
+    private final int v2;
+
+    /**
+     * Constructs a triangle of a mesh
+     *
+     * @param vertices the coordinates of the vertices of the mesh, 3 for each vertex
+     * @param i0       index of the first vertex
+     * @param i1       index of the second vertex
+     * @param i2       index of the third vertex
+     * @throws IllegalArgumentException if an index is not of a vertex, or the vertices do not form a triangle
+     */
+    public MeshTriangle(float[] vertices, int i0, int i1, int i2) {
+        int count = vertices.length / 3;
+        if (i0 < 0 || i0 >= count || i1 < 0 || i1 >= count || i2 < 0 || i2 >= count)
+            throw new IllegalArgumentException("Invalid vertex index of " + count + " vertices");
+        this.vertices = vertices;
+        v0 = 3 * i0;
+        v1 = 3 * i1;
+        v2 = 3 * i2;
+        float[] n = cross();
+        if (n[0] == 0 && n[1] == 0 && n[2] == 0)
+            throw new IllegalArgumentException("Cannot construct a triangle from 2 or less points");
+    }
+
+    /**
+     * Gets a vertex of the triangle
+     *
+     * @param index the index of the vertex in the triangle (0, 1 or 2)
+     * @return the vertex
+     */
+    public Point getVertex(int index) {
+        int v = switch (index) {
+            case 0 -> v0;
+            case 1 -> v1;
+            case 2 -> v2;
+            default -> throw new IllegalArgumentException("A triangle has 3 vertices");
+        };
+        return new Point(vertices[v], vertices[v + 1], vertices[v + 2]);
+    }
+
+    /**
+     * Gets the index of a vertex of the triangle in the vertices of the mesh
+     *
+     * @param index the index of the vertex in the triangle (0, 1 or 2)
+     * @return the index of the vertex in the mesh
+     */
+    public int getVertexIndex(int index) {
+        return switch (index) {
+            case 0 -> v0 / 3;
+            case 1 -> v1 / 3;
+            case 2 -> v2 / 3;
+            default -> throw new IllegalArgumentException("A triangle has 3 vertices");
+        };
+    }
+
+    /**
+     * Gets the coordinates of the vertices of the mesh, shared by all the triangles of the mesh.
+     * The array is not copied and must not be changed
+     *
+     * @return the coordinates of the vertices of the mesh, 3 for each vertex
+     */
+    public float[] getMeshVertices() {
+        return vertices;
+    }
+
+    /**
+     * Calculates the cross product of the edges from the first vertex
+     *
+     * @return the coordinates of the product
+     */
+    private float[] cross() {
+        float e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        float e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+        return new float[]{e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x};
+    }
+
+    @Override
+    public Vector getNormal(Point surfacePoint) {
+        float[] n = cross();
+        return new Vector(n[0], n[1], n[2]).normalize();
+    }
+
+    @Override
+    protected List<Intersection> calculateIntersectionsHelper(Ray ray, double maxDistance) {
+        List<Intersection> result = intersect(ray, maxDistance);
+        if (validation) validate(ray, maxDistance, result);
+        return result;
+    }
+
+    /**
+     * Calculates the intersection in floats by the Möller–Trumbore algorithm (see {@link Triangle})
+     *
+     * @param ray         the ray to intersect with
+     * @param maxDistance the max distance of the ray
+     * @return list of the intersection, null if there is none
+     */
+    private List<Intersection> intersect(Ray ray, double maxDistance) {
+        Point head = ray.getPoint(0);
+        Vector direction = ray.getDirection();
+        float dx = (float) direction.getX(), dy = (float) direction.getY(), dz = (float) direction.getZ();
+
+        float ax = vertices[v0], ay = vertices[v0 + 1], az = vertices[v0 + 2];
+        float e1x = vertices[v1] - ax, e1y = vertices[v1 + 1] - ay, e1z = vertices[v1 + 2] - az;
+        float e2x = vertices[v2] - ax, e2y = vertices[v2 + 1] - ay, e2z = vertices[v2 + 2] - az;
+
+        // p = D x e2, det = e1 . p
+        float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        float det = e1x * px + e1y * py + e1z * pz;
+        float scale = (Math.abs(e1x) + Math.abs(e1y) + Math.abs(e1z)) * (Math.abs(e2x) + Math.abs(e2y) + Math.abs(e2z));
+        if (Math.abs(det) <= PARALLEL_EPSILON * scale) return null;
+        float inverseDet = 1f / det;
+
+        // The origin relative to the first vertex is subtracted in doubles, so far rays keep their precision
+        float tx = (float) (head.getX() - ax), ty = (float) (head.getY() - ay), tz = (float) (head.getZ() - az);
+        float u = inverseDet * (tx * px + ty * py + tz * pz);
+        if (u < 0f || u > 1f) return null;
+
+        // q = T x e1
+        float qx = ty * e1z - tz * e1y, qy = tz * e1x - tx * e1z, qz = tx * e1y - ty * e1x;
+        float v = inverseDet * (dx * qx + dy * qy + dz * qz);
+        if (v < 0f || u + v > 1f) return null;
+
+        float t = inverseDet * (e2x * qx + e2y * qy + e2z * qz);
+        float reach = Math.abs(tx) + Math.abs(ty) + Math.abs(tz) + 1f;
+        if (t <= DISTANCE_EPSILON * reach || t > maxDistance) return null;
+        return List.of(new Intersection(this, ray.getPoint(t)));
+    }
+
+    /**
+     * Compares an intersection to the intersection of the double-precision triangle, and counts it if they differ
+     *
+     * @param ray         the ray
+     * @param maxDistance the max distance of the ray
+     * @param result      the single-precision intersection
+     */
+    private void validate(Ray ray, double maxDistance, List<Intersection> result) {
+        validated.increment();
+        List<Intersection> expected = new Triangle(getVertex(0), getVertex(1), getVertex(2))
+                .calculateIntersections(ray, maxDistance);
+        if (expected == null && result == null) return;
+        if (expected == null || result == null) {
+            mismatches.increment();
+            return;
+        }
+        Point head = ray.getPoint(0);
+        double distance = head.distance(expected.getFirst().point);
+        if (Math.abs(distance - head.distance(result.getFirst().point)) > VALIDATION_EPSILON * (distance + 1))
+            mismatches.increment();
+    }
+
+    @Override
+    public AABB getBoundingBox() {
+        double minX = Math.min(vertices[v0], Math.min(vertices[v1], vertices[v2]));
+        double minY = Math.min(vertices[v0 + 1], Math.min(vertices[v1 + 1], vertices[v2 + 1]));
+        double minZ = Math.min(vertices[v0 + 2], Math.min(vertices[v1 + 2], vertices[v2 + 2]));
+        double maxX = Math.max(vertices[v0], Math.max(vertices[v1], vertices[v2]));
+        double maxY = Math.max(vertices[v0 + 1], Math.max(vertices[v1 + 1], vertices[v2 + 1]));
+        double maxZ = Math.max(vertices[v0 + 2], Math.max(vertices[v1 + 2], vertices[v2 + 2]));
+        return new AABB(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+    }
+
+    /**
+     * Sets the validation mode of all the single-precision triangles, and resets the counters of the validation
+     *
+     * @param enabled true to validate every intersection against the double-precision triangle
+     */
+    public static void setValidation(boolean enabled) {
+        validated.reset();
+        mismatches.reset();
+        validation = enabled;
+    }
+
+    /**
+     * Gets the amount of intersections validated since the validation mode was set
+     *
+     * @return the amount of validated intersections
+     */
+    public static long getValidated() {
+        return validated.sum();
+    }
+
+    /**
+     * Gets the amount of validated intersections which differ from the double-precision intersection
+     *
+     * @return the amount of mismatches
+     */
+    public static long getMismatches() {
+        return mismatches.sum();
+    }
+}
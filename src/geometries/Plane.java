@@ -49,6 +49,15 @@ public class Plane extends Geometry {
         this.normal = normalVector.normalize();
     }
 
+    /**
+     * Getter for the main point
+     *
+     * @return a point on the plane
+     */
+    public Point getPoint() {
+        return q;
+    }
+
 
     @Override
     public Vector getNormal(Point surfacePoint) {
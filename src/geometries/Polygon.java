@@ -89,6 +89,15 @@ public class Polygon extends Geometry {
         }
     }
 
+    /**
+     * Getter for the vertices
+     *
+     * @return the vertices of the polygon, ordered by edge path
+     */
+    public List<Point> getVertices() {
+        return vertices;
+    }
+
     @Override
     public Vector getNormal(Point point) {
         return plane.getNormal(point);
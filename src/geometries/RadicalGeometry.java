@@ -20,4 +20,13 @@ public abstract class RadicalGeometry extends Geometry {
             throw new IllegalArgumentException("radius must be greater than zero");
         this.radius = radius;
     }
+
+    /**
+     * Getter for the radius
+     *
+     * @return the radius of the object
+     */
+    public double getRadius() {
+        return radius;
+    }
 }
@@ -32,6 +32,15 @@ public class Sphere extends RadicalGeometry {
         this.center = center;
     }
 
+    /**
+     * Getter for the center
+     *
+     * @return the center of the sphere
+     */
+    public Point getCenter() {
+        return center;
+    }
+
 
     @Override
     public Vector getNormal(Point surfacePoint) {
@@ -28,6 +28,15 @@ public class Tube extends RadicalGeometry {
         this.ray = ray;
     }
 
+    /**
+     * Getter for the axis ray
+     *
+     * @return the axis ray of the tube
+     */
+    public Ray getAxis() {
+        return ray;
+    }
+
     @Override
     public Vector getNormal(Point surfacePoint) {
         Vector rDirection = ray.getDirection();
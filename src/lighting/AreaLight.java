@@ -0,0 +1,81 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+
+/**
+ * Represents a light source with an area, which casts soft shadows.<br>
+ * The shading of a point uses the center of the light like a point light, and the shadow is the
+ * average transparency towards points of the area. The area is sampled as a unit square:
+ * the rays to the corners (and the center) are traced first, and only a part of the square whose corners
+ * disagree - a partially lit point - is subdivided, up to the maximal depth of the light.
+ * A fully lit or fully occluded point costs 5 shadow rays,
+ * and a partially lit point up to (2<sup>depth</sup>+1)<sup>2</sup> rays - every point of the lattice
+ * of the deepest cells is traced once, even when it is shared by neighbouring cells.
+ */
+public abstract class AreaLight extends PointLight {
+    /**
+     * The maximal amount of subdivisions of the area of the light
+     */
+    private int maxDepth = 3;
+
+    /**
+     * Constructor
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the light
+     */
+    protected AreaLight(Color intensity, Point center) {
+        super(intensity, center);
+    }
+
+    /**
+     * Gets a point of the area of the light by its coordinates in the unit square.
+     * The corners of the square are on the boundary of the area
+     *
+     * @param u the first coordinate, between 0 and 1
+     * @param v the second coordinate, between 0 and 1
+     * @return the point of the light
+     */
+    public abstract Point getSample(double u, double v);
+
+    /**
+     * Getter for the maximal amount of subdivisions of the area
+     *
+     * @return the maximal depth of the subdivision
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximal amount of subdivisions of the area for partially lit points
+     *
+     * @param maxDepth the maximal depth of the subdivision, 0 for only the corners and the center
+     * @return this light
+     */
+    public AreaLight setMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("maxDepth must be non-negative");
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    @Override
+    public AreaLight setKc(double kC) {
+        super.setKc(kC);
+        return this;
+    }
+
+    @Override
+    public AreaLight setKl(double kL) {
+        super.setKl(kL);
+        return this;
+    }
+
+    @Override
+    public AreaLight setKq(double kQ) {
+        super.setKq(kQ);
+        return this;
+    }
+}
@@ -24,6 +24,15 @@ public class DirectionalLight extends Light implements LightSource {
         this.direction = direction.normalize();
     }
 
+    /**
+     * Getter for the direction
+     *
+     * @return the direction of the light
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     @Override
     public double getDistance(Point point) {
         return Double.POSITIVE_INFINITY;
@@ -0,0 +1,78 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static primitives.Util.concentricDisk;
+import static primitives.Util.isZero;
+
+/**
+ * Represents a round area light given by its center, the normal of its plane and its radius.<br>
+ * The unit square is mapped to the disk by the concentric mapping (see {@link primitives.Util#concentricDisk})
+ */
+public class DiskLight extends AreaLight {
+    /**
+     * The normal of the plane of the disk
+     */
+    private final Vector normal;
+    /**
+     * The radius of the disk
+     */
+    private final double radius;
+    /**
+     * First axis in the plane of the disk
+     */
+    private final Vector axisU;
+    /**
+     * Second axis in the plane of the disk
+     */
+    private final Vector axisV;
+
+    /**
+     * Constructor
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the disk
+     * @param normal    the normal of the plane of the disk
+     * @param radius    the radius of the disk
+     */
+    public DiskLight(Color intensity, Point center, Vector normal, double radius) {
+        super(intensity, center);
+        if (radius <= 0)
+            throw new IllegalArgumentException("The radius of a disk light must be positive");
+        this.normal = normal.normalize();
+        this.radius = radius;
+        Vector helper = Math.abs(this.normal.dotProduct(Vector.AXIS_Y)) > 0.9 ? Vector.AXIS_X : Vector.AXIS_Y;
+        axisU = this.normal.crossProduct(helper).normalize();
+        axisV = this.normal.crossProduct(axisU);
+    }
+
+    /**
+     * Getter for the normal
+     *
+     * @return the normal of the plane of the disk
+     */
+    public Vector getNormal() {
+        return normal;
+    }
+
+    /**
+     * Getter for the radius
+     *
+     * @return the radius of the disk
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public Point getSample(double u, double v) {
+        double[] disk = concentricDisk(u, v);
+        double x = radius * disk[0], y = radius * disk[1];
+        Point sample = position;
+        if (!isZero(x)) sample = sample.add(axisU.scale(x));
+        if (!isZero(y)) sample = sample.add(axisV.scale(y));
+        return sample;
+    }
+}
@@ -38,6 +38,42 @@ public class PointLight extends Light implements LightSource {
         this.position = position;
     }
 
+    /**
+     * Getter for the position
+     *
+     * @return the position of the light
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter for the Constant attenuation coefficient
+     *
+     * @return the Constant attenuation coefficient
+     */
+    public double getKc() {
+        return kC;
+    }
+
+    /**
+     * Getter for the Linear attenuation coefficient
+     *
+     * @return the Linear attenuation coefficient
+     */
+    public double getKl() {
+        return kL;
+    }
+
+    /**
+     * Getter for the Quadratic attenuation coefficient
+     *
+     * @return the Quadratic attenuation coefficient
+     */
+    public double getKq() {
+        return kQ;
+    }
+
     @Override
     public double getDistance(Point point) {
         return position.distance(point);
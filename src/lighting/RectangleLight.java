@@ -0,0 +1,63 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * Represents a rectangular area light (or any parallelogram) given by its center and the vectors of its edges
+ */
+public class RectangleLight extends AreaLight {
+    /**
+     * The vector of the first edge of the rectangle
+     */
+    private final Vector width;
+    /**
+     * The vector of the second edge of the rectangle
+     */
+    private final Vector height;
+
+    /**
+     * Constructor
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the rectangle
+     * @param width     the vector of the first edge of the rectangle
+     * @param height    the vector of the second edge of the rectangle
+     */
+    public RectangleLight(Color intensity, Point center, Vector width, Vector height) {
+        super(intensity, center);
+        if (isZero(width.crossProduct(height).length()))
+            throw new IllegalArgumentException("The edges of a rectangle light must not be parallel");
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Getter for the first edge
+     *
+     * @return the vector of the first edge of the rectangle
+     */
+    public Vector getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter for the second edge
+     *
+     * @return the vector of the second edge of the rectangle
+     */
+    public Vector getHeight() {
+        return height;
+    }
+
+    @Override
+    public Point getSample(double u, double v) {
+        Point sample = position;
+        if (!isZero(u - 0.5)) sample = sample.add(width.scale(u - 0.5));
+        if (!isZero(v - 0.5)) sample = sample.add(height.scale(v - 0.5));
+        return sample;
+    }
+}
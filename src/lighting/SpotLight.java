@@ -41,6 +41,24 @@ public class SpotLight extends PointLight {
         return this;
     }
 
+    /**
+     * Getter for the direction
+     *
+     * @return the direction of the light
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
+    /**
+     * Getter for the narrowness of the beam
+     *
+     * @return the narrowness of the beam
+     */
+    public double getNarrowBeam() {
+        return narrowBeam;
+    }
+
 
     @Override
     public Color getIntensity(Point p) {
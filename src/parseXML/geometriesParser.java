@@ -4,9 +4,14 @@ import geometries.*;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import primitives.Color;
+import primitives.Material;
 import primitives.Point;
 import primitives.Vector;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,42 +34,87 @@ public class geometriesParser {
             Element geometriesElement = (Element) geometriesList.item(0);
             NodeList geometryNodes = geometriesElement.getChildNodes();
 
+            List<Intersectable> parsed = new ArrayList<>();
             for (int i = 0; i < geometryNodes.getLength(); i++) {
-                if (geometryNodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
-                    Element geometryElement = (Element) geometryNodes.item(i);
-                    String geometryType = geometryElement.getTagName();
-
-                    switch (geometryType) {
-                        case "sphere":
-                            geometries.add(parseSphere(geometryElement));
-                            break;
-                        case "triangle":
-                            geometries.add(parseTriangle(geometryElement));
-                            break;
-                        case "plane":
-                            geometries.add(parsePlane(geometryElement));
-                            break;
-                        case "polygon":
-                            geometries.add(parsePolygon(geometryElement));
-                            break;
-                        case "cylinder":
-                        case "tube":
-                            throw new IllegalArgumentException("Not supported");
-                    }
-                }
+                if (geometryNodes.item(i).getNodeType() == Node.ELEMENT_NODE)
+                    addGeometry(new xmlElement((Element) geometryNodes.item(i)), parsed);
             }
+            geometries.add(parsed.toArray(new Intersectable[0]));
             return geometries;
         }
         return null;
     }
 
+    /**
+     * Parses a geometry element and adds its geometries - a single geometry, or the triangles of a mesh
+     *
+     * @param geometryElement the xml element to parse
+     * @param geometries      the list to add the geometries to
+     */
+    static void addGeometry(xmlElement geometryElement, List<Intersectable> geometries) {
+        if (geometryElement.getTagName().equals("mesh")) {
+            geometries.addAll(parseMesh(geometryElement));
+            return;
+        }
+        Intersectable geometry = parseGeometry(geometryElement);
+        if (geometry != null)
+            geometries.add(geometry);
+    }
+
+    /**
+     * Parses a single geometry element
+     *
+     * @param geometryElement the xml element to parse
+     * @return the geometry, or null if the element is not a geometry
+     */
+    static Intersectable parseGeometry(xmlElement geometryElement) {
+        return switch (geometryElement.getTagName()) {
+            case "sphere" -> parseSphere(geometryElement);
+            case "triangle" -> parseTriangle(geometryElement);
+            case "plane" -> parsePlane(geometryElement);
+            case "polygon" -> parsePolygon(geometryElement);
+            case "cylinder", "tube" -> throw new IllegalArgumentException("Not supported");
+            default -> null;
+        };
+    }
+
+    /**
+     * Parses a mesh element to the triangles of its OBJ or PLY file, which is relative to the xml directory.
+     * All the triangles share the material and the emission of the element.
+     * The triangles are single-precision {@link MeshTriangle}s if the precision attribute is "single"
+     *
+     * @param geometryElement the xml element to parse
+     * @return the triangles
+     */
+    private static List<? extends Geometry> parseMesh(xmlElement geometryElement) {
+        String fileStr = geometryElement.getAttribute("file");
+        if (fileStr.isEmpty())
+            throw new IllegalArgumentException("Cannot find file for mesh: " + geometryElement);
+        String precisionStr = geometryElement.getAttribute("precision");
+        if (!precisionStr.isEmpty() && !precisionStr.equals("single") && !precisionStr.equals("double"))
+            throw new IllegalArgumentException("Unknown mesh precision: " + geometryElement);
+        List<? extends Geometry> triangles;
+        try {
+            Path file = Paths.get(System.getProperty("user.dir") + "/xml/" + fileStr);
+            triangles = precisionStr.equals("single") ? meshParser.parseSinglePrecision(file) : meshParser.parse(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read mesh: " + geometryElement, e);
+        }
+        Material material = parseMaterial(geometryElement);
+        String emissionStr = geometryElement.getAttribute("emission");
+        Color emission = emissionStr.isEmpty() ? Color.BLACK : parseColor(emissionStr);
+        for (Geometry triangle : triangles)
+            triangle.setMaterial(material).setEmission(emission);
+        return triangles;
+    }
+
     /**
      * Parses an element to a Plane
      *
      * @param geometryElement the xml element to parse
      * @return the plane
      */
-    private static Plane parsePlane(Element geometryElement) {
+    private static Plane parsePlane(xmlElement geometryElement) {
         String q0Str = geometryElement.getAttribute("p0");
         String normalStr = geometryElement.getAttribute("normal");
         Plane plane;
@@ -100,7 +150,7 @@ public class geometriesParser {
      * @param geometryElement the xml element to parse
      * @return the sphere
      */
-    private static Sphere parseSphere(Element geometryElement) {
+    private static Sphere parseSphere(xmlElement geometryElement) {
         String centerStr = geometryElement.getAttribute("center");
         String radiusStr = geometryElement.getAttribute("radius");
         if (!centerStr.isEmpty() && !radiusStr.isEmpty()) {
@@ -123,7 +173,7 @@ public class geometriesParser {
      * @param geometryElement the xml element to parse
      * @return the polygon
      */
-    private static Polygon parsePolygon(Element geometryElement) {
+    private static Polygon parsePolygon(xmlElement geometryElement) {
         List<Point> polygonVerticesList = new ArrayList<>();
         String pStr;
         Point p;
@@ -148,7 +198,7 @@ public class geometriesParser {
      * @param geometryElement the xml element to parse
      * @return the Triangle
      */
-    private static Triangle parseTriangle(Element geometryElement) {
+    private static Triangle parseTriangle(xmlElement geometryElement) {
         String p0Str = geometryElement.getAttribute("p0");
         String p1Str = geometryElement.getAttribute("p1");
         String p2Str = geometryElement.getAttribute("p2");
@@ -1,8 +1,11 @@
 package parseXML;
 
+import lighting.AreaLight;
 import lighting.DirectionalLight;
+import lighting.DiskLight;
 import lighting.LightSource;
 import lighting.PointLight;
+import lighting.RectangleLight;
 import lighting.SpotLight;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -31,20 +34,9 @@ public class lightsParser {
 
             for (int i = 0; i < lightNodes.getLength(); i++) {
                 if (lightNodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
-                    Element lightElement = (Element) lightNodes.item(i);
-                    String geometryType = lightElement.getTagName();
-
-                    switch (geometryType) {
-                        case "directional-light":
-                            lights.add(parseDirectionalLight(lightElement));
-                            break;
-                        case "point-light":
-                            lights.add(parsePointLight(lightElement));
-                            break;
-                        case "spot-light":
-                            lights.add(parseSpotLight(lightElement));
-                            break;
-                    }
+                    LightSource light = parseLight(new xmlElement((Element) lightNodes.item(i)));
+                    if (light != null)
+                        lights.add(light);
                 }
             }
             return lights;
@@ -52,13 +44,30 @@ public class lightsParser {
         return null;
     }
 
+    /**
+     * Parses a single light element
+     *
+     * @param lightElement the xml element to parse
+     * @return the light, or null if the element is not a light
+     */
+    static LightSource parseLight(xmlElement lightElement) {
+        return switch (lightElement.getTagName()) {
+            case "directional-light" -> parseDirectionalLight(lightElement);
+            case "point-light" -> parsePointLight(lightElement);
+            case "spot-light" -> parseSpotLight(lightElement);
+            case "rectangle-light" -> parseRectangleLight(lightElement);
+            case "disk-light" -> parseDiskLight(lightElement);
+            default -> null;
+        };
+    }
+
     /**
      * Parses an element to a DirectionalLight
      *
      * @param lightElement the xml element to parse
      * @return the DirectionalLight
      */
-    private static DirectionalLight parseDirectionalLight(Element lightElement) {
+    private static DirectionalLight parseDirectionalLight(xmlElement lightElement) {
         String intensityStr = lightElement.getAttribute("intensity");
         String directionStr = lightElement.getAttribute("direction");
         if (!intensityStr.isEmpty() && !directionStr.isEmpty()) {
@@ -74,7 +83,7 @@ public class lightsParser {
      * @param pointLight   the light point to apply it to
      * @param lightElement the xml element to parse
      */
-    private static void parseBasicPointLight(Element lightElement, PointLight pointLight) {
+    private static void parseBasicPointLight(xmlElement lightElement, PointLight pointLight) {
         String kCStr = lightElement.getAttribute("kC");
         String kQStr = lightElement.getAttribute("kQ");
         String kLStr = lightElement.getAttribute("kL");
@@ -92,7 +101,7 @@ public class lightsParser {
      * @param lightElement the xml element to parse
      * @return the PointLight
      */
-    private static PointLight parsePointLight(Element lightElement) {
+    private static PointLight parsePointLight(xmlElement lightElement) {
         String intensityStr = lightElement.getAttribute("intensity");
         String positionStr = lightElement.getAttribute("position");
         if (!intensityStr.isEmpty() && !positionStr.isEmpty()) {
@@ -110,7 +119,7 @@ public class lightsParser {
      * @param lightElement the xml element to parse
      * @return the SpotLight
      */
-    private static SpotLight parseSpotLight(Element lightElement) {
+    private static SpotLight parseSpotLight(xmlElement lightElement) {
         String intensityStr = lightElement.getAttribute("intensity");
         String positionStr = lightElement.getAttribute("position");
         String directionStr = lightElement.getAttribute("direction");
@@ -126,4 +135,59 @@ public class lightsParser {
             throw new IllegalArgumentException("Cannot find all fields for PointLight: " + lightElement);
         }
     }
+
+    /**
+     * Parses an element to basic AreaLight fields
+     *
+     * @param lightElement the xml element to parse
+     * @param areaLight    the area light to apply it to
+     */
+    private static void parseBasicAreaLight(xmlElement lightElement, AreaLight areaLight) {
+        parseBasicPointLight(lightElement, areaLight);
+        String maxDepthStr = lightElement.getAttribute("max-depth");
+        if (!maxDepthStr.isEmpty())
+            areaLight.setMaxDepth(Integer.parseInt(maxDepthStr));
+    }
+
+    /**
+     * Parses an element to a RectangleLight
+     *
+     * @param lightElement the xml element to parse
+     * @return the RectangleLight
+     */
+    private static RectangleLight parseRectangleLight(xmlElement lightElement) {
+        String intensityStr = lightElement.getAttribute("intensity");
+        String positionStr = lightElement.getAttribute("position");
+        String widthStr = lightElement.getAttribute("width");
+        String heightStr = lightElement.getAttribute("height");
+        if (!intensityStr.isEmpty() && !positionStr.isEmpty() && !widthStr.isEmpty() && !heightStr.isEmpty()) {
+            RectangleLight rectangleLight = new RectangleLight(parseColor(intensityStr), parsePoint(positionStr),
+                    parseVector(widthStr), parseVector(heightStr));
+            parseBasicAreaLight(lightElement, rectangleLight);
+            return rectangleLight;
+        } else {
+            throw new IllegalArgumentException("Cannot find all fields for RectangleLight: " + lightElement);
+        }
+    }
+
+    /**
+     * Parses an element to a DiskLight
+     *
+     * @param lightElement the xml element to parse
+     * @return the DiskLight
+     */
+    private static DiskLight parseDiskLight(xmlElement lightElement) {
+        String intensityStr = lightElement.getAttribute("intensity");
+        String positionStr = lightElement.getAttribute("position");
+        String normalStr = lightElement.getAttribute("normal");
+        String radiusStr = lightElement.getAttribute("radius");
+        if (!intensityStr.isEmpty() && !positionStr.isEmpty() && !normalStr.isEmpty() && !radiusStr.isEmpty()) {
+            DiskLight diskLight = new DiskLight(parseColor(intensityStr), parsePoint(positionStr),
+                    parseVector(normalStr), Double.parseDouble(radiusStr));
+            parseBasicAreaLight(lightElement, diskLight);
+            return diskLight;
+        } else {
+            throw new IllegalArgumentException("Cannot find all fields for DiskLight: " + lightElement);
+        }
+    }
 }
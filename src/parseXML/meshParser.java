@@ -0,0 +1,221 @@
+package parseXML;
+
+import geometries.MeshTriangle;
+import geometries.Triangle;
+import primitives.Point;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Class to import triangle meshes from Wavefront OBJ files and PLY files (binary little or big endian).<br>
+ * The file is memory-mapped and parsed without creating a String per line (OBJ is parsed in parallel chunks),
+ * then the triangles are created in parallel. Faces with more than 3 vertices are split into a fan of
+ * triangles, and degenerate triangles (of equal or collinear vertices) are skipped.<br>
+ * A mesh may be imported in single precision - its vertices are stored once as floats and shared by
+ * its {@link MeshTriangle}s, which take a fraction of the memory of double-precision triangles.
+ */
+public class meshParser {
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private meshParser() {
+    }
+
+    /**
+     * The content of a mesh file
+     *
+     * @param vertices the coordinates of the vertices, 3 for each vertex
+     * @param indices  the indices of the vertices of the triangles, 3 for each triangle
+     */
+    record Mesh(double[] vertices, Indices indices) {
+    }
+
+    /**
+     * Imports the triangles of a mesh file by the extension of its name (.obj or .ply)
+     *
+     * @param file the mesh file
+     * @return the triangles of the mesh, in the order of the faces in the file
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a supported mesh
+     */
+    public static List<Triangle> parse(Path file) throws IOException {
+        return triangles(read(file));
+    }
+
+    /**
+     * Imports the triangles of a mesh file in single precision
+     *
+     * @param file the mesh file
+     * @return the single-precision triangles of the mesh, in the order of the faces in the file
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a supported mesh
+     * @see #parse(Path)
+     */
+    public static List<MeshTriangle> parseSinglePrecision(Path file) throws IOException {
+        return singlePrecisionTriangles(read(file));
+    }
+
+    /**
+     * Reads the vertices and the faces of a mesh file by the extension of its name
+     *
+     * @param file the mesh file
+     * @return the content of the mesh
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a supported mesh
+     */
+    private static Mesh read(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        boolean obj = name.endsWith(".obj");
+        if (!obj && !name.endsWith(".ply"))
+            throw new IllegalArgumentException("Not supported mesh file: " + file);
+
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Mesh file is too large: " + file);
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return obj ? objParser.parse(in) : plyParser.parse(in);
+    }
+
+    /**
+     * Checks that the indices of a mesh are of its vertices
+     *
+     * @param mesh the mesh
+     * @return the amount of vertices of the mesh
+     * @throws IllegalArgumentException if an index is not of a vertex
+     */
+    private static int checkIndices(Mesh mesh) {
+        int vertexCount = mesh.vertices.length / 3;
+        int[] values = mesh.indices.values;
+        for (int i = 0; i < mesh.indices.size; ++i)
+            if (values[i] < 0 || values[i] >= vertexCount)
+                throw new IllegalArgumentException("Invalid vertex index " + values[i] + " of " + vertexCount + " vertices");
+        return vertexCount;
+    }
+
+    /**
+     * Creates the triangles of a mesh in parallel
+     *
+     * @param mesh the content of the mesh
+     * @return the triangles, without the degenerate ones
+     * @throws IllegalArgumentException if an index is not of a vertex
+     */
+    static List<Triangle> triangles(Mesh mesh) {
+        int vertexCount = checkIndices(mesh);
+        double[] vertices = mesh.vertices;
+        int[] values = mesh.indices.values;
+        Point[] points = new Point[vertexCount];
+        IntStream.range(0, vertexCount).parallel()
+                .forEach(i -> points[i] = new Point(vertices[3 * i], vertices[3 * i + 1], vertices[3 * i + 2]));
+        return IntStream.range(0, mesh.indices.size / 3).parallel()
+                .mapToObj(i -> triangle(points[values[3 * i]], points[values[3 * i + 1]], points[values[3 * i + 2]]))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Creates the single-precision triangles of a mesh in parallel, over one float array of the vertices
+     *
+     * @param mesh the content of the mesh
+     * @return the triangles, without the degenerate ones
+     * @throws IllegalArgumentException if an index is not of a vertex
+     */
+    static List<MeshTriangle> singlePrecisionTriangles(Mesh mesh) {
+        checkIndices(mesh);
+        float[] vertices = new float[mesh.vertices.length];
+        for (int i = 0; i < vertices.length; ++i) vertices[i] = (float) mesh.vertices[i];
+        int[] values = mesh.indices.values;
+        return IntStream.range(0, mesh.indices.size / 3).parallel()
+                .mapToObj(i -> triangle(vertices, values[3 * i], values[3 * i + 1], values[3 * i + 2]))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Creates a single-precision triangle
+     *
+     * @param vertices the coordinates of the vertices of the mesh
+     * @param i0       index of the first vertex
+     * @param i1       index of the second vertex
+     * @param i2       index of the third vertex
+     * @return the triangle, or null if the vertices do not form a triangle
+     */
+    private static MeshTriangle triangle(float[] vertices, int i0, int i1, int i2) {
+        try {
+            return new MeshTriangle(vertices, i0, i1, i2);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a triangle
+     *
+     * @param p0 first vertex
+     * @param p1 second vertex
+     * @param p2 third vertex
+     * @return the triangle, or null if the vertices do not form a triangle
+     */
+    private static Triangle triangle(Point p0, Point p1, Point p2) {
+        try {
+            return new Triangle(p0, p1, p2);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Growing list of vertex indices, splitting faces into triangles
+     */
+    static class Indices {
+        /**
+         * The indices
+         */
+        private int[] values = new int[3 * 1024];
+        /**
+         * Amount of indices
+         */
+        private int size = 0;
+
+        /**
+         * Default constructor
+         */
+        Indices() {
+        }
+
+        /**
+         * Adds a triangle of a face
+         *
+         * @param first  index of the first vertex of the face
+         * @param second index of the previous vertex of the face
+         * @param third  index of the current vertex of the face
+         */
+        void addTriangle(int first, int second, int third) {
+            if (size + 3 > values.length) values = Arrays.copyOf(values, 2 * values.length);
+            values[size++] = first;
+            values[size++] = second;
+            values[size++] = third;
+        }
+
+        /**
+         * Adds the indices of another list
+         *
+         * @param other the other list
+         */
+        void addAll(Indices other) {
+            if (size + other.size > values.length)
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size + other.size));
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package parseXML;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+/**
+ * Parser of Wavefront OBJ meshes. Only the vertices ("v") and the faces ("f") are read,
+ * the rest of the lines (normals, texture coordinates, groups, materials) are ignored.<br>
+ * The file is split into chunks of whole lines which are parsed in parallel: first the vertices of every chunk
+ * are counted, so that every chunk knows the index of its first vertex, then the chunks are parsed.
+ */
+final class objParser {
+    /**
+     * Minimal size in bytes of a chunk of the file
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    /**
+     * Powers of 10 which are exact doubles, for converting decimal numbers
+     */
+    private static final double[] POWERS_OF_10 = new double[23];
+
+    static {
+        POWERS_OF_10[0] = 1;
+        for (int i = 1; i < POWERS_OF_10.length; ++i) POWERS_OF_10[i] = POWERS_OF_10[i - 1] * 10;
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private objParser() {
+    }
+
+    /**
+     * Parses the mesh of an OBJ file
+     *
+     * @param in the content of the file
+     * @return the vertices and the faces of the mesh
+     */
+    static meshParser.Mesh parse(ByteBuffer in) {
+        int size = in.limit();
+        int chunks = Math.max(1, Math.min(4 * Runtime.getRuntime().availableProcessors(), size / MIN_CHUNK_SIZE));
+        int[] starts = new int[chunks + 1];
+        starts[chunks] = size;
+        for (int c = 1; c < chunks; ++c) {
+            int position = Math.max(starts[c - 1], (int) ((long) size * c / chunks));
+            while (position < size && in.get(position) != '\n') ++position;
+            starts[c] = Math.min(size, position + 1);
+        }
+
+        int[] vertexCounts = IntStream.range(0, chunks).parallel()
+                .map(c -> countVertices(in, starts[c], starts[c + 1])).toArray();
+        int[] firstVertices = new int[chunks];
+        for (int c = 1; c < chunks; ++c) firstVertices[c] = firstVertices[c - 1] + vertexCounts[c - 1];
+        double[] vertices = new double[3 * (firstVertices[chunks - 1] + vertexCounts[chunks - 1])];
+
+        meshParser.Indices[] faces = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> parseChunk(in, starts[c], starts[c + 1], firstVertices[c], vertices))
+                .toArray(meshParser.Indices[]::new);
+        meshParser.Indices indices = faces[0];
+        for (int c = 1; c < chunks; ++c) indices.addAll(faces[c]);
+        return new meshParser.Mesh(vertices, indices);
+    }
+
+    /**
+     * Counts the vertex lines of a chunk
+     *
+     * @param in    the content of the file
+     * @param start the start of the chunk
+     * @param end   the end of the chunk
+     * @return amount of vertices in the chunk
+     */
+    private static int countVertices(ByteBuffer in, int start, int end) {
+        Reader reader = new Reader(in, start, end);
+        int count = 0;
+        for (; reader.hasLine(); reader.nextLine())
+            if (reader.command() == 'v') ++count;
+        return count;
+    }
+
+    /**
+     * Parses the vertices and the faces of a chunk
+     *
+     * @param in          the content of the file
+     * @param start       the start of the chunk
+     * @param end         the end of the chunk
+     * @param firstVertex index of the first vertex of the chunk
+     * @param vertices    the coordinates of all the vertices, to fill with the vertices of the chunk
+     * @return the triangles of the faces of the chunk
+     */
+    private static meshParser.Indices parseChunk(ByteBuffer in, int start, int end, int firstVertex, double[] vertices) {
+        Reader reader = new Reader(in, start, end);
+        meshParser.Indices indices = new meshParser.Indices();
+        int vertex = firstVertex;
+        for (; reader.hasLine(); reader.nextLine()) {
+            switch (reader.command()) {
+                case 'v' -> {
+                    vertices[3 * vertex] = reader.parseDouble();
+                    vertices[3 * vertex + 1] = reader.parseDouble();
+                    vertices[3 * vertex + 2] = reader.parseDouble();
+                    ++vertex;
+                }
+                case 'f' -> {
+                    int first = reader.parseIndex(vertex);
+                    int previous = reader.parseIndex(vertex);
+                    while (reader.hasToken()) {
+                        int current = reader.parseIndex(vertex);
+                        indices.addTriangle(first, previous, current);
+                        previous = current;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Reader of the lines of a chunk, which parses numbers straight from the bytes
+     */
+    private static class Reader {
+        /**
+         * The content of the file
+         */
+        private final ByteBuffer in;
+        /**
+         * The end of the chunk
+         */
+        private final int end;
+        /**
+         * The current position
+         */
+        private int position;
+
+        /**
+         * Constructor
+         *
+         * @param in    the content of the file
+         * @param start the start of the chunk
+         * @param end   the end of the chunk
+         */
+        Reader(ByteBuffer in, int start, int end) {
+            this.in = in;
+            this.position = start;
+            this.end = end;
+        }
+
+        /**
+         * Checks whether there is another line in the chunk
+         *
+         * @return true if there is another line
+         */
+        boolean hasLine() {
+            return position < end;
+        }
+
+        /**
+         * Moves to the start of the next line
+         */
+        void nextLine() {
+            while (position < end && in.get(position) != '\n') ++position;
+            ++position;
+        }
+
+        /**
+         * Checks whether a byte separates tokens in a line
+         *
+         * @param b the byte
+         * @return true if the byte is a space or a tab
+         */
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        /**
+         * Skips spaces in the line
+         */
+        private void skipSpaces() {
+            while (position < end && isSpace(in.get(position))) ++position;
+        }
+
+        /**
+         * Reads the command of the line, for the commands which are parsed
+         *
+         * @return 'v' for a vertex, 'f' for a face, and 0 for any other line
+         */
+        char command() {
+            skipSpaces();
+            if (position + 1 >= end || !isSpace(in.get(position + 1))) return 0;
+            byte command = in.get(position);
+            if (command != 'v' && command != 'f') return 0;
+            position += 2;
+            return (char) command;
+        }
+
+        /**
+         * Checks whether there is another token in the line
+         *
+         * @return true if there is another token
+         */
+        boolean hasToken() {
+            skipSpaces();
+            if (position >= end) return false;
+            byte b = in.get(position);
+            return b != '\n' && b != '\r' && b != '#';
+        }
+
+        /**
+         * Checks whether the current byte is a digit
+         *
+         * @return true if the current byte is a digit
+         */
+        private boolean isDigit() {
+            return position < end && in.get(position) >= '0' && in.get(position) <= '9';
+        }
+
+        /**
+         * Parses a decimal number, with an optional sign, fraction and exponent
+         *
+         * @return the number
+         */
+        double parseDouble() {
+            if (!hasToken()) throw error("Missing number");
+            int start = position;
+            boolean negative = in.get(position) == '-';
+            if (negative || in.get(position) == '+') ++position;
+
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean found = false;
+            for (; isDigit(); ++position, found = true) {
+                if (digits < 18) {
+                    mantissa = 10 * mantissa + in.get(position) - '0';
+                    if (mantissa != 0) ++digits;
+                } else ++exponent;
+            }
+            if (position < end && in.get(position) == '.')
+                for (++position; isDigit(); ++position, found = true) {
+                    if (digits < 18) {
+                        mantissa = 10 * mantissa + in.get(position) - '0';
+                        if (mantissa != 0) ++digits;
+                        --exponent;
+                    }
+                }
+            if (!found) throw error("Invalid number");
+            if (position < end && (in.get(position) == 'e' || in.get(position) == 'E')) {
+                ++position;
+                boolean negativeExponent = position < end && in.get(position) == '-';
+                if (negativeExponent || (position < end && in.get(position) == '+')) ++position;
+                int value = 0;
+                for (; isDigit(); ++position)
+                    value = Math.min(10 * value + in.get(position) - '0', 10000);
+                exponent += negativeExponent ? -value : value;
+            }
+
+            double value;
+            // the conversion is exact when both the mantissa and the power of 10 are exact doubles
+            if (mantissa < 1L << 53 && Math.abs(exponent) < POWERS_OF_10.length)
+                value = exponent < 0 ? mantissa / POWERS_OF_10[-exponent] : mantissa * POWERS_OF_10[exponent];
+            else {
+                byte[] bytes = new byte[position - start];
+                in.get(start, bytes);
+                return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses the vertex of a face vertex ("v", "v/vt", "v//vn" or "v/vt/vn"), ignoring its texture and normal
+         *
+         * @param vertexCount amount of vertices before the face, for negative (relative) indices
+         * @return the zero based index of the vertex
+         */
+        int parseIndex(int vertexCount) {
+            if (!hasToken()) throw error("Missing vertex of face");
+            boolean negative = in.get(position) == '-';
+            if (negative) ++position;
+            if (!isDigit()) throw error("Invalid vertex of face");
+            int index = 0;
+            for (; isDigit(); ++position) index = 10 * index + in.get(position) - '0';
+            while (position < end && !isSpace(in.get(position)) && in.get(position) != '\n' && in.get(position) != '\r')
+                ++position;
+            return negative ? vertexCount - index : index - 1;
+        }
+
+        /**
+         * Creates an exception of the current line
+         *
+         * @param message the message of the exception
+         * @return the exception
+         */
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at byte " + position + " of the OBJ file");
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package parseXML;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Parser of binary PLY meshes (little or big endian). The vertices are read from the "x", "y" and "z"
+ * properties of the "vertex" element, in parallel, and the faces from the "vertex_indices" (or "vertex_index")
+ * list of the "face" element. Other elements and properties are skipped.
+ */
+final class plyParser {
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private plyParser() {
+    }
+
+    /**
+     * Types of the values of the properties
+     */
+    private enum Type {
+        /**
+         * signed byte
+         */
+        INT8(1),
+        /**
+         * unsigned byte
+         */
+        UINT8(1),
+        /**
+         * signed short
+         */
+        INT16(2),
+        /**
+         * unsigned short
+         */
+        UINT16(2),
+        /**
+         * signed int
+         */
+        INT32(4),
+        /**
+         * unsigned int
+         */
+        UINT32(4),
+        /**
+         * float
+         */
+        FLOAT32(4),
+        /**
+         * double
+         */
+        FLOAT64(8);
+
+        /**
+         * Size of a value in bytes
+         */
+        final int size;
+
+        /**
+         * Constructor
+         *
+         * @param size size of a value in bytes
+         */
+        Type(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Finds a type by its name in the header
+         *
+         * @param name the name
+         * @return the type
+         */
+        static Type of(String name) {
+            return switch (name) {
+                case "char", "int8" -> INT8;
+                case "uchar", "uint8" -> UINT8;
+                case "short", "int16" -> INT16;
+                case "ushort", "uint16" -> UINT16;
+                case "int", "int32" -> INT32;
+                case "uint", "uint32" -> UINT32;
+                case "float", "float32" -> FLOAT32;
+                case "double", "float64" -> FLOAT64;
+                default -> throw new IllegalArgumentException("Unknown PLY type: " + name);
+            };
+        }
+
+        /**
+         * Reads a value as a double
+         *
+         * @param in       the content of the file
+         * @param position the position of the value
+         * @return the value
+         */
+        double read(ByteBuffer in, int position) {
+            return switch (this) {
+                case FLOAT32 -> in.getFloat(position);
+                case FLOAT64 -> in.getDouble(position);
+                default -> readInt(in, position);
+            };
+        }
+
+        /**
+         * Reads a value as an integer
+         *
+         * @param in       the content of the file
+         * @param position the position of the value
+         * @return the value
+         */
+        long readInt(ByteBuffer in, int position) {
+            return switch (this) {
+                case INT8 -> in.get(position);
+                case UINT8 -> in.get(position) & 0xFF;
+                case INT16 -> in.getShort(position);
+                case UINT16 -> in.getShort(position) & 0xFFFF;
+                case INT32 -> in.getInt(position);
+                case UINT32 -> in.getInt(position) & 0xFFFFFFFFL;
+                case FLOAT32 -> (long) in.getFloat(position);
+                case FLOAT64 -> (long) in.getDouble(position);
+            };
+        }
+    }
+
+    /**
+     * A property of an element
+     *
+     * @param name      the name of the property
+     * @param type      the type of the value, or of the items of a list
+     * @param countType the type of the size of a list, or null if the property is not a list
+     */
+    private record Property(String name, Type type, Type countType) {
+    }
+
+    /**
+     * An element of the file
+     *
+     * @param name       the name of the element
+     * @param count      amount of items of the element
+     * @param properties the properties of each item
+     */
+    private record Element(String name, int count, List<Property> properties) {
+        /**
+         * Finds the size of an item of an element without lists
+         *
+         * @return the size in bytes, or -1 if the element has a list
+         */
+        int stride() {
+            int stride = 0;
+            for (Property property : properties) {
+                if (property.countType != null) return -1;
+                stride += property.type.size;
+            }
+            return stride;
+        }
+
+        /**
+         * Finds the offset of a property in an item of an element without lists
+         *
+         * @param name the name of the property
+         * @return the offset in bytes
+         */
+        int offset(String name) {
+            int offset = 0;
+            for (Property property : properties) {
+                if (property.name.equals(name)) return offset;
+                offset += property.type.size;
+            }
+            throw new IllegalArgumentException("Missing PLY vertex property: " + name);
+        }
+
+        /**
+         * Finds a property of an element
+         *
+         * @param name the name of the property
+         * @return the property
+         */
+        Property property(String name) {
+            for (Property property : properties)
+                if (property.name.equals(name)) return property;
+            throw new IllegalArgumentException("Missing PLY vertex property: " + name);
+        }
+    }
+
+    /**
+     * Parses the mesh of a PLY file
+     *
+     * @param in the content of the file
+     * @return the vertices and the faces of the mesh
+     */
+    static meshParser.Mesh parse(ByteBuffer in) {
+        List<Element> elements = new ArrayList<>();
+        int position = parseHeader(in, elements);
+
+        double[] vertices = new double[0];
+        meshParser.Indices indices = new meshParser.Indices();
+        for (Element element : elements) {
+            int stride = element.stride();
+            if (element.name.equals("vertex")) {
+                if (stride < 0) throw new IllegalArgumentException("Not supported PLY vertex with a list property");
+                vertices = readVertices(in, position, element, stride);
+                position += element.count * stride;
+            } else if (element.name.equals("face"))
+                position = readFaces(in, position, element, indices);
+            else if (stride >= 0)
+                position += element.count * stride;
+            else
+                position = readFaces(in, position, element, null);
+        }
+        return new meshParser.Mesh(vertices, indices);
+    }
+
+    /**
+     * Parses the header of a PLY file, and sets the byte order of the content
+     *
+     * @param in       the content of the file
+     * @param elements the list to add the elements of the file to
+     * @return the position of the data after the header
+     */
+    private static int parseHeader(ByteBuffer in, List<Element> elements) {
+        int position = 0;
+        boolean first = true;
+        while (true) {
+            int start = position;
+            while (position < in.limit() && in.get(position) != '\n') ++position;
+            if (position >= in.limit()) throw new IllegalArgumentException("Missing end of PLY header");
+            byte[] bytes = new byte[position - start];
+            in.get(start, bytes);
+            ++position;
+            String[] words = new String(bytes, StandardCharsets.US_ASCII).trim().split("\\s+");
+
+            if (first) {
+                if (!words[0].equals("ply")) throw new IllegalArgumentException("Not a PLY file");
+                first = false;
+                continue;
+            }
+            switch (words[0]) {
+                case "format" -> {
+                    switch (words[1]) {
+                        case "binary_little_endian" -> in.order(ByteOrder.LITTLE_ENDIAN);
+                        case "binary_big_endian" -> in.order(ByteOrder.BIG_ENDIAN);
+                        default -> throw new IllegalArgumentException("Not supported PLY format: " + words[1]);
+                    }
+                }
+                case "element" -> elements.add(new Element(words[1], Integer.parseInt(words[2]), new ArrayList<>()));
+                case "property" -> {
+                    if (elements.isEmpty()) throw new IllegalArgumentException("PLY property without element");
+                    Property property = words[1].equals("list")
+                            ? new Property(words[4], Type.of(words[3]), Type.of(words[2]))
+                            : new Property(words[2], Type.of(words[1]), null);
+                    elements.getLast().properties.add(property);
+                }
+                case "end_header" -> {
+                    return position;
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the coordinates of the vertices in parallel
+     *
+     * @param in       the content of the file
+     * @param position the position of the vertices
+     * @param element  the vertex element
+     * @param stride   size of a vertex in bytes
+     * @return the coordinates of the vertices, 3 for each vertex
+     */
+    private static double[] readVertices(ByteBuffer in, int position, Element element, int stride) {
+        Type[] types = {element.property("x").type, element.property("y").type, element.property("z").type};
+        int[] offsets = {element.offset("x"), element.offset("y"), element.offset("z")};
+        double[] vertices = new double[3 * element.count];
+        IntStream.range(0, element.count).parallel().forEach(i -> {
+            int vertex = position + i * stride;
+            for (int axis = 0; axis < 3; ++axis)
+                vertices[3 * i + axis] = types[axis].read(in, vertex + offsets[axis]);
+        });
+        return vertices;
+    }
+
+    /**
+     * Reads the faces of an element with lists, splitting them into triangles
+     *
+     * @param in       the content of the file
+     * @param position the position of the faces
+     * @param element  the element
+     * @param indices  the list to add the triangles to, or null to only skip the element
+     * @return the position after the element
+     */
+    private static int readFaces(ByteBuffer in, int position, Element element, meshParser.Indices indices) {
+        for (int i = 0; i < element.count; ++i) {
+            for (Property property : element.properties) {
+                if (property.countType == null) {
+                    position += property.type.size;
+                    continue;
+                }
+                int count = (int) property.countType.readInt(in, position);
+                position += property.countType.size;
+                if (indices != null && count >= 3
+                        && (property.name.equals("vertex_indices") || property.name.equals("vertex_index"))) {
+                    int first = (int) property.type.readInt(in, position);
+                    int previous = (int) property.type.readInt(in, position + property.type.size);
+                    for (int v = 2; v < count; ++v) {
+                        int current = (int) property.type.readInt(in, position + v * property.type.size);
+                        indices.addTriangle(first, previous, current);
+                        previous = current;
+                    }
+                }
+                position += count * property.type.size;
+            }
+        }
+        return position;
+    }
+}
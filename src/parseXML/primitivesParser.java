@@ -14,12 +14,24 @@ public class primitivesParser {
      * @return the material
      */
     public static Material parseMaterial(Element materialTags) {
+        return parseMaterial(new xmlElement(materialTags));
+    }
+
+    /**
+     * Parses a material
+     *
+     * @param materialTags the xml element whose attributes are parsed to a material
+     * @return the material
+     */
+    static Material parseMaterial(xmlElement materialTags) {
         String kAStr = materialTags.getAttribute("kA");
         String kSStr = materialTags.getAttribute("kS");
         String kDStr = materialTags.getAttribute("kD");
         String kTStr = materialTags.getAttribute("kT");
         String kRStr = materialTags.getAttribute("kR");
         String nSHStr = materialTags.getAttribute("nSH");
+        String glossStr = materialTags.getAttribute("gloss");
+        String blurStr = materialTags.getAttribute("blur");
         Material material = new Material();
         if (!kAStr.isEmpty())
             if (kAStr.contains(" ")) {
@@ -53,6 +65,10 @@ public class primitivesParser {
             }
         if (!nSHStr.isEmpty())
             material.setShininess(Integer.parseInt(nSHStr));
+        if (!glossStr.isEmpty())
+            material.setGloss(Double.parseDouble(glossStr));
+        if (!blurStr.isEmpty())
+            material.setBlur(Double.parseDouble(blurStr));
         return material;
     }
 
@@ -55,7 +55,7 @@ public class sceneParser {
      * @param background the background to parse
      * @return the scene background
      */
-    private static Color parseBackground(String background) {
+    static Color parseBackground(String background) {
         if (!background.isEmpty()) {
             return parseColor(background);
         } else {
@@ -71,18 +71,27 @@ public class sceneParser {
      */
     private static AmbientLight parseAmbientLight(NodeList ambientLight) {
         if (ambientLight.getLength() > 0) {
-            Element ambientLightElement = (Element) ambientLight.item(0);
-            String ambientColorStr = ambientLightElement.getAttribute("color");
-            if (!ambientColorStr.isEmpty()) {
-                return new AmbientLight(parseColor(ambientColorStr));
-            } else {
-                throw new IllegalArgumentException("Cannot parse ambient-light color is empty: " + ambientLight);
-            }
+            return parseAmbientLight(new xmlElement((Element) ambientLight.item(0)));
         } else {
             return AmbientLight.NONE;
         }
     }
 
+    /**
+     * Parses an ambient light element
+     *
+     * @param ambientLightElement the ambient light element to parse
+     * @return the scene ambient light
+     */
+    static AmbientLight parseAmbientLight(xmlElement ambientLightElement) {
+        String ambientColorStr = ambientLightElement.getAttribute("color");
+        if (!ambientColorStr.isEmpty()) {
+            return new AmbientLight(parseColor(ambientColorStr));
+        } else {
+            throw new IllegalArgumentException("Cannot parse ambient-light color is empty: " + ambientLightElement);
+        }
+    }
+
 
 
 }
\ No newline at end of file
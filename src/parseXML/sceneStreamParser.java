@@ -0,0 +1,174 @@
+package parseXML;
+
+import geometries.Intersectable;
+import lighting.LightSource;
+import scene.Scene;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static parseXML.geometriesParser.addGeometry;
+import static parseXML.lightsParser.parseLight;
+import static parseXML.sceneParser.parseAmbientLight;
+import static parseXML.sceneParser.parseBackground;
+
+/**
+ * Class to parse xml file into a scene by streaming (StAX), without loading the whole
+ * document into memory as {@link sceneParser} does.<br>
+ * The geometries are added to the scene as their elements arrive. Their attributes are collected
+ * in chunks, and every chunk is parsed in parallel to the reading of the rest of the file,
+ * so the memory used by the parser does not grow with the size of the file.
+ * The scene is the same as the one built by {@link sceneParser}, including the order of the geometries.
+ */
+public class sceneStreamParser {
+    /**
+     * Amount of geometry elements parsed together
+     */
+    private static final int CHUNK_SIZE = 1024;
+    /**
+     * Maximum amount of chunks parsed at once, which bounds the memory of the waiting elements
+     */
+    private static final int MAX_PENDING_CHUNKS = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private sceneStreamParser() {
+    }
+
+    /**
+     * Constructs a scene using xml
+     *
+     * @param filePath the path to xml, relative to the xml directory
+     * @param scene    the scene
+     */
+    public static void SceneConstructor(String filePath, Scene scene) {
+        try (InputStream in = new BufferedInputStream(
+                Files.newInputStream(Paths.get(System.getProperty("user.dir") + "/xml/" + filePath)))) {
+            parse(in, scene);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Parses an xml stream into a scene
+     *
+     * @param in    the xml stream
+     * @param scene the scene
+     * @throws XMLStreamException if the xml is malformed
+     */
+    public static void parse(InputStream in, Scene scene) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+
+        Deque<CompletableFuture<List<Intersectable>>> pending = new ArrayDeque<>();
+        List<xmlElement> chunk = new ArrayList<>(CHUNK_SIZE);
+        boolean ambientLightFound = false;
+        int depth = 0;
+        // depth of the first geometries and lights elements, 0 while outside of them,
+        // and -1 after them (only the first ones are parsed, as by the DOM parser)
+        int geometriesDepth = 0;
+        int lightsDepth = 0;
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == geometriesDepth) geometriesDepth = -1;
+                    if (depth == lightsDepth) lightsDepth = -1;
+                    --depth;
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) continue;
+                ++depth;
+
+                if (geometriesDepth > 0 && depth == geometriesDepth + 1) {
+                    chunk.add(new xmlElement(reader));
+                    if (chunk.size() == CHUNK_SIZE) {
+                        submit(chunk, pending, scene);
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                    }
+                    continue;
+                }
+                if (lightsDepth > 0 && depth == lightsDepth + 1) {
+                    LightSource light = parseLight(new xmlElement(reader));
+                    if (light != null)
+                        scene.lights.add(light);
+                    continue;
+                }
+
+                switch (reader.getLocalName()) {
+                    case "scene" -> {
+                        if (depth == 1)
+                            scene.setBackground(parseBackground(new xmlElement(reader).getAttribute("background-color")));
+                    }
+                    case "ambient-light" -> {
+                        if (!ambientLightFound)
+                            scene.setAmbientLight(parseAmbientLight(new xmlElement(reader)));
+                        ambientLightFound = true;
+                    }
+                    case "geometries" -> {
+                        if (geometriesDepth == 0) geometriesDepth = depth;
+                    }
+                    case "lights" -> {
+                        if (lightsDepth == 0) lightsDepth = depth;
+                    }
+                    default -> {
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) submit(chunk, pending, scene);
+            while (!pending.isEmpty()) addChunk(pending.poll(), scene);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Starts parsing a chunk of geometry elements in the background.
+     * If too many chunks are being parsed, waits for the oldest one and adds its geometries to the scene
+     *
+     * @param chunk   the geometry elements
+     * @param pending the chunks being parsed, oldest first
+     * @param scene   the scene
+     */
+    private static void submit(List<xmlElement> chunk, Deque<CompletableFuture<List<Intersectable>>> pending,
+                               Scene scene) {
+        if (pending.size() >= MAX_PENDING_CHUNKS) addChunk(pending.poll(), scene);
+        pending.add(CompletableFuture.supplyAsync(() -> {
+            List<Intersectable> geometries = new ArrayList<>(chunk.size());
+            for (xmlElement element : chunk)
+                addGeometry(element, geometries);
+            return geometries;
+        }));
+    }
+
+    /**
+     * Waits for a chunk to be parsed and adds its geometries to the scene
+     *
+     * @param parsed the parsing of the chunk
+     * @param scene  the scene
+     */
+    private static void addChunk(CompletableFuture<List<Intersectable>> parsed, Scene scene) {
+        try {
+            scene.geometries.add(parsed.join().toArray(new Intersectable[0]));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package parseXML;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.xml.stream.XMLStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The tag name and the attributes of an xml element, read either from a DOM tree or from a stream,
+ * so that both parsers share the parsing of the elements
+ */
+class xmlElement {
+    /**
+     * The tag name of the element
+     */
+    private final String tagName;
+    /**
+     * The attributes of the element by their names
+     */
+    private final Map<String, String> attributes = new HashMap<>();
+
+    /**
+     * Constructs the element from a DOM element
+     *
+     * @param element the DOM element
+     */
+    xmlElement(Element element) {
+        tagName = element.getTagName();
+        NamedNodeMap nodes = element.getAttributes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node node = nodes.item(i);
+            attributes.put(node.getNodeName(), node.getNodeValue());
+        }
+    }
+
+    /**
+     * Constructs the element from the current start element of a stream
+     *
+     * @param reader the stream reader, positioned at a start element
+     */
+    xmlElement(XMLStreamReader reader) {
+        tagName = reader.getLocalName();
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+    }
+
+    /**
+     * Gets the tag name of the element
+     *
+     * @return the tag name
+     */
+    String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * Gets an attribute of the element
+     *
+     * @param name the name of the attribute
+     * @return the value of the attribute, or an empty string if the element does not have it (as in DOM)
+     */
+    String getAttribute(String name) {
+        return attributes.getOrDefault(name, "");
+    }
+
+    @Override
+    public String toString() {
+        return "<" + tagName + " " + attributes + ">";
+    }
+}
@@ -0,0 +1,147 @@
+package primitives;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The frozen form of a {@link Material}, which is read by the ray tracer for every shaded intersection.<br>
+ * The values of the material are copied, and the checks of the shading (whether the material reflects,
+ * transmits, has a specular highlight...) are done once when the material is compiled instead of
+ * comparing the coefficients to zero for every intersection.<br>
+ * Compiled materials are interned - all the materials with equal values, of all the geometries of all the scenes,
+ * share one compiled material.
+ */
+public final class CompiledMaterial {
+    /**
+     * The interned compiled materials by the values of their materials
+     */
+    private static final Map<List<Double>, CompiledMaterial> INTERNED = new ConcurrentHashMap<>();
+
+    /**
+     * Ambient reflection coefficient
+     */
+    public final Double3 kA;
+    /**
+     * Specular reflection coefficient
+     */
+    public final Double3 kS;
+    /**
+     * Diffuse reflection coefficient
+     */
+    public final Double3 kD;
+    /**
+     * Transparency coefficient
+     */
+    public final Double3 kT;
+    /**
+     * Reflection coefficient
+     */
+    public final Double3 kR;
+    /**
+     * Shininess factor, as the exponent of the specular highlight
+     */
+    public final double nSH;
+    /**
+     * Glossiness of the reflection, 0 for a perfect mirror
+     */
+    public final double gloss;
+    /**
+     * Diffuseness of the transparency, 0 for a clear transparency
+     */
+    public final double blur;
+
+    /**
+     * Whether the material reflects the ambient light
+     */
+    public final boolean hasAmbient;
+    /**
+     * Whether the material diffuses the light sources
+     */
+    public final boolean hasDiffuse;
+    /**
+     * Whether the material has specular highlights of the light sources
+     */
+    public final boolean hasSpecular;
+    /**
+     * Whether the material reflects other geometries
+     */
+    public final boolean isReflective;
+    /**
+     * Whether other geometries are seen through the material
+     */
+    public final boolean isTransparent;
+
+    /**
+     * Constructor - copies the values of a material and precomputes its flags
+     *
+     * @param material the material
+     */
+    private CompiledMaterial(Material material) {
+        kA = material.kA;
+        kS = material.kS;
+        kD = material.kD;
+        kT = material.kT;
+        kR = material.kR;
+        nSH = material.nSH;
+        gloss = material.gloss;
+        blur = material.blur;
+        hasAmbient = !kA.equals(Double3.ZERO);
+        hasDiffuse = !kD.equals(Double3.ZERO);
+        hasSpecular = !kS.equals(Double3.ZERO);
+        isReflective = !kR.equals(Double3.ZERO);
+        isTransparent = !kT.equals(Double3.ZERO);
+    }
+
+    /**
+     * Compiles a material, or finds the compiled material of an equal material
+     *
+     * @param material the material
+     * @return the interned compiled material of the values of the material
+     */
+    static CompiledMaterial of(Material material) {
+        return INTERNED.computeIfAbsent(key(material), k -> new CompiledMaterial(material));
+    }
+
+    /**
+     * Checks whether the compiled material still holds the values of a material, whose fields may have been
+     * assigned directly after it was compiled
+     *
+     * @param material the material
+     * @return true if the values of the material equal the compiled values
+     */
+    boolean matches(Material material) {
+        return kA.equals(material.kA) && kS.equals(material.kS) && kD.equals(material.kD)
+                && kT.equals(material.kT) && kR.equals(material.kR)
+                && nSH == material.nSH && gloss == material.gloss && blur == material.blur;
+    }
+
+    /**
+     * Gets the amount of interned compiled materials
+     *
+     * @return the amount of distinct materials which were compiled
+     */
+    public static int internedCount() {
+        return INTERNED.size();
+    }
+
+    /**
+     * Creates a key of the values of a material, so that equal materials are compiled (and stored) once
+     *
+     * @param material the material
+     * @return the coefficients of the material, its shininess, glossiness and diffuseness
+     */
+    public static List<Double> key(Material material) {
+        List<Double> key = new ArrayList<>(18);
+        for (Double3 k : new Double3[]{material.kA, material.kS, material.kD, material.kT, material.kR}) {
+            key.add(k.d1());
+            key.add(k.d2());
+            key.add(k.d3());
+        }
+        key.add((double) material.nSH);
+        key.add(material.gloss);
+        key.add(material.blur);
+        return key;
+    }
+}
@@ -2,7 +2,9 @@ package primitives;
 
 /**
  * Represents the material properties of a geometry, including reflection coefficients
- * and shininess factor for lighting calculations.
+ * and shininess factor for lighting calculations.<br>
+ * The ray tracer reads the {@link #compile() compiled} form of the material. The setters discard the compiled form,
+ * and a value which was assigned directly to a field is found by comparing the fields to the compiled values.
  */
 public class Material {
     /**
@@ -29,6 +31,31 @@ public class Material {
      * How sharp or blurry the specular reflection is aka Shininess factor
      */
     public int nSH = 0;
+    /**
+     * How blurry the reflection is aka Glossiness - the half angle (in radians) of the cone of reflected rays,
+     * 0 for a perfect mirror
+     */
+    public double gloss = 0;
+    /**
+     * How blurry the transparency is aka Diffuseness - the half angle (in radians) of the cone of transmitted rays,
+     * 0 for a clear transparency
+     */
+    public double blur = 0;
+    /**
+     * The compiled form of the material, null until the material is compiled or after it was changed
+     */
+    private volatile CompiledMaterial compiled = null;
+
+    /**
+     * Gets the compiled form of the material - the interned compiled material of its values
+     *
+     * @return the compiled material
+     */
+    public CompiledMaterial compile() {
+        CompiledMaterial result = compiled;
+        if (result == null || !result.matches(this)) compiled = result = CompiledMaterial.of(this);
+        return result;
+    }
 
     /**
      * Sets Ambient reflection coefficient based on double3
@@ -38,6 +65,7 @@ public class Material {
      */
     public Material setKA(Double3 kA) {
         this.kA = kA;
+        compiled = null;
         return this;
     }
 
@@ -49,6 +77,7 @@ public class Material {
      */
     public Material setKA(Double kA) {
         this.kA = new Double3(kA);
+        compiled = null;
         return this;
     }
 
@@ -60,6 +89,7 @@ public class Material {
      */
     public Material setKS(Double3 kS) {
         this.kS = kS;
+        compiled = null;
         return this;
     }
 
@@ -71,6 +101,7 @@ public class Material {
      */
     public Material setKS(Double kS) {
         this.kS = new Double3(kS);
+        compiled = null;
         return this;
     }
 
@@ -82,6 +113,7 @@ public class Material {
      */
     public Material setKD(Double3 kD) {
         this.kD = kD;
+        compiled = null;
         return this;
     }
 
@@ -93,6 +125,7 @@ public class Material {
      */
     public Material setKD(Double kD) {
         this.kD = new Double3(kD);
+        compiled = null;
         return this;
     }
 
@@ -104,6 +137,7 @@ public class Material {
      */
     public Material setKT(Double3 kT) {
         this.kT = kT;
+        compiled = null;
         return this;
     }
 
@@ -115,6 +149,7 @@ public class Material {
      */
     public Material setKT(Double kT) {
         this.kT = new Double3(kT);
+        compiled = null;
         return this;
     }
 
@@ -126,6 +161,7 @@ public class Material {
      */
     public Material setKR(Double3 kR) {
         this.kR = kR;
+        compiled = null;
         return this;
     }
 
@@ -137,6 +173,7 @@ public class Material {
      */
     public Material setKR(Double kR) {
         this.kR = new Double3(kR);
+        compiled = null;
         return this;
     }
 
@@ -148,6 +185,35 @@ public class Material {
      */
     public Material setShininess(int nSH) {
         this.nSH = nSH;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Sets the glossiness of the reflection
+     *
+     * @param gloss the half angle of the cone of reflected rays in radians, 0 for a perfect mirror
+     * @return this Material
+     */
+    public Material setGloss(double gloss) {
+        if (gloss < 0 || gloss >= Math.PI / 2)
+            throw new IllegalArgumentException("gloss must be between 0 and a right angle");
+        this.gloss = gloss;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Sets the diffuseness of the transparency
+     *
+     * @param blur the half angle of the cone of transmitted rays in radians, 0 for a clear transparency
+     * @return this Material
+     */
+    public Material setBlur(double blur) {
+        if (blur < 0 || blur >= Math.PI / 2)
+            throw new IllegalArgumentException("blur must be between 0 and a right angle");
+        this.blur = blur;
+        compiled = null;
         return this;
     }
 
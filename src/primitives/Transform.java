@@ -0,0 +1,229 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * Represents an affine transform of 3D space - a linear part (rotation, scale, shear) followed by a translation.
+ * The transform keeps its inverse, so points and vectors are transformed both ways without inverting
+ * the matrix again. Transforms are immutable and are combined by {@link #then(Transform)}.
+ */
+public class Transform {
+    /**
+     * The identity transform
+     */
+    public static final Transform IDENTITY = new Transform(
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0}, new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * The matrix of the transform, 3 rows of the linear part and the translation (row-major 3x4)
+     */
+    private final double[] m;
+    /**
+     * The matrix of the inverse transform, in the same layout
+     */
+    private final double[] inverse;
+
+    /**
+     * Constructor of a transform and its known inverse
+     *
+     * @param m       the matrix of the transform (row-major 3x4)
+     * @param inverse the matrix of the inverse transform
+     */
+    private Transform(double[] m, double[] inverse) {
+        this.m = m;
+        this.inverse = inverse;
+    }
+
+    /**
+     * Creates a translation
+     *
+     * @param dx the translation along the X axis
+     * @param dy the translation along the Y axis
+     * @param dz the translation along the Z axis
+     * @return the transform
+     */
+    public static Transform translate(double dx, double dy, double dz) {
+        return new Transform(new double[]{1, 0, 0, dx, 0, 1, 0, dy, 0, 0, 1, dz},
+                new double[]{1, 0, 0, -dx, 0, 1, 0, -dy, 0, 0, 1, -dz});
+    }
+
+    /**
+     * Creates a translation
+     *
+     * @param vector the translation
+     * @return the transform
+     */
+    public static Transform translate(Vector vector) {
+        return translate(vector.getX(), vector.getY(), vector.getZ());
+    }
+
+    /**
+     * Creates a scale around the origin
+     *
+     * @param sx the scale along the X axis
+     * @param sy the scale along the Y axis
+     * @param sz the scale along the Z axis
+     * @return the transform
+     * @throws IllegalArgumentException if one of the scales is zero
+     */
+    public static Transform scale(double sx, double sy, double sz) {
+        if (isZero(sx) || isZero(sy) || isZero(sz))
+            throw new IllegalArgumentException("Scale cannot be zero");
+        return new Transform(new double[]{sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0},
+                new double[]{1 / sx, 0, 0, 0, 0, 1 / sy, 0, 0, 0, 0, 1 / sz, 0});
+    }
+
+    /**
+     * Creates a uniform scale around the origin
+     *
+     * @param s the scale
+     * @return the transform
+     * @throws IllegalArgumentException if the scale is zero
+     */
+    public static Transform scale(double s) {
+        return scale(s, s, s);
+    }
+
+    /**
+     * Creates a rotation around an axis through the origin
+     *
+     * @param axis  the axis of the rotation
+     * @param angle the angle of the rotation in degrees, counterclockwise when looking against the axis
+     * @return the transform
+     */
+    public static Transform rotate(Vector axis, double angle) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double radians = Math.toRadians(angle);
+        double c = Math.cos(radians), s = Math.sin(radians), t = 1 - c;
+        double[] m = {
+                t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0,
+                t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0,
+                t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0};
+        // the inverse of a rotation is its transpose
+        return new Transform(m, new double[]{m[0], m[4], m[8], 0, m[1], m[5], m[9], 0, m[2], m[6], m[10], 0});
+    }
+
+    /**
+     * Combines this transform with another one, which is applied after it
+     *
+     * @param next the transform to apply after this one
+     * @return the combined transform
+     */
+    public Transform then(Transform next) {
+        return new Transform(multiply(next.m, m), multiply(inverse, next.inverse));
+    }
+
+    /**
+     * Creates the inverse transform
+     *
+     * @return the inverse transform
+     */
+    public Transform inverse() {
+        return new Transform(inverse, m);
+    }
+
+    /**
+     * Transforms a point
+     *
+     * @param point the point
+     * @return the transformed point
+     */
+    public Point apply(Point point) {
+        return applyPoint(m, point);
+    }
+
+    /**
+     * Transforms a vector (only by the linear part of the transform)
+     *
+     * @param vector the vector
+     * @return the transformed vector
+     */
+    public Vector apply(Vector vector) {
+        return applyVector(m, vector);
+    }
+
+    /**
+     * Transforms a point by the inverse transform
+     *
+     * @param point the point
+     * @return the point before the transform
+     */
+    public Point applyInverse(Point point) {
+        return applyPoint(inverse, point);
+    }
+
+    /**
+     * Transforms a vector by the inverse transform
+     *
+     * @param vector the vector
+     * @return the vector before the transform
+     */
+    public Vector applyInverse(Vector vector) {
+        return applyVector(inverse, vector);
+    }
+
+    /**
+     * Transforms a normal of a surface, so that it stays orthogonal to the transformed surface
+     * (by the transpose of the inverse of the linear part)
+     *
+     * @param normal the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector applyNormal(Vector normal) {
+        double x = normal.getX(), y = normal.getY(), z = normal.getZ();
+        return new Vector(
+                inverse[0] * x + inverse[4] * y + inverse[8] * z,
+                inverse[1] * x + inverse[5] * y + inverse[9] * z,
+                inverse[2] * x + inverse[6] * y + inverse[10] * z).normalize();
+    }
+
+    /**
+     * Transforms a point by a matrix
+     *
+     * @param m     the matrix
+     * @param point the point
+     * @return the transformed point
+     */
+    private static Point applyPoint(double[] m, Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        return new Point(
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Transforms a vector by the linear part of a matrix
+     *
+     * @param m      the matrix
+     * @param vector the vector
+     * @return the transformed vector
+     */
+    private static Vector applyVector(double[] m, Vector vector) {
+        double x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        return new Vector(
+                m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Multiplies two affine matrices
+     *
+     * @param a the left matrix (applied second)
+     * @param b the right matrix (applied first)
+     * @return the product
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] result = new double[12];
+        for (int row = 0; row < 3; ++row) {
+            for (int col = 0; col < 4; ++col) {
+                double value = col == 3 ? a[4 * row + 3] : 0;
+                for (int k = 0; k < 3; ++k) value += a[4 * row + k] * b[4 * k + col];
+                result[4 * row + col] = value;
+            }
+        }
+        return result;
+    }
+}
@@ -1,11 +1,16 @@
 package primitives;
 
+import java.util.Random;
+
 /** Util class is used for some internal utilities, e.g. controlling accuracy
  * @author Dan */
 public final class Util {
    /** It is binary, equivalent to ~1/1,000,000,000,000 in decimal (12 digits) */
    private static final int ACCURACY = -40;
 
+   /** The source of the random numbers of {@link #random(double, double)}, volatile as it is replaced by {@link #setRandomSeed(long)} while render threads read it */
+   private static volatile Random randomSource = new Random();
+
    /** Don't let anyone instantiate this class. */
    private Util() {}
 
@@ -45,12 +50,37 @@ public final class Util {
       return (n1 < 0 && n2 < 0) || (n1 > 0 && n2 > 0);
    }
 
+   /** Maps a point of the unit square to the unit disk by the concentric mapping, which keeps
+    * neighbouring parts of the square neighbouring on the disk and maps the corners of the square
+    * to the boundary of the disk
+    * @param  u the first coordinate in the square, between 0 and 1
+    * @param  v the second coordinate in the square, between 0 and 1
+    * @return   the x and y coordinates of the point in the disk */
+   public static double[] concentricDisk(double u, double v) {
+      double a = 2 * u - 1, b = 2 * v - 1;
+      if (isZero(a) && isZero(b)) return new double[]{0, 0};
+      double r, phi;
+      if (Math.abs(a) > Math.abs(b)) {
+         r = a;
+         phi = Math.PI / 4 * (b / a);
+      } else {
+         r = b;
+         phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+      }
+      return new double[]{r * Math.cos(phi), r * Math.sin(phi)};
+   }
+
    /** Provide a real random number in range between min and max
     * @param  min value (included)
     * @param  max value (excluded)
     * @return     the random value */
    public static double random(double min, double max) {
-      return Math.random() * (max - min) + min;
+      return randomSource.nextDouble() * (max - min) + min;
    }
 
+   /** Restarts the random numbers of {@link #random(double, double)} from a seed,
+    * so that randomly generated scenes are reproducible (e.g. for benchmarks)
+    * @param seed the seed of the random numbers */
+   public static void setRandomSeed(long seed) { randomSource = new Random(seed); }
+
 }
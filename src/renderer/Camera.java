@@ -6,9 +6,18 @@ import primitives.Ray;
 import primitives.Vector;
 import scene.Scene;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import static primitives.Util.isZero;
@@ -22,6 +31,11 @@ public class Camera implements Cloneable {
      * Spare threads if trying to use all the cores
      */
     private static final int SPARE_THREADS = 2;
+    /**
+     * Width and height of the pixel blocks of the low resolution pass,
+     * which fills the tiles of a stopped render
+     */
+    private static final int FALLBACK_BLOCK = 8;
     /**
      * The camera point
      */
@@ -82,6 +96,11 @@ public class Camera implements Cloneable {
      */
     private RayTracerBase rayTracer;
 
+    /**
+     * The type of the ray tracer - required for rebuilding the camera in another process
+     */
+    private RayTracerType rayTracerType = RayTracerType.SIMPLE;
+
     /**
      * The horizontal resolution of the view plane (number of pixels in the X direction).
      */
@@ -109,6 +128,43 @@ public class Camera implements Cloneable {
      */
     private double focalDistance = 500;
 
+    /**
+     * Flag of collecting render statistics
+     */
+    private boolean statisticsEnabled = false;
+    /**
+     * The render statistics, null if they are not collected
+     */
+    private RenderStatistics statistics = null;
+    /**
+     * Flag of collecting the render heatmap
+     */
+    private boolean heatmapEnabled = false;
+    /**
+     * The render heatmap, null if it is not collected
+     */
+    private RenderHeatmap heatmap = null;
+    /**
+     * Counters of the rays of each pixel during a render, null if the rays of the pixels are not counted
+     */
+    private RenderStatistics pixelCounters = null;
+    /**
+     * The denoiser of the rendered images, null if the images are not denoised
+     */
+    private Denoiser denoiser = null;
+    /**
+     * Amount of primary rays which tune the grid of a voxel ray tracer when the camera is built, 0 for no tuning
+     */
+    private int tuningRays = 0;
+    /**
+     * Flag of collecting the features of the pixels without a denoiser
+     */
+    private boolean aovsEnabled = false;
+    /**
+     * The features of the pixels for the denoiser and the output variables, null if they are not collected
+     */
+    private PixelFeatures features = null;
+
     /**
      * Private constructor to avoid accidental construction.
      */
@@ -160,19 +216,34 @@ public class Camera implements Cloneable {
      * @param row    the matrix row
      */
     private void castRay(int nX, int nY, int column, int row) {
+        PixelFeatures.Sample sample = features == null ? null : new PixelFeatures.Sample();
         if (dofRays == 1) {
-            imageWriter.writePixel(column, row, rayTracer.traceRay(constructRay(nX, nY, column, row)));
-            pixelManager.pixelDone();
-            return;
-        }
-        Point focusPoint = constructRay(nX, nY, column, row).getPoint(focalDistance);
-        Color color = Color.BLACK;
-        List<Point> jitteredOrigins = jitteredPoints();
-        for (Point jitteredOrigin : jitteredOrigins) {
-            color = color.add(rayTracer.traceRay(new Ray(jitteredOrigin, focusPoint.subtract(jitteredOrigin))));
+            imageWriter.writePixel(column, row, rayTracer.traceRay(constructRay(nX, nY, column, row), sample));
+        } else {
+            Point focusPoint = constructRay(nX, nY, column, row).getPoint(focalDistance);
+            Color color = Color.BLACK;
+            List<Point> jitteredOrigins = jitteredPoints();
+            for (Point jitteredOrigin : jitteredOrigins) {
+                color = color.add(rayTracer.traceRay(new Ray(jitteredOrigin, focusPoint.subtract(jitteredOrigin)), sample));
+            }
+            imageWriter.writePixel(column, row, color.reduce(dofRays));
         }
-        imageWriter.writePixel(column, row, color.reduce(dofRays));
-        pixelManager.pixelDone();
+        if (sample != null) features.record(column, row, sample);
+    }
+
+    /**
+     * Constructs primary rays through pixels spread evenly over the image, for tuning the grid of the ray tracer
+     *
+     * @param amount the least amount of rays
+     * @return the rays
+     */
+    private List<Ray> probeRays(int amount) {
+        int side = (int) Math.ceil(Math.sqrt(amount));
+        List<Ray> rays = new ArrayList<>(side * side);
+        for (int i = 0; i < side; ++i)
+            for (int j = 0; j < side; ++j)
+                rays.add(constructRay(nX, nY, (int) ((j + 0.5) * nX / side), (int) ((i + 0.5) * nY / side)));
+        return rays;
     }
 
     /**
@@ -192,15 +263,116 @@ public class Camera implements Cloneable {
         return jitteredOrigins;
     }
 
+    /**
+     * Casts the rays of all the pixels of a tile
+     *
+     * @param tile the tile to render
+     */
+    void castTile(Region tile) {
+        RenderEvents.Tile event = new RenderEvents.Tile();
+        event.begin();
+        for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+            for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+                if (pixelCounters == null)
+                    castRay(nX, nY, j, i);
+                else
+                    castMeasuredRay(j, i);
+        event.end();
+        if (event.shouldCommit()) {
+            event.x = tile.x();
+            event.y = tile.y();
+            event.width = tile.width();
+            event.height = tile.height();
+            event.commit();
+        }
+        pixelManager.tileDone(tile);
+    }
+
+    /**
+     * Casts the rays of a pixel, measuring the time and the rays it took
+     * for the heatmap and for the slow pixel events
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     */
+    private void castMeasuredRay(int column, int row) {
+        RenderEvents.SlowPixel event = new RenderEvents.SlowPixel();
+        long rays = pixelCounters.threadRays();
+        event.begin();
+        long start = System.nanoTime();
+        castRay(nX, nY, column, row);
+        long time = System.nanoTime() - start;
+        event.end();
+        rays = pixelCounters.threadRays() - rays;
+        if (heatmap != null) heatmap.record(column, row, time, rays);
+        if (event.shouldCommit()) {
+            event.x = column;
+            event.y = row;
+            event.rays = rays;
+            event.commit();
+        }
+    }
+
+    /**
+     * Prepares the collecting of the statistics, the heatmap and the flight recorder events of a render.
+     * The statistics of the camera are attached to the ray tracer only for the render,
+     * since the ray tracer may be shared by other cameras
+     *
+     * @return the render event, begun
+     */
+    private RenderEvents.Render beginRender() {
+        if (statistics != null) statistics.reset();
+        pixelCounters = heatmap != null ? statistics : null;
+        if (pixelCounters == null && RenderEvents.isSlowPixelEnabled())
+            // the rays of the slow pixels are counted only for this render
+            pixelCounters = statistics != null ? statistics : new RenderStatistics();
+        rayTracer.setStatistics(pixelCounters != null ? pixelCounters : statistics);
+        RenderEvents.Render event = new RenderEvents.Render();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Completes the statistics and the flight recorder events of a render
+     *
+     * @param event the render event begun by {@link #beginRender()}
+     * @param start the start time of the render by {@link System#nanoTime()}
+     */
+    private void endRender(RenderEvents.Render event, long start) {
+        event.end();
+        if (statistics != null) statistics.addTime(RenderStatistics.Phase.RENDER, System.nanoTime() - start);
+        rayTracer.setStatistics(null);
+        pixelCounters = null;
+        if (event.shouldCommit()) {
+            event.width = nX;
+            event.height = nY;
+            event.pixels = pixelManager.getTotalPixels();
+            event.rayTracer = rayTracerType.name();
+            event.threads = threadsCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * Renders the tiles allocated by the pixel manager until there are no more tiles
+     * or the render is stopped
+     */
+    private void renderTiles() {
+        Region tile;
+        while ((tile = pixelManager.nextTile()) != null)
+            castTile(tile);
+    }
+
     /**
      * Render image using multi-threading by parallel streaming
      *
      * @return the camera object itself
      */
     private Camera renderImageStream() {
-        IntStream.range(0, nY).parallel()
-                .forEach(i -> IntStream.range(0, nX).parallel()
-                        .forEach(j -> castRay(nX, nY, j, i)));
+        pixelManager.getTiles().parallelStream()
+                .forEach(tile -> {
+                    if (!pixelManager.isStopped()) castTile(tile);
+                });
         return this;
     }
 
@@ -210,48 +382,454 @@ public class Camera implements Cloneable {
      * @return the camera object itself
      */
     private Camera renderImageNoThreads() {
-        for (int i = 0; i < nY; ++i)
-            for (int j = 0; j < nX; ++j)
-                castRay(nX, nY, j, i);
+        renderTiles();
         return this;
     }
 
     /**
-     * Render image using multi-threading by creating and running raw threads
+     * Render image using multi-threading by creating and running raw threads.<br>
+     * If the calling thread is interrupted, the render stops after the current tiles
+     * and the interrupt status of the thread is kept
      *
      * @return the camera object itself
      */
     private Camera renderImageRawThreads() {
         var threads = new LinkedList<Thread>();
-        while (threadsCount-- > 0)
-            threads.add(new Thread(() -> {
-                PixelManager.Pixel pixel;
-                while ((pixel = pixelManager.nextPixel()) != null)
-                    castRay(nX, nY, pixel.col(), pixel.row());
-            }));
+        for (int t = 0; t < threadsCount; ++t)
+            threads.add(new Thread(this::renderTiles));
         for (var thread : threads) thread.start();
-        try {
-            for (var thread : threads) thread.join();
-        } catch (InterruptedException ignored) {
+        boolean interrupted = false;
+        for (var thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    pixelManager.cancel();
+                }
+            }
         }
+        if (interrupted) Thread.currentThread().interrupt();
         return this;
     }
 
     /**
-     * This function renders image's pixel color map from the scene
-     * included in the ray tracer object
+     * Render image by the threads of a pool, running {@link #threadsCount} tasks in it.<br>
+     * If the calling thread is interrupted, the render stops after the current tiles
+     * and the interrupt status of the thread is kept
      *
+     * @param pool the threads to render by
      * @return the camera object itself
      */
-    public Camera renderImage() {
-        pixelManager = new PixelManager(nY, nX, printInterval);
+    private Camera renderImagePool(ExecutorService pool) {
+        var workers = new ArrayList<Future<?>>(threadsCount);
+        for (int t = 0; t < threadsCount; ++t)
+            workers.add(pool.submit(this::renderTiles));
+        boolean interrupted = false;
+        for (var worker : workers) {
+            while (!worker.isDone()) {
+                try {
+                    worker.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    pixelManager.cancel();
+                } catch (ExecutionException e) {
+                    pixelManager.cancel();
+                    if (e.getCause() instanceof Error error) throw error;
+                    throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e);
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return this;
+    }
+
+    /**
+     * Renders the tiles of the current pixel manager by the multi-threading mode of the camera
+     *
+     * @return the camera object itself
+     */
+    private Camera render() {
+        return render(null);
+    }
+
+    /**
+     * Renders the tiles of the current pixel manager by the multi-threading mode of the camera,
+     * with the raw threads taken from a pool when one is given
+     *
+     * @param pool the threads to render by, null to start new threads
+     * @return the camera object itself
+     */
+    private Camera render(ExecutorService pool) {
         return switch (threadsCount) {
             case 0 -> renderImageNoThreads();
             case -1 -> renderImageStream();
-            default -> renderImageRawThreads();
+            default -> pool == null ? renderImageRawThreads() : renderImagePool(pool);
         };
     }
 
+    /**
+     * This function renders image's pixel color map from the scene
+     * included in the ray tracer object
+     *
+     * @return the camera object itself
+     */
+    public Camera renderImage() {
+        return renderRegions(List.of(getFrame()));
+    }
+
+    /**
+     * Renders the image by the threads of a pool instead of starting new threads,
+     * so that consecutive renders (see {@link FrameSequence}) reuse the same threads.
+     * The pool is used only when the camera renders by raw threads (see {@link Builder#setMultithreading(int)})
+     *
+     * @param pool the threads to render by
+     * @return the camera object itself
+     */
+    Camera renderImage(ExecutorService pool) {
+        return renderRegions(List.of(getFrame()), pool);
+    }
+
+    /**
+     * Starts rendering the image in the background.<br>
+     * The camera must not be used for another render until the returned task is done
+     *
+     * @return the handle of the render, which may be cancelled
+     */
+    public RenderTask renderImageAsync() {
+        return startRender(new PixelManager(List.of(getFrame()), printInterval));
+    }
+
+    /**
+     * Starts rendering the image in the background with a deadline.<br>
+     * When the deadline passes, the tiles in progress are finished and the rest of the tiles
+     * are filled from a low resolution pass, so the image is ready in about the given time
+     *
+     * @param timeout the time for the render
+     * @param unit    the unit of the timeout
+     * @return the handle of the render, which may also be cancelled
+     */
+    public RenderTask renderImageAsync(long timeout, TimeUnit unit) {
+        if (timeout <= 0) throw new IllegalArgumentException("timeout must be positive");
+        PixelManager manager = new PixelManager(List.of(getFrame()), printInterval);
+        manager.setDeadline(System.nanoTime() + unit.toNanos(timeout));
+        return startRender(manager);
+    }
+
+    /**
+     * Starts a background render: a low resolution pass, the tiles of the image,
+     * and then filling the tiles which were not rendered from the low resolution pass
+     *
+     * @param manager the pixel manager of the render
+     * @return the handle of the render
+     */
+    private RenderTask startRender(PixelManager manager) {
+        pixelManager = manager;
+        RenderTask task = new RenderTask(this, manager);
+        Thread thread = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                RenderEvents.Render event = beginRender();
+                try {
+                    Color[] fallback = renderFallback(manager);
+                    render();
+                    if (!manager.isComplete())
+                        fillTiles(manager.getUnfinishedTiles(), fallback);
+                } finally {
+                    endRender(event, start);
+                }
+                task.finish(null);
+            } catch (RuntimeException | Error e) {
+                task.finish(e);
+            }
+        }, "render");
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    /**
+     * Renders a low resolution version of the image - one ray for each block of
+     * {@link #FALLBACK_BLOCK} x {@link #FALLBACK_BLOCK} pixels.<br>
+     * The pass stops with the render as well, and the blocks which were not traced are black
+     *
+     * @param manager the pixel manager of the render
+     * @return the colors of the blocks, row by row
+     */
+    private Color[] renderFallback(PixelManager manager) {
+        int blocksX = (nX + FALLBACK_BLOCK - 1) / FALLBACK_BLOCK;
+        int blocksY = (nY + FALLBACK_BLOCK - 1) / FALLBACK_BLOCK;
+        Color[] colors = new Color[blocksX * blocksY];
+        IntStream blocks = IntStream.range(0, colors.length);
+        (threadsCount == 0 ? blocks : blocks.parallel()).forEach(block -> {
+            if (manager.isStopped()) {
+                colors[block] = Color.BLACK;
+                return;
+            }
+            int column = Math.min(block % blocksX * FALLBACK_BLOCK + FALLBACK_BLOCK / 2, nX - 1);
+            int row = Math.min(block / blocksX * FALLBACK_BLOCK + FALLBACK_BLOCK / 2, nY - 1);
+            colors[block] = rayTracer.traceRay(constructRay(nX, nY, column, row));
+        });
+        return colors;
+    }
+
+    /**
+     * Fills tiles of the image from the low resolution version of the image
+     *
+     * @param tiles    the tiles to fill
+     * @param fallback the colors of the low resolution blocks
+     */
+    private void fillTiles(List<Region> tiles, Color[] fallback) {
+        int blocksX = (nX + FALLBACK_BLOCK - 1) / FALLBACK_BLOCK;
+        for (Region tile : tiles)
+            for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+                for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+                    imageWriter.writePixel(j, i, fallback[i / FALLBACK_BLOCK * blocksX + j / FALLBACK_BLOCK]);
+    }
+
+    /**
+     * Prepares rendering the whole image tile by tile by another renderer (see {@link RenderBatch}),
+     * which casts the tiles by {@link #castTile(Region)}
+     *
+     * @return the tiles of the image
+     */
+    List<Region> prepareTiles() {
+        pixelManager = new PixelManager(List.of(getFrame()), 0d);
+        return pixelManager.getTiles();
+    }
+
+    /**
+     * Gets the region of the whole image
+     *
+     * @return the region of all the pixels
+     */
+    Region getFrame() {
+        return new Region(0, 0, nX, nY);
+    }
+
+    /**
+     * Renders only a rectangle of pixels of the full resolution image.<br>
+     * The rays are constructed exactly as in {@link #renderImage()}, so the pixels
+     * are identical to the same pixels of a full render, and the rest of the image is left untouched
+     *
+     * @param region the rectangle of pixels to render
+     * @return the camera object itself
+     */
+    public Camera renderRegion(Region region) {
+        return renderRegions(List.of(region));
+    }
+
+    /**
+     * Renders only several rectangles of pixels of the full resolution image
+     *
+     * @param regions the rectangles of pixels to render
+     * @return the camera object itself
+     * @throws IllegalArgumentException if there are no regions, a region is outside the image or two regions overlap
+     * @see #renderRegion(Region)
+     */
+    public Camera renderRegions(List<Region> regions) {
+        return renderRegions(regions, null);
+    }
+
+    /**
+     * Renders rectangles of pixels of the full resolution image
+     *
+     * @param regions the rectangles of pixels to render
+     * @param pool    the threads to render by, null to start new threads
+     * @return the camera object itself
+     * @throws IllegalArgumentException if there are no regions, a region is outside the image or two regions overlap
+     */
+    private Camera renderRegions(List<Region> regions, ExecutorService pool) {
+        if (regions == null || regions.isEmpty())
+            throw new IllegalArgumentException("At least one region is required");
+        for (Region region : regions)
+            if (!region.isInside(nX, nY))
+                throw new IllegalArgumentException("Region " + region + " is outside of the image");
+        pixelManager = new PixelManager(regions, printInterval);
+        long start = System.nanoTime();
+        RenderEvents.Render event = beginRender();
+        try {
+            render(pool);
+        } finally {
+            endRender(event, start);
+        }
+        if (statistics != null && printInterval != 0) System.out.println(statistics);
+        return this;
+    }
+
+    /**
+     * Gets the statistics of the last render
+     *
+     * @return the statistics, null if they are not collected
+     * @see Builder#setStatistics(boolean)
+     */
+    public RenderStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the heatmap of the render times of the pixels
+     *
+     * @return the heatmap, null if it is not collected
+     * @see Builder#setHeatmap(boolean)
+     */
+    public RenderHeatmap getHeatmap() {
+        return heatmap;
+    }
+
+    /**
+     * Gets the features of the pixels of the last render, which guide the denoiser
+     *
+     * @return the features, null if they are not collected
+     * @see Builder#setDenoiser(Denoiser)
+     * @see Builder#setAovs(boolean)
+     */
+    public PixelFeatures getFeatures() {
+        return features;
+    }
+
+    /**
+     * Denoises the rendered image by the denoiser of the camera, guided by the features of the pixels
+     * which were collected while the image was rendered. The tiles of the image are filtered in parallel
+     * unless the camera renders by the calling thread
+     *
+     * @return this camera
+     * @throws IllegalStateException if the camera has no denoiser
+     */
+    public Camera denoise() {
+        if (denoiser == null)
+            throw new IllegalStateException("Denoiser is not set for this camera");
+        Region frame = getFrame();
+        imageWriter.writePixels(frame, denoiser.denoise(imageWriter.readPixels(frame), features, threadsCount != 0));
+        return this;
+    }
+
+    /**
+     * Writes the heatmap of the render times to the images directory - a false-color image
+     * (name-heatmap.png) and a table of the cost of each tile (name-heatmap.csv)
+     *
+     * @param name the name of the rendered image
+     * @return this camera
+     * @throws IllegalStateException if the heatmap is not collected
+     */
+    public Camera writeHeatmap(String name) {
+        if (heatmap == null)
+            throw new IllegalStateException("Render heatmap is not enabled for this camera");
+        heatmap.writeImage(name + "-heatmap");
+        heatmap.writeCsv(name + "-heatmap");
+        return this;
+    }
+
+    /**
+     * Writes the features of the pixels of the last render (the arbitrary output variables: depth, normal, albedo,
+     * direct and indirect light, variance, samples, geometry and material) as float maps to the images directory,
+     * name-depth.pfm etc. (see {@link PixelFeatures})
+     *
+     * @param name the name of the rendered image
+     * @return this camera
+     * @throws IllegalStateException if the features are not collected
+     */
+    public Camera writeAovs(String name) {
+        if (features == null)
+            throw new IllegalStateException("Pixel features are not collected by this camera");
+        features.write(name);
+        return this;
+    }
+
+    /**
+     * Writes the statistics of the last render as JSON to the images directory
+     *
+     * @param name the name of the file written (without the .json extension)
+     * @return this camera
+     * @throws IllegalStateException if the statistics are not collected
+     */
+    public Camera writeStatistics(String name) {
+        if (statistics == null)
+            throw new IllegalStateException("Render statistics are not enabled for this camera");
+        ImageWriter.writeText(name + ".json", statistics.toJson());
+        return this;
+    }
+
+    /**
+     * Renders a tile of the image and reads back its pixels
+     *
+     * @param tile the rectangle of pixels to render
+     * @return the RGB values of the tile pixels, row by row
+     */
+    int[] renderTile(Region tile) {
+        renderRegion(tile);
+        return imageWriter.readPixels(tile);
+    }
+
+    /**
+     * Writes the pixels of a tile which was rendered elsewhere into the image
+     *
+     * @param tile the rectangle of pixels
+     * @param rgb  the RGB values of the tile pixels, row by row
+     */
+    void writeTile(Region tile, int[] rgb) {
+        imageWriter.writePixels(tile, rgb);
+    }
+
+    /**
+     * Writes the camera geometry, resolution and ray tracer type, so that the same camera
+     * can be rebuilt by {@link #readSettings(DataInputStream, Scene, int)} in another process
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream fails
+     */
+    void writeSettings(DataOutputStream out) throws IOException {
+        for (Point p : new Point[]{p0, vTo, vUp, vRight}) {
+            out.writeDouble(p.getX());
+            out.writeDouble(p.getY());
+            out.writeDouble(p.getZ());
+        }
+        out.writeDouble(width);
+        out.writeDouble(height);
+        out.writeDouble(distance);
+        out.writeInt(nX);
+        out.writeInt(nY);
+        out.writeInt(dofRays);
+        out.writeDouble(aperture);
+        out.writeDouble(focalDistance);
+        out.writeUTF(rayTracerType.name());
+    }
+
+    /**
+     * Rebuilds a camera written by {@link #writeSettings(DataOutputStream)}
+     *
+     * @param in      the stream to read from
+     * @param scene   the scene to render
+     * @param threads the multi-threading parameter of the camera (see {@link Builder#setMultithreading(int)})
+     * @return the camera
+     * @throws IOException if the stream fails
+     */
+    static Camera readSettings(DataInputStream in, Scene scene, int threads) throws IOException {
+        Vector[] vectors = new Vector[3];
+        Point location = new Point(in.readDouble(), in.readDouble(), in.readDouble());
+        for (int i = 0; i < vectors.length; ++i)
+            vectors[i] = new Vector(in.readDouble(), in.readDouble(), in.readDouble());
+        Camera camera = new Camera();
+        camera.p0 = location;
+        camera.vTo = vectors[0];
+        camera.vUp = vectors[1];
+        camera.vRight = vectors[2];
+        camera.width = in.readDouble();
+        camera.height = in.readDouble();
+        camera.distance = in.readDouble();
+        camera.nX = in.readInt();
+        camera.nY = in.readInt();
+        camera.dofRays = in.readInt();
+        camera.aperture = in.readDouble();
+        camera.focalDistance = in.readDouble();
+        camera.threadsCount = threads;
+        camera.rayTracerType = RayTracerType.valueOf(in.readUTF());
+        camera.rayTracer = camera.rayTracerType.create(scene, null);
+        camera.imageWriter = new ImageWriter(camera.nX, camera.nY);
+        camera.VP_Center = camera.p0.add(camera.vTo.scale(camera.distance));
+        return camera;
+    }
+
     /**
      * Prints a grid on the image with the specified color and interval.
      *
@@ -281,7 +859,39 @@ public class Camera implements Cloneable {
      * @return this camera
      */
     public Camera writeToImage(String name) {
+        long start = System.nanoTime();
         this.imageWriter.writeToImage(name);
+        if (statistics != null) statistics.addTime(RenderStatistics.Phase.WRITE, System.nanoTime() - start);
+        return this;
+    }
+
+    /**
+     * Writes only a rectangle of the image (a crop) to the images directory
+     *
+     * @param name   the name of the image written
+     * @param region the rectangle of pixels to write
+     * @return this camera
+     * @throws IllegalArgumentException if the region is outside the image
+     */
+    public Camera writeToImage(String name, Region region) {
+        if (!region.isInside(nX, nY))
+            throw new IllegalArgumentException("Region " + region + " is outside of the image");
+        long start = System.nanoTime();
+        this.imageWriter.writeToImage(name, region);
+        if (statistics != null) statistics.addTime(RenderStatistics.Phase.WRITE, System.nanoTime() - start);
+        return this;
+    }
+
+    /**
+     * Loads an existing image from the images directory into the camera image,
+     * so that rendering regions patches it instead of a black image
+     *
+     * @param name the name of the image to read
+     * @return this camera
+     * @throws IllegalArgumentException if the image resolution differs from the camera resolution
+     */
+    public Camera readImage(String name) {
+        this.imageWriter.readImage(name);
         return this;
     }
 
@@ -498,16 +1108,105 @@ public class Camera implements Cloneable {
          * @return the Builder instance.
          */
         public Builder setRayTracer(Scene scene, RayTracerType type) {
-            if (type == RayTracerType.SIMPLE) {
-                camera.rayTracer = new SimpleRayTracer(scene);
-            } else if (type == RayTracerType.VOXEL) {
-                camera.rayTracer = new VoxelRayTracer(scene);
-            } else {
-                camera.rayTracer = null;
-            }
+            return setRayTracer(scene, type, null);
+        }
+
+        /**
+         * Sets the ray tracer for the camera, caching its acceleration structure in a directory,
+         * so that renders of the same geometries (also in later runs) do not build it again
+         * (see {@link voxel.VoxelGridCache})
+         *
+         * @param scene          the scene to be rendered
+         * @param type           the type of ray tracer to use
+         * @param cacheDirectory the directory of the cached acceleration structures, null for no cache
+         * @return the Builder instance.
+         */
+        public Builder setRayTracer(Scene scene, RayTracerType type, Path cacheDirectory) {
+            camera.rayTracer = type == null ? null : type.create(scene, cacheDirectory);
+            camera.rayTracerType = type == null ? RayTracerType.SIMPLE : type;
+            return this;
+        }
+
+        /**
+         * Sets a ray tracer which was already created, so that several cameras
+         * (e.g. the frames of a {@link FrameSequence}) share it and its acceleration structure
+         *
+         * @param rayTracer the ray tracer
+         * @return the Builder instance.
+         */
+        public Builder setRayTracer(RayTracerBase rayTracer) {
+            if (rayTracer == null) throw new IllegalArgumentException("ray tracer cannot be null");
+            camera.rayTracer = rayTracer;
+            camera.rayTracerType = !(rayTracer instanceof VoxelRayTracer voxel) ? RayTracerType.SIMPLE
+                    : voxel.isHierarchical() ? RayTracerType.HIERARCHICAL_VOXEL : RayTracerType.VOXEL;
+            return this;
+        }
+
+        /**
+         * Enables or disables collecting statistics of the renders: rays by type, voxel traversal,
+         * intersection tests and the time of each phase (see {@link RenderStatistics}).
+         * When disabled (the default) the ray tracer does not count anything
+         *
+         * @param enabled true to collect the statistics
+         * @return the Builder instance.
+         */
+        public Builder setStatistics(boolean enabled) {
+            camera.statisticsEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Enables or disables collecting the heatmap of the render times and ray counts of the pixels
+         * (see {@link RenderHeatmap}). The heatmap also collects the render statistics
+         *
+         * @param enabled true to collect the heatmap
+         * @return the Builder instance.
+         */
+        public Builder setHeatmap(boolean enabled) {
+            camera.heatmapEnabled = enabled;
             return this;
         }
 
+        /**
+         * Sets the denoiser of the rendered images (see {@link Camera#denoise()}).
+         * The camera collects the features of the pixels (see {@link PixelFeatures}) which guide the denoiser
+         *
+         * @param denoiser the denoiser, null for rendering without denoising (the default)
+         * @return the Builder instance.
+         */
+        public Builder setDenoiser(Denoiser denoiser) {
+            camera.denoiser = denoiser;
+            return this;
+        }
+
+        /**
+         * Enables or disables collecting the features of the pixels (see {@link PixelFeatures}) - the arbitrary
+         * output variables for compositing and debugging, written by {@link Camera#writeAovs(String)}.
+         * The features are also collected whenever a denoiser is set
+         *
+         * @param enabled true to collect the features
+         * @return the Builder instance.
+         */
+        public Builder setAovs(boolean enabled) {
+            camera.aovsEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets the tuning of the grid of a voxel ray tracer (see {@link VoxelRayTracer#tune(List)}) by the cost of
+         * some of the primary rays of the camera and their shadow rays. The grid is tuned when the first camera
+         * is built over the ray tracer, which costs building a few grids - it pays off for large scenes rendered
+         * at a high resolution. The cameras built later over the same ray tracer (e.g. the frames of a
+         * {@link FrameSequence} or the cameras of a {@link RenderBatch}) keep its tuned grid
+         *
+         * @param probeRays the amount of primary rays, spread evenly over the image, 0 for no tuning (the default)
+         * @return the Builder instance.
+         */
+        public Builder setGridTuning(int probeRays) {
+            if (probeRays < 0) throw new IllegalArgumentException("Amount of probe rays cannot be negative");
+            camera.tuningRays = probeRays;
+            return this;
+        }
 
         /**
          * Builds the camera
@@ -533,9 +1232,15 @@ public class Camera implements Cloneable {
             if (camera.rayTracer == null) {
                 camera.rayTracer = new SimpleRayTracer(null);
             }
+            camera.statistics = camera.statisticsEnabled || camera.heatmapEnabled ? new RenderStatistics() : null;
+            camera.heatmap = camera.heatmapEnabled ? new RenderHeatmap(camera.nX, camera.nY) : null;
+            camera.features = camera.denoiser != null || camera.aovsEnabled
+                    ? new PixelFeatures(camera.nX, camera.nY) : null;
 
             try {
                 camera.VP_Center = camera.p0.add(camera.vTo.scale(camera.distance));
+                if (camera.tuningRays > 0 && camera.rayTracer instanceof VoxelRayTracer voxel && !voxel.isTuned())
+                    voxel.tune(camera.probeRays(camera.tuningRays));
                 return (Camera) camera.clone();
             } catch (CloneNotSupportedException e) {
                 Camera c = new Camera();
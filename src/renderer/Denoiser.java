@@ -0,0 +1,241 @@
+package renderer;
+
+import java.util.List;
+
+/**
+ * Edge-aware denoiser of rendered images with few rays per pixel (depth of field, soft shadows and glossy
+ * surfaces), by the edge-avoiding à-trous wavelet filter (Dammertz et al., 2010).<br>
+ * Each iteration blurs the image by a 5x5 B3-spline kernel whose taps are spread twice as far as in the previous
+ * iteration, so a few iterations cover a large footprint. The weight of each tap is lowered by the difference
+ * between the pixels in normal, depth and albedo ({@link PixelFeatures}), so the noise is smoothed
+ * within surfaces while the edges between surfaces, the silhouettes and the textures are kept.
+ * The features guide only between pixels whose rays agree on their surface - the features of a mixed pixel
+ * (e.g. an edge out of focus) are as noisy as its color.
+ * The color difference is tolerated relative to the noise of the pixel - the standard deviation of its rays - as in
+ * spatiotemporal variance-guided filtering (Schied et al., 2017), so pixels whose rays agree are kept as they are,
+ * and the noisy pixels (e.g. out of focus) are smoothed.<br>
+ * Each iteration runs over the tiles of the image in parallel.
+ * The denoiser is applied by {@link Camera#denoise()} after the image is rendered and before it is written
+ */
+public class Denoiser {
+    /**
+     * The weights of the taps of the B3-spline kernel in one axis
+     */
+    private static final float[] KERNEL = {1f / 16, 1f / 4, 3f / 8, 1f / 4, 1f / 16};
+
+    /**
+     * The color difference of a pixel which is not noisy at all - avoids dividing by zero
+     */
+    private static final float MIN_DEVIATION = 1e-4f;
+
+    /**
+     * Amount of iterations - each iteration doubles the reach of the filter
+     */
+    private int iterations = 2;
+    /**
+     * Tolerance of the color difference, in standard deviations of the noise of the pixel
+     */
+    private double colorSigma = 4;
+    /**
+     * Tolerance of the difference between the normals (1 minus the cosine of the angle between them)
+     */
+    private double normalSigma = 0.05;
+    /**
+     * Tolerance of the depth difference, relative to the depth of the pixel and to the distance of the tap
+     */
+    private double depthSigma = 0.05;
+    /**
+     * Tolerance of the albedo difference
+     */
+    private double albedoSigma = 0.1;
+
+    /**
+     * Constructor of a denoiser with the default parameters
+     */
+    public Denoiser() {
+    }
+
+    /**
+     * Sets the amount of iterations of the filter
+     *
+     * @param iterations the amount of iterations, between 1 and 10
+     * @return this denoiser
+     */
+    public Denoiser setIterations(int iterations) {
+        if (iterations < 1 || iterations > 10)
+            throw new IllegalArgumentException("Denoiser iterations must be between 1 and 10");
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Sets the tolerance of the color difference
+     *
+     * @param sigma the tolerance, in standard deviations of the noise of the pixel - higher blurs more
+     * @return this denoiser
+     */
+    public Denoiser setColorSigma(double sigma) {
+        colorSigma = checkSigma(sigma);
+        return this;
+    }
+
+    /**
+     * Sets the tolerance of the difference between the normals
+     *
+     * @param sigma the tolerance of 1 minus the cosine of the angle between the normals - higher blurs more
+     * @return this denoiser
+     */
+    public Denoiser setNormalSigma(double sigma) {
+        normalSigma = checkSigma(sigma);
+        return this;
+    }
+
+    /**
+     * Sets the tolerance of the depth difference
+     *
+     * @param sigma the tolerance, relative to the depth of the pixel - higher blurs more
+     * @return this denoiser
+     */
+    public Denoiser setDepthSigma(double sigma) {
+        depthSigma = checkSigma(sigma);
+        return this;
+    }
+
+    /**
+     * Sets the tolerance of the albedo difference
+     *
+     * @param sigma the tolerance - higher blurs more
+     * @return this denoiser
+     */
+    public Denoiser setAlbedoSigma(double sigma) {
+        albedoSigma = checkSigma(sigma);
+        return this;
+    }
+
+    /**
+     * Checks a tolerance
+     *
+     * @param sigma the tolerance
+     * @return the tolerance
+     * @throws IllegalArgumentException if the tolerance is not positive
+     */
+    private static double checkSigma(double sigma) {
+        if (!(sigma > 0)) throw new IllegalArgumentException("Denoiser tolerance must be positive");
+        return sigma;
+    }
+
+    /**
+     * Denoises an image
+     *
+     * @param rgb      the RGB values of the pixels of the image, row by row
+     * @param features the features of the pixels of the image
+     * @param parallel true to filter the tiles of the image in parallel
+     * @return the RGB values of the denoised image
+     */
+    int[] denoise(int[] rgb, PixelFeatures features, boolean parallel) {
+        int nX = features.nX();
+        int nY = features.nY();
+        if (rgb.length != nX * nY)
+            throw new IllegalArgumentException("The image does not match the resolution of the features");
+        float[] in = new float[3 * rgb.length];
+        for (int p = 0; p < rgb.length; ++p) {
+            in[3 * p] = (rgb[p] >> 16 & 0xFF) / 255f;
+            in[3 * p + 1] = (rgb[p] >> 8 & 0xFF) / 255f;
+            in[3 * p + 2] = (rgb[p] & 0xFF) / 255f;
+        }
+        float[] out = new float[in.length];
+
+        List<Region> tiles = new Region(0, 0, nX, nY).split(PixelManager.TILE_SIZE);
+        for (int i = 0; i < iterations; ++i) {
+            int step = 1 << i;
+            float[] source = in;
+            float[] target = out;
+            (parallel ? tiles.parallelStream() : tiles.stream())
+                    .forEach(tile -> filterTile(tile, step, source, target, features));
+            in = target;
+            out = source;
+        }
+
+        int[] result = new int[rgb.length];
+        for (int p = 0; p < rgb.length; ++p)
+            result[p] = channel(in[3 * p]) << 16 | channel(in[3 * p + 1]) << 8 | channel(in[3 * p + 2]);
+        return result;
+    }
+
+    /**
+     * Converts a color channel back to a byte
+     *
+     * @param value the channel, 0..1
+     * @return the channel, 0..255
+     */
+    private static int channel(float value) {
+        return Math.min(255, Math.max(0, Math.round(value * 255)));
+    }
+
+    /**
+     * Filters the pixels of a tile in one iteration
+     *
+     * @param tile     the tile
+     * @param step     the distance between the taps of the kernel
+     * @param source   the colors of the previous iteration, 3 for each pixel
+     * @param target   the colors of this iteration, 3 for each pixel
+     * @param features the features of the pixels
+     */
+    private void filterTile(Region tile, int step, float[] source, float[] target, PixelFeatures features) {
+        int nX = features.nX();
+        int nY = features.nY();
+        float[] depth = features.depths();
+        float[] normal = features.normals();
+        float[] albedo = features.albedos();
+        float[] variance = features.variances();
+        boolean[] mixed = features.mixed();
+        float normalFactor = (float) (1 / normalSigma);
+        float albedoFactor = (float) (1 / (albedoSigma * albedoSigma));
+        float depthFactor = (float) (1 / (depthSigma * step));
+
+        for (int y = tile.y(); y < tile.y() + tile.height(); ++y)
+            for (int x = tile.x(); x < tile.x() + tile.width(); ++x) {
+                int p = y * nX + x;
+                float depthP = depth[p];
+                boolean missP = Float.isInfinite(depthP);
+                float colorFactor = 1 / ((float) colorSigma * (float) Math.sqrt(variance[p]) + MIN_DEVIATION);
+                float r = 0, g = 0, b = 0, weights = 0;
+                for (int dy = -2; dy <= 2; ++dy) {
+                    int qy = y + dy * step;
+                    if (qy < 0 || qy >= nY) continue;
+                    for (int dx = -2; dx <= 2; ++dx) {
+                        int qx = x + dx * step;
+                        if (qx < 0 || qx >= nX) continue;
+                        int q = qy * nX + qx;
+                        boolean missQ = Float.isInfinite(depth[q]);
+                        boolean guided = !mixed[p] && !mixed[q];
+                        if (guided && missP != missQ) continue;
+
+                        float cr = source[3 * q] - source[3 * p];
+                        float cg = source[3 * q + 1] - source[3 * p + 1];
+                        float cb = source[3 * q + 2] - source[3 * p + 2];
+                        float exponent = (float) Math.sqrt(cr * cr + cg * cg + cb * cb) * colorFactor;
+                        if (guided && !missP) {
+                            float dz = (depthP - depth[q]) / depthP * depthFactor;
+                            float dn = 1 - (normal[3 * p] * normal[3 * q] + normal[3 * p + 1] * normal[3 * q + 1]
+                                    + normal[3 * p + 2] * normal[3 * q + 2]);
+                            float ar = albedo[3 * q] - albedo[3 * p];
+                            float ag = albedo[3 * q + 1] - albedo[3 * p + 1];
+                            float ab = albedo[3 * q + 2] - albedo[3 * p + 2];
+                            exponent += dz * dz + Math.max(0, dn) * normalFactor
+                                    + (ar * ar + ag * ag + ab * ab) * albedoFactor;
+                        }
+                        float weight = KERNEL[dx + 2] * KERNEL[dy + 2] * (float) Math.exp(-exponent);
+                        r += weight * source[3 * q];
+                        g += weight * source[3 * q + 1];
+                        b += weight * source[3 * q + 2];
+                        weights += weight;
+                    }
+                }
+                // the weight of the pixel itself is never zero
+                target[3 * p] = r / weights;
+                target[3 * p + 1] = g / weights;
+                target[3 * p + 2] = b / weights;
+            }
+    }
+}
@@ -0,0 +1,135 @@
+package renderer;
+
+import scene.Scene;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Renders a sequence of frames of an animation (e.g. a turntable) into numbered images.<br>
+ * The scene and its ray tracer are created once for the whole sequence. Before each frame:
+ * <ul>
+ * <li>the scene update moves the geometries of the scene (e.g. by
+ * {@link geometries.Instance#setTransform(primitives.Transform)}), and the acceleration structure
+ * of the ray tracer is refitted to the new positions instead of being built again
+ * (see {@link VoxelRayTracer#refit()})</li>
+ * <li>the camera update changes the camera builder (location, direction, ...), and the camera of the
+ * frame is built over the same ray tracer</li>
+ * </ul>
+ * All the frames are rendered by the same threads, so a frame costs little more than tracing its rays.
+ */
+public class FrameSequence {
+    /**
+     * The animated scene
+     */
+    private final Scene scene;
+    /**
+     * The ray tracer of all the frames
+     */
+    private final RayTracerBase rayTracer;
+    /**
+     * The builder of the cameras of the frames
+     */
+    private final Camera.Builder builder;
+    /**
+     * Moves the geometries of the scene to a frame, null for a still scene
+     */
+    private ObjIntConsumer<Scene> sceneUpdate = null;
+    /**
+     * Moves the camera to a frame, null for a still camera
+     */
+    private ObjIntConsumer<Camera.Builder> cameraUpdate = null;
+
+    /**
+     * Constructor
+     *
+     * @param scene   the animated scene
+     * @param type    the type of ray tracer to use
+     * @param builder the builder of the cameras of the frames, with everything but the ray tracer
+     */
+    public FrameSequence(Scene scene, RayTracerType type, Camera.Builder builder) {
+        if (scene == null || builder == null)
+            throw new IllegalArgumentException("Frame sequence must have a scene and a camera builder");
+        this.scene = scene;
+        this.rayTracer = (type == null ? RayTracerType.SIMPLE : type).create(scene, null);
+        this.builder = builder.setRayTracer(rayTracer);
+    }
+
+    /**
+     * Sets the update of the scene before each frame.
+     * The update may only move, add or replace geometries - the lights and the background are not refitted
+     *
+     * @param sceneUpdate called with the scene and the number of the frame
+     * @return this sequence
+     */
+    public FrameSequence setSceneUpdate(ObjIntConsumer<Scene> sceneUpdate) {
+        this.sceneUpdate = sceneUpdate;
+        return this;
+    }
+
+    /**
+     * Sets the update of the camera before each frame
+     *
+     * @param cameraUpdate called with the camera builder and the number of the frame
+     * @return this sequence
+     */
+    public FrameSequence setCameraUpdate(ObjIntConsumer<Camera.Builder> cameraUpdate) {
+        this.cameraUpdate = cameraUpdate;
+        return this;
+    }
+
+    /**
+     * Gets the ray tracer shared by the frames
+     *
+     * @return the ray tracer
+     */
+    public RayTracerBase getRayTracer() {
+        return rayTracer;
+    }
+
+    /**
+     * Renders the frames and writes them to the images directory as name-0000.png, name-0001.png...
+     *
+     * @param frames the amount of frames
+     * @param name   the name of the images written, followed by the number of the frame
+     * @return this sequence
+     */
+    public FrameSequence render(int frames, String name) {
+        return render(0, frames, name);
+    }
+
+    /**
+     * Renders a range of the frames and writes them to the images directory
+     *
+     * @param first  the number of the first frame
+     * @param frames the amount of frames
+     * @param name   the name of the images written, followed by the number of the frame
+     * @return this sequence
+     * @see #render(int, String)
+     */
+    public FrameSequence render(int first, int frames, String name) {
+        if (first < 0 || frames <= 0)
+            throw new IllegalArgumentException("Frames must be a positive amount from a non-negative frame");
+        ExecutorService pool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "frame");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int frame = first; frame < first + frames; ++frame) {
+                if (sceneUpdate != null) {
+                    sceneUpdate.accept(scene, frame);
+                    if (rayTracer instanceof VoxelRayTracer voxelRayTracer) voxelRayTracer.refit();
+                    else rayTracer.clearOccluders();
+                }
+                if (cameraUpdate != null) cameraUpdate.accept(builder, frame);
+                builder.build().renderImage(pool).writeToImage(String.format("%s-%04d", name, frame));
+                if (Thread.currentThread().isInterrupted()) break;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return this;
+    }
+}
@@ -2,6 +2,10 @@ package renderer;
 
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
 
 import javax.imageio.ImageIO;
 
@@ -72,6 +76,99 @@ final class ImageWriter {
       }
    }
 
+   /**
+    * Function writeToImage produces unoptimized png file of a rectangle of the
+    * pixel color matrix (a crop of the image) in the directory of the project
+    * @param imageName the name of png file
+    * @param region    the rectangle of pixels to write
+    */
+   void writeToImage(String imageName, Region region) {
+      try {
+         File file = new File(FOLDER_PATH + '/' + imageName + ".png");
+         ImageIO.write(image.getSubimage(region.x(), region.y(), region.width(), region.height()), "png", file);
+      } catch (IOException e) {
+         throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+      }
+   }
+
+   /**
+    * Function writeText produces a text file (e.g. a report of the render) in the
+    * directory of the images
+    * @param fileName the name of the file, including its extension
+    * @param text     the content of the file
+    */
+   static void writeText(String fileName, String text) {
+      try (Writer writer = new FileWriter(FOLDER_PATH + '/' + fileName)) {
+         writer.write(text);
+      } catch (IOException e) {
+         throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+      }
+   }
+
+   /**
+    * Function writeFloatMap produces a float map file (name.pfm - the portable float map
+    * format, little-endian, read by compositing tools) of per-pixel values, e.g. the depth
+    * or the normals of an image, in the directory of the images
+    * @param name     the name of the file, without the extension
+    * @param nX       the amount of pixels by width
+    * @param nY       the amount of pixels by height
+    * @param channels the amount of values of each pixel - 1 (gray) or 3 (color)
+    * @param values   the values of the pixels, row by row from the top, channels values for each pixel
+    */
+   static void writeFloatMap(String name, int nX, int nY, int channels, float[] values) {
+      if (channels != 1 && channels != 3)
+         throw new IllegalArgumentException("A float map has 1 or 3 channels");
+      if (values.length != nX * nY * channels)
+         throw new IllegalArgumentException("The values do not match the resolution " + nX + "x" + nY);
+      ByteBuffer rows = ByteBuffer.allocate(4 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+      FloatBuffer floats = rows.asFloatBuffer();
+      // the rows of a float map are written from the bottom
+      for (int row = nY - 1; row >= 0; --row)
+         floats.put(values, row * nX * channels, nX * channels);
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(FOLDER_PATH + '/' + name + ".pfm"))) {
+         out.write(((channels == 3 ? "PF" : "Pf") + "\n" + nX + " " + nY + "\n-1.0\n").getBytes(StandardCharsets.US_ASCII));
+         out.write(rows.array());
+      } catch (IOException e) {
+         throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+      }
+   }
+
+   /**
+    * Function readImage loads a png file from the directory of the project into
+    * the pixel color matrix
+    * @param imageName the name of png file
+    */
+   void readImage(String imageName) {
+      BufferedImage source;
+      try {
+         source = ImageIO.read(new File(FOLDER_PATH + '/' + imageName + ".png"));
+      } catch (IOException e) {
+         throw new IllegalStateException("I/O error - may be missing file " + imageName, e);
+      }
+      if (source == null || source.getWidth() != nX || source.getHeight() != nY)
+         throw new IllegalArgumentException("Image " + imageName + " does not match the resolution " + nX + "x" + nY);
+      image.getGraphics().drawImage(source, 0, 0, null);
+   }
+
+   /**
+    * The function readPixels reads the colors of a rectangle of pixels
+    * @param  region the rectangle of pixels
+    * @return        the RGB values of the pixels, row by row
+    */
+   int[] readPixels(Region region) {
+      return image.getRGB(region.x(), region.y(), region.width(), region.height(), null, 0, region.width());
+   }
+
+   /**
+    * The function writePixels writes the colors of a rectangle of pixels into
+    * pixel color matrix
+    * @param region the rectangle of pixels
+    * @param rgb    the RGB values of the pixels, row by row
+    */
+   void writePixels(Region region, int[] rgb) {
+      image.setRGB(region.x(), region.y(), region.width(), region.height(), rgb, 0, region.width());
+   }
+
    /**
     * The function writePixel writes a color of a specific pixel into pixel color
     * matrix
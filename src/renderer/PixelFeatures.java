@@ -0,0 +1,486 @@
+package renderer;
+
+import geometries.Geometry;
+import geometries.Intersectable.Intersection;
+import primitives.Color;
+import primitives.CompiledMaterial;
+import primitives.Double3;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The features (arbitrary output variables) of the first hits of the rays of each pixel of an image:
+ * the depth, the normal of the surface (facing the camera), its albedo - the emission of the geometry
+ * (scaled to 0..1) plus its diffuse coefficient, the geometry and the material which were hit,
+ * the direct and the indirect light, and the amount of rays of the pixel.
+ * The features of the rays of a pixel are averaged over the rays which hit a surface, and a pixel whose rays
+ * hit different geometries, or hit and missed (e.g. an edge out of focus), is marked as mixed - its features are not
+ * of one surface. The variance of the colors of the rays tells how noisy the pixel is - it is zero for a pixel of one ray,
+ * or of rays which agree.<br>
+ * The features are written by the ray tracer while it traces the primary rays, without tracing any other ray.
+ * They guide the {@link Denoiser} along the edges of the image, and they are written as float maps
+ * for compositing and debugging (see {@link Camera#writeAovs(String)}).
+ * They are collected only if a denoiser is set in the camera or the features are enabled
+ * (see {@link Camera.Builder#setDenoiser(Denoiser)} and {@link Camera.Builder#setAovs(boolean)})
+ */
+public class PixelFeatures {
+    /**
+     * Horizontal resolution of the image
+     */
+    private final int nX;
+    /**
+     * Vertical resolution of the image
+     */
+    private final int nY;
+    /**
+     * Depth of each pixel, row by row - infinity for a pixel whose rays did not hit a surface
+     */
+    private final float[] depth;
+    /**
+     * Normal of each pixel, 3 coordinates for each pixel, row by row
+     */
+    private final float[] normal;
+    /**
+     * Albedo of each pixel, 3 components for each pixel, row by row
+     */
+    private final float[] albedo;
+    /**
+     * Variance of the color of each pixel (the variance of the mean of its rays, colors are 0..1), row by row
+     */
+    private final float[] variance;
+    /**
+     * Whether the rays of each pixel hit different geometries or some of them missed, row by row
+     */
+    private final boolean[] mixed;
+    /**
+     * The geometry hit by the first ray of each pixel which hit a surface, row by row - null for a miss
+     */
+    private final Geometry[] geometry;
+    /**
+     * The material hit by the first ray of each pixel which hit a surface, row by row - null for a miss
+     */
+    private final CompiledMaterial[] material;
+    /**
+     * Direct light of each pixel (the emission and the light sources), 3 components for each pixel, row by row
+     */
+    private final float[] direct;
+    /**
+     * Indirect light of each pixel (the ambient light, the reflection and the transparency),
+     * 3 components for each pixel, row by row
+     */
+    private final float[] indirect;
+    /**
+     * Amount of primary rays of each pixel, row by row
+     */
+    private final int[] samples;
+
+    /**
+     * The features of the rays of a pixel, summed while they are traced
+     */
+    static final class Sample {
+        /**
+         * Amount of rays which hit a surface
+         */
+        private int hits = 0;
+        /**
+         * Amount of rays which did not hit a surface
+         */
+        private int misses = 0;
+        /**
+         * The geometry hit by the first ray which hit a surface
+         */
+        private Geometry geometry = null;
+        /**
+         * The material hit by the first ray which hit a surface
+         */
+        private CompiledMaterial material = null;
+        /**
+         * Whether the rays hit more than one geometry
+         */
+        private boolean mixed = false;
+        /**
+         * Sum of the depths of the hits
+         */
+        private double depth = 0;
+        /**
+         * Sum of the normals of the hits
+         */
+        private Double3 normal = Double3.ZERO;
+        /**
+         * Sum of the albedo of the hits
+         */
+        private Double3 albedo = Double3.ZERO;
+        /**
+         * Sum of the direct light of the hits
+         */
+        private Double3 direct = Double3.ZERO;
+        /**
+         * Sum of the indirect light of the hits
+         */
+        private Double3 indirect = Double3.ZERO;
+        /**
+         * Sum of the luminance of the colors of the rays (0..1)
+         */
+        private double luminance = 0;
+        /**
+         * Sum of the squared luminance of the colors of the rays
+         */
+        private double luminanceSquared = 0;
+
+        /**
+         * Default constructor
+         */
+        Sample() {
+        }
+
+        /**
+         * Adds the first hit of a ray
+         *
+         * @param ray          the ray
+         * @param intersection the closest intersection of the ray
+         * @param direct       the direct light of the hit
+         * @param indirect     the indirect light of the hit
+         */
+        void addHit(Ray ray, Intersection intersection, Color direct, Color indirect) {
+            addColor(direct.add(indirect));
+            this.direct = this.direct.add(direct.getRgb());
+            this.indirect = this.indirect.add(indirect.getRgb());
+            if (hits++ == 0) {
+                geometry = intersection.geometry;
+                material = intersection.material.compile();
+            } else if (geometry != intersection.geometry) mixed = true;
+            depth += ray.getPoint(0).distance(intersection.point);
+            Vector n = intersection.normal != null ? intersection.normal : intersection.getNormal();
+            if (n.dotProduct(ray.getDirection()) > 0) n = n.scale(-1d);
+            normal = normal.add(new Double3(n.getX(), n.getY(), n.getZ()));
+            albedo = albedo.add(intersection.geometry.getEmission().getRgb().scale(1d / 255)
+                    .add(intersection.material.compile().kD));
+        }
+
+        /**
+         * Adds a ray which did not hit a surface
+         *
+         * @param color the color of the ray
+         */
+        void addMiss(Color color) {
+            addColor(color);
+            ++misses;
+        }
+
+        /**
+         * Adds the color of a ray to the variance of the pixel
+         *
+         * @param color the color of the ray
+         */
+        private void addColor(Color color) {
+            Double3 rgb = color.getRgb();
+            double value = Math.min(1, (0.2126 * rgb.d1() + 0.7152 * rgb.d2() + 0.0722 * rgb.d3()) / 255);
+            luminance += value;
+            luminanceSquared += value * value;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param nX horizontal resolution of the image
+     * @param nY vertical resolution of the image
+     */
+    PixelFeatures(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        depth = new float[nX * nY];
+        normal = new float[3 * nX * nY];
+        albedo = new float[3 * nX * nY];
+        variance = new float[nX * nY];
+        mixed = new boolean[nX * nY];
+        geometry = new Geometry[nX * nY];
+        material = new CompiledMaterial[nX * nY];
+        direct = new float[3 * nX * nY];
+        indirect = new float[3 * nX * nY];
+        samples = new int[nX * nY];
+    }
+
+    /**
+     * Records the features of the rays of a pixel. Each pixel is rendered by one thread,
+     * so the recording needs no synchronization
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @param sample the features of the rays of the pixel
+     */
+    void record(int column, int row, Sample sample) {
+        int pixel = row * nX + column;
+        int rays = sample.hits + sample.misses;
+        double mean = sample.luminance / rays;
+        variance[pixel] = (float) Math.max(0, (sample.luminanceSquared / rays - mean * mean) / rays);
+        mixed[pixel] = sample.mixed || sample.hits > 0 && sample.misses > 0;
+        samples[pixel] = rays;
+        geometry[pixel] = sample.geometry;
+        material[pixel] = sample.material;
+        // the light is averaged over all the rays, as the color of the pixel - the misses add the background
+        direct[3 * pixel] = (float) (sample.direct.d1() / rays);
+        direct[3 * pixel + 1] = (float) (sample.direct.d2() / rays);
+        direct[3 * pixel + 2] = (float) (sample.direct.d3() / rays);
+        indirect[3 * pixel] = (float) (sample.indirect.d1() / rays);
+        indirect[3 * pixel + 1] = (float) (sample.indirect.d2() / rays);
+        indirect[3 * pixel + 2] = (float) (sample.indirect.d3() / rays);
+        if (sample.hits == 0) {
+            depth[pixel] = Float.POSITIVE_INFINITY;
+            for (int c = 0; c < 3; ++c) normal[3 * pixel + c] = albedo[3 * pixel + c] = 0;
+            return;
+        }
+        depth[pixel] = (float) (sample.depth / sample.hits);
+        double length = Math.sqrt(sample.normal.d1() * sample.normal.d1() + sample.normal.d2() * sample.normal.d2()
+                + sample.normal.d3() * sample.normal.d3());
+        if (length == 0) length = 1;
+        normal[3 * pixel] = (float) (sample.normal.d1() / length);
+        normal[3 * pixel + 1] = (float) (sample.normal.d2() / length);
+        normal[3 * pixel + 2] = (float) (sample.normal.d3() / length);
+        albedo[3 * pixel] = (float) (sample.albedo.d1() / sample.hits);
+        albedo[3 * pixel + 1] = (float) (sample.albedo.d2() / sample.hits);
+        albedo[3 * pixel + 2] = (float) (sample.albedo.d3() / sample.hits);
+    }
+
+    /**
+     * Records the features of a pixel directly
+     *
+     * @param column   the column of the pixel
+     * @param row      the row of the pixel
+     * @param depth    the depth, infinity for a miss
+     * @param normal   the normal facing the camera
+     * @param albedo   the albedo
+     * @param variance the variance of the color of the pixel
+     * @param mixed    whether the rays of the pixel hit different geometries or some of them missed
+     */
+    void record(int column, int row, double depth, Double3 normal, Double3 albedo, double variance, boolean mixed) {
+        int pixel = row * nX + column;
+        this.variance[pixel] = (float) variance;
+        this.mixed[pixel] = mixed;
+        this.depth[pixel] = (float) depth;
+        this.normal[3 * pixel] = (float) normal.d1();
+        this.normal[3 * pixel + 1] = (float) normal.d2();
+        this.normal[3 * pixel + 2] = (float) normal.d3();
+        this.albedo[3 * pixel] = (float) albedo.d1();
+        this.albedo[3 * pixel + 1] = (float) albedo.d2();
+        this.albedo[3 * pixel + 2] = (float) albedo.d3();
+    }
+
+    /**
+     * Gets the horizontal resolution of the image
+     *
+     * @return the amount of columns
+     */
+    public int nX() {
+        return nX;
+    }
+
+    /**
+     * Gets the vertical resolution of the image
+     *
+     * @return the amount of rows
+     */
+    public int nY() {
+        return nY;
+    }
+
+    /**
+     * Gets the depth of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the average distance of the hits from the camera, infinity if the pixel did not hit a surface
+     */
+    public double getDepth(int column, int row) {
+        return depth[row * nX + column];
+    }
+
+    /**
+     * Gets the normal of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the average normal of the hits, facing the camera, zero if the pixel did not hit a surface
+     */
+    public Double3 getNormal(int column, int row) {
+        int pixel = 3 * (row * nX + column);
+        return new Double3(normal[pixel], normal[pixel + 1], normal[pixel + 2]);
+    }
+
+    /**
+     * Gets the albedo of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the average albedo of the hits, zero if the pixel did not hit a surface
+     */
+    public Double3 getAlbedo(int column, int row) {
+        int pixel = 3 * (row * nX + column);
+        return new Double3(albedo[pixel], albedo[pixel + 1], albedo[pixel + 2]);
+    }
+
+    /**
+     * Gets the variance of the color of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the variance of the mean luminance of the rays of the pixel (0..1), zero for a pixel of one ray
+     */
+    public double getVariance(int column, int row) {
+        return variance[row * nX + column];
+    }
+
+    /**
+     * Checks whether the rays of a pixel hit different geometries or some of them missed
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return true if the features of the pixel are not of one surface
+     */
+    public boolean isMixed(int column, int row) {
+        return mixed[row * nX + column];
+    }
+
+    /**
+     * Gets the geometry of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the geometry hit by the first ray of the pixel which hit a surface, null if the pixel did not hit a surface
+     */
+    public Geometry getGeometry(int column, int row) {
+        return geometry[row * nX + column];
+    }
+
+    /**
+     * Gets the material of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the material hit by the first ray of the pixel which hit a surface, null if the pixel did not hit a surface
+     */
+    public CompiledMaterial getMaterial(int column, int row) {
+        return material[row * nX + column];
+    }
+
+    /**
+     * Gets the direct light of a pixel - the emission of the geometries and the light of the light sources
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the average direct light of the rays of the pixel
+     */
+    public Color getDirect(int column, int row) {
+        int pixel = 3 * (row * nX + column);
+        return new Color(direct[pixel], direct[pixel + 1], direct[pixel + 2]);
+    }
+
+    /**
+     * Gets the indirect light of a pixel - the ambient light, the reflection and the transparency.
+     * The color of a pixel is its direct light plus its indirect light plus the background of the rays which missed
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the average indirect light of the rays of the pixel
+     */
+    public Color getIndirect(int column, int row) {
+        int pixel = 3 * (row * nX + column);
+        return new Color(indirect[pixel], indirect[pixel + 1], indirect[pixel + 2]);
+    }
+
+    /**
+     * Gets the amount of primary rays of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the amount of rays traced from the camera through the pixel
+     */
+    public int getSamples(int column, int row) {
+        return samples[row * nX + column];
+    }
+
+    /**
+     * Writes the features to the images directory as float maps (see {@link ImageWriter#writeFloatMap}):
+     * name-depth, name-normal, name-albedo, name-direct, name-indirect, name-variance, name-samples,
+     * name-geometry and name-material. The geometries and the materials are numbered from 1 by the order
+     * of their first pixel, row by row, and the pixels which did not hit a surface are 0 (and of infinite depth)
+     *
+     * @param name the name of the rendered image
+     */
+    void write(String name) {
+        ImageWriter.writeFloatMap(name + "-depth", nX, nY, 1, depth);
+        ImageWriter.writeFloatMap(name + "-normal", nX, nY, 3, normal);
+        ImageWriter.writeFloatMap(name + "-albedo", nX, nY, 3, albedo);
+        ImageWriter.writeFloatMap(name + "-direct", nX, nY, 3, direct);
+        ImageWriter.writeFloatMap(name + "-indirect", nX, nY, 3, indirect);
+        ImageWriter.writeFloatMap(name + "-variance", nX, nY, 1, variance);
+        float[] values = new float[samples.length];
+        for (int pixel = 0; pixel < values.length; ++pixel) values[pixel] = samples[pixel];
+        ImageWriter.writeFloatMap(name + "-samples", nX, nY, 1, values);
+        ImageWriter.writeFloatMap(name + "-geometry", nX, nY, 1, identifiers(geometry));
+        ImageWriter.writeFloatMap(name + "-material", nX, nY, 1, identifiers(material));
+    }
+
+    /**
+     * Numbers the objects of the pixels by the order of their first pixel
+     *
+     * @param objects the object of each pixel, null for none
+     * @return the number of the object of each pixel, from 1, 0 for none
+     */
+    private static float[] identifiers(Object[] objects) {
+        Map<Object, Integer> numbers = new IdentityHashMap<>();
+        float[] values = new float[objects.length];
+        for (int pixel = 0; pixel < objects.length; ++pixel)
+            if (objects[pixel] != null)
+                values[pixel] = numbers.computeIfAbsent(objects[pixel], object -> numbers.size() + 1);
+        return values;
+    }
+
+    /**
+     * Gets the depth buffer
+     *
+     * @return the depth of each pixel, row by row
+     */
+    float[] depths() {
+        return depth;
+    }
+
+    /**
+     * Gets the normal buffer
+     *
+     * @return the normal of each pixel, 3 coordinates for each pixel
+     */
+    float[] normals() {
+        return normal;
+    }
+
+    /**
+     * Gets the albedo buffer
+     *
+     * @return the albedo of each pixel, 3 components for each pixel
+     */
+    float[] albedos() {
+        return albedo;
+    }
+
+    /**
+     * Gets the variance buffer
+     *
+     * @return the variance of the color of each pixel, row by row
+     */
+    float[] variances() {
+        return variance;
+    }
+
+    /**
+     * Gets the mixed pixels buffer
+     *
+     * @return whether each pixel is mixed, row by row
+     */
+    boolean[] mixed() {
+        return mixed;
+    }
+}
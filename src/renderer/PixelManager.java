@@ -1,46 +1,44 @@
 package renderer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * PixelManager is a helper class. It is used for multi-threading in the
  * renderer and
  * for follow up its progress.<br/>
- * A Camera uses one pixel manager object and several Pixel objects - one in
- * each thread.
+ * The image (or the rendered regions of it) is split into tiles, which are
+ * allocated to the rendering threads one by one. A render may be stopped between
+ * tiles - by cancellation or when its deadline passes.<br/>
+ * A Camera uses one pixel manager object for each render.
  *
  * @author Dan Zilberstein
  */
 class PixelManager {
     /**
-     * Immutable class for object containing allocated pixel (with its row and
-     * column numbers)
-     *
-     * @param col pixel column number
-     * @param row pixel row number
+     * Width and height of the tiles the rendered regions are split into
      */
-    record Pixel(int col, int row) {
-    }
+    static final int TILE_SIZE = 16;
 
     /**
-     * Maximum rows of pixels
+     * The tiles of the image to be generated
      */
-    private int maxRows = 0;
+    private final List<Region> tiles = new ArrayList<>();
     /**
-     * Maximum columns of pixels
+     * The tiles which were fully rendered
      */
-    private int maxCols = 0;
+    private final Set<Region> finished = ConcurrentHashMap.newKeySet();
     /**
      * Total amount of pixels in the generated image
      */
     private long totalPixels = 0L;
 
     /**
-     * Currently processed row of pixels
+     * Index of the next tile to be allocated
      */
-    private volatile int cRow = 0;
-    /**
-     * Currently processed column of pixels
-     */
-    private volatile int cCol = -1;
+    private int cTile = 0;
     /**
      * Amount of pixels that have been processed
      */
@@ -49,6 +47,18 @@ class PixelManager {
      * Last printed progress update percentage
      */
     private volatile int lastPrinted = 0;
+    /**
+     * Flag of cancellation of the render
+     */
+    private volatile boolean cancelled = false;
+    /**
+     * Flag of a deadline for the render
+     */
+    private boolean hasDeadline = false;
+    /**
+     * The time (by {@link System#nanoTime()}) after which no more tiles are allocated
+     */
+    private long deadline = 0L;
 
     /**
      * Flag of debug printing of progress percentage
@@ -63,7 +73,7 @@ class PixelManager {
      */
     private static final String PRINT_FORMAT = "%5.1f%%\r";
     /**
-     * Mutual exclusion object for synchronizing next pixel allocation between
+     * Mutual exclusion object for synchronizing next tile allocation between
      * threads
      */
     private final Object mutexNext = new Object();
@@ -82,47 +92,122 @@ class PixelManager {
      *                 required
      */
     PixelManager(int maxRows, int maxCols, double... interval) {
+        this(List.of(new Region(0, 0, maxCols, maxRows)), interval);
+    }
+
+    /**
+     * Initialize pixel manager data for multi-threading of a part of the image
+     *
+     * @param regions  the regions of pixels to be generated
+     * @param interval print time interval in seconds, 0 if printing is not
+     *                 required
+     * @throws IllegalArgumentException if there are no regions or two regions overlap
+     */
+    PixelManager(List<Region> regions, double... interval) {
         if (interval.length > 1) throw new IllegalArgumentException("only up to one interval argument is allowed");
-        this.maxRows = maxRows;
-        this.maxCols = maxCols;
-        totalPixels = (long) maxRows * maxCols;
+        if (regions.isEmpty()) throw new IllegalArgumentException("at least one region is required");
+        // the tiles are counted as finished one by one, so a pixel may not be in two tiles
+        for (int i = 0; i < regions.size(); ++i)
+            for (int j = i + 1; j < regions.size(); ++j)
+                if (regions.get(i).overlaps(regions.get(j)))
+                    throw new IllegalArgumentException("regions " + regions.get(i) + " and " + regions.get(j) + " overlap");
+        for (Region region : regions) {
+            totalPixels += region.size();
+            tiles.addAll(region.split(TILE_SIZE));
+        }
         printInterval = interval.length == 0 ? printInterval : (long) (interval[0] * 10);
         print = printInterval != 0;
         if (print) System.out.printf(PRINT_FORMAT, 0d);
     }
 
     /**
-     * Function for thread-safe manipulating of main follow up Pixel object - this
+     * Gets all the tiles of the image
+     *
+     * @return the tiles
+     */
+    List<Region> getTiles() {
+        return tiles;
+    }
+
+    /**
+     * Gets the amount of pixels to be generated
+     *
+     * @return the amount of pixels
+     */
+    long getTotalPixels() {
+        return totalPixels;
+    }
+
+    /**
+     * Sets the time after which no more tiles are allocated
+     *
+     * @param deadline the deadline by {@link System#nanoTime()}
+     */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+        hasDeadline = true;
+    }
+
+    /**
+     * Cancels the render - no more tiles are allocated
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the render was stopped by cancellation or by its deadline
+     *
+     * @return true if no more tiles should be rendered
+     */
+    boolean isStopped() {
+        return cancelled || (hasDeadline && System.nanoTime() - deadline > 0);
+    }
+
+    /**
+     * Function for thread-safe manipulating of main follow up tile index - this
      * function is critical section for all the threads, and the pixel manager data
      * is the shared data of this critical section.<br/>
-     * The function provides next available pixel number each call.
+     * The function provides next available tile each call.
      *
-     * @return true if next pixel is allocated, false if there are no more pixels
+     * @return the next tile, or null if there are no more tiles or the render was stopped
      */
-    Pixel nextPixel() {
+    Region nextTile() {
+        if (isStopped()) return null;
         synchronized (mutexNext) {
-            if (cRow == maxRows) return null;
+            return cTile < tiles.size() ? tiles.get(cTile++) : null;
+        }
+    }
 
-            ++cCol;
-            if (cCol < maxCols)
-                return new Pixel(cCol, cRow);
+    /**
+     * Checks whether all the tiles were rendered
+     *
+     * @return true if the render is complete
+     */
+    boolean isComplete() {
+        return finished.size() == tiles.size();
+    }
 
-            cCol = 0;
-            ++cRow;
-            if (cRow < maxRows)
-                return new Pixel(cCol, cRow);
-        }
-        return null;
+    /**
+     * Gets the tiles which were not rendered (because the render was stopped)
+     *
+     * @return the unfinished tiles
+     */
+    List<Region> getUnfinishedTiles() {
+        return tiles.stream().filter(tile -> !finished.contains(tile)).toList();
     }
 
     /**
-     * Finish pixel processing by updating and printing of progress percentage
+     * Finish tile processing by updating and printing of progress percentage
+     *
+     * @param tile the tile which was rendered
      */
-    void pixelDone() {
+    void tileDone(Region tile) {
+        finished.add(tile);
         boolean flag = false;
         int percentage = 0;
         synchronized (mutexPixels) {
-            ++pixels;
+            pixels += tile.size();
             if (print) {
                 percentage = (int) (1000L * pixels / totalPixels);
                 if (percentage - lastPrinted >= printInterval) {
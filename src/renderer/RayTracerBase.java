@@ -1,10 +1,16 @@
 package renderer;
 
 import geometries.Intersectable;
+import lighting.AreaLight;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
@@ -28,12 +34,50 @@ abstract public class RayTracerBase {
     protected static final Double3 INITIAL_K = Double3.ONE;
 
     protected static final double DELTA = 0.1;
+    /**
+     * Maximal amount of subdivisions of a cone of glossy or blurry secondary rays, for a path of full weight
+     */
+    private static final int MAX_CONE_DEPTH = 4;
+    /**
+     * Largest difference of a color component between the corners of a part of a cone
+     * for which the part is not subdivided
+     */
+    private static final double CONE_COLOR_DIFFERENCE = 2;
+
+    /**
+     * A cone of secondary rays around the direction of a reflection or a transparency
+     *
+     * @param origin    the origin of the rays
+     * @param direction the direction of the axis of the cone
+     * @param u         first axis perpendicular to the direction, scaled by the radius of the cone
+     * @param w         second axis perpendicular to the direction, scaled by the radius of the cone
+     * @param normal    the normal of the surface, scaled to the side of the surface the rays go to
+     * @param type      the type of the rays for the statistics
+     * @param level     the recursion level
+     * @param k         the accumulated attenuation factor
+     * @param kEffect   the attenuation coefficient of the effect
+     */
+    private record Cone(Point origin, Vector direction, Vector u, Vector w, Vector normal,
+                        RenderStatistics.Counter type, int level, Double3 k, Double3 kEffect) {
+    }
 
     /**
      * The scene.
      */
     protected final Scene scene;
 
+    /**
+     * Statistics collected while tracing, null if the statistics are disabled
+     */
+    protected RenderStatistics statistics = null;
+
+    /**
+     * The last opaque occluder found for each light by each thread, tested first by the next shadow ray
+     * of the light on the same thread - neighbouring pixels are usually shadowed by the same geometry
+     */
+    private volatile ThreadLocal<Map<LightSource, Intersectable.Intersection>> occluders =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
     /**
      * Constructs a RayTracerBase with the specified scene.
      *
@@ -43,13 +87,64 @@ abstract public class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Sets the statistics the tracer counts into
+     *
+     * @param statistics the statistics, null to stop counting
+     */
+    void setStatistics(RenderStatistics statistics) {
+        this.statistics = statistics;
+    }
+
     /**
      * Traces a ray and calculates the resulting color.
      *
      * @param ray the ray to trace
      * @return the color resulting from tracing the ray
      */
-    abstract public Color traceRay(Ray ray);
+    public Color traceRay(Ray ray) {
+        return traceRay(ray, null);
+    }
+
+    /**
+     * Traces a primary ray and calculates the resulting color, and adds the features of its first hit
+     * (see {@link PixelFeatures}) to the sample of its pixel - without tracing any other ray.
+     * The color of the hit is kept split into its direct light (the emission and the light sources)
+     * and its indirect light (the ambient light, the reflection and the transparency). The emission is counted
+     * by both the local and the global effects of the hit (see {@link #calcGlobalEffects}), and both of them
+     * are in the direct light
+     *
+     * @param ray    the ray to trace
+     * @param sample the features of the pixel of the ray, null if they are not collected
+     * @return the color resulting from tracing the ray
+     */
+    Color traceRay(Ray ray, PixelFeatures.Sample sample) {
+        Intersectable.Intersection intersection = findPrimaryIntersection(ray);
+        if (intersection == null) {
+            if (sample != null) sample.addMiss(scene.background);
+            return scene.background;
+        }
+        if (sample == null) return calcColor(intersection, ray);
+
+        // the terms of calcColor(intersection, level, k) at the first level, kept apart
+        Color direct = Color.BLACK;
+        Color indirect = Color.BLACK;
+        if (preprocessIntersection(intersection, ray.getDirection())
+                && alignZero(intersection.normal.dotProduct(intersection.direction)) != 0) {
+            direct = calcColorLocalEffects(intersection).add(intersection.geometry.getEmission());
+            indirect = calcIndirectEffects(intersection, MAX_CALC_COLOR_LEVEL, INITIAL_K);
+        }
+        sample.addHit(ray, intersection, direct, indirect);
+        return direct.add(indirect);
+    }
+
+    /**
+     * Finds the closest intersection of a primary ray, counting the ray in the statistics
+     *
+     * @param ray The primary ray
+     * @return The closest intersection or null if none exists
+     */
+    protected abstract Intersectable.Intersection findPrimaryIntersection(Ray ray);
 
     /**
      * Finds the closest intersection of a ray with objects in the scene
@@ -61,11 +156,185 @@ abstract public class RayTracerBase {
 
     /**
      * Calculates the transparency factor (ktr) for a given intersection point.
+     * The shadow of an area light is sampled adaptively over its area (see {@link AreaLight})
      *
      * @param intersection The intersection to check for shadow transparency.
      * @return A Double3 representing the accumulated transparency (ktr). If ktr falls below MIN_CALC_COLOR_K, returns Double3.ZERO.
      */
-    protected abstract Double3 transparency(Intersectable.Intersection intersection);
+    protected Double3 transparency(Intersectable.Intersection intersection) {
+        if (intersection.lightSource instanceof AreaLight areaLight)
+            return areaTransparency(intersection, areaLight);
+        return transparency(intersection, intersection.lightDirection,
+                intersection.lightSource.getDistance(intersection.point));
+    }
+
+    /**
+     * Calculates the transparency factor (ktr) of a shadow ray from an intersection point towards a light.<br>
+     * The last opaque occluder of the light on the current thread is tested first, and when it blocks the ray
+     * the scene is not traversed at all
+     *
+     * @param intersection   The intersection to check for shadow transparency.
+     * @param lightDirection The direction from the light to the intersection point.
+     * @param lightDistance  The distance from the intersection point to the light.
+     * @return A Double3 representing the accumulated transparency (ktr). If ktr falls below MIN_CALC_COLOR_K, returns Double3.ZERO.
+     */
+    protected Double3 transparency(Intersectable.Intersection intersection, Vector lightDirection,
+                                   double lightDistance) {
+        Vector lightDir = lightDirection.scale(-1.0); // From point to light
+        Vector epsVector = intersection.normal.scale(intersection.dotProductGeometry < 0 ? DELTA : -DELTA);
+        Point shadowRayOrigin = intersection.point.add(epsVector);
+        Ray shadowRay = new Ray(shadowRayOrigin, lightDir); // Shadow ray
+        if (statistics != null) statistics.count(RenderStatistics.Counter.SHADOW_RAYS);
+
+        Map<LightSource, Intersectable.Intersection> lightOccluders = occluders.get();
+        Intersectable.Intersection occluder = lightOccluders.get(intersection.lightSource);
+        if (occluder != null) {
+            boolean blocked = occluder.intersects(shadowRay, lightDistance);
+            if (statistics != null)
+                statistics.count(blocked ? RenderStatistics.Counter.OCCLUDER_HITS : RenderStatistics.Counter.OCCLUDER_MISSES);
+            if (blocked) return Double3.ZERO;
+        }
+
+        List<Intersectable.Intersection> shadowIntersections = findShadowIntersections(shadowRay, lightDistance);
+        Double3 ktr = Double3.ONE;
+        if (shadowIntersections == null) return ktr;
+
+        for (Intersectable.Intersection shadowIntersection : shadowIntersections) {
+            if (shadowIntersection.point.distance(intersection.point) < lightDistance) {
+                Double3 kT = shadowIntersection.material.compile().kT;
+                if (kT.lowerThan(MIN_CALC_COLOR_K)) {
+                    lightOccluders.put(intersection.lightSource, shadowIntersection);
+                    return Double3.ZERO;
+                }
+                ktr = ktr.product(kT);
+                if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
+                    return Double3.ZERO;
+                }
+            }
+        }
+
+        return ktr;
+    }
+
+    /**
+     * Finds the intersections of a shadow ray with the scene
+     *
+     * @param shadowRay     The shadow ray, from an intersection point towards a light.
+     * @param lightDistance The distance to the light.
+     * @return The intersections closer than the light, null or empty if there are none.
+     */
+    protected abstract List<Intersectable.Intersection> findShadowIntersections(Ray shadowRay, double lightDistance);
+
+    /**
+     * Forgets the last occluders of the lights of all the threads.
+     * Must be called after the geometries of the scene moved, and not during a render
+     */
+    void clearOccluders() {
+        occluders = ThreadLocal.withInitial(IdentityHashMap::new);
+    }
+
+    /**
+     * Calculates the average transparency from an intersection point to the area of a light.
+     * The corners and the center of the area are sampled first, and the area is subdivided
+     * only if they disagree
+     *
+     * @param intersection The intersection to check for shadow transparency.
+     * @param light        The area light.
+     * @return The average transparency (ktr) over the area of the light.
+     */
+    private Double3 areaTransparency(Intersectable.Intersection intersection, AreaLight light) {
+        Double3 k00 = sampleTransparency(intersection, light, 0, 0);
+        Double3 k10 = sampleTransparency(intersection, light, 1, 0);
+        Double3 k01 = sampleTransparency(intersection, light, 0, 1);
+        Double3 k11 = sampleTransparency(intersection, light, 1, 1);
+        Double3 center = sampleTransparency(intersection, light, 0.5, 0.5);
+        if (center.equals(k00) && center.equals(k10) && center.equals(k01) && center.equals(k11))
+            return center;
+        Map<AreaPoint, Double3> samples = new HashMap<>();
+        return cellTransparency(intersection, light, samples, 0, 0, 1, k00, k10, k01, k11, center, light.getMaxDepth());
+    }
+
+    /**
+     * A point of the area of a light, by its coordinates in the unit square
+     *
+     * @param u the first coordinate
+     * @param v the second coordinate
+     */
+    private record AreaPoint(double u, double v) {
+    }
+
+    /**
+     * Calculates the average transparency over a square cell of the area of a light,
+     * subdividing it into four cells while its corners disagree
+     *
+     * @param intersection The intersection to check for shadow transparency.
+     * @param light        The area light.
+     * @param samples      The transparencies towards the edge midpoints sampled so far for the intersection,
+     *                     which are shared by neighbouring cells.
+     * @param u            The first coordinate of the corner of the cell.
+     * @param v            The second coordinate of the corner of the cell.
+     * @param size         The size of the cell.
+     * @param k00          The transparency towards the corner (u, v).
+     * @param k10          The transparency towards the corner (u + size, v).
+     * @param k01          The transparency towards the corner (u, v + size).
+     * @param k11          The transparency towards the corner (u + size, v + size).
+     * @param center       The transparency towards the center of the cell, null if it was not sampled yet.
+     * @param depth        The amount of subdivisions left.
+     * @return The average transparency (ktr) over the cell.
+     */
+    private Double3 cellTransparency(Intersectable.Intersection intersection, AreaLight light,
+                                     Map<AreaPoint, Double3> samples, double u, double v, double size,
+                                     Double3 k00, Double3 k10, Double3 k01, Double3 k11, Double3 center, int depth) {
+        boolean agree = k00.equals(k10) && k00.equals(k01) && k00.equals(k11);
+        if (depth == 0 || (agree && center == null)) {
+            Double3 sum = k00.add(k10).add(k01).add(k11);
+            return center == null ? sum.reduce(4) : sum.add(center).reduce(5);
+        }
+
+        double half = size / 2;
+        if (center == null) center = sampleTransparency(intersection, light, u + half, v + half);
+        Double3 bottom = edgeTransparency(intersection, light, samples, u + half, v);
+        Double3 left = edgeTransparency(intersection, light, samples, u, v + half);
+        Double3 right = edgeTransparency(intersection, light, samples, u + size, v + half);
+        Double3 top = edgeTransparency(intersection, light, samples, u + half, v + size);
+        return cellTransparency(intersection, light, samples, u, v, half, k00, bottom, left, center, null, depth - 1)
+                .add(cellTransparency(intersection, light, samples, u + half, v, half, bottom, k10, center, right, null, depth - 1))
+                .add(cellTransparency(intersection, light, samples, u, v + half, half, left, center, k01, top, null, depth - 1))
+                .add(cellTransparency(intersection, light, samples, u + half, v + half, half, center, right, top, k11, null, depth - 1))
+                .reduce(4);
+    }
+
+    /**
+     * Calculates the transparency towards the midpoint of an edge of a cell of the area of a light,
+     * tracing it only once for the two cells of the edge
+     *
+     * @param intersection The intersection to check for shadow transparency.
+     * @param light        The area light.
+     * @param samples      The transparencies towards the edge midpoints sampled so far for the intersection.
+     * @param u            The first coordinate of the point in the area.
+     * @param v            The second coordinate of the point in the area.
+     * @return The transparency (ktr) towards the point.
+     */
+    private Double3 edgeTransparency(Intersectable.Intersection intersection, AreaLight light,
+                                     Map<AreaPoint, Double3> samples, double u, double v) {
+        return samples.computeIfAbsent(new AreaPoint(u, v), p -> sampleTransparency(intersection, light, u, v));
+    }
+
+    /**
+     * Calculates the transparency from an intersection point towards a point of the area of a light
+     *
+     * @param intersection The intersection to check for shadow transparency.
+     * @param light        The area light.
+     * @param u            The first coordinate of the point in the area.
+     * @param v            The second coordinate of the point in the area.
+     * @return The transparency (ktr) towards the point.
+     */
+    private Double3 sampleTransparency(Intersectable.Intersection intersection, AreaLight light, double u, double v) {
+        Point sample = light.getSample(u, v);
+        double distance = intersection.point.distance(sample);
+        if (isZero(distance)) return Double3.ONE;
+        return transparency(intersection, intersection.point.subtract(sample).normalize(), distance);
+    }
 
     /**
      * Gets the AmbientLight color intensity
@@ -107,7 +376,115 @@ abstract public class RayTracerBase {
 
 
     /**
-     * Calculates the global effects (reflection and transparency) at an intersection.
+     * Calculates a glossy or blurry global effect - the average color of a cone of secondary rays
+     * around the direction of the effect.<br>
+     * The amount of rays depends on the weight of the path: the rays to the corners and the center of the cone
+     * are traced first, and the parts of the cone whose corners disagree are subdivided, deeper for heavier paths.
+     * A path of little weight traces only the ray along the axis of the cone
+     *
+     * @param axisRay The secondary ray along the axis of the cone
+     * @param normal  The normal of the surface, towards the side the rays go to
+     * @param angle   The half angle of the cone in radians
+     * @param type    The type of the rays for the statistics
+     * @param level   The recursion level
+     * @param k       The accumulated attenuation factor
+     * @param kEffect The attenuation coefficient for this effect (kR or kT)
+     * @return The color contribution from this global effect
+     */
+    private Color calcConeEffect(Ray axisRay, Vector normal, double angle, RenderStatistics.Counter type,
+                                 int level, Double3 k, Double3 kEffect) {
+        Double3 weight = k.product(kEffect);
+        int depth = (int) Math.round(MAX_CONE_DEPTH * Math.max(weight.d1(), Math.max(weight.d2(), weight.d3()))) - 1;
+        Vector direction = axisRay.getDirection();
+        Vector helper = Math.abs(direction.dotProduct(Vector.AXIS_Y)) > 0.9 ? Vector.AXIS_X : Vector.AXIS_Y;
+        Vector u = direction.crossProduct(helper).normalize();
+        double radius = Math.tan(angle);
+        Cone cone = new Cone(axisRay.getPoint(0), direction, u.scale(radius), direction.crossProduct(u).scale(radius),
+                normal, type, level, k, kEffect);
+
+        Color center = coneSample(cone, 0.5, 0.5);
+        if (depth < 0) return center;
+        Color c00 = coneSample(cone, 0, 0);
+        Color c10 = coneSample(cone, 1, 0);
+        Color c01 = coneSample(cone, 0, 1);
+        Color c11 = coneSample(cone, 1, 1);
+        return coneCell(cone, 0, 0, 1, c00, c10, c01, c11, center, depth);
+    }
+
+    /**
+     * Calculates the average color over a square cell of a cone of secondary rays,
+     * subdividing it into four cells while its corners disagree
+     *
+     * @param cone   The cone of rays.
+     * @param s      The first coordinate of the corner of the cell.
+     * @param t      The second coordinate of the corner of the cell.
+     * @param size   The size of the cell.
+     * @param c00    The color of the corner (s, t).
+     * @param c10    The color of the corner (s + size, t).
+     * @param c01    The color of the corner (s, t + size).
+     * @param c11    The color of the corner (s + size, t + size).
+     * @param center The color of the center of the cell, null if it was not sampled yet.
+     * @param depth  The amount of subdivisions left.
+     * @return The average color over the cell.
+     */
+    private Color coneCell(Cone cone, double s, double t, double size,
+                           Color c00, Color c10, Color c01, Color c11, Color center, int depth) {
+        boolean agree = similar(c00, c10) && similar(c00, c01) && similar(c00, c11)
+                && (center == null || similar(c00, center));
+        if (depth == 0 || agree)
+            return center == null ? c00.add(c10, c01, c11).reduce(4) : c00.add(c10, c01, c11, center).reduce(5);
+
+        double half = size / 2;
+        if (center == null) center = coneSample(cone, s + half, t + half);
+        Color bottom = coneSample(cone, s + half, t);
+        Color left = coneSample(cone, s, t + half);
+        Color right = coneSample(cone, s + size, t + half);
+        Color top = coneSample(cone, s + half, t + size);
+        return coneCell(cone, s, t, half, c00, bottom, left, center, null, depth - 1)
+                .add(coneCell(cone, s + half, t, half, bottom, c10, center, right, null, depth - 1),
+                        coneCell(cone, s, t + half, half, left, center, c01, top, null, depth - 1),
+                        coneCell(cone, s + half, t + half, half, center, right, top, c11, null, depth - 1))
+                .reduce(4);
+    }
+
+    /**
+     * Traces a secondary ray of a cone by its coordinates in the unit square, which is mapped to the base of the cone
+     *
+     * @param cone The cone of rays.
+     * @param s    The first coordinate of the ray.
+     * @param t    The second coordinate of the ray.
+     * @return The color contribution of the ray. A ray into the surface is mirrored by the surface back above it,
+     * and a ray along the surface is replaced by the axis of the cone, so that a cone at a grazing angle
+     * averages only the light above the surface
+     */
+    private Color coneSample(Cone cone, double s, double t) {
+        double[] disk = Util.concentricDisk(s, t);
+        Vector direction = cone.direction;
+        if (!isZero(disk[0])) direction = direction.add(cone.u.scale(disk[0]));
+        if (!isZero(disk[1])) direction = direction.add(cone.w.scale(disk[1]));
+        double dn = alignZero(direction.dotProduct(cone.normal));
+        if (dn < 0) direction = direction.add(cone.normal.scale(-2 * dn));
+        else if (dn == 0) direction = cone.direction;
+        if (statistics != null) statistics.count(cone.type);
+        return calcGlobalEffect(new Ray(cone.origin, direction), cone.level, cone.k, cone.kEffect);
+    }
+
+    /**
+     * Checks whether two colors are close enough for not sampling between them
+     *
+     * @param a the first color
+     * @param b the second color
+     * @return true if every component of the colors differs by less than {@link #CONE_COLOR_DIFFERENCE}
+     */
+    private static boolean similar(Color a, Color b) {
+        Double3 difference = a.getRgb().subtract(b.getRgb());
+        return Math.abs(difference.d1()) < CONE_COLOR_DIFFERENCE && Math.abs(difference.d2()) < CONE_COLOR_DIFFERENCE
+                && Math.abs(difference.d3()) < CONE_COLOR_DIFFERENCE;
+    }
+
+    /**
+     * Calculates the global effects (reflection and transparency) at an intersection,
+     * with the emission of the geometry and the ambient light.
      *
      * @param intersection The intersection point
      * @param level        The recursion level
@@ -116,14 +493,26 @@ abstract public class RayTracerBase {
      */
     private Color calcGlobalEffects(Intersectable.Intersection intersection, int level, Double3 k) {
         // If the level of recursion is at base or the effect is negligible - stop recursion
-        Color color = intersection.geometry.getEmission();
         if (level == 1 || k.lowerThan(MIN_CALC_COLOR_K)) {
             return Color.BLACK;
         }
+        return intersection.geometry.getEmission().add(calcIndirectEffects(intersection, level, k));
+    }
 
+    /**
+     * Calculates the indirect light at an intersection - the ambient light, the reflection and the transparency
+     *
+     * @param intersection The intersection point
+     * @param level        The recursion level, above 1
+     * @param k            The accumulated attenuation factor
+     * @return The combined color of the ambient light, the reflection and the transparency
+     */
+    private Color calcIndirectEffects(Intersectable.Intersection intersection, int level, Double3 k) {
+        Color color = Color.BLACK;
+        CompiledMaterial material = intersection.material.compile();
         // Add ambient light contribution
-        if (scene.ambientlight.getIntensity() != null) {
-            color = color.add(scene.ambientlight.getIntensity().scale(intersection.material.kA));
+        if (material.hasAmbient && scene.ambientlight.getIntensity() != null) {
+            color = color.add(scene.ambientlight.getIntensity().scale(material.kA));
         }
 
         Vector v = intersection.direction;
@@ -132,21 +521,33 @@ abstract public class RayTracerBase {
         double nv = alignZero(n.dotProduct(v));
 
         // Calculate reflection contribution if material has reflection
-        Double3 kR = intersection.material.kR;
-        if (!kR.equals(Double3.ZERO)) {
+        if (material.isReflective) {
+            Double3 kR = material.kR;
             // r = v - 2(v·n)n
             Vector r = v.subtract(n.scale(nv * 2));
             // Create slightly offset reflection ray to avoid self-intersection
             Ray reflectedRay = new Ray(point.add(n.scale(nv < 0 ? DELTA : -DELTA)), r);
-            color = color.add(calcGlobalEffect(reflectedRay, level, k, kR));
+            double gloss = material.gloss;
+            if (gloss == 0) {
+                if (statistics != null) statistics.count(RenderStatistics.Counter.REFLECTION_RAYS);
+                color = color.add(calcGlobalEffect(reflectedRay, level, k, kR));
+            } else
+                color = color.add(calcConeEffect(reflectedRay, n.scale(nv < 0 ? 1d : -1d), gloss,
+                        RenderStatistics.Counter.REFLECTION_RAYS, level, k, kR));
         }
 
         // Calculate transparency/refraction contribution if material has transparency
-        Double3 kT = intersection.material.kT;
-        if (!kT.equals(Double3.ZERO)) {
+        if (material.isTransparent) {
+            Double3 kT = material.kT;
             // For transparency, ray continues in the same direction
             Ray reflectedRay = new Ray(point.add(n.scale(nv > 0 ? DELTA : -DELTA)), v);
-            color = color.add(calcGlobalEffect(reflectedRay, level, k, kT));
+            double blur = material.blur;
+            if (blur == 0) {
+                if (statistics != null) statistics.count(RenderStatistics.Counter.REFRACTION_RAYS);
+                color = color.add(calcGlobalEffect(reflectedRay, level, k, kT));
+            } else
+                color = color.add(calcConeEffect(reflectedRay, n.scale(nv > 0 ? 1d : -1d), blur,
+                        RenderStatistics.Counter.REFRACTION_RAYS, level, k, kT));
         }
 
         return color;
@@ -161,7 +562,7 @@ abstract public class RayTracerBase {
      * @return the calculated color
      */
     private Color calcColor(Intersectable.Intersection intersection, int level, Double3 k) {
-        Vector n = intersection.geometry.getNormal(intersection.point);
+        Vector n = intersection.getNormal();
         Vector v = intersection.direction; // Use the direction from the intersection
         double nv = alignZero(n.dotProduct(v));
         if (nv == 0) return Color.BLACK;
@@ -194,7 +595,7 @@ abstract public class RayTracerBase {
      */
     private boolean preprocessIntersection(Intersectable.Intersection intersection, Vector direction) {
         intersection.direction = direction;
-        intersection.normal = intersection.geometry.getNormal(intersection.point);
+        intersection.normal = intersection.getNormal();
         intersection.dotProductGeometry = alignZero(direction.dotProduct(intersection.normal));
         return !isZero(intersection.dotProductGeometry);
     }
@@ -207,11 +608,17 @@ abstract public class RayTracerBase {
      */
     private Color calcColorLocalEffects(Intersectable.Intersection intersection) {
         Color color = intersection.geometry.getEmission();
+        CompiledMaterial material = intersection.material.compile();
+        // A material which neither diffuses nor has highlights is not lit - no shadow rays are needed
+        if (!material.hasDiffuse && !material.hasSpecular) return color;
         for (LightSource lightSource : scene.lights) {
             if (setLightSource(intersection, lightSource)) {
                 Double3 ktr = transparency(intersection);
-                if (!(ktr.product(INITIAL_K)).lowerThan(MIN_CALC_COLOR_K))
-                    color = color.add(lightSource.getIntensity(intersection.point).scale(ktr).scale(calcDiffusive(intersection).add(calcSpecular(intersection))));
+                if (!(ktr.product(INITIAL_K)).lowerThan(MIN_CALC_COLOR_K)) {
+                    Double3 effect = material.hasDiffuse ? calcDiffusive(intersection, material) : Double3.ZERO;
+                    if (material.hasSpecular) effect = effect.add(calcSpecular(intersection, material));
+                    color = color.add(lightSource.getIntensity(intersection.point).scale(ktr).scale(effect));
+                }
             }
         }
         return color;
@@ -222,23 +629,25 @@ abstract public class RayTracerBase {
      * Calculates the specular lighting effect at an intersection.
      *
      * @param intersection The intersection.
+     * @param material     The compiled material at the intersection.
      * @return The specular lighting effect.
      */
-    private Double3 calcSpecular(Intersectable.Intersection intersection) {
+    private Double3 calcSpecular(Intersectable.Intersection intersection, CompiledMaterial material) {
         Vector nDirection = intersection.direction.scale(-1.0);
         double refraction = nDirection.dotProduct(calcReflection(intersection));
-        double factor = Math.pow(refraction <= 0 ? 0 : refraction, intersection.material.nSH);
-        return intersection.material.kS.scale(factor);
+        double factor = Math.pow(refraction <= 0 ? 0 : refraction, material.nSH);
+        return material.kS.scale(factor);
     }
 
     /**
      * Calculates the diffusive lighting effect at an intersection.
      *
      * @param intersection The intersection.
+     * @param material     The compiled material at the intersection.
      * @return The diffusive lighting effect.
      */
-    private Double3 calcDiffusive(Intersectable.Intersection intersection) {
-        Double3 res = intersection.material.kD.scale(intersection.dotProductLightSource);
+    private Double3 calcDiffusive(Intersectable.Intersection intersection, CompiledMaterial material) {
+        Double3 res = material.kD.scale(intersection.dotProductLightSource);
         double q1 = res.d1() < 0 ? -res.d1() : res.d1();
         double q2 = res.d2() < 0 ? -res.d2() : res.d2();
         double q3 = res.d3() < 0 ? -res.d3() : res.d3();
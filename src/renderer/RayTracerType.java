@@ -1,5 +1,9 @@
 package renderer;
 
+import scene.Scene;
+
+import java.nio.file.Path;
+
 /**
  * Ray tracer types
  */
@@ -11,5 +15,25 @@ public enum RayTracerType {
     /**
      * Ray tracer using a voxel
      */
-    VOXEL
+    VOXEL,
+    /**
+     * Ray tracer using a voxel grid whose dense voxels hold grids of their own
+     * (see {@link voxel.VoxelGrid#subdivide(int, int)}) - for dense clusters of objects in a large empty space
+     */
+    HIERARCHICAL_VOXEL;
+
+    /**
+     * Creates a ray tracer of this type
+     *
+     * @param scene          the scene to be rendered
+     * @param cacheDirectory the directory of the cached acceleration structures, null for no cache
+     * @return the ray tracer
+     */
+    RayTracerBase create(Scene scene, Path cacheDirectory) {
+        return switch (this) {
+            case SIMPLE -> new SimpleRayTracer(scene);
+            case VOXEL -> new VoxelRayTracer(scene, cacheDirectory);
+            case HIERARCHICAL_VOXEL -> new VoxelRayTracer(scene, cacheDirectory, true);
+        };
+    }
 }
@@ -0,0 +1,75 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable rectangle of pixels in the full resolution image of a camera.<br>
+ * Used for rendering only a part of the view plane (region of interest)
+ *
+ * @param x      the column of the upper left pixel of the region
+ * @param y      the row of the upper left pixel of the region
+ * @param width  the amount of pixel columns in the region
+ * @param height the amount of pixel rows in the region
+ */
+public record Region(int x, int y, int width, int height) {
+    /**
+     * Constructor - validates the region
+     *
+     * @throws IllegalArgumentException if the location is negative or the size is not positive
+     */
+    public Region {
+        if (x < 0 || y < 0)
+            throw new IllegalArgumentException("Region location cannot be negative");
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Region size must be positive");
+    }
+
+    /**
+     * Gets the amount of pixels in the region
+     *
+     * @return width * height
+     */
+    public long size() {
+        return (long) width * height;
+    }
+
+    /**
+     * Checks whether the region lays inside an image of the given resolution
+     *
+     * @param nX the horizontal resolution of the image
+     * @param nY the vertical resolution of the image
+     * @return true if the whole region is inside the image, false otherwise
+     */
+    public boolean isInside(int nX, int nY) {
+        return x + width <= nX && y + height <= nY;
+    }
+
+    /**
+     * Checks whether the region shares pixels with another region
+     *
+     * @param other the other region
+     * @return true if a pixel is in both regions, false if they are apart or only touch
+     */
+    public boolean overlaps(Region other) {
+        return x < other.x + other.width && other.x < x + width
+                && y < other.y + other.height && other.y < y + height;
+    }
+
+    /**
+     * Splits the region into square tiles, row by row.<br>
+     * The tiles on the right and bottom edges are smaller if the size is not divisible by the tile size
+     *
+     * @param tileSize the width and height of a tile
+     * @return the tiles
+     */
+    public List<Region> split(int tileSize) {
+        if (tileSize <= 0) throw new IllegalArgumentException("Tile size must be positive");
+        List<Region> tiles = new ArrayList<>();
+        for (int row = y; row < y + height; row += tileSize)
+            for (int col = x; col < x + width; col += tileSize)
+                tiles.add(new Region(col, row,
+                        Math.min(tileSize, x + width - col), Math.min(tileSize, y + height - row)));
+        return tiles;
+    }
+}
@@ -0,0 +1,172 @@
+package renderer;
+
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Renders the images of several cameras of the same scene as one batch.<br>
+ * All the cameras share one ray tracer, so the acceleration structure of the scene is built once,
+ * and it is only read during the render. The tiles of all the images are rendered from one queue by
+ * the same threads, so the threads stay busy until the last tile of the batch instead of waiting for
+ * the slowest tile of each image. The image of each camera is written as soon as its last tile is rendered.<br>
+ * The cameras of a batch do not collect statistics or heatmaps.
+ */
+public class RenderBatch {
+    /**
+     * The ray tracer shared by the cameras
+     */
+    private final RayTracerBase rayTracer;
+    /**
+     * The cameras of the batch
+     */
+    private final List<Camera> cameras = new ArrayList<>();
+    /**
+     * The names of the images of the cameras
+     */
+    private final List<String> names = new ArrayList<>();
+    /**
+     * Amount of rendering threads, 0 to render by the calling thread
+     */
+    private int threadsCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * A tile of the image of a camera
+     *
+     * @param camera the index of the camera
+     * @param tile   the tile
+     */
+    private record Job(int camera, Region tile) {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param scene the scene of the cameras
+     * @param type  the type of ray tracer to use
+     */
+    public RenderBatch(Scene scene, RayTracerType type) {
+        if (scene == null) throw new IllegalArgumentException("Render batch must have a scene");
+        rayTracer = (type == null ? RayTracerType.SIMPLE : type).create(scene, null);
+    }
+
+    /**
+     * Adds a camera to the batch. The camera is built by the builder over the shared ray tracer
+     *
+     * @param builder the builder of the camera, with everything but the ray tracer
+     * @param name    the name of the image written for the camera
+     * @return this batch
+     */
+    public RenderBatch add(Camera.Builder builder, String name) {
+        if (builder == null || name == null)
+            throw new IllegalArgumentException("A camera of the batch must have a builder and a name");
+        cameras.add(builder.setRayTracer(rayTracer).build());
+        names.add(name);
+        return this;
+    }
+
+    /**
+     * Sets the amount of rendering threads
+     *
+     * @param threads amount of threads, 0 to render by the calling thread
+     * @return this batch
+     */
+    public RenderBatch setMultithreading(int threads) {
+        if (threads < 0) throw new IllegalArgumentException("Amount of threads must be non-negative");
+        threadsCount = threads;
+        return this;
+    }
+
+    /**
+     * Gets the cameras of the batch, in the order they were added
+     *
+     * @return the cameras
+     */
+    public List<Camera> getCameras() {
+        return cameras;
+    }
+
+    /**
+     * Gets the ray tracer shared by the cameras
+     *
+     * @return the ray tracer
+     */
+    public RayTracerBase getRayTracer() {
+        return rayTracer;
+    }
+
+    /**
+     * Renders the images of all the cameras and writes each of them to the images directory.<br>
+     * If the calling thread is interrupted, the render stops after the current tiles,
+     * the images which were not completed are not written, and the interrupt status of the thread is kept.
+     * If rendering a tile or writing an image fails, no more tiles are rendered and the failure is thrown
+     *
+     * @return this batch
+     * @throws IllegalStateException if the batch has no cameras, or the render failed
+     */
+    public RenderBatch render() {
+        if (cameras.isEmpty()) throw new IllegalStateException("Render batch has no cameras");
+        List<Job> jobs = new ArrayList<>();
+        AtomicInteger[] remaining = new AtomicInteger[cameras.size()];
+        for (int c = 0; c < cameras.size(); ++c) {
+            List<Region> tiles = cameras.get(c).prepareTiles();
+            remaining[c] = new AtomicInteger(tiles.size());
+            for (Region tile : tiles) jobs.add(new Job(c, tile));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            try {
+                int index;
+                while ((index = next.getAndIncrement()) < jobs.size()) {
+                    Job job = jobs.get(index);
+                    cameras.get(job.camera).castTile(job.tile);
+                    if (remaining[job.camera].decrementAndGet() == 0)
+                        cameras.get(job.camera).writeToImage(names.get(job.camera));
+                }
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                next.set(jobs.size());
+            }
+        };
+        if (threadsCount == 0) {
+            worker.run();
+            checkFailure(failure.get());
+            return this;
+        }
+
+        var threads = new LinkedList<Thread>();
+        for (int t = 0; t < threadsCount; ++t)
+            threads.add(new Thread(worker));
+        for (var thread : threads) thread.start();
+        boolean interrupted = false;
+        for (var thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    next.set(jobs.size());
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        checkFailure(failure.get());
+        return this;
+    }
+
+    /**
+     * Throws the failure of a render, if it failed
+     *
+     * @param failure the first exception thrown by a rendering thread, null if the render did not fail
+     * @throws IllegalStateException if the render failed
+     */
+    private static void checkFailure(Throwable failure) {
+        if (failure != null) throw new IllegalStateException("Render batch failed", failure);
+    }
+}
@@ -0,0 +1,412 @@
+package renderer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Renders the image of a camera by several worker processes (JVMs).<br>
+ * The coordinator splits the frame into tiles and hands them out to the workers
+ * (see {@link RenderWorker}) over sockets. Every worker loads the same xml scene,
+ * renders the tiles it gets and returns their pixels, which are stitched into the camera image.
+ * <ul>
+ * <li>Tiles of a worker which died or did not answer in time are handed to other workers</li>
+ * <li>When there are no more new tiles, idle workers also render the tiles still in progress
+ * of slower workers - the first result of a tile is used</li>
+ * </ul>
+ * Workers are launched as local processes, and remote workers may connect to the coordinator port as well.
+ * Every worker must present the shared token of the render (see {@link #setToken(String)}) before it gets
+ * the scene or any tile, so a peer which only knows the protocol cannot inject pixels into the image.
+ */
+public class RenderCoordinator {
+    /**
+     * Default width and height of a tile
+     */
+    private static final int DEFAULT_TILE_SIZE = 32;
+    /**
+     * Maximum amount of workers rendering the same tile at once
+     */
+    private static final int MAX_TILE_COPIES = 2;
+
+    /**
+     * The camera whose image is rendered
+     */
+    private final Camera camera;
+    /**
+     * The xml file of the scene (in the xml directory), loaded by every worker
+     */
+    private final String sceneFile;
+    /**
+     * Amount of worker processes to launch on this machine
+     */
+    private int localWorkers = 2;
+    /**
+     * Amount of workers expected to connect from other machines
+     */
+    private int remoteWorkers = 0;
+    /**
+     * Multi-threading parameter of each worker (see {@link Camera.Builder#setMultithreading(int)})
+     */
+    private int workerThreads = 0;
+    /**
+     * The coordinator port, 0 for any free port
+     */
+    private int port = 0;
+    /**
+     * Width and height of a tile
+     */
+    private int tileSize = DEFAULT_TILE_SIZE;
+    /**
+     * Time in milliseconds to wait for a tile (or for a worker to connect) before giving up on the worker
+     */
+    private int timeout = 60_000;
+    /**
+     * Time in milliseconds to wait for a connected worker to load the scene and become ready
+     */
+    private int handshakeTimeout = 600_000;
+    /**
+     * The token shared with the workers, null for a random token known only to the local workers
+     */
+    private String token = null;
+
+    /**
+     * The tiles of the current render
+     */
+    private List<Region> tiles;
+    /**
+     * Ids of the tiles waiting for a worker
+     */
+    private final Deque<Integer> pending = new ArrayDeque<>();
+    /**
+     * Amount of workers currently rendering each tile
+     */
+    private int[] copies;
+    /**
+     * Whether each tile is already in the image
+     */
+    private boolean[] done;
+    /**
+     * Amount of tiles which are not in the image yet
+     */
+    private int remaining;
+    /**
+     * Amount of connected workers which are still alive
+     */
+    private int aliveWorkers;
+
+    /**
+     * Constructor
+     *
+     * @param camera    the camera to render - built with the same scene
+     * @param sceneFile the xml file of the scene, as given to {@link scene.Scene#Scene(String)}
+     */
+    public RenderCoordinator(Camera camera, String sceneFile) {
+        if (camera == null) throw new IllegalArgumentException("camera cannot be null");
+        if (sceneFile == null || !sceneFile.endsWith(".xml"))
+            throw new IllegalArgumentException("Workers can only load xml scenes");
+        this.camera = camera;
+        this.sceneFile = sceneFile;
+    }
+
+    /**
+     * Sets the amount of worker processes to launch on this machine
+     *
+     * @param localWorkers the amount of local workers
+     * @return this coordinator
+     */
+    public RenderCoordinator setLocalWorkers(int localWorkers) {
+        if (localWorkers < 0) throw new IllegalArgumentException("Amount of workers cannot be negative");
+        this.localWorkers = localWorkers;
+        return this;
+    }
+
+    /**
+     * Sets the amount of workers which connect to the coordinator from other machines.<br>
+     * Remote workers are started by: {@code java renderer.RenderWorker host port [threads]},
+     * with the token of {@link #setToken(String)} in the {@value RenderWorker#TOKEN_VARIABLE} environment variable
+     *
+     * @param remoteWorkers the amount of remote workers
+     * @return this coordinator
+     */
+    public RenderCoordinator setRemoteWorkers(int remoteWorkers) {
+        if (remoteWorkers < 0) throw new IllegalArgumentException("Amount of workers cannot be negative");
+        this.remoteWorkers = remoteWorkers;
+        return this;
+    }
+
+    /**
+     * Sets the multi-threading parameter of the local workers
+     *
+     * @param workerThreads see {@link Camera.Builder#setMultithreading(int)}
+     * @return this coordinator
+     */
+    public RenderCoordinator setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    /**
+     * Sets the port the coordinator listens on
+     *
+     * @param port the port, 0 for any free port
+     * @return this coordinator
+     */
+    public RenderCoordinator setPort(int port) {
+        if (port < 0) throw new IllegalArgumentException("port cannot be negative");
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Sets the size of the tiles the image is split into
+     *
+     * @param tileSize the width and height of a tile
+     * @return this coordinator
+     */
+    public RenderCoordinator setTileSize(int tileSize) {
+        if (tileSize <= 0) throw new IllegalArgumentException("Tile size must be positive");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Sets the time to wait for a tile or for a worker connection
+     *
+     * @param timeout the time in milliseconds
+     * @return this coordinator
+     */
+    public RenderCoordinator setTimeout(int timeout) {
+        if (timeout <= 0) throw new IllegalArgumentException("timeout must be positive");
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Sets the time to wait for a connected worker to load the scene and build its ray tracer -
+     * a worker which is not ready in time is dropped
+     *
+     * @param handshakeTimeout the time in milliseconds
+     * @return this coordinator
+     */
+    public RenderCoordinator setHandshakeTimeout(int handshakeTimeout) {
+        if (handshakeTimeout <= 0) throw new IllegalArgumentException("timeout must be positive");
+        this.handshakeTimeout = handshakeTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the token shared with the workers - required for remote workers, which get it by the
+     * {@value RenderWorker#TOKEN_VARIABLE} environment variable. Workers which present another token are dropped
+     *
+     * @param token the shared token
+     * @return this coordinator
+     */
+    public RenderCoordinator setToken(String token) {
+        if (token == null || token.isEmpty()) throw new IllegalArgumentException("token cannot be empty");
+        this.token = token;
+        return this;
+    }
+
+    /**
+     * Renders the whole camera image by the workers
+     *
+     * @return the camera, with the rendered image
+     * @throws IllegalStateException if no worker connected or all the workers failed before the image was done,
+     *                               or if there are remote workers without a shared token
+     */
+    public Camera render() {
+        int workers = localWorkers + remoteWorkers;
+        if (workers == 0) throw new IllegalStateException("No workers to render by");
+        if (remoteWorkers > 0 && token == null)
+            throw new IllegalStateException("Remote workers need a shared token");
+        String secret = token != null ? token : HexFormat.of().formatHex(SecureRandom.getSeed(16));
+        initTiles();
+
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        InetAddress address = remoteWorkers == 0 ? InetAddress.getLoopbackAddress() : null;
+        try (ServerSocket server = new ServerSocket(port, workers, address)) {
+            for (int i = 0; i < localWorkers; ++i)
+                processes.add(launchWorker(server.getLocalPort(), secret));
+
+            server.setSoTimeout(timeout);
+            for (int i = 0; i < workers; ++i) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    break; // render by the workers which did connect
+                }
+                sockets.add(socket);
+                synchronized (this) {
+                    ++aliveWorkers;
+                }
+                Thread handler = new Thread(() -> serve(socket, secret), "render-worker-" + i);
+                handler.setDaemon(true);
+                handler.start();
+            }
+
+            synchronized (this) {
+                while (remaining > 0 && aliveWorkers > 0) wait();
+                if (remaining > 0)
+                    throw new IllegalStateException("All the render workers failed, " + remaining + " tiles are missing");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Distributed render failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Distributed render was interrupted", e);
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                }
+            }
+            for (Process process : processes) process.destroy();
+        }
+        return camera;
+    }
+
+    /**
+     * Splits the image into tiles and resets the render state
+     */
+    private synchronized void initTiles() {
+        Region frame = camera.getFrame();
+        tiles = frame.split(tileSize);
+        copies = new int[tiles.size()];
+        done = new boolean[tiles.size()];
+        remaining = tiles.size();
+        aliveWorkers = 0;
+        pending.clear();
+        for (int id = 0; id < tiles.size(); ++id) pending.add(id);
+    }
+
+    /**
+     * Launches a worker process on this machine with the class path of this process
+     *
+     * @param serverPort the port of the coordinator
+     * @param secret     the token the worker presents, passed by the environment (not visible in the command line)
+     * @return the worker process
+     * @throws IOException if the process cannot be started
+     */
+    private Process launchWorker(int serverPort, String secret) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                RenderWorker.class.getName(), "localhost", String.valueOf(serverPort), String.valueOf(workerThreads))
+                .directory(new File(System.getProperty("user.dir")))
+                .inheritIO();
+        builder.environment().put(RenderWorker.TOKEN_VARIABLE, secret);
+        return builder.start();
+    }
+
+    /**
+     * Hands tiles to a connected worker and stitches the returned pixels until the image is done
+     *
+     * @param socket the connection to the worker
+     * @param secret the token the worker must present
+     */
+    private void serve(Socket socket, String secret) {
+        int id = RenderWorker.STOP;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            // a worker which hangs while loading the scene must not hold the render forever
+            socket.setSoTimeout(handshakeTimeout);
+            out.writeInt(RenderWorker.MAGIC);
+            out.flush();
+            if (!MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                    in.readUTF().getBytes(StandardCharsets.UTF_8)))
+                throw new IOException("Worker presented a wrong token");
+            out.writeUTF(sceneFile);
+            camera.writeSettings(out);
+            out.flush();
+            if (in.readInt() != RenderWorker.READY)
+                throw new IOException("Unexpected answer from worker");
+
+            socket.setSoTimeout(timeout);
+            while ((id = nextTile()) != RenderWorker.STOP) {
+                Region tile = tiles.get(id);
+                out.writeInt(id);
+                out.writeInt(tile.x());
+                out.writeInt(tile.y());
+                out.writeInt(tile.width());
+                out.writeInt(tile.height());
+                out.flush();
+
+                if (in.readInt() != id)
+                    throw new IOException("Worker returned a wrong tile");
+                int[] rgb = new int[tile.width() * tile.height()];
+                for (int i = 0; i < rgb.length; ++i) rgb[i] = in.readInt();
+                tileDone(id, rgb);
+                id = RenderWorker.STOP;
+            }
+            out.writeInt(RenderWorker.STOP);
+            out.flush();
+        } catch (IOException | InterruptedException ignored) {
+            // the worker is dead or too slow - its tile goes back to the other workers
+        } finally {
+            workerGone(id);
+        }
+    }
+
+    /**
+     * Allocates the next tile for a worker - a pending tile if there is one,
+     * otherwise a tile still rendered by another worker.
+     * Waits while there is nothing to allocate but the image is not done yet
+     *
+     * @return the tile id or {@link RenderWorker#STOP} if the image is done
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    private synchronized int nextTile() throws InterruptedException {
+        while (remaining > 0) {
+            Integer id;
+            while ((id = pending.poll()) != null)
+                if (!done[id]) {
+                    ++copies[id];
+                    return id;
+                }
+            for (int i = 0; i < tiles.size(); ++i)
+                if (!done[i] && copies[i] > 0 && copies[i] < MAX_TILE_COPIES) {
+                    ++copies[i];
+                    return i;
+                }
+            wait();
+        }
+        return RenderWorker.STOP;
+    }
+
+    /**
+     * Stitches a rendered tile into the image, unless another worker was faster
+     *
+     * @param id  the tile id
+     * @param rgb the tile pixels
+     */
+    private synchronized void tileDone(int id, int[] rgb) {
+        --copies[id];
+        if (!done[id]) {
+            camera.writeTile(tiles.get(id), rgb);
+            done[id] = true;
+            --remaining;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Releases a worker which finished or failed - an unfinished tile of the worker is made pending again
+     *
+     * @param id the tile the worker was rendering or {@link RenderWorker#STOP}
+     */
+    private synchronized void workerGone(int id) {
+        if (id != RenderWorker.STOP && --copies[id] == 0 && !done[id])
+            pending.addFirst(id);
+        --aliveWorkers;
+        notifyAll();
+    }
+}
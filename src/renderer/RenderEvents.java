@@ -0,0 +1,168 @@
+package renderer;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events of the renderer, for correlating the hot spots of a profiled
+ * render with the scene content (e.g. in JDK Mission Control).
+ * <ul>
+ * <li>{@link Render} - a render of an image or of regions of it</li>
+ * <li>{@link AccelerationBuild} - building the voxel grid of a {@link VoxelRayTracer}</li>
+ * <li>{@link Tile} - rendering a tile of pixels</li>
+ * <li>{@link SlowPixel} - a pixel which took longer than the threshold of the event (1 ms by default)</li>
+ * </ul>
+ * When no recording is running (or the events are disabled in it), the events cost almost nothing.
+ */
+final class RenderEvents {
+    /**
+     * Category of the events
+     */
+    private static final String CATEGORY = "Ray Tracer";
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private RenderEvents() {
+    }
+
+    /**
+     * Checks whether slow pixel events are recorded by any running recording -
+     * counting the rays of each pixel is needed only then
+     *
+     * @return true if the slow pixel events are enabled
+     */
+    static boolean isSlowPixelEnabled() {
+        return EventType.getEventType(SlowPixel.class).isEnabled();
+    }
+
+    /**
+     * A render of an image or of regions of it
+     */
+    @Name("renderer.Render")
+    @Label("Render")
+    @Category(CATEGORY)
+    @Description("Rendering of an image or of regions of it")
+    static class Render extends Event {
+        /**
+         * Horizontal resolution of the image
+         */
+        @Label("Width")
+        int width;
+        /**
+         * Vertical resolution of the image
+         */
+        @Label("Height")
+        int height;
+        /**
+         * Amount of rendered pixels
+         */
+        @Label("Pixels")
+        long pixels;
+        /**
+         * The ray tracer type
+         */
+        @Label("Ray Tracer")
+        String rayTracer;
+        /**
+         * The multi-threading parameter of the camera
+         */
+        @Label("Threads")
+        int threads;
+    }
+
+    /**
+     * Building the acceleration structure of a ray tracer
+     */
+    @Name("renderer.AccelerationBuild")
+    @Label("Acceleration Build")
+    @Category(CATEGORY)
+    @Description("Building (or loading from the cache) the voxel grid of a ray tracer")
+    static class AccelerationBuild extends Event {
+        /**
+         * Amount of geometries in the grid
+         */
+        @Label("Bounded Geometries")
+        int bounded;
+        /**
+         * Amount of geometries outside of the grid
+         */
+        @Label("Unbounded Geometries")
+        int unbounded;
+        /**
+         * Amount of voxels along the X axis
+         */
+        @Label("Grid X")
+        int gridX;
+        /**
+         * Amount of voxels along the Y axis
+         */
+        @Label("Grid Y")
+        int gridY;
+        /**
+         * Amount of voxels along the Z axis
+         */
+        @Label("Grid Z")
+        int gridZ;
+        /**
+         * Whether the grid was loaded from the cache instead of being built
+         */
+        @Label("Cached")
+        boolean cached;
+    }
+
+    /**
+     * Rendering a tile of pixels
+     */
+    @Name("renderer.Tile")
+    @Label("Tile")
+    @Category(CATEGORY)
+    @Description("Rendering of a tile of pixels")
+    static class Tile extends Event {
+        /**
+         * Column of the top left pixel of the tile
+         */
+        @Label("X")
+        int x;
+        /**
+         * Row of the top left pixel of the tile
+         */
+        @Label("Y")
+        int y;
+        /**
+         * Width of the tile in pixels
+         */
+        @Label("Width")
+        int width;
+        /**
+         * Height of the tile in pixels
+         */
+        @Label("Height")
+        int height;
+    }
+
+    /**
+     * A pixel which took longer than the threshold to render
+     */
+    @Name("renderer.SlowPixel")
+    @Label("Slow Pixel")
+    @Category(CATEGORY)
+    @Description("A pixel which took longer than the threshold to render")
+    @Threshold("1 ms")
+    static class SlowPixel extends Event {
+        /**
+         * Column of the pixel
+         */
+        @Label("X")
+        int x;
+        /**
+         * Row of the pixel
+         */
+        @Label("Y")
+        int y;
+        /**
+         * Amount of rays of all types traced for the pixel
+         */
+        @Label("Rays")
+        long rays;
+    }
+}
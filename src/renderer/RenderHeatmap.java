@@ -0,0 +1,140 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Locale;
+
+/**
+ * Diagnostic map of the cost of rendering each pixel of an image: the time it took
+ * and the amount of rays (of all types) traced for it.<br>
+ * The map is written as a false-color image - blue for the cheapest pixels through green and
+ * yellow to red for the most expensive ones, on a logarithmic scale - and as a CSV table
+ * of the cost of each tile of {@link PixelManager#TILE_SIZE} pixels.
+ * The heatmap is collected only if it is enabled in the camera (see {@link Camera.Builder#setHeatmap(boolean)})
+ */
+public class RenderHeatmap {
+    /**
+     * The stops of the false-color scale, from the cheapest to the most expensive pixels
+     */
+    private static final Color[] SCALE = {
+            new Color(0, 0, 128), new Color(0, 128, 255), new Color(0, 200, 0),
+            new Color(255, 230, 0), new Color(255, 0, 0)
+    };
+
+    /**
+     * Horizontal resolution of the image
+     */
+    private final int nX;
+    /**
+     * Vertical resolution of the image
+     */
+    private final int nY;
+    /**
+     * Render time of each pixel in nanoseconds, row by row
+     */
+    private final long[] nanos;
+    /**
+     * Amount of rays traced for each pixel, row by row
+     */
+    private final long[] rays;
+
+    /**
+     * Constructor
+     *
+     * @param nX horizontal resolution of the image
+     * @param nY vertical resolution of the image
+     */
+    RenderHeatmap(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        nanos = new long[nX * nY];
+        rays = new long[nX * nY];
+    }
+
+    /**
+     * Records the cost of rendering a pixel. Each pixel is rendered by one thread,
+     * so the recording needs no synchronization
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @param time   the render time in nanoseconds
+     * @param amount the amount of rays traced
+     */
+    void record(int column, int row, long time, long amount) {
+        nanos[row * nX + column] = time;
+        rays[row * nX + column] = amount;
+    }
+
+    /**
+     * Gets the render time of a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the time in nanoseconds
+     */
+    public long getNanos(int column, int row) {
+        return nanos[row * nX + column];
+    }
+
+    /**
+     * Gets the amount of rays traced for a pixel
+     *
+     * @param column the column of the pixel
+     * @param row    the row of the pixel
+     * @return the amount of rays
+     */
+    public long getRays(int column, int row) {
+        return rays[row * nX + column];
+    }
+
+    /**
+     * Writes the false-color image of the render times to the images directory
+     *
+     * @param name the name of the image written
+     */
+    void writeImage(String name) {
+        long max = 1;
+        for (long time : nanos) max = Math.max(max, time);
+        double scale = Math.log1p(max);
+
+        ImageWriter writer = new ImageWriter(nX, nY);
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j)
+                writer.writePixel(j, i, falseColor(Math.log1p(nanos[i * nX + j]) / scale));
+        writer.writeToImage(name);
+    }
+
+    /**
+     * Writes the cost of each tile as CSV to the images directory
+     *
+     * @param name the name of the file written (without the .csv extension)
+     */
+    void writeCsv(String name) {
+        StringBuilder csv = new StringBuilder("x,y,width,height,nanos,rays,nanosPerPixel\n");
+        for (Region tile : new Region(0, 0, nX, nY).split(PixelManager.TILE_SIZE)) {
+            long tileNanos = 0;
+            long tileRays = 0;
+            for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+                for (int j = tile.x(); j < tile.x() + tile.width(); ++j) {
+                    tileNanos += nanos[i * nX + j];
+                    tileRays += rays[i * nX + j];
+                }
+            csv.append(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%.1f%n", tile.x(), tile.y(),
+                    tile.width(), tile.height(), tileNanos, tileRays, (double) tileNanos / tile.size()));
+        }
+        ImageWriter.writeText(name + ".csv", csv.toString());
+    }
+
+    /**
+     * Maps a relative cost to a color of the false-color scale
+     *
+     * @param value the relative cost between 0 and 1
+     * @return the color
+     */
+    private static Color falseColor(double value) {
+        double position = Math.min(Math.max(value, 0), 1) * (SCALE.length - 1);
+        int stop = Math.min((int) position, SCALE.length - 2);
+        double t = position - stop;
+        return SCALE[stop].scale(1 - t).add(SCALE[stop + 1].scale(t));
+    }
+}
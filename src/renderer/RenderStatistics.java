@@ -0,0 +1,275 @@
+package renderer;
+
+import voxel.VoxelGrid;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Statistics of the work done while rendering an image: rays by type, voxel traversal
+ * and intersection tests, and the time of each phase of the render.<br>
+ * Every thread counts into its own counters, which are merged when the statistics are read,
+ * so counting does not synchronize the rendering threads.
+ * The statistics are collected only if they are enabled in the camera
+ * (see {@link Camera.Builder#setStatistics(boolean)}) - otherwise the ray tracer does not count at all.
+ */
+public class RenderStatistics implements VoxelGrid.TraversalListener {
+    /**
+     * The counted events
+     */
+    public enum Counter {
+        /**
+         * Rays from the camera
+         */
+        PRIMARY_RAYS,
+        /**
+         * Reflected rays
+         */
+        REFLECTION_RAYS,
+        /**
+         * Refracted (transparency) rays
+         */
+        REFRACTION_RAYS,
+        /**
+         * Rays from an intersection to a light source
+         */
+        SHADOW_RAYS,
+        /**
+         * Voxels visited while traversing a voxel grid
+         */
+        VOXELS_VISITED,
+        /**
+         * Intersection tests of a ray with an object
+         */
+        INTERSECTION_TESTS,
+        /**
+         * Rays which hit an object
+         */
+        HITS,
+        /**
+         * Shadow rays blocked by the last occluder of their light, without traversing the scene
+         */
+        OCCLUDER_HITS,
+        /**
+         * Shadow rays which were not blocked by the last occluder of their light
+         */
+        OCCLUDER_MISSES
+    }
+
+    /**
+     * The timed phases of a render
+     */
+    public enum Phase {
+        /**
+         * Building the acceleration structure of the ray tracer
+         */
+        BUILD,
+        /**
+         * Rendering the image
+         */
+        RENDER,
+        /**
+         * Writing the image file
+         */
+        WRITE
+    }
+
+    /**
+     * The counters of all the threads which counted
+     */
+    private final Queue<long[]> counters = new ConcurrentLinkedQueue<>();
+    /**
+     * The counters of each thread
+     */
+    private volatile ThreadLocal<long[]> threadCounters = ThreadLocal.withInitial(this::newCounters);
+    /**
+     * Time of each phase in nanoseconds
+     */
+    private final long[] times = new long[Phase.values().length];
+    /**
+     * The amounts of voxels along the axes of the grid of the ray tracer, null if it has no grid
+     */
+    private volatile int[] gridSize = null;
+
+    /**
+     * Creates and registers the counters of a thread
+     *
+     * @return the counters
+     */
+    private long[] newCounters() {
+        long[] threadCounters = new long[Counter.values().length];
+        counters.add(threadCounters);
+        return threadCounters;
+    }
+
+    /**
+     * Counts an event in the counters of the current thread
+     *
+     * @param counter the counted event
+     */
+    void count(Counter counter) {
+        threadCounters.get()[counter.ordinal()]++;
+    }
+
+    /**
+     * Counts several events in the counters of the current thread
+     *
+     * @param counter the counted event
+     * @param amount  the amount of events
+     */
+    void add(Counter counter, long amount) {
+        threadCounters.get()[counter.ordinal()] += amount;
+    }
+
+    /**
+     * Gets the amount of rays of all types traced so far by the current thread
+     *
+     * @return the amount of rays
+     */
+    long threadRays() {
+        long[] current = threadCounters.get();
+        return current[Counter.PRIMARY_RAYS.ordinal()] + current[Counter.REFLECTION_RAYS.ordinal()]
+                + current[Counter.REFRACTION_RAYS.ordinal()] + current[Counter.SHADOW_RAYS.ordinal()];
+    }
+
+    @Override
+    public void traversed(int voxels, int tests) {
+        long[] current = threadCounters.get();
+        current[Counter.VOXELS_VISITED.ordinal()] += voxels;
+        current[Counter.INTERSECTION_TESTS.ordinal()] += tests;
+    }
+
+    /**
+     * Adds time to a phase
+     *
+     * @param phase the phase
+     * @param nanos the time in nanoseconds
+     */
+    synchronized void addTime(Phase phase, long nanos) {
+        times[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Sets the amounts of voxels along the axes of the grid of the ray tracer, which was chosen when it was built
+     *
+     * @param size the amounts of voxels along the X, Y and Z axes
+     */
+    void setGridSize(int[] size) {
+        gridSize = size.clone();
+    }
+
+    /**
+     * Resets the counters and the times of the phases before a new render - the ray tracer
+     * adds the time of its build when the statistics are attached to it.
+     * Must not be called while rendering
+     */
+    synchronized void reset() {
+        counters.clear();
+        threadCounters = ThreadLocal.withInitial(this::newCounters);
+        Arrays.fill(times, 0);
+    }
+
+    /**
+     * Gets the total count of an event in all the threads
+     *
+     * @param counter the event
+     * @return the count
+     */
+    public long get(Counter counter) {
+        long sum = 0;
+        for (long[] threadCounters : counters) sum += threadCounters[counter.ordinal()];
+        return sum;
+    }
+
+    /**
+     * Gets the time of a phase
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public synchronized long getTime(Phase phase) {
+        return times[phase.ordinal()];
+    }
+
+    /**
+     * Gets the amounts of voxels along the axes of the grid of the ray tracer
+     *
+     * @return the amounts of voxels along the X, Y and Z axes, null if the ray tracer has no grid
+     */
+    public int[] getGridSize() {
+        int[] size = gridSize;
+        return size == null ? null : size.clone();
+    }
+
+    /**
+     * Gets the total amount of rays of all types
+     *
+     * @return the amount of rays
+     */
+    public long getTotalRays() {
+        return get(Counter.PRIMARY_RAYS) + get(Counter.REFLECTION_RAYS)
+                + get(Counter.REFRACTION_RAYS) + get(Counter.SHADOW_RAYS);
+    }
+
+    /**
+     * Gets the rendering speed
+     *
+     * @return rays of all types per second of the render phase, 0 if nothing was rendered
+     */
+    public double getRaysPerSecond() {
+        long renderTime = getTime(Phase.RENDER);
+        return renderTime == 0 ? 0 : getTotalRays() * 1e9 / renderTime;
+    }
+
+    /**
+     * Gets the part of the shadow rays which tested the last occluder of their light and were blocked by it
+     *
+     * @return the hit rate of the occluder cache, 0 if no shadow ray tested it
+     */
+    public double getOccluderHitRate() {
+        long hits = get(Counter.OCCLUDER_HITS);
+        long tests = hits + get(Counter.OCCLUDER_MISSES);
+        return tests == 0 ? 0 : (double) hits / tests;
+    }
+
+    /**
+     * Exports the statistics as a JSON object
+     *
+     * @return the JSON text
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"rays\": {");
+        json.append(String.format(Locale.ROOT, "\"primary\": %d, \"reflection\": %d, \"refraction\": %d, \"shadow\": %d, \"total\": %d},%n",
+                get(Counter.PRIMARY_RAYS), get(Counter.REFLECTION_RAYS), get(Counter.REFRACTION_RAYS),
+                get(Counter.SHADOW_RAYS), getTotalRays()));
+        json.append(String.format(Locale.ROOT, "  \"voxelsVisited\": %d,%n  \"intersectionTests\": %d,%n  \"hits\": %d,%n",
+                get(Counter.VOXELS_VISITED), get(Counter.INTERSECTION_TESTS), get(Counter.HITS)));
+        json.append(String.format(Locale.ROOT, "  \"occluderCache\": {\"hits\": %d, \"misses\": %d, \"hitRate\": %.3f},%n",
+                get(Counter.OCCLUDER_HITS), get(Counter.OCCLUDER_MISSES), getOccluderHitRate()));
+        int[] grid = gridSize;
+        json.append(grid == null ? "  \"grid\": null,\n"
+                : String.format(Locale.ROOT, "  \"grid\": [%d, %d, %d],%n", grid[0], grid[1], grid[2]));
+        json.append(String.format(Locale.ROOT, "  \"timeMillis\": {\"build\": %.3f, \"render\": %.3f, \"write\": %.3f},%n",
+                getTime(Phase.BUILD) / 1e6, getTime(Phase.RENDER) / 1e6, getTime(Phase.WRITE) / 1e6));
+        json.append(String.format(Locale.ROOT, "  \"raysPerSecond\": %.1f%n}", getRaysPerSecond()));
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        int[] grid = gridSize;
+        return String.format(Locale.ROOT, """
+                        rays: primary %d, reflection %d, refraction %d, shadow %d (%.0f rays/sec)
+                        voxels visited %d, intersection tests %d, hits %d (grid %s)
+                        occluder cache: hits %d, misses %d (%.1f%%)
+                        time: build %.1f ms, render %.1f ms, write %.1f ms""",
+                get(Counter.PRIMARY_RAYS), get(Counter.REFLECTION_RAYS), get(Counter.REFRACTION_RAYS),
+                get(Counter.SHADOW_RAYS), getRaysPerSecond(),
+                get(Counter.VOXELS_VISITED), get(Counter.INTERSECTION_TESTS), get(Counter.HITS),
+                grid == null ? "none" : grid[0] + "x" + grid[1] + "x" + grid[2],
+                get(Counter.OCCLUDER_HITS), get(Counter.OCCLUDER_MISSES), getOccluderHitRate() * 100,
+                getTime(Phase.BUILD) / 1e6, getTime(Phase.RENDER) / 1e6, getTime(Phase.WRITE) / 1e6);
+    }
+}
@@ -0,0 +1,126 @@
+package renderer;
+
+import java.util.concurrent.*;
+
+/**
+ * Handle of an image render running in the background - see {@link Camera#renderImageAsync()}.<br>
+ * Cancellation is cooperative: the rendering threads finish their current tiles and stop.
+ * The same happens when the deadline of the render passes. In both cases the tiles which
+ * were not rendered are filled from a low resolution pass, so the image is always whole.
+ * <ul>
+ * <li>{@link #get()} returns the camera when the render stopped by itself (complete or out of time),
+ * and throws {@link CancellationException} if it was cancelled</li>
+ * <li>{@link #join()} waits for the render to stop in any case and returns the camera</li>
+ * </ul>
+ */
+public class RenderTask implements Future<Camera> {
+    /**
+     * The rendering camera
+     */
+    private final Camera camera;
+    /**
+     * The pixel manager of the render
+     */
+    private final PixelManager pixelManager;
+    /**
+     * Released when the rendering threads stopped and the image is whole
+     */
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    /**
+     * Flag of cancellation of the render
+     */
+    private volatile boolean cancelled = false;
+    /**
+     * The exception which failed the render, null if it did not fail
+     */
+    private volatile Throwable failure = null;
+
+    /**
+     * Constructor
+     *
+     * @param camera       the rendering camera
+     * @param pixelManager the pixel manager of the render
+     */
+    RenderTask(Camera camera, PixelManager pixelManager) {
+        this.camera = camera;
+        this.pixelManager = pixelManager;
+    }
+
+    /**
+     * Marks the render as stopped
+     *
+     * @param failure the exception which failed the render, null if it did not fail
+     */
+    synchronized void finish(Throwable failure) {
+        this.failure = failure;
+        stopped.countDown();
+    }
+
+    @Override
+    public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+        if (isDone()) return false;
+        cancelled = true;
+        pixelManager.cancel();
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return cancelled || stopped.getCount() == 0;
+    }
+
+    @Override
+    public Camera get() throws InterruptedException, ExecutionException {
+        if (cancelled) throw new CancellationException("The render was cancelled");
+        stopped.await();
+        return result();
+    }
+
+    @Override
+    public Camera get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (cancelled) throw new CancellationException("The render was cancelled");
+        if (!stopped.await(timeout, unit)) throw new TimeoutException("The render is still running");
+        return result();
+    }
+
+    /**
+     * Waits for the render to stop - complete, cancelled or out of time.
+     * The image of the returned camera has all the rendered tiles, and the rest of it
+     * is filled from the low resolution pass
+     *
+     * @return the camera
+     * @throws InterruptedException  if the waiting thread was interrupted
+     * @throws IllegalStateException if the render failed
+     */
+    public Camera join() throws InterruptedException {
+        stopped.await();
+        if (failure != null) throw new IllegalStateException("The render failed", failure);
+        return camera;
+    }
+
+    /**
+     * Checks whether all the tiles of the image were rendered
+     *
+     * @return true if the render stopped and the image is fully rendered
+     */
+    public boolean isComplete() {
+        return stopped.getCount() == 0 && failure == null && pixelManager.isComplete();
+    }
+
+    /**
+     * Gets the result of a stopped render
+     *
+     * @return the camera
+     * @throws ExecutionException if the render failed
+     */
+    private Camera result() throws ExecutionException {
+        if (cancelled) throw new CancellationException("The render was cancelled");
+        if (failure != null) throw new ExecutionException(failure);
+        return camera;
+    }
+}
@@ -0,0 +1,85 @@
+package renderer;
+
+import scene.Scene;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * Worker process of a distributed render - see {@link RenderCoordinator}.<br>
+ * The worker connects to the coordinator, loads the scene from its xml file,
+ * rebuilds the camera and then renders the tiles it receives until it is told to stop.
+ * <p>
+ * Protocol (all numbers are big endian as written by {@link DataOutputStream}):
+ * <ul>
+ * <li>coordinator: {@link #MAGIC}</li>
+ * <li>worker: the token shared with the coordinator, from the {@value #TOKEN_VARIABLE} environment variable</li>
+ * <li>coordinator: scene xml file name, camera settings</li>
+ * <li>worker: {@link #READY} when the scene and the ray tracer are built</li>
+ * <li>coordinator: tile id, x, y, width, height - or {@link #STOP}</li>
+ * <li>worker: tile id followed by width * height RGB values, row by row</li>
+ * </ul>
+ */
+public final class RenderWorker {
+    /**
+     * Protocol identifier sent by the coordinator when a worker connects
+     */
+    static final int MAGIC = 0x52454e44;
+    /**
+     * Sent by the worker when it is ready to render tiles
+     */
+    static final int READY = 1;
+    /**
+     * Sent by the coordinator instead of a tile id when there are no more tiles
+     */
+    static final int STOP = -1;
+    /**
+     * The environment variable of the token shared by the worker and the coordinator
+     */
+    public static final String TOKEN_VARIABLE = "RENDER_TOKEN";
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private RenderWorker() {
+    }
+
+    /**
+     * Runs a render worker
+     *
+     * @param args coordinator host, coordinator port and optionally the
+     *             multi-threading parameter of the worker (see {@link Camera.Builder#setMultithreading(int)}).
+     *             The token of the coordinator is taken from the {@value #TOKEN_VARIABLE} environment variable
+     * @throws IOException if the connection to the coordinator fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3)
+            throw new IllegalArgumentException("Usage: RenderWorker host port [threads]");
+        int threads = args.length == 3 ? Integer.parseInt(args[2]) : 0;
+        String token = System.getenv(TOKEN_VARIABLE);
+        if (token == null) throw new IllegalStateException("The " + TOKEN_VARIABLE + " environment variable is not set");
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (in.readInt() != MAGIC)
+                throw new IllegalStateException("Unknown render protocol");
+            out.writeUTF(token);
+            out.flush();
+            Scene scene = new Scene(in.readUTF());
+            Camera camera = Camera.readSettings(in, scene, threads);
+            out.writeInt(READY);
+            out.flush();
+
+            int id;
+            while ((id = in.readInt()) != STOP) {
+                Region tile = new Region(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                int[] rgb = camera.renderTile(tile);
+                out.writeInt(id);
+                for (int color : rgb) out.writeInt(color);
+                out.flush();
+            }
+        } catch (EOFException ignored) {
+            // the coordinator finished the image while this worker was rendering a duplicate tile
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package renderer;
 
+import geometries.Geometries;
+import geometries.Instance;
+import geometries.Intersectable;
 import geometries.Intersectable.Intersection;
 import primitives.*;
 import scene.Scene;
@@ -23,7 +26,11 @@ public class SimpleRayTracer extends RayTracerBase {
      * Initial attenuation
      */
     private static final Double3 INITIAL_K = Double3.ONE;
-
+    /**
+     * Amount of intersection tests of a ray traced against all the geometries of the scene,
+     * counted when the statistics are attached
+     */
+    private long rayTests = 0;
 
     /**
      * Constructor, uses super
@@ -34,12 +41,34 @@ public class SimpleRayTracer extends RayTracerBase {
         super(scene);
     }
 
-    private static final double DELTA = 0.1;
+    @Override
+    void setStatistics(RenderStatistics statistics) {
+        super.setStatistics(statistics);
+        if (statistics != null) rayTests = countTests(scene.geometries);
+    }
+
+    /**
+     * Counts the intersection tests of a ray traced against a collection - each shape of the collection
+     * and of its nested collections is tested, except that a built nested collection tests only the shapes
+     * of the voxels the ray traverses, which are not known in advance, so it is counted as a single test
+     *
+     * @param geometries the collection
+     * @return the amount of intersection tests
+     */
+    private static long countTests(Geometries geometries) {
+        long tests = 0;
+        for (Intersectable geometry : geometries.getGeometries()) {
+            while (geometry instanceof Instance instance) geometry = instance.getGeometry();
+            tests += geometry instanceof Geometries nested && !nested.isBuilt() ? countTests(nested) : 1;
+        }
+        return tests;
+    }
 
     @Override
-    public Color traceRay(Ray ray) {
+    protected Intersection findPrimaryIntersection(Ray ray) {
         List<Intersection> intersections = scene.geometries.calculateIntersections(ray);
-        return intersections == null ? scene.background : calcColor(ray.findClosestIntersection(intersections), ray);
+        if (statistics != null) countTrace(RenderStatistics.Counter.PRIMARY_RAYS, intersections);
+        return intersections == null ? null : ray.findClosestIntersection(intersections);
     }
 
 
@@ -52,6 +81,7 @@ public class SimpleRayTracer extends RayTracerBase {
     protected Intersection findClosestIntersection(Ray ray) {
         try {
             List<Intersection> intersections = scene.geometries.calculateIntersections(ray);
+            if (statistics != null) countTrace(null, intersections);
             if (intersections == null) {
                 return null;
             }
@@ -62,34 +92,23 @@ public class SimpleRayTracer extends RayTracerBase {
         }
     }
 
+    @Override
+    protected List<Intersection> findShadowIntersections(Ray shadowRay, double lightDistance) {
+        List<Intersection> shadowIntersections = scene.geometries.calculateIntersections(shadowRay, lightDistance);
+        if (statistics != null) countTrace(null, shadowIntersections);
+        return shadowIntersections;
+    }
+
     /**
-     * Calculates the transparency factor (ktr) for a given intersection point.
+     * Counts a ray traced against all the geometries of the scene in the statistics
      *
-     * @param intersection The intersection to check for shadow transparency.
-     * @return A Double3 representing the accumulated transparency (ktr). If ktr falls below MIN_CALC_COLOR_K, returns Double3.ZERO.
+     * @param type          the type of the ray, null if it was already counted
+     * @param intersections the intersections of the ray
      */
-    protected Double3 transparency(Intersection intersection) {
-        Vector lightDir = intersection.lightDirection.scale(-1.0); // From point to light
-        Vector epsVector = intersection.normal.scale(intersection.dotProductGeometry < 0 ? DELTA : -DELTA);
-        Point shadowRayOrigin = intersection.point.add(epsVector);
-        Ray shadowRay = new Ray(shadowRayOrigin, lightDir); // Shadow ray
-
-        double lightDistance = intersection.lightSource.getDistance(intersection.point);
-        List<Intersection> shadowIntersections = scene.geometries.calculateIntersections(shadowRay, lightDistance);
-
-        Double3 ktr = Double3.ONE;
-        if (shadowIntersections == null) return ktr;
-
-        for (Intersection shadowIntersection : shadowIntersections) {
-            if (shadowIntersection.point.distance(intersection.point) < lightDistance) {
-                ktr = ktr.product(shadowIntersection.material.kT);
-                if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                    return Double3.ZERO;
-                }
-            }
-        }
-
-        return ktr;
+    private void countTrace(RenderStatistics.Counter type, List<Intersection> intersections) {
+        if (type != null) statistics.count(type);
+        statistics.add(RenderStatistics.Counter.INTERSECTION_TESTS, rayTests);
+        if (intersections != null) statistics.count(RenderStatistics.Counter.HITS);
     }
 
 }
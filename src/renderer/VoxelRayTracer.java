@@ -1,17 +1,21 @@
 package renderer;
 
 
+import geometries.Geometries;
 import geometries.Intersectable;
 import geometries.Intersectable.Intersection;
-import primitives.Color;
-import primitives.Double3;
+import lighting.LightSource;
 import primitives.Ray;
 import primitives.Vector;
 import scene.Scene;
 import voxel.AABB;
 import voxel.VoxelGrid;
+import voxel.VoxelGridCache;
+import voxel.VoxelGridTuner;
 import primitives.Point;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -24,17 +28,37 @@ import java.util.List;
 public class VoxelRayTracer extends RayTracerBase {
 
     /**
-     * Number of voxels per object for optimal grid size calculation
+     * The voxel grid of the top level, over the geometries of the scene (each collection is one object of it)
      */
-    private static final int VOXELS_PER_OBJECT = 4;
+    private volatile VoxelGrid voxelGrid;
     /**
-     * The voxel grid
+     * List of geometries without bounding boxes (infinite geometries)
      */
-    private final VoxelGrid voxelGrid;
+    private volatile List<Intersectable> unboundedGeometries;
     /**
-     * List of geometries without bounding boxes (infinite geometries)
+     * Time in nanoseconds it took to build the voxel grid, and to tune it
+     */
+    private volatile long buildTime;
+    /**
+     * Whether the voxel grid was loaded from the cache
+     */
+    private final boolean cached;
+    /**
+     * The amounts of voxels along the axes of the grid chosen by tuning, null if the grid is not tuned
+     */
+    private volatile int[] tunedSize = null;
+    /**
+     * Whether the dense voxels of the grid are subdivided into sub-grids (see {@link VoxelGrid#subdivide(int, int)})
+     */
+    private final boolean hierarchical;
+    /**
+     * Max amount of objects in a voxel of a hierarchical grid which is not subdivided
+     */
+    private static final int SUBDIVISION_THRESHOLD = 16;
+    /**
+     * Max amount of levels of sub-grids of a hierarchical grid
      */
-    private final List<Intersectable> unboundedGeometries;
+    private static final int SUBDIVISION_DEPTH = 2;
 
 
     /**
@@ -43,40 +67,249 @@ public class VoxelRayTracer extends RayTracerBase {
      * @param scene The scene to be rendered.
      */
     public VoxelRayTracer(Scene scene) {
+        this(scene, null);
+    }
+
+    /**
+     * Constructs a VoxelRayTracer which loads its voxel grid from a cache when the grid of the same
+     * geometries was built before (see {@link VoxelGridCache}), and stores it there otherwise.
+     * The grids of nested collections are not cached, and are built on every run.<br>
+     * The nested collections of geometries in the scene build their own grids first (see {@link Geometries#build()}),
+     * and the grid of the ray tracer spans them as single objects.
+     *
+     * @param scene          The scene to be rendered.
+     * @param cacheDirectory The directory of the cached grids, null to always build the grid.
+     */
+    public VoxelRayTracer(Scene scene, Path cacheDirectory) {
+        this(scene, cacheDirectory, false);
+    }
+
+    /**
+     * Constructs a VoxelRayTracer whose grid may be hierarchical: the voxels of the grid which hold many objects
+     * get grids of their own, so that a dense cluster of objects (e.g. a detailed mesh) is resolved finely
+     * while the empty space around it is crossed in a few large steps.
+     * The cache stores the grid of the top level only, and a loaded grid is subdivided again.
+     *
+     * @param scene          The scene to be rendered.
+     * @param cacheDirectory The directory of the cached grids, null to always build the grid.
+     * @param hierarchical   true to subdivide the dense voxels of the grid
+     */
+    public VoxelRayTracer(Scene scene, Path cacheDirectory, boolean hierarchical) {
         super(scene);
+        this.hierarchical = hierarchical;
+        long start = System.nanoTime();
+        RenderEvents.AccelerationBuild event = new RenderEvents.AccelerationBuild();
+        event.begin();
 
-        // Calculate optimal grid size based on the number of objects in the scene
-        int objectCount = scene.geometries.getGeometries().size();
-        int optimalGridSize = (int) Math.cbrt(objectCount * VOXELS_PER_OBJECT);
-
-        // Create the voxel grid based on the scene's bounding box
-        AABB sceneBounds = scene.geometries.getBoundingBox();
-        this.voxelGrid = new VoxelGrid(sceneBounds, optimalGridSize, optimalGridSize, optimalGridSize);
-
-        // Separate bounded and unbounded geometries
-        this.unboundedGeometries = new LinkedList<>();
-        for (Intersectable geometry : scene.geometries.getGeometries()) {
-            AABB aabb = geometry.getBoundingBox();
-            if (aabb == null) {
-                unboundedGeometries.add(geometry);
-            } else {
-                voxelGrid.addObject(geometry, aabb);
+        scene.geometries.buildNested();
+        TopLevel top = new TopLevel(scene.geometries);
+
+        // Create the voxel grid based on the scene's bounding box, or load it from the cache
+        VoxelGridCache cache = cacheDirectory == null || top.bounds == null ? null : new VoxelGridCache(cacheDirectory);
+        int[] size = VoxelGridTuner.size(top.bounds, top.boxes);
+        String key = cache == null ? null : VoxelGridCache.key(top.bounds, size[0], size[1], size[2], top.boxes);
+        VoxelGrid grid = cache == null ? null : cache.load(key, top.bounds, top.bounded);
+        cached = grid != null;
+        if (grid == null) {
+            grid = top.build(size);
+            if (cache != null) cache.store(key, grid, top.bounded);
+        }
+        this.voxelGrid = subdivide(grid);
+        this.unboundedGeometries = top.unbounded;
+
+        buildTime = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.bounded = top.bounded.size();
+            event.unbounded = top.unbounded.size();
+            event.gridX = size[0];
+            event.gridY = size[1];
+            event.gridZ = size[2];
+            event.cached = cached;
+            event.commit();
+        }
+    }
+
+    /**
+     * The geometries of the top level of the scene, separated to bounded and unbounded ones
+     */
+    private static class TopLevel {
+        /**
+         * The geometries with bounding boxes
+         */
+        final List<Intersectable> bounded;
+        /**
+         * The bounding boxes of the bounded geometries
+         */
+        final List<AABB> boxes;
+        /**
+         * List of geometries without bounding boxes (infinite geometries)
+         */
+        final List<Intersectable> unbounded = new LinkedList<>();
+        /**
+         * The bounds of the bounded geometries, null if there are none
+         */
+        final AABB bounds;
+
+        /**
+         * Separates the geometries of the scene - the bounding boxes of many geometries and their bounds
+         * are found in parallel (see {@link VoxelGrid#boundingBoxes(List)})
+         *
+         * @param geometries the geometries of the scene
+         */
+        TopLevel(Geometries geometries) {
+            int objectCount = geometries.getGeometries().size();
+            bounded = new ArrayList<>(objectCount);
+            boxes = new ArrayList<>(objectCount);
+            List<AABB> allBoxes = VoxelGrid.boundingBoxes(geometries.getGeometries());
+            int i = 0;
+            for (Intersectable geometry : geometries.getGeometries()) {
+                AABB aabb = allBoxes.get(i++);
+                if (aabb == null) {
+                    unbounded.add(geometry);
+                } else {
+                    bounded.add(geometry);
+                    boxes.add(aabb);
+                }
             }
+            bounds = VoxelGrid.bounds(boxes);
+        }
+
+        /**
+         * Builds the grid of the bounded geometries
+         *
+         * @param size the amounts of voxels along the X, Y and Z axes, null for the heuristic of
+         *             {@link VoxelGridTuner#size(AABB, List)} by the shape of their bounds and their amount
+         * @return the grid
+         */
+        VoxelGrid build(int[] size) {
+            if (bounds == null) return new VoxelGrid(new AABB(Point.ZERO, Point.ZERO), 1, 1, 1);
+            return VoxelGridTuner.build(bounds, size != null ? size : VoxelGridTuner.size(bounds, boxes), bounded, boxes);
         }
     }
 
     /**
-     * Traces a ray and calculates its color based on intersections with the scene.
+     * Tunes the resolution of the grid of the top level by the cost of tracing probe rays through it
+     * (see {@link VoxelGridTuner#tune}) - the probe rays, e.g. some of the primary rays of a camera,
+     * and the shadow rays from their hits to the light sources, as they are traced while rendering.
+     * The tuned grid replaces the grid of the ray tracer (it is not stored in the cache), and keeps its resolution
+     * when the ray tracer is refitted. Must not be called during a render
+     *
+     * @param probes the probe rays
+     * @return the amounts of voxels along the X, Y and Z axes of the tuned grid
+     */
+    public int[] tune(List<Ray> probes) {
+        long start = System.nanoTime();
+        TopLevel top = new TopLevel(scene.geometries);
+        int[] size = VoxelGridTuner.tune(top.bounds, top.bounded, top.boxes, grid -> probeCost(grid, probes));
+        VoxelGrid grid = subdivide(top.build(size));
+        grid.setTraversalListener(statistics);
+        voxelGrid = grid;
+        unboundedGeometries = top.unbounded;
+        tunedSize = size;
+        buildTime += System.nanoTime() - start;
+        if (statistics != null) statistics.setGridSize(size);
+        return size.clone();
+    }
+
+    /**
+     * Subdivides the dense voxels of a grid of the top level, if the ray tracer is hierarchical
+     *
+     * @param grid the grid
+     * @return the grid
+     */
+    private VoxelGrid subdivide(VoxelGrid grid) {
+        return hierarchical ? grid.subdivide(SUBDIVISION_THRESHOLD, SUBDIVISION_DEPTH) : grid;
+    }
+
+    /**
+     * Calculates the cost of tracing probe rays through a grid, and the shadow rays from their hits
      *
-     * @param ray The ray to be traced.
-     * @return The color of the ray based on intersections or the background color if no intersection is found.
+     * @param grid   the grid
+     * @param probes the probe rays
+     * @return the cost of the traversals, in intersection tests
      */
+    private double probeCost(VoxelGrid grid, List<Ray> probes) {
+        double[] cost = {0};
+        grid.setTraversalListener((voxels, tests) -> cost[0] += VoxelGridTuner.traversalCost(voxels, tests));
+        for (Ray probe : probes) {
+            Intersection hit = grid.findClosestIntersection(probe);
+            if (hit == null) continue;
+            for (LightSource light : scene.lights) {
+                Vector l = light.getL(hit.point).scale(-1d);
+                grid.findIntersections(new Ray(hit.point.add(l.scale(DELTA)), l), light.getDistance(hit.point));
+            }
+        }
+        return cost[0];
+    }
+
+    /**
+     * Refits the acceleration after geometries of the scene moved or were added: the nested collections
+     * are refitted (see {@link Geometries#refit()}), and the grid of the top level, which spans only
+     * the geometries at the top of the scene, is built again (with the tuned resolution, if it was tuned).
+     * Must not be called during a render
+     */
+    public void refit() {
+        scene.geometries.refitNested();
+        TopLevel top = new TopLevel(scene.geometries);
+        VoxelGrid grid = subdivide(top.build(tunedSize));
+        grid.setTraversalListener(statistics);
+        if (statistics != null) statistics.setGridSize(grid.getSize());
+        voxelGrid = grid;
+        unboundedGeometries = top.unbounded;
+        clearOccluders();
+    }
+
+    /**
+     * Checks whether the voxel grid was loaded from the cache instead of being built
+     *
+     * @return true if the voxel grid was loaded from the cache
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Checks whether the resolution of the grid was tuned by probe rays
+     *
+     * @return true if the grid is tuned
+     */
+    public boolean isTuned() {
+        return tunedSize != null;
+    }
+
+    /**
+     * Checks whether the dense voxels of the grid are subdivided into sub-grids
+     *
+     * @return true if the grid is hierarchical
+     */
+    public boolean isHierarchical() {
+        return hierarchical;
+    }
+
+    /**
+     * Getter for the amounts of voxels along the axes of the grid of the top level
+     *
+     * @return the amounts of voxels along the X, Y and Z axes
+     */
+    public int[] getGridSize() {
+        return voxelGrid.getSize();
+    }
+
     @Override
-    public Color traceRay(Ray ray) {
-        Intersection intersection = findClosestIntersection(ray);
-        return (intersection == null)
-                ? scene.background
-                : calcColor(intersection, ray);
+    void setStatistics(RenderStatistics statistics) {
+        super.setStatistics(statistics);
+        voxelGrid.setTraversalListener(statistics);
+        if (statistics != null) {
+            statistics.addTime(RenderStatistics.Phase.BUILD, buildTime);
+            statistics.setGridSize(voxelGrid.getSize());
+        }
+    }
+
+    @Override
+    protected Intersection findPrimaryIntersection(Ray ray) {
+        if (statistics != null) statistics.count(RenderStatistics.Counter.PRIMARY_RAYS);
+        return findClosestIntersection(ray);
     }
 
     /**
@@ -88,6 +321,8 @@ public class VoxelRayTracer extends RayTracerBase {
     protected Intersection findClosestIntersection(Ray ray) {
         Intersection voxelHit = voxelGrid.findClosestIntersection(ray);
         Intersection unboundedHit = findClosestUnbounded(ray);
+        if (statistics != null && (voxelHit != null || unboundedHit != null))
+            statistics.count(RenderStatistics.Counter.HITS);
 
         if (voxelHit == null) return unboundedHit;
         if (unboundedHit == null) return voxelHit;
@@ -98,34 +333,11 @@ public class VoxelRayTracer extends RayTracerBase {
         return distVoxel < distUnbounded ? voxelHit : unboundedHit;
     }
 
-    /**
-     * Calculates the transparency factor (ktr) for a given intersection point.
-     *
-     * @param intersection The intersection to check for shadow transparency.
-     * @return A Double3 representing the accumulated transparency (ktr). If ktr falls below MIN_CALC_COLOR_K, returns Double3.ZERO.
-     */
-    protected Double3 transparency(Intersection intersection) {
-        Vector lightDir = intersection.lightDirection.scale(-1.0); // From point to light
-        Vector epsVector = intersection.normal.scale(intersection.dotProductGeometry < 0 ? DELTA : -DELTA);
-        Point shadowRayOrigin = intersection.point.add(epsVector);
-        Ray shadowRay = new Ray(shadowRayOrigin, lightDir); // Shadow ray
-
-        double lightDistance = intersection.lightSource.getDistance(intersection.point);
+    @Override
+    protected List<Intersection> findShadowIntersections(Ray shadowRay, double lightDistance) {
         List<Intersection> shadowIntersections = voxelGrid.findIntersections(shadowRay, lightDistance);
-
-        Double3 ktr = Double3.ONE;
-        if (shadowIntersections == null) return ktr;
-
-        for (Intersection shadowIntersection : shadowIntersections) {
-            if (shadowIntersection.point.distance(intersection.point) < lightDistance) {
-                ktr = ktr.product(shadowIntersection.material.kT);
-                if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                    return Double3.ZERO;
-                }
-            }
-        }
-
-        return ktr;
+        if (statistics != null && !shadowIntersections.isEmpty()) statistics.count(RenderStatistics.Counter.HITS);
+        return shadowIntersections;
     }
 
     /**
@@ -137,6 +349,8 @@ public class VoxelRayTracer extends RayTracerBase {
     private Intersection findClosestUnbounded(Ray ray) {
         Intersection closest = null;
         double minDist = Double.POSITIVE_INFINITY;
+        if (statistics != null)
+            statistics.add(RenderStatistics.Counter.INTERSECTION_TESTS, unboundedGeometries.size());
 
         for (Intersectable g : unboundedGeometries) {
             List<Intersection> hits = g.calculateIntersections(ray);
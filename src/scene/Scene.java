@@ -1,7 +1,7 @@
 package scene;
 
 import lighting.LightSource;
-import parseXML.sceneParser;
+import parseXML.sceneStreamParser;
 import primitives.Color;
 import lighting.AmbientLight;
 import geometries.Geometries;
@@ -44,7 +44,10 @@ public class Scene {
     public Scene(String nameScene) {
         if (nameScene.endsWith(".xml")) {
             this.name = nameScene.substring(0, nameScene.length() - 4); // Remove ".xml"
-            sceneParser.SceneConstructor(nameScene, this);
+            sceneStreamParser.SceneConstructor(nameScene, this);
+        } else if (nameScene.endsWith(SceneBinary.EXTENSION)) {
+            this.name = nameScene.substring(0, nameScene.length() - SceneBinary.EXTENSION.length());
+            SceneBinary.SceneConstructor(nameScene, this);
         } else {
             this.name = nameScene;
         }
@@ -0,0 +1,590 @@
+package scene;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Compact binary format of a scene, which is loaded without parsing any text.<br>
+ * All the numbers are little-endian, the integers are 32 bit and the rest are doubles:
+ * <ol>
+ * <li>Header - magic, version, background color, ambient light intensity,
+ * and the amounts of materials, emission colors, geometry blocks and lights</li>
+ * <li>Material table - kA, kS, kD, kT, kR (3 doubles each), nSH, gloss and blur of every material</li>
+ * <li>Color table - the emission colors (3 doubles each)</li>
+ * <li>Geometry blocks - type and amount, then every geometry of the block: indices of its material
+ * and emission color and its type specific doubles. Subsequent geometries of the same type share a block.
+ * A block of single-precision mesh triangles starts with the float coordinates of the vertices of their mesh,
+ * and every triangle has the indices of its 3 vertices instead of doubles</li>
+ * <li>Lights - type and the type specific values of every light</li>
+ * </ol>
+ * The geometries of a fixed size type are read straight from the mapped file, in parallel for large blocks.
+ * Equal materials and emission colors are stored once and shared by the loaded geometries.
+ * Nested {@link Geometries} are flattened into the geometries of the scene.
+ */
+public class SceneBinary {
+    /**
+     * Extension of binary scene files
+     */
+    public static final String EXTENSION = ".bscene";
+    /**
+     * Magic number at the start of the file ("RTSC")
+     */
+    private static final int MAGIC = 0x43535452;
+    /**
+     * Version of the format
+     */
+    private static final int VERSION = 3;
+    /**
+     * Minimal amount of geometries in a block to read it in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Geometry types of the blocks
+     */
+    private static final int SPHERE = 0, TRIANGLE = 1, POLYGON = 2, PLANE = 3, TUBE = 4, CYLINDER = 5, MESH = 6;
+    /**
+     * Size in bytes of a geometry of every type (except for polygon), including its material and color indices,
+     * and without the vertices of the mesh for a mesh triangle
+     */
+    private static final int[] GEOMETRY_SIZE = {8 + 4 * 8, 8 + 9 * 8, -1, 8 + 6 * 8, 8 + 7 * 8, 8 + 8 * 8, 8 + 3 * 4};
+    /**
+     * Light types
+     */
+    private static final int DIRECTIONAL = 0, POINT = 1, SPOT = 2, RECTANGLE = 3, DISK = 4;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SceneBinary() {
+    }
+
+    /**
+     * Loads a binary scene file into a scene
+     *
+     * @param filePath the path to the file, relative to the xml directory
+     * @param scene    the scene
+     */
+    public static void SceneConstructor(String filePath, Scene scene) {
+        try {
+            read(Paths.get(System.getProperty("user.dir") + "/xml/" + filePath), scene);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Converts an xml scene file into a binary scene file with the same name in the xml directory
+     *
+     * @param xmlFile the xml file, relative to the xml directory
+     * @return the path of the binary file
+     * @throws IOException if the binary file cannot be written
+     */
+    public static Path convert(String xmlFile) throws IOException {
+        Scene scene = new Scene(xmlFile);
+        Path file = Paths.get(System.getProperty("user.dir") + "/xml/"
+                + xmlFile.substring(0, xmlFile.length() - ".xml".length()) + EXTENSION);
+        write(scene, file);
+        return file;
+    }
+
+    /**
+     * Converts xml scene files into binary scene files
+     *
+     * @param args the xml files, relative to the xml directory
+     * @throws IOException if a binary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        for (String xmlFile : args)
+            System.out.println(xmlFile + " -> " + convert(xmlFile));
+    }
+
+    // ========================= writing =========================
+
+    /**
+     * Writes a scene into a binary scene file
+     *
+     * @param scene the scene
+     * @param file  the file
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the scene has a geometry or a light which the format does not support
+     */
+    public static void write(Scene scene, Path file) throws IOException {
+        List<Geometry> geometries = new ArrayList<>();
+        flatten(scene.geometries, geometries);
+
+        Map<List<Double>, Integer> materials = new LinkedHashMap<>();
+        Map<List<Double>, Integer> colors = new LinkedHashMap<>();
+        int[] materialIndices = new int[geometries.size()];
+        int[] colorIndices = new int[geometries.size()];
+        int blocks = 0;
+        for (int i = 0; i < geometries.size(); ++i) {
+            Geometry geometry = geometries.get(i);
+            materialIndices[i] = materials.computeIfAbsent(CompiledMaterial.key(geometry.getMaterial()), k -> materials.size());
+            colorIndices[i] = colors.computeIfAbsent(colorKey(geometry.getEmission()), k -> colors.size());
+            if (i == 0 || !sameBlock(geometries.get(i - 1), geometry)) ++blocks;
+        }
+
+        Buffer out = new Buffer();
+        out.putInt(MAGIC).putInt(VERSION);
+        out.put(scene.background.getRgb()).put(scene.ambientlight.getIntensity().getRgb());
+        out.putInt(materials.size()).putInt(colors.size()).putInt(blocks).putInt(scene.lights.size());
+
+        for (List<Double> material : materials.keySet()) {
+            for (int i = 0; i < 15; ++i) out.putDouble(material.get(i));
+            out.putInt(material.get(15).intValue()).putDouble(material.get(16)).putDouble(material.get(17));
+        }
+        for (List<Double> color : colors.keySet())
+            out.putDouble(color.get(0)).putDouble(color.get(1)).putDouble(color.get(2));
+
+        for (int start = 0; start < geometries.size(); ) {
+            int type = typeOf(geometries.get(start));
+            int end = start + 1;
+            while (end < geometries.size() && sameBlock(geometries.get(start), geometries.get(end))) ++end;
+            out.putInt(type).putInt(end - start);
+            if (type == MESH) {
+                float[] vertices = ((MeshTriangle) geometries.get(start)).getMeshVertices();
+                out.putInt(vertices.length);
+                for (float coordinate : vertices) out.putFloat(coordinate);
+            }
+            for (int i = start; i < end; ++i) {
+                out.putInt(materialIndices[i]).putInt(colorIndices[i]);
+                writeGeometry(out, type, geometries.get(i));
+            }
+            start = end;
+        }
+
+        for (LightSource light : scene.lights) writeLight(out, light);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = out.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * Collects the geometries of nested collections of geometries
+     *
+     * @param geometries the collection
+     * @param result     the list to add the geometries to
+     */
+    private static void flatten(Geometries geometries, List<Geometry> result) {
+        for (Intersectable intersectable : geometries.getGeometries()) {
+            if (intersectable instanceof Geometries nested) flatten(nested, result);
+            else if (intersectable instanceof Geometry geometry) result.add(geometry);
+            else throw new IllegalArgumentException("Not supported: " + intersectable.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Creates a key of the components of a color, so that equal colors are written once
+     *
+     * @param color the color
+     * @return the components of the color
+     */
+    private static List<Double> colorKey(Color color) {
+        Double3 rgb = color.getRgb();
+        return List.of(rgb.d1(), rgb.d2(), rgb.d3());
+    }
+
+    /**
+     * Finds the type of geometry in the format
+     *
+     * @param geometry the geometry
+     * @return the type of the geometry
+     */
+    private static int typeOf(Geometry geometry) {
+        return switch (geometry) {
+            case Sphere ignored -> SPHERE;
+            case Triangle ignored -> TRIANGLE;
+            case Polygon ignored -> POLYGON;
+            case Plane ignored -> PLANE;
+            case Cylinder ignored -> CYLINDER;
+            case Tube ignored -> TUBE;
+            case MeshTriangle ignored -> MESH;
+            default -> throw new IllegalArgumentException("Not supported: " + geometry.getClass().getSimpleName());
+        };
+    }
+
+    /**
+     * Checks whether a geometry is written in the block of the geometry before it -
+     * they are of the same type, and mesh triangles are of the same mesh
+     *
+     * @param previous the geometry before
+     * @param geometry the geometry
+     * @return true if the geometries share a block
+     */
+    private static boolean sameBlock(Geometry previous, Geometry geometry) {
+        int type = typeOf(previous);
+        return type == typeOf(geometry) && (type != MESH
+                || ((MeshTriangle) previous).getMeshVertices() == ((MeshTriangle) geometry).getMeshVertices());
+    }
+
+    /**
+     * Writes the type specific values of a geometry
+     *
+     * @param out      the buffer
+     * @param type     the type of the geometry
+     * @param geometry the geometry
+     */
+    private static void writeGeometry(Buffer out, int type, Geometry geometry) {
+        switch (type) {
+            case SPHERE -> {
+                Sphere sphere = (Sphere) geometry;
+                out.put(sphere.getCenter()).putDouble(sphere.getRadius());
+            }
+            case TRIANGLE -> {
+                for (Point vertex : ((Triangle) geometry).getVertices()) out.put(vertex);
+            }
+            case POLYGON -> {
+                List<Point> vertices = ((Polygon) geometry).getVertices();
+                out.putInt(vertices.size());
+                for (Point vertex : vertices) out.put(vertex);
+            }
+            case PLANE -> {
+                Plane plane = (Plane) geometry;
+                out.put(plane.getPoint()).put(plane.getNormal());
+            }
+            case MESH -> {
+                for (int v = 0; v < 3; ++v) out.putInt(((MeshTriangle) geometry).getVertexIndex(v));
+            }
+            default -> {
+                Tube tube = (Tube) geometry;
+                out.putDouble(tube.getRadius()).put(tube.getAxis().getPoint(0)).put(tube.getAxis().getDirection());
+                if (type == CYLINDER) out.putDouble(((Cylinder) tube).getHeight());
+            }
+        }
+    }
+
+    /**
+     * Writes a light with its type
+     *
+     * @param out   the buffer
+     * @param light the light
+     */
+    private static void writeLight(Buffer out, LightSource light) {
+        switch (light) {
+            case DirectionalLight directional -> out.putInt(DIRECTIONAL)
+                    .put(directional.getIntensity().getRgb()).put(directional.getDirection());
+            case PointLight point -> {
+                int type = switch (point) {
+                    case SpotLight ignored -> SPOT;
+                    case RectangleLight ignored -> RECTANGLE;
+                    case DiskLight ignored -> DISK;
+                    default -> POINT;
+                };
+                out.putInt(type).put(point.getIntensity().getRgb())
+                        .put(point.getPosition()).putDouble(point.getKc()).putDouble(point.getKl()).putDouble(point.getKq());
+                switch (point) {
+                    case SpotLight spot -> out.put(spot.getDirection()).putDouble(spot.getNarrowBeam());
+                    case RectangleLight rectangle -> out.put(rectangle.getWidth()).put(rectangle.getHeight())
+                            .putInt(rectangle.getMaxDepth());
+                    case DiskLight disk -> out.put(disk.getNormal()).putDouble(disk.getRadius())
+                            .putInt(disk.getMaxDepth());
+                    default -> {
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException("Not supported: " + light.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Growing little-endian buffer of the written file
+     */
+    private static class Buffer {
+        /**
+         * The buffer
+         */
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * Default constructor
+         */
+        Buffer() {
+        }
+
+        /**
+         * Makes sure there is room in the buffer
+         *
+         * @param bytes amount of bytes to write
+         */
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) return;
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), buffer.position() + bytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            larger.put(buffer.flip());
+            buffer = larger;
+        }
+
+        /**
+         * Writes an integer
+         *
+         * @param value the integer
+         * @return this buffer
+         */
+        Buffer putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+            return this;
+        }
+
+        /**
+         * Writes a float
+         *
+         * @param value the float
+         * @return this buffer
+         */
+        Buffer putFloat(float value) {
+            ensure(4);
+            buffer.putFloat(value);
+            return this;
+        }
+
+        /**
+         * Writes a double
+         *
+         * @param value the double
+         * @return this buffer
+         */
+        Buffer putDouble(double value) {
+            ensure(8);
+            buffer.putDouble(value);
+            return this;
+        }
+
+        /**
+         * Writes a triad of doubles
+         *
+         * @param value the triad
+         * @return this buffer
+         */
+        Buffer put(Double3 value) {
+            return putDouble(value.d1()).putDouble(value.d2()).putDouble(value.d3());
+        }
+
+        /**
+         * Writes the coordinates of a point (or a vector)
+         *
+         * @param point the point
+         * @return this buffer
+         */
+        Buffer put(Point point) {
+            return putDouble(point.getX()).putDouble(point.getY()).putDouble(point.getZ());
+        }
+
+        /**
+         * Prepares the written bytes for writing to a file
+         *
+         * @return the buffer with the written bytes
+         */
+        ByteBuffer flip() {
+            return buffer.flip();
+        }
+    }
+
+    // ========================= reading =========================
+
+    /**
+     * Reads a binary scene file into a scene, adding its geometries and lights to the scene
+     *
+     * @param file  the file
+     * @param scene the scene
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a binary scene file
+     */
+    public static void read(Path file, Scene scene) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 8 || in.getInt() != MAGIC)
+            throw new IllegalArgumentException("Not a binary scene file: " + file);
+        int version = in.getInt();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported binary scene version " + version + ": " + file);
+
+        scene.setBackground(readColor(in));
+        scene.setAmbientLight(new AmbientLight(readColor(in)));
+        int materialCount = in.getInt();
+        int colorCount = in.getInt();
+        int blockCount = in.getInt();
+        int lightCount = in.getInt();
+
+        Material[] materials = new Material[materialCount];
+        for (int i = 0; i < materialCount; ++i)
+            materials[i] = new Material().setKA(readDouble3(in)).setKS(readDouble3(in)).setKD(readDouble3(in))
+                    .setKT(readDouble3(in)).setKR(readDouble3(in)).setShininess(in.getInt())
+                    .setGloss(in.getDouble()).setBlur(in.getDouble());
+        Color[] colors = new Color[colorCount];
+        for (int i = 0; i < colorCount; ++i) colors[i] = readColor(in);
+
+        for (int b = 0; b < blockCount; ++b) {
+            int type = in.getInt();
+            int count = in.getInt();
+            Geometry[] geometries = new Geometry[count];
+            if (type == POLYGON) {
+                for (int i = 0; i < count; ++i) {
+                    Material material = materials[in.getInt()];
+                    Color emission = colors[in.getInt()];
+                    Point[] vertices = new Point[in.getInt()];
+                    for (int v = 0; v < vertices.length; ++v) vertices[v] = readPoint(in);
+                    geometries[i] = new Polygon(vertices).setMaterial(material).setEmission(emission);
+                }
+            } else {
+                if (type < 0 || type >= GEOMETRY_SIZE.length)
+                    throw new IllegalArgumentException("Unknown geometry type " + type + ": " + file);
+                float[] vertices = type == MESH ? new float[in.getInt()] : null;
+                if (vertices != null) {
+                    in.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vertices);
+                    in.position(in.position() + vertices.length * 4);
+                }
+                int start = in.position();
+                int size = GEOMETRY_SIZE[type];
+                IntStream indices = IntStream.range(0, count);
+                if (count >= PARALLEL_THRESHOLD) indices = indices.parallel();
+                indices.forEach(i -> geometries[i] = readGeometry(in, start + i * size, type, vertices, materials, colors));
+                in.position(start + count * size);
+            }
+            scene.geometries.add(geometries);
+        }
+
+        for (int i = 0; i < lightCount; ++i) scene.lights.add(readLight(in));
+    }
+
+    /**
+     * Reads a geometry of a fixed size type at an absolute position, without changing the position of the buffer
+     *
+     * @param in        the buffer
+     * @param position  the position of the geometry
+     * @param type      the type of the geometry
+     * @param vertices  the coordinates of the vertices of the mesh of the block, null if it is not a mesh block
+     * @param materials the material table
+     * @param colors    the color table
+     * @return the geometry
+     */
+    private static Geometry readGeometry(ByteBuffer in, int position, int type, float[] vertices,
+                                         Material[] materials, Color[] colors) {
+        Material material = materials[in.getInt(position)];
+        Color emission = colors[in.getInt(position + 4)];
+        int p = position + 8;
+        Geometry geometry = switch (type) {
+            case SPHERE -> new Sphere(readPoint(in, p), in.getDouble(p + 24));
+            case TRIANGLE -> new Triangle(readPoint(in, p), readPoint(in, p + 24), readPoint(in, p + 48));
+            case PLANE -> new Plane(readPoint(in, p), readVector(in, p + 24));
+            case TUBE -> new Tube(in.getDouble(p), new Ray(readPoint(in, p + 8), readVector(in, p + 32)));
+            case MESH -> new MeshTriangle(vertices, in.getInt(p), in.getInt(p + 4), in.getInt(p + 8));
+            default -> new Cylinder(in.getDouble(p), new Ray(readPoint(in, p + 8), readVector(in, p + 32)),
+                    in.getDouble(p + 56));
+        };
+        return geometry.setMaterial(material).setEmission(emission);
+    }
+
+    /**
+     * Reads a light with its type
+     *
+     * @param in the buffer
+     * @return the light
+     */
+    private static LightSource readLight(ByteBuffer in) {
+        int type = in.getInt();
+        Color intensity = readColor(in);
+        if (type == DIRECTIONAL)
+            return new DirectionalLight(intensity, readVector(in));
+        if (type < POINT || type > DISK)
+            throw new IllegalArgumentException("Unknown light type " + type);
+        Point position = readPoint(in);
+        double kC = in.getDouble(), kL = in.getDouble(), kQ = in.getDouble();
+        if (type == POINT)
+            return new PointLight(intensity, position).setKc(kC).setKl(kL).setKq(kQ);
+        Vector direction = readVector(in);
+        if (type == RECTANGLE)
+            return new RectangleLight(intensity, position, direction, readVector(in)).setKc(kC).setKl(kL).setKq(kQ)
+                    .setMaxDepth(in.getInt());
+        if (type == DISK)
+            return new DiskLight(intensity, position, direction, in.getDouble()).setKc(kC).setKl(kL).setKq(kQ)
+                    .setMaxDepth(in.getInt());
+        return new SpotLight(intensity, position, direction).setKc(kC).setKl(kL).setKq(kQ)
+                .setNarrowBeam(in.getDouble());
+    }
+
+    /**
+     * Reads a triad of doubles
+     *
+     * @param in the buffer
+     * @return the triad
+     */
+    private static Double3 readDouble3(ByteBuffer in) {
+        return new Double3(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a color
+     *
+     * @param in the buffer
+     * @return the color
+     */
+    private static Color readColor(ByteBuffer in) {
+        double r = in.getDouble(), g = in.getDouble(), b = in.getDouble();
+        return r == 0 && g == 0 && b == 0 ? Color.BLACK : new Color(r, g, b);
+    }
+
+    /**
+     * Reads a point
+     *
+     * @param in the buffer
+     * @return the point
+     */
+    private static Point readPoint(ByteBuffer in) {
+        return new Point(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a point at an absolute position
+     *
+     * @param in       the buffer
+     * @param position the position of the point
+     * @return the point
+     */
+    private static Point readPoint(ByteBuffer in, int position) {
+        return new Point(in.getDouble(position), in.getDouble(position + 8), in.getDouble(position + 16));
+    }
+
+    /**
+     * Reads a vector
+     *
+     * @param in the buffer
+     * @return the vector
+     */
+    private static Vector readVector(ByteBuffer in) {
+        return new Vector(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a vector at an absolute position
+     *
+     * @param in       the buffer
+     * @param position the position of the vector
+     * @return the vector
+     */
+    private static Vector readVector(ByteBuffer in, int position) {
+        return new Vector(in.getDouble(position), in.getDouble(position + 8), in.getDouble(position + 16));
+    }
+}
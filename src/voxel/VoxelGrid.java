@@ -7,17 +7,57 @@ import primitives.Ray;
 import primitives.Vector;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * A VoxelGrid is an acceleration structure that partitions 3D space into a regular grid of voxels.
  * Each voxel contains a list of geometries that intersect it.
  * This implementation uses a sparse HashMap to store only occupied voxels, improving memory efficiency.
+ * The amount of voxels along each axis is chosen by {@link VoxelGridTuner}.
+ * A scene of dense clusters in a large empty space may subdivide its dense voxels into sub-grids
+ * (see {@link #subdivide(int, int)}), so that the grid is fine where the objects are and coarse elsewhere.
  */
 public class VoxelGrid {
     private final AABB bounds; // The global bounding box of the scene
     private final int nx, ny, nz; // Number of voxels along each axis
     private final double voxelSizeX, voxelSizeY, voxelSizeZ; // Size of each voxel along each axis
     private final Map<VoxelIndex, List<Intersectable>> grid = new HashMap<>(); // Sparse grid to store intersectable objects in voxels
+    private final Map<VoxelIndex, VoxelGrid> subGrids = new HashMap<>(); // Grids of the dense voxels, see subdivide
+    private TraversalListener listener = null; // Notified of the work done by each traversal, null if nobody listens
+
+    /**
+     * How many times fewer objects the voxels of a sub-grid must hold on average than the voxel it subdivides
+     */
+    private static final double SUBDIVISION_GAIN = 2;
+    /**
+     * Min amount of geometries which are added to a grid in parallel
+     */
+    static final int PARALLEL_BUILD_THRESHOLD = 10_000;
+    /**
+     * Max amount of voxels for each geometry of a grid whose geometries are added in parallel,
+     * limiting the memory of counting the references of all the voxels
+     */
+    private static final int MAX_VOXELS_PER_OBJECT = 64;
+    /**
+     * Max length of an array - max amount of voxels, and of references of all the voxels,
+     * of a grid whose geometries are added in parallel
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Listener to the work done by the traversals of the grid, e.g. for render statistics
+     */
+    public interface TraversalListener {
+        /**
+         * Called at the end of each traversal of the grid by a ray
+         *
+         * @param voxels the amount of voxels visited
+         * @param tests  the amount of intersection tests with objects
+         */
+        void traversed(int voxels, int tests);
+    }
 
     /**
      * Constructs a voxel grid using the provided bounding box and grid resolution.
@@ -37,6 +77,33 @@ public class VoxelGrid {
         voxelSizeZ = (bounds.getMax().getZ() - bounds.getMin().getZ()) / nz;
     }
 
+    /**
+     * Getter for the amounts of voxels along the axes
+     *
+     * @return the amounts of voxels along the X, Y and Z axes
+     */
+    public int[] getSize() {
+        return new int[]{nx, ny, nz};
+    }
+
+    /**
+     * Getter for the occupied voxels, for saving and loading the grid by {@link VoxelGridCache}
+     *
+     * @return the sparse grid of the objects in each occupied voxel
+     */
+    Map<VoxelIndex, List<Intersectable>> getCells() {
+        return grid;
+    }
+
+    /**
+     * Sets the listener to the work done by the traversals of the grid
+     *
+     * @param listener the listener, null to stop listening
+     */
+    public void setTraversalListener(TraversalListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Adds a geometry to all voxels overlapping its bounding box.
      *
@@ -63,89 +130,296 @@ public class VoxelGrid {
     }
 
     /**
-     * Finds the closest intersection between the ray and the geometries in the grid.
-     * AKA 3D DDA algorithm for ray traversal through the voxel grid.
+     * Adds geometries one by one to all voxels overlapping their bounding boxes
      *
-     * @param ray the ray to test
-     * @return the closest intersection, or null if no intersection was found
+     * @param objects the geometries to add
+     * @param boxes   the bounding boxes of the geometries, in their order - a geometry without one is skipped
      */
-    public Intersection findClosestIntersection(Ray ray) {
-        if (!bounds.hasIntersection(ray))
-            return null; // If the ray does not intersect the scene bounding box, return null
+    private void addOneByOne(List<? extends Intersectable> objects, List<AABB> boxes) {
+        for (int i = 0; i < objects.size(); ++i)
+            if (boxes.get(i) != null) addObject(objects.get(i), boxes.get(i));
+    }
 
-        Point origin = ray.getPoint(0);
-        Vector dir = ray.getDirection();
+    /**
+     * Adds geometries to all voxels overlapping their bounding boxes, in their order - as {@link #addObject}
+     * for each of them.<br>
+     * Many geometries are added in parallel: the voxel ranges of the geometries are found and the references of
+     * each voxel are counted, the counts are summed into the offsets of the voxels in one array of references,
+     * which is filled in parallel and sorted within each voxel back to the order of the geometries,
+     * so the grid is the same as if they were added one by one
+     *
+     * @param objects the geometries to add
+     * @param boxes   the bounding boxes of the geometries, in their order - a geometry without one is skipped
+     */
+    public void addObjects(List<? extends Intersectable> objects, List<AABB> boxes) {
+        int count = objects.size();
+        long cells = (long) nx * ny * nz;
+        // the voxels are counted in an array - too many voxels for the objects are added one by one
+        if (count < PARALLEL_BUILD_THRESHOLD || cells > (long) MAX_VOXELS_PER_OBJECT * count
+                || cells > MAX_ARRAY_LENGTH - 1) {
+            addOneByOne(objects, boxes);
+            return;
+        }
 
-        int ix = clamp(toGridX(origin.getX()), 0, nx - 1);
-        int iy = clamp(toGridY(origin.getY()), 0, ny - 1);
-        int iz = clamp(toGridZ(origin.getZ()), 0, nz - 1);
+        // the voxel ranges of the objects (min X, max X, min Y, max Y, min Z, max Z), and the references of each voxel
+        int[] ranges = new int[6 * count];
+        AtomicIntegerArray counts = new AtomicIntegerArray((int) cells);
+        IntStream.range(0, count).parallel().forEach(i -> {
+            AABB box = boxes.get(i);
+            if (box == null) return;
+            int r = 6 * i;
+            ranges[r] = clamp(toGridX(box.getMin().getX()), 0, nx - 1);
+            ranges[r + 1] = clamp(toGridX(box.getMax().getX()), 0, nx - 1);
+            ranges[r + 2] = clamp(toGridY(box.getMin().getY()), 0, ny - 1);
+            ranges[r + 3] = clamp(toGridY(box.getMax().getY()), 0, ny - 1);
+            ranges[r + 4] = clamp(toGridZ(box.getMin().getZ()), 0, nz - 1);
+            ranges[r + 5] = clamp(toGridZ(box.getMax().getZ()), 0, nz - 1);
+            for (int k = ranges[r + 4]; k <= ranges[r + 5]; ++k)
+                for (int j = ranges[r + 2]; j <= ranges[r + 3]; ++j)
+                    for (int c = (k * ny + j) * nx + ranges[r]; c <= (k * ny + j) * nx + ranges[r + 1]; ++c)
+                        counts.incrementAndGet(c);
+        });
+
+        // the prefix sum of the counts - the references of voxel c are between offsets[c] and offsets[c + 1],
+        // too many references for one array are added one by one
+        int[] offsets = new int[(int) cells + 1];
+        long total = 0;
+        for (int c = 0; c < cells; ++c) {
+            total += counts.get(c);
+            if (total > MAX_ARRAY_LENGTH) {
+                addOneByOne(objects, boxes);
+                return;
+            }
+            offsets[c + 1] = (int) total;
+        }
 
-        int stepX = dir.getX() >= 0 ? 1 : -1;
-        int stepY = dir.getY() >= 0 ? 1 : -1;
-        int stepZ = dir.getZ() >= 0 ? 1 : -1;
+        // each object writes its index to the next free place of each of its voxels
+        int[] references = new int[offsets[(int) cells]];
+        AtomicIntegerArray next = new AtomicIntegerArray(Arrays.copyOf(offsets, (int) cells));
+        IntStream.range(0, count).parallel().forEach(i -> {
+            if (boxes.get(i) == null) return;
+            int r = 6 * i;
+            for (int k = ranges[r + 4]; k <= ranges[r + 5]; ++k)
+                for (int j = ranges[r + 2]; j <= ranges[r + 3]; ++j)
+                    for (int c = (k * ny + j) * nx + ranges[r]; c <= (k * ny + j) * nx + ranges[r + 1]; ++c)
+                        references[next.getAndIncrement(c)] = i;
+        });
+
+        // the lists of the occupied voxels, in the order of the objects
+        @SuppressWarnings("unchecked")
+        List<Intersectable>[] lists = (List<Intersectable>[]) new List<?>[(int) cells];
+        IntStream.range(0, (int) cells).parallel().filter(c -> offsets[c + 1] > offsets[c]).forEach(c -> {
+            Arrays.sort(references, offsets[c], offsets[c + 1]);
+            List<Intersectable> list = new ArrayList<>(offsets[c + 1] - offsets[c]);
+            for (int p = offsets[c]; p < offsets[c + 1]; ++p) list.add(objects.get(references[p]));
+            lists[c] = list;
+        });
+        for (int c = 0; c < cells; ++c) {
+            if (lists[c] == null) continue;
+            VoxelIndex index = new VoxelIndex(c % nx, c / nx % ny, c / nx / ny);
+            grid.merge(index, lists[c], (added, list) -> {
+                added.addAll(list);
+                return added;
+            });
+        }
+    }
 
-        double nextX = voxelBoundary(bounds.getMin().getX(), ix, stepX, voxelSizeX);
-        double nextY = voxelBoundary(bounds.getMin().getY(), iy, stepY, voxelSizeY);
-        double nextZ = voxelBoundary(bounds.getMin().getZ(), iz, stepZ, voxelSizeZ);
+    /**
+     * Finds the bounding boxes of geometries - in parallel for many geometries
+     *
+     * @param objects the geometries
+     * @return the bounding boxes in the order of the geometries, null for an unbounded geometry
+     */
+    public static List<AABB> boundingBoxes(List<? extends Intersectable> objects) {
+        if (objects.size() < PARALLEL_BUILD_THRESHOLD) {
+            List<AABB> boxes = new ArrayList<>(objects.size());
+            for (Intersectable object : objects) boxes.add(object.getBoundingBox());
+            return boxes;
+        }
+        // a linked list is split poorly between the threads
+        List<? extends Intersectable> list = objects instanceof RandomAccess ? objects : new ArrayList<>(objects);
+        return list.parallelStream().map(Intersectable::getBoundingBox).collect(Collectors.toCollection(ArrayList::new));
+    }
 
-        double tMaxX = safeDivide(nextX - origin.getX(), dir.getX());
-        double tMaxY = safeDivide(nextY - origin.getY(), dir.getY());
-        double tMaxZ = safeDivide(nextZ - origin.getZ(), dir.getZ());
+    /**
+     * Finds the union of bounding boxes - in parallel for many boxes
+     *
+     * @param boxes the bounding boxes, null for an unbounded geometry (which is skipped)
+     * @return the union, null if there are no bounding boxes
+     */
+    public static AABB bounds(List<AABB> boxes) {
+        return (boxes.size() < PARALLEL_BUILD_THRESHOLD ? boxes.stream() : boxes.parallelStream())
+                .filter(Objects::nonNull).reduce(AABB::union).orElse(null);
+    }
 
-        double tDeltaX = voxelSizeX / Math.abs(dir.getX());
-        double tDeltaY = voxelSizeY / Math.abs(dir.getY());
-        double tDeltaZ = voxelSizeZ / Math.abs(dir.getZ());
+    /**
+     * Subdivides the dense voxels of the grid: each voxel with more objects than the threshold gets a grid of its own
+     * over the bounds of the voxel, sized by the objects in it (see {@link VoxelGridTuner#size(AABB, List)}),
+     * and the traversals descend into it instead of testing all the objects of the voxel.
+     * The dense voxels of the sub-grids are subdivided again, up to the given depth.
+     * A voxel is not subdivided when the voxels of its sub-grid would not separate its objects
+     * (e.g. when they all span the voxel).<br>
+     * The sub-grids are dropped when the grid is saved by {@link VoxelGridCache}, so a loaded grid is subdivided again
+     *
+     * @param threshold max amount of objects in a voxel which is not subdivided
+     * @param depth     max amount of levels of sub-grids below this grid
+     * @return this grid
+     */
+    public VoxelGrid subdivide(int threshold, int depth) {
+        if (depth <= 0) return this;
+        for (Map.Entry<VoxelIndex, List<Intersectable>> cell : grid.entrySet()) {
+            List<Intersectable> objects = cell.getValue();
+            if (objects.size() <= threshold) continue;
+            AABB voxel = voxelBounds(cell.getKey());
+            List<AABB> boxes = objects.stream().map(Intersectable::getBoundingBox).toList();
+            VoxelGrid subGrid = VoxelGridTuner.build(voxel, VoxelGridTuner.size(voxel, boxes), objects, boxes);
+            // a sub-grid whose voxels hold most of the objects only adds steps to the traversal
+            if (subGrid.averageOccupancy() * SUBDIVISION_GAIN > objects.size()) continue;
+            subGrids.put(cell.getKey(), subGrid.subdivide(threshold, depth - 1));
+        }
+        return this;
+    }
+
+    /**
+     * Counts the sub-grids of the dense voxels, in all the levels below this grid
+     *
+     * @return the amount of the sub-grids
+     */
+    public int getSubGridCount() {
+        int count = subGrids.size();
+        for (VoxelGrid subGrid : subGrids.values()) count += subGrid.getSubGridCount();
+        return count;
+    }
+
+    /**
+     * Calculates the average amount of objects in the occupied voxels
+     *
+     * @return the average amount of objects, 0 if no voxel is occupied
+     */
+    private double averageOccupancy() {
+        if (grid.isEmpty()) return 0;
+        long references = 0;
+        for (List<Intersectable> objects : grid.values()) references += objects.size();
+        return (double) references / grid.size();
+    }
+
+    /**
+     * Calculates the bounds of a voxel
+     *
+     * @param index the index of the voxel
+     * @return the bounding box of the voxel
+     */
+    private AABB voxelBounds(VoxelIndex index) {
+        Point min = bounds.getMin();
+        return new AABB(
+                new Point(min.getX() + index.i * voxelSizeX, min.getY() + index.j * voxelSizeY,
+                        min.getZ() + index.k * voxelSizeZ),
+                new Point(min.getX() + (index.i + 1) * voxelSizeX, min.getY() + (index.j + 1) * voxelSizeY,
+                        min.getZ() + (index.k + 1) * voxelSizeZ));
+    }
 
+    /**
+     * The state of the traversal of a ray through a grid and its sub-grids
+     */
+    private static class Traversal {
+        /**
+         * The traced ray
+         */
+        final Ray ray;
+        /**
+         * The origin of the ray
+         */
+        final Point origin;
+        /**
+         * Max distance of the intersections from the origin of the ray
+         */
+        final double maxDistance;
+        /**
+         * All the intersections found, null when only the closest intersection is searched
+         */
+        final List<Intersection> allHits;
+        /**
+         * The objects tested by the ray, in all the levels - each object is tested once
+         */
+        final Set<Intersectable> tested = new HashSet<>();
+        /**
+         * The amount of voxels visited, in all the levels
+         */
+        int visited = 0;
+        /**
+         * The closest intersection found, when only the closest intersection is searched
+         */
         Intersection closest = null;
+        /**
+         * Distance of the closest intersection from the origin of the ray
+         */
         double closestDist = Double.POSITIVE_INFINITY;
-        Set<Intersectable> tested = new HashSet<>();
 
-        while (ix >= 0 && ix < nx && iy >= 0 && iy < ny && iz >= 0 && iz < nz) {
-            VoxelIndex index = new VoxelIndex(ix, iy, iz);
-            List<Intersectable> cell = grid.get(index);
-
-            if (cell != null) {
-                for (Intersectable obj : cell) {
-                    if (tested.add(obj)) { // Only test each object once
-                        List<Intersection> hits = obj.calculateIntersections(ray);
-                        if (hits != null) {
-                            for (Intersection inter : hits) {
-                                double dist = origin.distance(inter.point);
-                                if (dist < closestDist) {
-                                    closest = inter;
-                                    closestDist = dist;
-                                }
+        /**
+         * Constructor of a traversal
+         *
+         * @param ray         the traced ray
+         * @param maxDistance max distance of the intersections
+         * @param allHits     the list of all the intersections, null to search only the closest intersection
+         */
+        Traversal(Ray ray, double maxDistance, List<Intersection> allHits) {
+            this.ray = ray;
+            this.origin = ray.getPoint(0);
+            this.maxDistance = maxDistance;
+            this.allHits = allHits;
+        }
+
+        /**
+         * Tests the objects of a voxel which were not tested yet
+         *
+         * @param objects the objects of the voxel
+         */
+        void test(List<Intersectable> objects) {
+            for (Intersectable obj : objects) {
+                if (!tested.add(obj)) continue; // Only test each object once
+                if (allHits != null) {
+                    List<Intersection> hits = obj.calculateIntersections(ray, maxDistance);
+                    if (hits != null) allHits.addAll(hits);
+                } else {
+                    List<Intersection> hits = obj.calculateIntersections(ray);
+                    if (hits != null) {
+                        for (Intersection inter : hits) {
+                            double dist = origin.distance(inter.point);
+                            if (dist < closestDist) {
+                                closest = inter;
+                                closestDist = dist;
                             }
                         }
                     }
                 }
             }
-            double nextT = Math.min(tMaxX, Math.min(tMaxY, tMaxZ));
+        }
 
+        /**
+         * Checks whether the voxels from the given distance on cannot change the result of the traversal
+         *
+         * @param nextT the distance of the next voxel along the ray
+         * @return true if the traversal is done
+         */
+        boolean isDone(double nextT) {
             // if nextT > closestDist it means we definitely found the closest intersection no need to continue
-            if (closest != null && nextT > closestDist) {
-                break; // Exit the main DDA loop early
-            }
-            if (tMaxX < tMaxY) {
-                if (tMaxX < tMaxZ) {
-                    ix += stepX;
-                    tMaxX += tDeltaX;
-                } else {
-                    iz += stepZ;
-                    tMaxZ += tDeltaZ;
-                }
-            } else {
-                if (tMaxY < tMaxZ) {
-                    iy += stepY;
-                    tMaxY += tDeltaY;
-                } else {
-                    iz += stepZ;
-                    tMaxZ += tDeltaZ;
-                }
-            }
+            return allHits != null ? nextT > maxDistance : closest != null && nextT > closestDist;
         }
+    }
 
-        return closest;
+    /**
+     * Finds the closest intersection between the ray and the geometries in the grid.
+     * AKA 3D DDA algorithm for ray traversal through the voxel grid.
+     *
+     * @param ray the ray to test
+     * @return the closest intersection, or null if no intersection was found
+     */
+    public Intersection findClosestIntersection(Ray ray) {
+        Traversal traversal = new Traversal(ray, Double.POSITIVE_INFINITY, null);
+        // If the ray does not intersect the scene bounding box, there is no intersection
+        if (bounds.hasIntersection(ray)) traverse(traversal, entry(ray));
+        if (listener != null) listener.traversed(traversal.visited, traversal.tested.size());
+        return traversal.closest;
     }
 
     /**
@@ -156,22 +430,30 @@ public class VoxelGrid {
      * @return a list of intersections, or an empty list if none found
      */
     public List<Intersection> findIntersections(Ray ray, double maxDistance) {
-
-        List<Intersection> allHits = new LinkedList<>();
-
+        Traversal traversal = new Traversal(ray, maxDistance, new LinkedList<>());
         // The ray does not intersect with the grid, so return an empty list
-        if (!bounds.hasIntersection(ray)) {
-            return allHits;
-        }
+        if (bounds.hasIntersection(ray)) traverse(traversal, entry(ray));
+        if (listener != null) listener.traversed(traversal.visited, traversal.tested.size());
+        return traversal.allHits;
+    }
 
-        Point origin = ray.getPoint(0);
+    /**
+     * Traverses the voxels of the grid along a ray, descending into the sub-grids of the dense voxels
+     *
+     * @param traversal the state of the traversal
+     * @param tStart    the distance along the ray where it enters the grid (0 if it starts inside the grid)
+     */
+    private void traverse(Traversal traversal, double tStart) {
+        Ray ray = traversal.ray;
+        Point origin = traversal.origin;
         Vector dir = ray.getDirection();
 
-        // Calculate the initial voxel indices (ix, iy, iz) where the ray starts
-        // Clamp is used to make sure that if we are outside the grid we will start inside it
-        int ix = clamp(toGridX(origin.getX()), 0, nx - 1);
-        int iy = clamp(toGridY(origin.getY()), 0, ny - 1);
-        int iz = clamp(toGridZ(origin.getZ()), 0, nz - 1);
+        // Calculate the initial voxel indices (ix, iy, iz) where the ray enters the grid
+        // Clamp is used to make sure that if we are on the bounds of the grid we will start inside it
+        Point start = tStart == 0 ? origin : ray.getPoint(tStart);
+        int ix = clamp(toGridX(start.getX()), 0, nx - 1);
+        int iy = clamp(toGridY(start.getY()), 0, ny - 1);
+        int iz = clamp(toGridZ(start.getZ()), 0, nz - 1);
 
         // Which direction we are moving within the grid
         int stepX = dir.getX() >= 0 ? 1 : -1;
@@ -194,31 +476,25 @@ public class VoxelGrid {
         double tDeltaY = voxelSizeY / Math.abs(dir.getY());
         double tDeltaZ = voxelSizeZ / Math.abs(dir.getZ());
 
-        // Make sure we do not calculate the same intersection twice
-        Set<Intersectable> tested = new HashSet<>();
-
+        boolean subdivided = !subGrids.isEmpty();
+        double tVoxel = tStart; // the 't' where the ray enters the current voxel - where it enters its sub-grid
         while (ix >= 0 && ix < nx && iy >= 0 && iy < ny && iz >= 0 && iz < nz) {
-
-            List<Intersectable> voxel = grid.get(new VoxelIndex(ix, iy, iz));
-
-            if (voxel != null) {
-                for (Intersectable obj : voxel) {
-                    if (tested.add(obj)) {
-                        List<Intersection> hits = obj.calculateIntersections(ray, maxDistance);
-                        if (hits != null) {
-                            allHits.addAll(hits);
-                        }
-                    }
-                }
+            ++traversal.visited;
+            VoxelIndex index = new VoxelIndex(ix, iy, iz);
+            VoxelGrid subGrid = subdivided ? subGrids.get(index) : null;
+            if (subGrid != null) {
+                subGrid.traverse(traversal, tVoxel);
+            } else {
+                List<Intersectable> voxel = grid.get(index);
+                if (voxel != null) traversal.test(voxel);
             }
 
             // Get the 't' value of the next voxel the ray will hit
             double nextT = Math.min(tMaxX, Math.min(tMaxY, tMaxZ));
-
-
-            if (nextT > maxDistance) {
-                break;
+            if (traversal.isDone(nextT)) {
+                break; // Exit the main DDA loop early
             }
+            tVoxel = Math.max(nextT, 0);
 
             // Where do we move next
             if (tMaxX < tMaxY) {
@@ -239,8 +515,39 @@ public class VoxelGrid {
                 }
             }
         }
+    }
+
+    /**
+     * Finds the distance along a ray where it enters the grid - 0 if it starts inside the grid.
+     * Starting the traversal there instead of at the voxel nearest to the origin skips the voxels which
+     * the ray does not cross
+     *
+     * @param ray the ray, which intersects the bounds of the grid
+     * @return the distance of the entry point from the origin of the ray
+     */
+    private double entry(Ray ray) {
+        Point origin = ray.getPoint(0);
+        Vector dir = ray.getDirection();
+        // outside the slab of an axis the ray is not parallel to it, since it intersects the grid
+        double tEntry = 0;
+        tEntry = Math.max(tEntry, slabEntry(origin.getX(), dir.getX(), bounds.getMin().getX(), bounds.getMax().getX()));
+        tEntry = Math.max(tEntry, slabEntry(origin.getY(), dir.getY(), bounds.getMin().getY(), bounds.getMax().getY()));
+        tEntry = Math.max(tEntry, slabEntry(origin.getZ(), dir.getZ(), bounds.getMin().getZ(), bounds.getMax().getZ()));
+        return tEntry;
+    }
 
-        return allHits;
+    /**
+     * Finds the distance along a ray where it enters the slab of the grid along one axis
+     *
+     * @param origin the coordinate of the origin of the ray along the axis
+     * @param dir    the coordinate of the direction of the ray along the axis
+     * @param min    the lower bound of the grid along the axis
+     * @param max    the upper bound of the grid along the axis
+     * @return the distance, 0 if the origin is inside the slab
+     */
+    private static double slabEntry(double origin, double dir, double min, double max) {
+        if (origin >= min && origin <= max) return 0;
+        return ((dir > 0 ? min : max) - origin) / dir;
     }
 
     /**
@@ -0,0 +1,197 @@
+package voxel;
+
+import geometries.Intersectable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of built voxel grids in a local directory, so that the grid of a static scene is built once
+ * and loaded by later renders, also by later runs.<br>
+ * The content of a grid depends only on its bounds, its size and the bounding boxes of its objects (in order),
+ * so these are hashed (SHA-256) into the key of the grid, which is the name of its file. The file holds,
+ * in little-endian, the size of the grid and the indices of the objects in each occupied voxel.
+ * The objects themselves are not stored - a loaded grid refers to the objects of the scene it is loaded for.
+ * <br>
+ * The cache never fails a render: a missing, corrupt or unwritable file only means that the grid is built.
+ * <br>
+ * Only the top-level grid of a scene is cached. The grids of nested {@link geometries.Geometries} collections
+ * (also those of instances) and the subdivided voxels of a hierarchical grid are built again on every run,
+ * so a scene whose objects are mostly inside nested collections gains little from the cache.
+ */
+public class VoxelGridCache {
+    /**
+     * Extension of the cached grid files
+     */
+    private static final String EXTENSION = ".vgrid";
+    /**
+     * Magic number at the start of a cached grid file ("VGRD")
+     */
+    private static final int MAGIC = 0x44524756;
+    /**
+     * Version of the file format, also part of the key
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The cache directory
+     */
+    private final Path directory;
+
+    /**
+     * Constructor
+     *
+     * @param directory the cache directory, created when the first grid is stored
+     */
+    public VoxelGridCache(Path directory) {
+        if (directory == null)
+            throw new IllegalArgumentException("Cache directory cannot be null");
+        this.directory = directory;
+    }
+
+    /**
+     * Hashes the values which define the content of a grid
+     *
+     * @param bounds the bounds of the grid
+     * @param nx     number of voxels along the X-axis
+     * @param ny     number of voxels along the Y-axis
+     * @param nz     number of voxels along the Z-axis
+     * @param boxes  the bounding boxes of the objects, in the order they are added to the grid
+     * @return the key of the grid
+     */
+    public static String key(AABB bounds, int nx, int ny, int nz, List<AABB> boxes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(6 * Double.BYTES * 128).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(VERSION).putInt(nx).putInt(ny).putInt(nz).putInt(boxes.size());
+        putBox(buffer, bounds);
+        for (AABB box : boxes) {
+            if (buffer.remaining() < 6 * Double.BYTES) {
+                digest.update(buffer.flip());
+                buffer.clear();
+            }
+            putBox(buffer, box);
+        }
+        digest.update(buffer.flip());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds the coordinates of a bounding box to a buffer
+     *
+     * @param buffer the buffer
+     * @param box    the bounding box
+     */
+    private static void putBox(ByteBuffer buffer, AABB box) {
+        buffer.putDouble(box.getMin().getX()).putDouble(box.getMin().getY()).putDouble(box.getMin().getZ())
+                .putDouble(box.getMax().getX()).putDouble(box.getMax().getY()).putDouble(box.getMax().getZ());
+    }
+
+    /**
+     * Finds the file of a grid
+     *
+     * @param key the key of the grid
+     * @return the path of the file
+     */
+    private Path file(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    /**
+     * Loads a cached grid
+     *
+     * @param key     the key of the grid (see {@link #key(AABB, int, int, int, List)})
+     * @param bounds  the bounds of the grid
+     * @param objects the objects of the grid, in the order they were added to it
+     * @return the grid, or null if it is not in the cache
+     */
+    public VoxelGrid load(String key, AABB bounds, List<Intersectable> objects) {
+        Path file = file(key);
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+            VoxelGrid grid = new VoxelGrid(bounds, in.getInt(), in.getInt(), in.getInt());
+            if (in.getInt() != objects.size()) return null;
+            Intersectable[] indexed = objects.toArray(new Intersectable[0]);
+            Map<VoxelIndex, List<Intersectable>> cells = grid.getCells();
+            for (int cellCount = in.getInt(); cellCount > 0; --cellCount) {
+                VoxelIndex index = new VoxelIndex(in.getInt(), in.getInt(), in.getInt());
+                int count = in.getInt();
+                List<Intersectable> cell = new ArrayList<>(count);
+                for (int i = 0; i < count; ++i) cell.add(indexed[in.getInt()]);
+                cells.put(index, cell);
+            }
+            return grid;
+        } catch (IOException | RuntimeException e) {
+            // a corrupt file is rebuilt and replaced
+            return null;
+        }
+    }
+
+    /**
+     * Stores a grid in the cache. The file is written aside and then moved into place,
+     * so concurrent renders never load a partial file
+     *
+     * @param key     the key of the grid (see {@link #key(AABB, int, int, int, List)})
+     * @param grid    the grid
+     * @param objects the objects of the grid, in the order they were added to it
+     * @return true if the grid was stored
+     */
+    public boolean store(String key, VoxelGrid grid, List<Intersectable> objects) {
+        // an object which was added more than once is written by its first index
+        Map<Intersectable, Integer> indices = new IdentityHashMap<>(objects.size());
+        for (int i = 0; i < objects.size(); ++i) indices.putIfAbsent(objects.get(i), i);
+
+        Map<VoxelIndex, List<Intersectable>> cells = grid.getCells();
+        long size = 4L * 7;
+        for (List<Intersectable> cell : cells.values()) size += 4L * (4 + cell.size());
+        if (size > Integer.MAX_VALUE) return false;
+
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        int[] gridSize = grid.getSize();
+        out.putInt(MAGIC).putInt(VERSION).putInt(gridSize[0]).putInt(gridSize[1]).putInt(gridSize[2])
+                .putInt(objects.size()).putInt(cells.size());
+        for (Map.Entry<VoxelIndex, List<Intersectable>> entry : cells.entrySet()) {
+            VoxelIndex index = entry.getKey();
+            out.putInt(index.i).putInt(index.j).putInt(index.k).putInt(entry.getValue().size());
+            for (Intersectable object : entry.getValue()) out.putInt(indices.get(object));
+        }
+
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                out.flip();
+                while (out.hasRemaining()) channel.write(out);
+            }
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            try {
+                if (temp != null) Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // nothing more to clean
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package voxel;
+
+import geometries.Intersectable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Chooses the amount of voxels along each axis of a {@link VoxelGrid}.<br>
+ * The grid has about {@link #VOXELS_PER_OBJECT} voxels for each object, shaped by the aspect ratio of its bounds,
+ * so that the voxels are close to cubes: a flat or an elongated scene gets more voxels along its long axes,
+ * and a flat axis gets a single voxel. A voxel is not made much smaller than the objects, since a large
+ * object is only added to more voxels. The grid has at least one voxel along each axis.<br>
+ * The heuristic does not know the rays, and a grid whose voxels are longer along the direction of most of the rays
+ * (e.g. the view direction) is traversed in fewer steps - so the resolution may also be tuned by the cost
+ * (the intersection tests and the visited voxels) of tracing probe rays through grids of other resolutions
+ */
+public final class VoxelGridTuner {
+    /**
+     * Number of voxels per object
+     */
+    static final int VOXELS_PER_OBJECT = 4;
+    /**
+     * Max amount of voxels along the average extent of an object
+     */
+    private static final double VOXELS_PER_OBJECT_EXTENT = 4;
+    /**
+     * Cost of visiting a voxel, relative to an intersection test with an object (measured on the mini project scene)
+     */
+    private static final double VOXEL_COST = 0.5;
+    /**
+     * Max amount of steps of the tuning
+     */
+    private static final int MAX_TUNING_STEPS = 8;
+    /**
+     * Max amount of voxels along an axis of a tuned grid
+     */
+    private static final int MAX_AXIS_SIZE = 1024;
+
+    /**
+     * Private constructor - a utility class
+     */
+    private VoxelGridTuner() {
+    }
+
+    /**
+     * Calculates the amount of voxels along each axis of a grid, by the aspect ratio of its bounds,
+     * the amount of its objects and their average size
+     *
+     * @param bounds the bounds of the grid
+     * @param boxes  the bounding boxes of the objects, null for an unbounded object (which is skipped)
+     * @return the amounts of voxels along the X, Y and Z axes, at least 1
+     */
+    public static int[] size(AABB bounds, List<AABB> boxes) {
+        int count = 0;
+        double[] objectExtent = new double[3];
+        for (AABB box : boxes)
+            if (box != null) {
+                ++count;
+                double[] extent = extent(box);
+                for (int axis = 0; axis < 3; ++axis) objectExtent[axis] += extent[axis];
+            }
+        int[] size = {1, 1, 1};
+        if (count == 0 || bounds == null) return size;
+
+        // the amount of voxels along an axis is its extent times k, and the product of the amounts is the target -
+        // an axis which gets less than one voxel is fixed to one, and k is calculated again for the other axes
+        double[] extent = extent(bounds);
+        boolean[] fixed = new boolean[3];
+        for (int axis = 0; axis < 3; ++axis) fixed[axis] = !(extent[axis] > 0);
+        double voxels = (double) count * VOXELS_PER_OBJECT;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            double volume = 1;
+            int dimensions = 0;
+            for (int axis = 0; axis < 3; ++axis)
+                if (!fixed[axis]) {
+                    volume *= extent[axis];
+                    ++dimensions;
+                }
+            if (dimensions == 0) break;
+            double k = Math.pow(voxels / volume, 1d / dimensions);
+            for (int axis = 0; axis < 3; ++axis)
+                if (!fixed[axis]) {
+                    if (extent[axis] * k < 1) {
+                        fixed[axis] = true;
+                        changed = true;
+                    } else size[axis] = (int) Math.round(extent[axis] * k);
+                }
+        }
+
+        for (int axis = 0; axis < 3; ++axis) {
+            double average = objectExtent[axis] / count;
+            if (average > 0) {
+                double limit = Math.ceil(extent[axis] / average * VOXELS_PER_OBJECT_EXTENT);
+                size[axis] = (int) Math.min(size[axis], limit);
+            }
+            if (fixed[axis]) size[axis] = 1;
+            size[axis] = Math.max(size[axis], 1);
+        }
+        return size;
+    }
+
+    /**
+     * Tunes the amount of voxels along each axis of a grid by the cost of tracing rays through it.<br>
+     * Starting from the heuristic of {@link #size(AABB, List)}, each step builds the grids of twice and half of the
+     * voxels along each axis (and along all of them), and moves to the cheapest one while it is cheaper -
+     * a coordinate descent, which also finds the grids of voxels which are longer along the direction of the rays
+     *
+     * @param bounds  the bounds of the grid
+     * @param objects the bounded objects of the grid
+     * @param boxes   the bounding boxes of the objects, in the order of the objects
+     * @param cost    the cost of tracing the rays through a grid, e.g. by a listener to the traversals
+     *                (see {@link #traversalCost(int, int)})
+     * @return the amounts of voxels along the X, Y and Z axes, at least 1
+     */
+    public static int[] tune(AABB bounds, List<? extends Intersectable> objects, List<AABB> boxes,
+                             ToDoubleFunction<VoxelGrid> cost) {
+        int[] best = size(bounds, boxes);
+        if (bounds == null || objects.isEmpty()) return best;
+
+        double[] extent = extent(bounds);
+        Map<List<Integer>, Double> costs = new HashMap<>();
+        ToDoubleFunction<int[]> evaluate = size -> costs.computeIfAbsent(List.of(size[0], size[1], size[2]),
+                key -> cost.applyAsDouble(build(bounds, size, objects, boxes)));
+        double bestCost = evaluate.applyAsDouble(best);
+        for (int step = 0; step < MAX_TUNING_STEPS; ++step) {
+            int[] next = null;
+            double nextCost = bestCost;
+            for (int[] candidate : neighbors(best, extent)) {
+                double candidateCost = evaluate.applyAsDouble(candidate);
+                if (candidateCost < nextCost) {
+                    next = candidate;
+                    nextCost = candidateCost;
+                }
+            }
+            if (next == null) break;
+            best = next;
+            bestCost = nextCost;
+        }
+        return best;
+    }
+
+    /**
+     * Calculates the cost of a traversal of a grid, for tuning the grid by {@link #tune}
+     *
+     * @param voxels the amount of voxels visited
+     * @param tests  the amount of intersection tests with objects
+     * @return the cost, in intersection tests
+     */
+    public static double traversalCost(int voxels, int tests) {
+        return tests + VOXEL_COST * voxels;
+    }
+
+    /**
+     * Finds the resolutions of a grid of twice and half of the voxels along each axis, and along all of them
+     *
+     * @param size   the amounts of voxels along the X, Y and Z axes
+     * @param extent the extents of the bounds of the grid - a flat axis keeps a single voxel
+     * @return the resolutions, without the given one
+     */
+    private static List<int[]> neighbors(int[] size, double[] extent) {
+        List<int[]> neighbors = new ArrayList<>();
+        for (double scale : new double[]{2, 0.5}) {
+            for (int axis = -1; axis < 3; ++axis) {
+                int[] neighbor = size.clone();
+                for (int i = 0; i < 3; ++i)
+                    if ((axis == -1 || axis == i) && extent[i] > 0)
+                        neighbor[i] = Math.clamp(Math.round(size[i] * scale), 1, MAX_AXIS_SIZE);
+                if (!Arrays.equals(neighbor, size)) neighbors.add(neighbor);
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Builds a grid of objects
+     *
+     * @param bounds  the bounds of the grid
+     * @param size    the amounts of voxels along the X, Y and Z axes
+     * @param objects the bounded objects
+     * @param boxes   the bounding boxes of the objects, in the order of the objects
+     * @return the grid
+     */
+    public static VoxelGrid build(AABB bounds, int[] size, List<? extends Intersectable> objects, List<AABB> boxes) {
+        VoxelGrid grid = new VoxelGrid(bounds, size[0], size[1], size[2]);
+        grid.addObjects(objects, boxes);
+        return grid;
+    }
+
+    /**
+     * Calculates the extent of a box along each axis
+     *
+     * @param box the box
+     * @return the extents along the X, Y and Z axes
+     */
+    private static double[] extent(AABB box) {
+        return new double[]{
+                box.getMax().getX() - box.getMin().getX(),
+                box.getMax().getY() - box.getMin().getY(),
+                box.getMax().getZ() - box.getMin().getZ()};
+    }
+}
@@ -93,4 +93,67 @@ class GeometriesTests {
         assertEquals(4, intersections.size(), "TC24: Expected all 4 intersection points");
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests for {@link geometries.Geometries#build()}.
+     */
+    @Test
+    void testBuild() {
+        Geometries flat = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            flat.add(new Sphere(new Point(3 * i, 0, 0), 1), new Triangle(
+                    new Point(3 * i - 1, -1, 5), new Point(3 * i + 1, -1, 5), new Point(3 * i, 1, 5)));
+        Geometries nested = new Geometries(new Geometries(flat.getGeometries().subList(0, 100).toArray(new Intersectable[0])),
+                new Geometries(flat.getGeometries().subList(100, 200).toArray(new Intersectable[0])),
+                new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)));
+        Ray along = new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0));
+        Ray through = new Ray(new Point(30, 0, -5), new Vector(0, 0, 1));
+        Ray down = new Ray(new Point(30, 0, 10), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a built collection finds the same intersections
+        assertEquals(200, flat.findIntersections(along).size(), "Wrong intersections before building");
+        assertFalse(flat.isBuilt(), "The collection is built before building it");
+        flat.build();
+        assertTrue(flat.isBuilt(), "The collection is not built");
+        assertEquals(200, flat.findIntersections(along).size(), "Wrong intersections of a built collection");
+        assertEquals(3, flat.findIntersections(through).size(), "Wrong intersections of a built collection");
+        assertEquals(1, flat.findIntersections(through, 5).size(), "Wrong limited intersections of a built collection");
+
+        // TC02: nested collections are built with their parent
+        nested.build();
+        assertTrue(((Geometries) nested.getGeometries().getFirst()).isBuilt(), "The nested collection is not built");
+        assertEquals(4, nested.findIntersections(down).size(), "Wrong intersections of nested collections");
+
+        // TC03: adding a shape drops the grid
+        flat.add(new Sphere(new Point(30, 0, 10), 1));
+        assertFalse(flat.isBuilt(), "The grid was kept after adding a shape");
+        assertEquals(5, flat.findIntersections(through).size(), "The added shape was not intersected");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: an empty collection
+        assertNull(new Geometries().build().findIntersections(along), "Intersected an empty collection");
+    }
+
+    /**
+     * Tests for {@link geometries.Geometries#refit()}.
+     */
+    @Test
+    void testRefit() {
+        Geometries inner = new Geometries(new Sphere(new Point(0, 0, 0), 1));
+        Geometries outer = new Geometries(inner, new Sphere(new Point(10, 0, 0), 1)).build();
+        Ray ray = new Ray(new Point(20, 0, -5), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a shape which moved out of the bounds is found after refitting
+        assertNull(outer.findIntersections(ray), "Intersected before the shape moved");
+        inner.getGeometries().set(0, new Sphere(new Point(20, 0, 0), 1));
+        outer.refit();
+        assertEquals(2, outer.findIntersections(ray).size(), "The moved shape was not refitted");
+        assertEquals(new Point(21, 1, 1), outer.getBoundingBox().getMax(), "Wrong bounds after refitting");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: refitting a collection which is not built builds it
+        Geometries notBuilt = new Geometries(new Sphere(new Point(0, 0, 0), 1));
+        assertTrue(notBuilt.refit().isBuilt(), "Refitting did not build the collection");
+    }
+}
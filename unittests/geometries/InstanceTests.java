@@ -0,0 +1,142 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+import voxel.AABB;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.Instance} class
+ */
+class InstanceTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    InstanceTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * The shared geometry - a unit sphere at the origin
+     */
+    private final Sphere sphere = new Sphere(Point.ZERO, 1);
+
+    /**
+     * Finds the intersection points of a geometry, sorted by the distance from the head of the ray
+     *
+     * @param geometry    the geometry
+     * @param ray         the ray
+     * @param maxDistance the maximum distance of the points
+     * @return the sorted points, or null if there are none
+     */
+    private static List<Point> sorted(Intersectable geometry, Ray ray, double maxDistance) {
+        List<Point> points = geometry.findIntersections(ray, maxDistance);
+        return points == null ? null
+                : points.stream().sorted(Comparator.comparingDouble(p -> p.distance(ray.getPoint(0)))).toList();
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#calculateIntersections(Ray, double)}.
+     */
+    @Test
+    void testCalculateIntersections() {
+        Ray ray = new Ray(new Point(10, 0, 10), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a translated instance
+        Instance moved = new Instance(sphere, Transform.translate(10, 0, 0));
+        assertEquals(List.of(new Point(10, 0, 1), new Point(10, 0, -1)), sorted(moved, ray, Double.POSITIVE_INFINITY),
+                "Wrong intersections");
+        assertNull(sphere.findIntersections(ray), "The shared geometry was moved");
+
+        // TC02: a scaled and translated instance - the world distance limits the hits
+        Instance scaled = new Instance(sphere, Transform.scale(3).then(Transform.translate(10, 0, 0)));
+        assertEquals(List.of(new Point(10, 0, 3), new Point(10, 0, -3)), sorted(scaled, ray, Double.POSITIVE_INFINITY),
+                "Wrong intersections of the scaled instance");
+        assertEquals(List.of(new Point(10, 0, 3)), sorted(scaled, ray, 8), "Wrong limited intersections");
+
+        // TC03: the normal of a non-uniformly scaled instance is in the world space
+        Instance ellipsoid = new Instance(sphere, Transform.scale(1, 1, 4).then(Transform.translate(10, 0, 0)));
+        Intersectable.Intersection hit = ellipsoid.calculateIntersections(
+                new Ray(new Point(10, 0, 0), new Vector(1, 0, 1))).getFirst();
+        Vector normal = hit.getNormal();
+        assertEquals(1, normal.length(), 1e-10, "The normal is not normalized");
+        assertTrue(normal.getX() > normal.getZ(), "The normal was not transformed as a normal");
+        assertSame(sphere, hit.geometry, "Wrong geometry of the intersection");
+
+        // TC04: a material of the instance
+        Material material = new Material().setKD(0.5);
+        Intersectable.Intersection colored = new Instance(sphere, Transform.translate(10, 0, 0)).setMaterial(material)
+                .calculateIntersections(ray).getFirst();
+        assertSame(material, colored.material, "The material of the instance was not used");
+
+        // TC05: a nested instance
+        Instance nested = new Instance(new Instance(sphere, Transform.scale(2)), Transform.translate(10, 0, 0));
+        assertEquals(List.of(new Point(10, 0, 2), new Point(10, 0, -2)), sorted(nested, ray, Double.POSITIVE_INFINITY),
+                "Wrong intersections of the nested instance");
+        Intersectable.Intersection nestedHit = nested.calculateIntersections(ray).getFirst();
+        assertEquals(nestedHit.point.subtract(new Point(10, 0, 0)).normalize(), nestedHit.getNormal(),
+                "Wrong normal of the nested instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: the ray misses the instance
+        assertNull(new Instance(sphere, Transform.translate(20, 0, 0)).findIntersections(ray), "Wrong intersections");
+        // TC11: no geometry
+        assertThrows(IllegalArgumentException.class, () -> new Instance(null, Transform.IDENTITY),
+                "An instance without a geometry was created");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a transformed instance is bounded in the world space
+        AABB box = new Instance(sphere, Transform.scale(2, 1, 1).then(Transform.translate(10, 0, 0))).getBoundingBox();
+        assertEquals(new Point(8, -1, -1), box.getMin(), "Wrong minimum of the bounding box");
+        assertEquals(new Point(12, 1, 1), box.getMax(), "Wrong maximum of the bounding box");
+
+        // TC02: many instances share one geometry
+        Geometries forest = new Geometries();
+        for (int i = 0; i < 10000; ++i) forest.add(new Instance(sphere, Transform.translate(3 * i, 0, 0)));
+        assertEquals(new Point(29998, 1, 1), forest.getBoundingBox().getMax(), "Wrong bounding box of the instances");
+        assertNull(forest.findIntersections(new Ray(new Point(1.5, 0, -5), new Vector(0, 0, 1))),
+                "Intersected between the instances");
+        assertEquals(2, forest.findIntersections(new Ray(new Point(3000, 0, -5), new Vector(0, 0, 1))).size(),
+                "Wrong intersections of an instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: an instance of an empty collection
+        assertNull(new Instance(new Geometries(), Transform.translate(1, 0, 0)).getBoundingBox(),
+                "An empty instance has a bounding box");
+    }
+
+    /**
+     * Test method for {@link Intersectable.Intersection#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        Instance scaled = new Instance(sphere, Transform.scale(3).then(Transform.translate(10, 0, 0)));
+        Intersectable.Intersection hit = scaled.calculateIntersections(
+                new Ray(new Point(10, 0, 10), new Vector(0, 0, -1))).getFirst();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the instanced geometry is tested where the instance placed it
+        assertTrue(hit.intersects(new Ray(new Point(12, 0, -10), new Vector(0, 0, 1)), 100),
+                "The instanced geometry was missed");
+        assertFalse(hit.intersects(new Ray(new Point(0, 0, -10), new Vector(0, 0, 1)), 100),
+                "The shared geometry was tested instead of the instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: the geometry is farther than the distance
+        assertFalse(hit.intersects(new Ray(new Point(12, 0, -10), new Vector(0, 0, 1)), 5),
+                "Intersected beyond the distance");
+    }
+}
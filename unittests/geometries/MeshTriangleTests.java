@@ -0,0 +1,82 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MeshTriangle class - triangles of single-precision meshes.
+ */
+class MeshTriangleTests {
+    /**
+     * The vertices of the tested mesh
+     */
+    private final float[] vertices = {0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 2, -1};
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    MeshTriangleTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Test method for {@link geometries.MeshTriangle#MeshTriangle(float[], int, int, int)}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the vertices are read from the shared array
+        MeshTriangle triangle = new MeshTriangle(vertices, 0, 1, 2);
+        assertEquals(new Point(1, 0, 0), triangle.getVertex(1), "Wrong vertex");
+        assertEquals(new Triangle(new Point(0, 0, 1), new Point(1, 0, 0), new Point(0, 1, 0)).getNormal(Point.ZERO),
+                triangle.getNormal(Point.ZERO), "Wrong normal");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: collinear vertices
+        assertThrows(IllegalArgumentException.class, () -> new MeshTriangle(vertices, 0, 0, 1), "Equal vertices");
+        assertThrows(IllegalArgumentException.class, () -> new MeshTriangle(vertices, 0, 3, 2), "Collinear vertices");
+        // TC11: an index which is not of a vertex
+        assertThrows(IllegalArgumentException.class, () -> new MeshTriangle(vertices, 0, 1, 4), "Invalid index");
+    }
+
+    /**
+     * Test method for {@link geometries.MeshTriangle#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        MeshTriangle triangle = new MeshTriangle(vertices, 0, 1, 2);
+        MeshTriangle.setValidation(true);
+        List<Point> result;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray intersects inside the triangle
+        result = triangle.findIntersections(new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1)));
+        assertEquals(1, result.size(), "TC01: Should intersect inside");
+        assertEquals(0, new Point(0.2, 0.2, 0.6).distance(result.getFirst()), 1e-6,
+                "TC01: Intersection point is incorrect");
+        // TC02: Ray passes against a side
+        assertNull(triangle.findIntersections(new Ray(new Point(0.7, 0.7, -1), new Vector(0, 0, 1))),
+                "TC02: Should not intersect against a side");
+        // TC03: Ray goes away from the triangle
+        assertNull(triangle.findIntersections(new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, -1))),
+                "TC03: Should not intersect behind the ray");
+        // TC04: Intersection beyond the max distance
+        assertNull(triangle.findIntersections(new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1)), 1),
+                "TC04: Should not intersect beyond the distance");
+        assertEquals(0, MeshTriangle.getMismatches(), "TC05: Differs from the double-precision triangle");
+        assertEquals(4, MeshTriangle.getValidated(), "TC05: Wrong amount of validated intersections");
+        MeshTriangle.setValidation(false);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray starts on the triangle (no intersection with the surface it leaves)
+        assertNull(triangle.findIntersections(new Ray(new Point(0.2, 0.2, 0.6), new Vector(0, 0, 1))),
+                "TC10: Should not intersect the surface the ray starts on");
+        // TC11: Ray parallel to the triangle
+        assertNull(triangle.findIntersections(new Ray(new Point(0, 0, 0), new Vector(1, -1, 0))),
+                "TC11: Should not intersect a parallel triangle");
+    }
+}
@@ -0,0 +1,228 @@
+package parseXML;
+
+import geometries.Intersectable;
+import geometries.MeshTriangle;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Point;
+import scene.Scene;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link parseXML.meshParser} - importing OBJ and PLY meshes
+ */
+class MeshParserTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    MeshParserTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Writes a temporary mesh file and imports it
+     *
+     * @param extension the extension of the file
+     * @param content   the content of the file
+     * @return the triangles of the mesh
+     * @throws IOException if the file cannot be written or read
+     */
+    private static List<Triangle> parse(String extension, byte[] content) throws IOException {
+        Path file = Files.createTempFile("mesh", extension);
+        try {
+            Files.write(file, content);
+            return meshParser.parse(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Creates a binary PLY file of a square made of a quad and of the same square made of two triangles
+     *
+     * @param order the byte order of the file
+     * @return the content of the file
+     */
+    private static byte[] ply(ByteOrder order) {
+        String header = "ply\nformat " + (order == ByteOrder.LITTLE_ENDIAN ? "binary_little_endian" : "binary_big_endian")
+                + " 1.0\ncomment a square\nelement vertex 4\nproperty float x\nproperty float y\nproperty float z\n"
+                + "property uchar red\nelement face 2\nproperty list uchar int vertex_indices\nproperty uchar flags\n"
+                + "end_header\n";
+        ByteBuffer buffer = ByteBuffer.allocate(header.length() + 4 * 13 + 18 + 14).order(order);
+        buffer.put(header.getBytes(StandardCharsets.US_ASCII));
+        float[][] vertices = {{0, 0, -1}, {1.5f, 0, -1}, {1.5f, 1, -1}, {0, 1, -1}};
+        for (float[] vertex : vertices) buffer.putFloat(vertex[0]).putFloat(vertex[1]).putFloat(vertex[2]).put((byte) 7);
+        buffer.put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3).put((byte) 0);
+        buffer.put((byte) 3).putInt(0).putInt(2).putInt(3).put((byte) 0);
+        return buffer.array();
+    }
+
+    /**
+     * Test method for {@link meshParser#parse(Path)} of OBJ files
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testParseObj() throws IOException {
+        String obj = """
+                # a square and a triangle
+                o square
+                v 0 0 -1
+                v 1.5 0 -1.0
+                  v 1.5e0 1 -1
+                v 0 1 -1
+                vn 0 0 1
+                vt 0 0
+                f 1/1/1 2/1/1 3//1 4
+                usemtl red
+                v -2 -2 -2
+                v -3 -2 -2
+                v -2 -3 -2\r
+                f -3 -2 -1 # relative indices
+                f 1 1 2
+                """;
+        List<Triangle> triangles = parse(".obj", obj.getBytes(StandardCharsets.US_ASCII));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a quad is split into two triangles, and relative indices are of the vertices before the face
+        assertEquals(3, triangles.size(), "Wrong amount of triangles");
+        assertEquals(List.of(new Point(0, 0, -1), new Point(1.5, 0, -1), new Point(1.5, 1, -1)),
+                triangles.get(0).getVertices(), "Wrong first triangle of the quad");
+        assertEquals(List.of(new Point(0, 0, -1), new Point(1.5, 1, -1), new Point(0, 1, -1)),
+                triangles.get(1).getVertices(), "Wrong second triangle of the quad");
+        assertEquals(List.of(new Point(-2, -2, -2), new Point(-3, -2, -2), new Point(-2, -3, -2)),
+                triangles.get(2).getVertices(), "Wrong triangle of relative indices");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: an index which is not of a vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(".obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n".getBytes(StandardCharsets.US_ASCII)));
+        // BV02: a face without enough vertices
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(".obj", "v 0 0 0\nf 1\n".getBytes(StandardCharsets.US_ASCII)));
+        // BV03: an unknown extension
+        assertThrows(IllegalArgumentException.class, () -> parse(".stl", new byte[0]));
+    }
+
+    /**
+     * Test method for {@link meshParser#parse(Path)} of an OBJ file which is parsed in several chunks
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testParseLargeObj() throws IOException {
+        final int triangles = 20000;
+        StringBuilder obj = new StringBuilder();
+        for (int i = 0; i < triangles; ++i)
+            obj.append(String.format("v %d.25 0 -100\nv %d.25 0 -100\nv %d.25 1 -100\nf -3 -2 -1\n", 3 * i, 3 * i + 1, 3 * i));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: all the triangles are parsed, in the order of the file
+        List<Triangle> parsed = parse(".obj", obj.toString().getBytes(StandardCharsets.US_ASCII));
+        assertEquals(triangles, parsed.size(), "Wrong amount of triangles");
+        for (int i = 0; i < triangles; i += 251)
+            assertEquals(new Point(3 * i + 0.25, 0, -100), parsed.get(i).getVertices().getFirst(),
+                    "Triangle " + i + " is out of order");
+    }
+
+    /**
+     * Test method for {@link meshParser#parse(Path)} of binary PLY files
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testParsePly() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: little endian, the quad is split into two triangles
+        List<Triangle> little = parse(".ply", ply(ByteOrder.LITTLE_ENDIAN));
+        assertEquals(3, little.size(), "Wrong amount of triangles");
+        assertEquals(List.of(new Point(0, 0, -1), new Point(1.5, 1, -1), new Point(0, 1, -1)),
+                little.get(1).getVertices(), "Wrong second triangle of the quad");
+        // EP02: big endian
+        List<Triangle> big = parse(".ply", ply(ByteOrder.BIG_ENDIAN));
+        assertEquals(little.stream().map(Triangle::getVertices).toList(),
+                big.stream().map(Triangle::getVertices).toList(), "Wrong triangles of big endian");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: an ascii PLY file
+        assertThrows(IllegalArgumentException.class, () -> parse(".ply",
+                "ply\nformat ascii 1.0\nend_header\n".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Test method for {@link meshParser#parseSinglePrecision(Path)}
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testParseSinglePrecision() throws IOException {
+        Path file = Files.createTempFile("mesh", ".ply");
+        try {
+            Files.write(file, ply(ByteOrder.LITTLE_ENDIAN));
+            List<Triangle> triangles = meshParser.parse(file);
+            List<MeshTriangle> singles = meshParser.parseSinglePrecision(file);
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: the same triangles as in double precision
+            assertEquals(triangles.size(), singles.size(), "Wrong amount of triangles");
+            for (int i = 0; i < triangles.size(); ++i)
+                for (int v = 0; v < 3; ++v)
+                    assertEquals(triangles.get(i).getVertices().get(v), singles.get(i).getVertex(v),
+                            "Wrong vertex of triangle " + i);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test method for the mesh element of the xml scenes
+     *
+     * @throws Exception if the files cannot be written or parsed
+     */
+    @Test
+    void testMeshElement() throws Exception {
+        Path file = Path.of(System.getProperty("user.dir"), "xml", "mesh test.ply");
+        Files.write(file, ply(ByteOrder.LITTLE_ENDIAN));
+        try {
+            String xml = "<scene><geometries><sphere center=\"0 0 -50\" radius=\"5\"/>"
+                    + "<mesh file=\"mesh test.ply\" emission=\"10 20 30\" kD=\"0.5\"/>"
+                    + "<triangle p0=\"0 0 0\" p1=\"1 0 0\" p2=\"0 1 0\"/></geometries></scene>";
+            Scene scene = new Scene("mesh");
+            sceneStreamParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), scene);
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: the triangles of the mesh are added in the place of the element, with its material and emission
+            List<Intersectable> geometries = scene.geometries.getGeometries();
+            assertEquals(5, geometries.size(), "Wrong amount of geometries");
+            Triangle triangle = (Triangle) geometries.get(2);
+            assertEquals(new Double3(10, 20, 30), triangle.getEmission().getRgb(), "Wrong emission of the mesh");
+            assertEquals(new Double3(0.5), triangle.getMaterial().kD, "Wrong material of the mesh");
+            assertEquals(new Point(1, 0, 0), ((Triangle) geometries.get(4)).getVertices().get(1),
+                    "The mesh is out of order");
+
+            // EP02: a single-precision mesh
+            scene = new Scene("single mesh");
+            sceneStreamParser.parse(new ByteArrayInputStream(xml.replace("<mesh ", "<mesh precision=\"single\" ")
+                    .getBytes(StandardCharsets.UTF_8)), scene);
+            MeshTriangle single = (MeshTriangle) scene.geometries.getGeometries().get(2);
+            assertEquals(new Double3(0.5), single.getMaterial().kD, "Wrong material of the single-precision mesh");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: a missing mesh file
+            assertThrows(IllegalArgumentException.class, () -> sceneStreamParser.parse(new ByteArrayInputStream(
+                    "<scene><geometries><mesh file=\"missing.obj\"/></geometries></scene>"
+                            .getBytes(StandardCharsets.UTF_8)), new Scene("missing")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package parseXML;
+
+import geometries.Intersectable;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link parseXML.sceneStreamParser} - streaming parsing of xml scenes
+ */
+class SceneStreamParserTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    SceneStreamParserTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Parses an xml file by both parsers and checks that the scenes are the same
+     *
+     * @param file the xml file
+     */
+    private static void assertSameScene(String file) {
+        Scene dom = new Scene("dom");
+        sceneParser.SceneConstructor(file, dom);
+        Scene stream = new Scene("stream");
+        sceneStreamParser.SceneConstructor(file, stream);
+
+        assertEquals(dom.background.toString(), stream.background.toString(), "Wrong background of " + file);
+        assertEquals(dom.ambientlight.getIntensity().toString(), stream.ambientlight.getIntensity().toString(),
+                "Wrong ambient light of " + file);
+        assertEquals(dom.geometries.getGeometries().stream().map(Object::getClass).toList(),
+                stream.geometries.getGeometries().stream().map(Object::getClass).toList(),
+                "Wrong geometries of " + file);
+        assertEquals(dom.lights.stream().map(Object::getClass).toList(),
+                stream.lights.stream().map(Object::getClass).toList(),
+                "Wrong lights of " + file);
+    }
+
+    /**
+     * Test method for {@link sceneStreamParser#SceneConstructor(String, Scene)}
+     */
+    @Test
+    void testSceneConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a scene with geometries and ambient light
+        assertSameScene("renderTestTwoColors.xml");
+        // EP02: a scene with lights
+        assertSameScene("ColorAndLights.xml");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: an invalid geometry
+        assertThrows(IllegalArgumentException.class,
+                () -> sceneStreamParser.SceneConstructor("RenderTestFail.xml", new Scene("fail")));
+        // BV02: a missing file
+        assertThrows(IllegalArgumentException.class,
+                () -> sceneStreamParser.SceneConstructor("missing.xml", new Scene("missing")));
+    }
+
+    /**
+     * Test method for {@link sceneStreamParser#parse(java.io.InputStream, Scene)}
+     * with a scene of several chunks of geometries
+     *
+     * @throws Exception if the xml cannot be parsed
+     */
+    @Test
+    void testParseLargeScene() throws Exception {
+        final int triangles = 5000;
+        StringBuilder xml = new StringBuilder("<scene background-color=\"1 2 3\"><geometries>");
+        for (int i = 0; i < triangles; ++i)
+            xml.append(String.format("<triangle p0=\"%d 0 -100\" p1=\"%d 0 -100\" p2=\"%d 1 -100\"/>", 3 * i, 3 * i + 1, 3 * i));
+        xml.append("</geometries></scene>");
+
+        Scene scene = new Scene("large");
+        sceneStreamParser.parse(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)), scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: all the geometries are parsed, in the order of the file
+        List<Intersectable> geometries = scene.geometries.getGeometries();
+        assertEquals(triangles, geometries.size(), "Wrong amount of geometries");
+        for (int i : new int[]{0, 1023, 1024, 2500, triangles - 1}) {
+            Ray ray = new Ray(new Point(3 * i + 0.25, 0.25, 0), new Vector(0, 0, -1));
+            assertNotNull(geometries.get(i).findIntersections(ray), "Geometry " + i + " is out of order");
+        }
+        assertTrue(scene.lights.isEmpty(), "Lights were added to a scene without lights");
+    }
+}
@@ -0,0 +1,54 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Material class and its compiled form.
+ */
+class MaterialTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    MaterialTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Test method for {@link primitives.Material#compile()}.
+     */
+    @Test
+    void testCompile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the flags of a diffuse and reflective material
+        Material material = new Material().setKD(0.5).setKR(new Double3(0, 0.2, 0));
+        CompiledMaterial compiled = material.compile();
+        assertTrue(compiled.hasDiffuse, "Diffuse material not compiled as diffuse");
+        assertTrue(compiled.isReflective, "Reflective material not compiled as reflective");
+        assertTrue(compiled.hasAmbient, "Default ambient coefficient not compiled");
+        assertFalse(compiled.hasSpecular, "Material without kS compiled with highlights");
+        assertFalse(compiled.isTransparent, "Material without kT compiled as transparent");
+        assertEquals(new Double3(0.5), compiled.kD, "Wrong compiled coefficient");
+
+        // TC02: equal materials share one compiled material
+        assertSame(compiled, new Material().setKR(new Double3(0, 0.2, 0)).setKD(0.5).compile(),
+                "Equal materials are not interned");
+        assertNotSame(compiled, new Material().setKD(0.5).compile(), "Different materials share a compiled material");
+
+        // TC03: a setter discards the compiled form
+        material.setKT(0.3).setShininess(20);
+        assertTrue(material.compile().isTransparent, "Changed material was not compiled again");
+        assertEquals(20, material.compile().nSH, "Changed material was not compiled again");
+
+        // TC04: a value assigned directly to a field is compiled
+        material.kR = Double3.ZERO;
+        material.blur = 0.1;
+        assertFalse(material.compile().isReflective, "Directly assigned field was not compiled again");
+        assertEquals(0.1, material.compile().blur, "Directly assigned field was not compiled again");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a black material
+        CompiledMaterial black = new Material().setKA(0d).compile();
+        assertFalse(black.hasAmbient || black.hasDiffuse || black.hasSpecular || black.isReflective || black.isTransparent,
+                "Black material compiled with an effect");
+    }
+}
@@ -0,0 +1,63 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Transform class.
+ */
+class TransformTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    TransformTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Test method for {@link primitives.Transform#apply(Point)} and {@link primitives.Transform#applyInverse(Point)}.
+     */
+    @Test
+    void testApplyPoint() {
+        Point point = new Point(1, 2, 3);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: translation
+        assertEquals(new Point(2, 4, 6), Transform.translate(1, 2, 3).apply(point), "Wrong translation");
+        // TC02: scale
+        assertEquals(new Point(2, 6, 12), Transform.scale(2, 3, 4).apply(point), "Wrong scale");
+        // TC03: rotation of 90 degrees around the Z axis
+        assertEquals(new Point(-2, 1, 3), Transform.rotate(new Vector(0, 0, 1), 90).apply(point), "Wrong rotation");
+        // TC04: combined transforms are applied in order
+        Transform combined = Transform.scale(2).then(Transform.translate(1, 0, 0));
+        assertEquals(new Point(3, 4, 6), combined.apply(point), "Wrong combined transform");
+        // TC05: the inverse restores the point
+        Transform transform = Transform.rotate(new Vector(1, 1, 0), 30).then(Transform.scale(1, 2, 3))
+                .then(Transform.translate(-4, 5, 6));
+        assertEquals(point, transform.applyInverse(transform.apply(point)), "Wrong inverse transform");
+        assertEquals(point, transform.inverse().apply(transform.apply(point)), "Wrong inverse");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: identity
+        assertEquals(point, Transform.IDENTITY.apply(point), "Identity changed the point");
+        // TC11: zero scale
+        assertThrows(IllegalArgumentException.class, () -> Transform.scale(1, 0, 1), "Zero scale was accepted");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#apply(Vector)} and {@link primitives.Transform#applyNormal(Vector)}.
+     */
+    @Test
+    void testApplyVector() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a vector is not translated
+        Vector vector = new Vector(1, 1, 0);
+        assertEquals(new Vector(2, 1, 0), Transform.translate(5, 5, 5).then(Transform.scale(2, 1, 1)).apply(vector),
+                "Wrong transformed vector");
+        // TC02: a normal stays orthogonal to the transformed surface
+        Transform transform = Transform.scale(2, 1, 1);
+        Vector normal = new Vector(1, 1, 0).normalize();
+        Vector tangent = new Vector(1, -1, 0);
+        assertEquals(0, transform.applyNormal(normal).dotProduct(transform.apply(tangent)), 1e-10,
+                "The normal is not orthogonal to the surface");
+        assertEquals(1, transform.applyNormal(normal).length(), 1e-10, "The normal is not normalized");
+    }
+}
@@ -0,0 +1,109 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AreaLight;
+import lighting.DiskLight;
+import lighting.RectangleLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static renderer.RenderStatistics.Counter.SHADOW_RAYS;
+
+/**
+ * Tests for {@link lighting.AreaLight} - soft shadows sampled adaptively over the area of the light
+ */
+class AreaLightTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    AreaLightTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates a scene with a small sphere between a floor and an area light
+     *
+     * @param light the area light above the sphere
+     * @return the scene
+     */
+    private static Scene createScene(AreaLight light) {
+        Scene scene = new Scene("Area light scene");
+        scene.geometries.add(
+                new Plane(Point.ZERO, Vector.AXIS_Z).setMaterial(new Material().setKD(0.5)),
+                new Sphere(new Point(0, 0, 50), 10).setMaterial(new Material().setKD(0.5)));
+        scene.lights.add(light);
+        return scene;
+    }
+
+    /**
+     * Renders a single pixel of the floor and counts its shadow rays
+     *
+     * @param scene the scene
+     * @param x     the x coordinate of the rendered point of the floor
+     * @return the amount of shadow rays of the pixel
+     */
+    private static long shadowRays(Scene scene, double x) {
+        Camera camera = Camera.getBuilder().setRayTracer(scene, RayTracerType.SIMPLE)
+                .setLocation(new Point(x, -100, 30)).setDirection(new Point(x, 0, 0), Vector.AXIS_Z)
+                .setVpDistance(100).setVpSize(1, 1).setResolution(1, 1)
+                .setMultithreading(0).setStatistics(true).build();
+        camera.renderImage();
+        return camera.getStatistics().get(SHADOW_RAYS);
+    }
+
+    /**
+     * Test method for the shadow of a {@link RectangleLight}
+     */
+    @Test
+    void testRectangleLight() {
+        Scene scene = createScene(new RectangleLight(new Color(500, 500, 500), new Point(0, 0, 100),
+                new Vector(20, 0, 0), new Vector(0, 20, 0)).setMaxDepth(3));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a fully lit point costs only the corners and the center
+        assertEquals(5, shadowRays(scene, 200), "A fully lit point was subdivided");
+        // EP02: a fully occluded point costs only the corners and the center
+        assertEquals(5, shadowRays(scene, 0), "A fully occluded point was subdivided");
+        // EP03: a partially lit point is subdivided, up to the maximal depth
+        long rays = shadowRays(scene, 20);
+        assertTrue(rays > 5, "A partially lit point was not subdivided");
+        assertTrue(rays <= 81, "A partially lit point was subdivided beyond the maximal depth");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: no subdivision
+        ((AreaLight) scene.lights.getFirst()).setMaxDepth(0);
+        assertEquals(5, shadowRays(scene, 20), "The area was subdivided without depth");
+        assertThrows(IllegalArgumentException.class, () -> ((AreaLight) scene.lights.getFirst()).setMaxDepth(-1));
+        // BV02: the samples shared by neighbouring cells are traced once, within the bound of the depth
+        ((AreaLight) scene.lights.getFirst()).setMaxDepth(2);
+        long subdivided = shadowRays(scene, 20);
+        assertTrue(subdivided > 9, "A partially lit point was not subdivided twice");
+        assertTrue(subdivided <= 25, "Shared samples were traced again: " + subdivided);
+    }
+
+    /**
+     * Test method for the shadow of a {@link DiskLight}
+     */
+    @Test
+    void testDiskLight() {
+        DiskLight light = new DiskLight(new Color(500, 500, 500), new Point(0, 0, 100), Vector.AXIS_Z, 10);
+        Scene scene = createScene(light);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the corners of the sampled square are on the boundary of the disk
+        assertEquals(10, light.getSample(1, 1).distance(new Point(0, 0, 100)), 1e-10, "A corner is not on the boundary");
+        assertEquals(new Point(0, 0, 100), light.getSample(0.5, 0.5), "The center is not the center of the disk");
+        // EP02: a partially lit point is subdivided, a fully lit point is not
+        assertEquals(5, shadowRays(scene, 200), "A fully lit point was subdivided");
+        assertTrue(shadowRays(scene, 20) > 5, "A partially lit point was not subdivided");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a disk without a radius
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiskLight(new Color(500, 500, 500), Point.ZERO, Vector.AXIS_Z, 0));
+    }
+}
@@ -3,10 +3,20 @@ package renderer;
 import static org.junit.jupiter.api.Assertions.*;
 
 
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
 
 import primitives.*;
 import renderer.Camera;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Testing Camera Class
@@ -97,4 +107,71 @@ class CameraTest {
         // BV01: set to a target on Y-axis without up
         assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setDirection(new Point(0, 10, 0)).build());
     }
+
+    /**
+     * Test method for
+     * {@link Camera#renderRegion(Region)} and {@link Camera#writeToImage(String, Region)}.
+     *
+     * @throws IOException if the rendered images cannot be read back
+     */
+    @Test
+    void testRenderRegion() throws IOException {
+        Scene scene = new Scene("Region scene");
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(100, 20, 20))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(20, 100, 20)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(50, 50, 0)));
+        cameraBuilder.setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+                .setVpDistance(100).setVpSize(300, 300).setResolution(120, 90)
+                .setRayTracer(scene, RayTracerType.SIMPLE);
+        Region region = new Region(30, 20, 50, 40);
+        String folder = System.getProperty("user.dir") + "/images/";
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a cropped region is identical to the same pixels of the full render
+        cameraBuilder.build().renderImage().writeToImage("region full");
+        cameraBuilder.build().renderRegion(region).writeToImage("region crop", region);
+        BufferedImage full = ImageIO.read(new File(folder + "region full.png"));
+        BufferedImage crop = ImageIO.read(new File(folder + "region crop.png"));
+        for (int y = 0; y < region.height(); y++)
+            for (int x = 0; x < region.width(); x++)
+                assertEquals(full.getRGB(region.x() + x, region.y() + y), crop.getRGB(x, y), "Bad region pixel");
+
+        // EP02: regions patched into an existing image are identical to the full render,
+        // and the rest of the image is kept
+        Scene blank = new Scene("Blank scene").setBackground(new Color(0, 0, 255));
+        cameraBuilder.setRayTracer(blank, RayTracerType.SIMPLE).build().renderImage().writeToImage("region base");
+        Region corner = new Region(0, 0, 5, 5);
+        cameraBuilder.setRayTracer(scene, RayTracerType.SIMPLE).setMultithreading(2).build()
+                .readImage("region base").renderRegions(List.of(region, corner))
+                .writeToImage("region merged");
+        BufferedImage base = ImageIO.read(new File(folder + "region base.png"));
+        BufferedImage merged = ImageIO.read(new File(folder + "region merged.png"));
+        for (int y = 0; y < full.getHeight(); y++)
+            for (int x = 0; x < full.getWidth(); x++) {
+                boolean inside = x >= region.x() && x < region.x() + region.width()
+                        && y >= region.y() && y < region.y() + region.height()
+                        || x < corner.width() && y < corner.height();
+                if (inside) {
+                    assertNotEquals(base.getRGB(x, y), full.getRGB(x, y), "The base image has the rendered pixel");
+                    assertEquals(full.getRGB(x, y), merged.getRGB(x, y), "Bad merged pixel");
+                } else
+                    assertEquals(base.getRGB(x, y), merged.getRGB(x, y), "A pixel outside the regions was changed");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a region outside the image
+        assertThrows(IllegalArgumentException.class,
+                () -> cameraBuilder.build().renderRegion(new Region(100, 0, 21, 10)));
+        // BV02: the same region twice
+        assertThrows(IllegalArgumentException.class,
+                () -> cameraBuilder.build().renderRegions(List.of(corner, corner)));
+        // BV03: regions which share one pixel
+        assertThrows(IllegalArgumentException.class,
+                () -> cameraBuilder.build().renderRegions(List.of(corner, new Region(4, 4, 5, 5))));
+        // BV04: regions which only touch are rendered
+        assertDoesNotThrow(() -> cameraBuilder.build().renderRegions(List.of(corner, new Region(5, 0, 5, 5))));
+    }
 }
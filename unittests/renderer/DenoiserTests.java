@@ -0,0 +1,180 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.Denoiser} and the {@link renderer.PixelFeatures} which guide it
+ */
+class DenoiserTests {
+    /**
+     * Resolution of the images
+     */
+    private static final int RESOLUTION = 64;
+    /**
+     * Gray level of the left half of the synthetic image
+     */
+    private static final int DARK = 60;
+    /**
+     * Gray level of the right half of the synthetic image
+     */
+    private static final int BRIGHT = 180;
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    DenoiserTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates a gray pixel
+     *
+     * @param level the gray level, clamped to 0..255
+     * @return the RGB value of the pixel
+     */
+    private static int gray(int level) {
+        level = Math.min(255, Math.max(0, level));
+        return level << 16 | level << 8 | level;
+    }
+
+    /**
+     * Creates the features of an image of two surfaces - the left half and the right half
+     *
+     * @param variance the variance of every pixel
+     * @return the features
+     */
+    private static PixelFeatures halves(double variance) {
+        PixelFeatures features = new PixelFeatures(RESOLUTION, RESOLUTION);
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j) {
+                boolean left = j < RESOLUTION / 2;
+                features.record(j, i, 100, new Double3(0, 0, 1), new Double3(left ? 0.2 : 0.7), variance, false);
+            }
+        return features;
+    }
+
+    /**
+     * Calculates the mean and the standard deviation of the gray levels of a half of an image
+     *
+     * @param rgb  the image
+     * @param left true for the left half
+     * @return the mean and the standard deviation
+     */
+    private static double[] statistics(int[] rgb, boolean left) {
+        double sum = 0, squares = 0;
+        int count = 0;
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = left ? 0 : RESOLUTION / 2; j < (left ? RESOLUTION / 2 : RESOLUTION); ++j) {
+                int level = rgb[i * RESOLUTION + j] & 0xFF;
+                sum += level;
+                squares += level * level;
+                ++count;
+            }
+        double mean = sum / count;
+        return new double[]{mean, Math.sqrt(squares / count - mean * mean)};
+    }
+
+    /**
+     * Test method for {@link Denoiser#denoise(int[], PixelFeatures, boolean)}
+     */
+    @Test
+    void testDenoise() {
+        Random random = new Random(7);
+        int[] noisy = new int[RESOLUTION * RESOLUTION];
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j)
+                noisy[i * RESOLUTION + j] = gray((j < RESOLUTION / 2 ? DARK : BRIGHT) + (int) (random.nextGaussian() * 25));
+        // the noise of the pixels: a standard deviation of 25 levels
+        PixelFeatures features = halves(Math.pow(25d / 255, 2));
+        Denoiser denoiser = new Denoiser();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the noise is smoothed within each surface, and the means of the surfaces are kept
+        int[] denoised = denoiser.denoise(noisy, features, false);
+        for (boolean left : new boolean[]{true, false}) {
+            double[] before = statistics(noisy, left);
+            double[] after = statistics(denoised, left);
+            assertTrue(after[1] < before[1] / 3, "The noise was not smoothed: " + before[1] + " -> " + after[1]);
+            assertEquals(before[0], after[0], 2, "The mean of the surface was changed");
+        }
+
+        // EP02: the edge between the surfaces is kept
+        int row = RESOLUTION / 2 * RESOLUTION;
+        int dark = denoised[row + RESOLUTION / 2 - 1] & 0xFF;
+        int bright = denoised[row + RESOLUTION / 2] & 0xFF;
+        assertTrue(bright - dark > (BRIGHT - DARK) * 3 / 4, "The edge was blurred: " + dark + " -> " + bright);
+
+        // EP03: the parallel filter is equal to the sequential filter
+        assertArrayEquals(denoised, denoiser.denoise(noisy, features, true), "The parallel filter differs");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: pixels whose rays agree (no variance) are kept as they are
+        int[] sharp = noisy.clone();
+        assertArrayEquals(sharp, denoiser.denoise(sharp, halves(0), true), "A pixel without noise was changed");
+
+        // BV02: invalid parameters
+        assertThrows(IllegalArgumentException.class, () -> denoiser.setIterations(0), "Zero iterations accepted");
+        assertThrows(IllegalArgumentException.class, () -> denoiser.setColorSigma(0), "Zero tolerance accepted");
+        assertThrows(IllegalArgumentException.class, () -> denoiser.denoise(new int[1], features, false),
+                "An image of another resolution accepted");
+    }
+
+    /**
+     * Test method for {@link Camera#denoise()} and {@link Camera#getFeatures()}
+     *
+     * @throws IOException if the written image cannot be read
+     */
+    @Test
+    void testCameraFeatures() throws IOException {
+        Scene scene = new Scene("Denoiser scene").setBackground(new Color(10, 10, 10));
+        scene.geometries.add(new Sphere(new Point(0, 0, -200), 50).setEmission(new Color(40, 20, 20))
+                .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 100, 0)));
+        Camera.Builder builder = Camera.getBuilder()
+                .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(scene, RayTracerType.SIMPLE);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the features of the primary rays are collected while rendering
+        Camera camera = builder.setDenoiser(new Denoiser()).build().renderImage();
+        PixelFeatures features = camera.getFeatures();
+        int center = RESOLUTION / 2;
+        assertEquals(150, features.getDepth(center, center), 1, "Wrong depth of the sphere");
+        assertEquals(1, features.getNormal(center, center).d3(), 0.01, "Wrong normal of the sphere");
+        assertFalse(features.isMixed(center, center), "A pixel of one ray is mixed");
+        assertEquals(0, features.getVariance(center, center), "A pixel of one ray is noisy");
+        assertTrue(Double.isInfinite(features.getDepth(0, 0)), "The background has a depth");
+
+        // EP02: an image without noise is not changed by the denoiser
+        File file = new File(System.getProperty("user.dir") + "/images/denoiser test.png");
+        camera.writeToImage("denoiser test");
+        BufferedImage before = ImageIO.read(file);
+        camera.denoise().writeToImage("denoiser test");
+        BufferedImage after = ImageIO.read(file);
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j)
+                assertEquals(before.getRGB(j, i), after.getRGB(j, i), "An image without noise was changed");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: the camera has no denoiser
+        Camera plain = builder.setDenoiser(null).build().renderImage();
+        assertNull(plain.getFeatures(), "Features were collected without a denoiser");
+        assertThrows(IllegalStateException.class, plain::denoise, "Denoised without a denoiser");
+    }
+}
@@ -0,0 +1,84 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Instance;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Transform;
+import primitives.Vector;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.FrameSequence} - rendering the frames of an animation
+ */
+class FrameSequenceTests {
+    /**
+     * Resolution of the rendered images
+     */
+    private static final int RESOLUTION = 32;
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder camera = Camera.getBuilder()
+            .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+            .setVpDistance(100).setVpSize(200, 200)
+            .setResolution(RESOLUTION, RESOLUTION).setMultithreading(2);
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    FrameSequenceTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Reads the color of the center pixel of a written frame
+     *
+     * @param name the name of the frame image
+     * @return the RGB value of the center pixel
+     * @throws IOException if the image cannot be read
+     */
+    private static int center(String name) throws IOException {
+        BufferedImage image = ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + name + ".png"));
+        return image.getRGB(RESOLUTION / 2, RESOLUTION / 2) & 0xFFFFFF;
+    }
+
+    /**
+     * Test method for {@link FrameSequence#render(int, String)}
+     *
+     * @throws IOException if a frame cannot be read
+     */
+    @Test
+    void testRender() throws IOException {
+        Scene scene = new Scene("Frame sequence scene");
+        Geometries ball = new Geometries(new Sphere(Point.ZERO, 20).setEmission(new Color(0, 0, 255)));
+        Instance instance = new Instance(ball, Transform.translate(-100, 0, -200));
+        scene.geometries.add(instance);
+        FrameSequence sequence = new FrameSequence(scene, RayTracerType.VOXEL, camera)
+                .setSceneUpdate((s, frame) -> instance.setTransform(Transform.translate(-100 + 50 * frame, 0, -200)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the moving instance is found by the refitted grid only in the frame it reaches the center
+        sequence.render(3, "frame sequence");
+        assertEquals(0, center("frame sequence-0000"), "The instance is in the center before it moved");
+        assertEquals(0, center("frame sequence-0001"), "The instance is in the center before it moved");
+        assertEquals(0x0000FF, center("frame sequence-0002"), "The moved instance was not refitted");
+
+        // EP02: a moving camera over the same ray tracer
+        sequence.setSceneUpdate(null)
+                .setCameraUpdate((builder, frame) -> builder.setDirection(new Point(frame * 50, 0, -200), Vector.AXIS_Y))
+                .render(1, 1, "frame sequence camera");
+        assertEquals(0, center("frame sequence camera-0001"), "The camera did not move");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: no frames
+        assertThrows(IllegalArgumentException.class, () -> sequence.render(0, "frame sequence"));
+    }
+}
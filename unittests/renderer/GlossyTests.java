@@ -0,0 +1,125 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static renderer.RenderStatistics.Counter.REFLECTION_RAYS;
+import static renderer.RenderStatistics.Counter.REFRACTION_RAYS;
+
+/**
+ * Tests for glossy reflection and blurry transparency - cones of secondary rays
+ * sampled adaptively by the weight of the path
+ */
+class GlossyTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    GlossyTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Renders a single pixel of a floor at the origin and collects its statistics
+     *
+     * @param floor the material of the floor
+     * @param ball  whether an emissive ball is on the path of the reflection of the pixel
+     * @return the statistics of the pixel
+     */
+    private static RenderStatistics render(Material floor, boolean ball) {
+        Scene scene = new Scene("Glossy scene");
+        scene.geometries.add(new Plane(Point.ZERO, Vector.AXIS_Z).setMaterial(floor));
+        if (ball) scene.geometries.add(new Sphere(new Point(0, 100, 100), 10).setEmission(new Color(200, 100, 50)));
+        Camera camera = Camera.getBuilder().setRayTracer(scene, RayTracerType.SIMPLE)
+                .setLocation(new Point(0, -100, 100)).setDirection(Point.ZERO, Vector.AXIS_Z)
+                .setVpDistance(100).setVpSize(1, 1).setResolution(1, 1)
+                .setMultithreading(0).setStatistics(true).build();
+        camera.renderImage();
+        return camera.getStatistics();
+    }
+
+    /**
+     * Test method for glossy reflection ({@link Material#setGloss(double)})
+     */
+    @Test
+    void testGloss() {
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a perfect mirror traces one reflected ray
+        assertEquals(1, render(new Material().setKR(1d), true).get(REFLECTION_RAYS), "Wrong rays of a mirror");
+        // EP02: a glossy reflection of the background costs only the corners and the center of the cone
+        assertEquals(5, render(new Material().setKR(1d).setGloss(0.2), false).get(REFLECTION_RAYS),
+                "A uniform reflection was subdivided");
+        // EP03: a glossy reflection of an edge is subdivided
+        long rays = render(new Material().setKR(1d).setGloss(0.2), true).get(REFLECTION_RAYS);
+        assertTrue(rays > 5, "The reflection of an edge was not subdivided");
+        assertTrue(rays <= 81, "The reflection was subdivided beyond the maximal depth");
+        // EP04: a path of little weight traces only the axis of the cone
+        assertEquals(1, render(new Material().setKR(0.1).setGloss(0.2), true).get(REFLECTION_RAYS),
+                "A weak reflection traced a cone");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a cone of a right angle
+        assertThrows(IllegalArgumentException.class, () -> new Material().setGloss(Math.PI / 2));
+        assertThrows(IllegalArgumentException.class, () -> new Material().setGloss(-0.1));
+    }
+
+    /**
+     * Test method for a glossy reflection at a grazing angle, whose cone crosses the surface
+     */
+    @Test
+    void testGrazingGloss() {
+        Scene scene = new Scene("Grazing scene");
+        Plane floor = new Plane(Point.ZERO, Vector.AXIS_Z);
+        scene.geometries.add(floor, new Sphere(Point.ZERO, 1000).setEmission(new Color(100, 100, 100)));
+        Ray grazing = new Ray(new Point(0, -100, 5), new Vector(0, 100, -5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a glossy reflection of a uniform environment is as bright as the mirror reflection
+        floor.setMaterial(new Material().setKR(1d));
+        Color mirror = new SimpleRayTracer(scene).traceRay(grazing);
+        floor.setMaterial(new Material().setKR(1d).setGloss(0.3));
+        Color glossy = new SimpleRayTracer(scene).traceRay(grazing);
+        assertEquals(mirror.getRgb().d1(), glossy.getRgb().d1(), 0.001, "The glossy reflection is darker");
+        assertEquals(mirror.getRgb().d3(), glossy.getRgb().d3(), 0.001, "The glossy reflection is darker");
+
+        // EP02: the cone of a uniform environment is not subdivided
+        assertEquals(5, renderGrazing(scene).get(REFLECTION_RAYS), "A uniform grazing reflection was subdivided");
+    }
+
+    /**
+     * Renders a single pixel of a scene at a grazing angle to the floor at the origin and collects its statistics
+     *
+     * @param scene the scene
+     * @return the statistics of the pixel
+     */
+    private static RenderStatistics renderGrazing(Scene scene) {
+        Camera camera = Camera.getBuilder().setRayTracer(scene, RayTracerType.SIMPLE)
+                .setLocation(new Point(0, -100, 5)).setDirection(Point.ZERO, Vector.AXIS_Z)
+                .setVpDistance(100).setVpSize(1, 1).setResolution(1, 1)
+                .setMultithreading(0).setStatistics(true).build();
+        camera.renderImage();
+        return camera.getStatistics();
+    }
+
+    /**
+     * Test method for blurry transparency ({@link Material#setBlur(double)})
+     */
+    @Test
+    void testBlur() {
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a blurry transparency of the background costs only the corners and the center of the cone
+        assertEquals(5, render(new Material().setKT(1d).setBlur(0.2), false).get(REFRACTION_RAYS),
+                "A uniform transparency was subdivided");
+        // EP02: a clear transparency traces one ray
+        assertEquals(1, render(new Material().setKT(1d), false).get(REFRACTION_RAYS), "Wrong rays of a clear surface");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a negative cone
+        assertThrows(IllegalArgumentException.class, () -> new Material().setBlur(-0.1));
+    }
+}
@@ -41,8 +41,72 @@ class Minip1Tests {
      */
     @Test
     void trianglesSphere() {
+        prepareScene(RayTracerType.SIMPLE);
 
 
+        /*camera//
+                .setResolution(1600, 1200) //
+                .setMultithreading(10)
+                .setDebugPrint(0.1)
+                .build() //
+                .renderImage()
+                .writeToImage("3DSceneRendering1");*/
+
+
+        camera//
+                //.setDepthOfField(10, 0.8, 350)
+                .setResolution(800, 600) //
+                .setMultithreading(-2)
+                .setDebugPrint(0.1)
+                .setRayTracer(scene, RayTracerType.SIMPLE)
+                .build() //
+                .renderImage()
+                .writeToImage("a");
+
+        camera//
+                //.setDepthOfField(10, 0.8, 350)
+                .setResolution(800, 600) //
+                .setMultithreading(-2)
+                .setDebugPrint(0.1)
+                .setRayTracer(scene, RayTracerType.SIMPLE)
+                .build() //
+                .renderImage()
+                .writeToImage("b");
+        /*camera//
+                .setDepthOfField(30, 0.7, 370)
+                .setResolution(1600, 1200) //
+                .setMultithreading(10)
+                .setDebugPrint(0.1)
+                .build() //
+                .renderImage()
+                .writeToImage("3DSceneRendering3");
+        camera//
+                .setDepthOfField(30, 3, 330)
+                .setResolution(1600, 1200) //
+                .setMultithreading(10)
+                .setDebugPrint(0.1)
+                .build() //
+                .renderImage()
+                .writeToImage("3DSceneRendering4");
+        camera//
+                .setDepthOfField(30, 0.9, 550)
+                .setResolution(1600, 1200) //
+                .setMultithreading(10)
+                .setDebugPrint(0.1)
+                .build() //
+                .renderImage()
+                .writeToImage("3DSceneRendering5");*/
+
+
+    }
+
+    /**
+     * Prepare the scene of the test - a coffee table in front of mountains under a starry sky
+     *
+     * @param type the type of ray tracer to use
+     * @return camera builder with all the data for the test
+     */
+    Camera.Builder prepareScene(RayTracerType type) {
         //Low 3D table and Coffee
         scene.geometries
                 .add(
@@ -987,65 +1051,7 @@ class Minip1Tests {
         scene.lights.add(new PointLight(new Color(255, 255, 200), new Point(-120, 80, 150))
                 .setKl(0.0001).setKq(0.00001));
 
-
-        /*camera//
-                .setResolution(1600, 1200) //
-                .setMultithreading(10)
-                .setDebugPrint(0.1)
-                .build() //
-                .renderImage()
-                .writeToImage("3DSceneRendering1");*/
-
-
-        camera//
-                //.setDepthOfField(10, 0.8, 350)
-                .setResolution(800, 600) //
-                .setMultithreading(-2)
-                .setDebugPrint(0.1)
-                .setRayTracer(scene, RayTracerType.SIMPLE)
-                .build() //
-                .renderImage()
-                .writeToImage("a");
-
-        camera//
-                //.setDepthOfField(10, 0.8, 350)
-                .setResolution(800, 600) //
-                .setMultithreading(-2)
-                .setDebugPrint(0.1)
-                .setRayTracer(scene, RayTracerType.SIMPLE)
-                .build() //
-                .renderImage()
-                .writeToImage("b");
-        /*camera//
-                .setDepthOfField(30, 0.7, 370)
-                .setResolution(1600, 1200) //
-                .setMultithreading(10)
-                .setDebugPrint(0.1)
-                .build() //
-                .renderImage()
-                .writeToImage("3DSceneRendering3");
-        camera//
-                .setDepthOfField(30, 3, 330)
-                .setResolution(1600, 1200) //
-                .setMultithreading(10)
-                .setDebugPrint(0.1)
-                .build() //
-                .renderImage()
-                .writeToImage("3DSceneRendering4");
-        camera//
-                .setDepthOfField(30, 0.9, 550)
-                .setResolution(1600, 1200) //
-                .setMultithreading(10)
-                .setDebugPrint(0.1)
-                .build() //
-                .renderImage()
-                .writeToImage("3DSceneRendering5");*/
-
-
+        return camera.setRayTracer(scene, type);
     }
 
 }
-
-
-
-
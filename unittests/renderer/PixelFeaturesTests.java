@@ -0,0 +1,161 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.PixelFeatures} - the arbitrary output variables of the pixels
+ */
+class PixelFeaturesTests {
+    /**
+     * Resolution of the rendered images
+     */
+    private static final int RESOLUTION = 32;
+    /**
+     * The directory of the written files
+     */
+    private static final String FOLDER = System.getProperty("user.dir") + "/images/";
+    /**
+     * The sphere of the scene
+     */
+    private final Sphere sphere = (Sphere) new Sphere(new Point(0, 0, -200), 50).setEmission(new Color(40, 20, 20))
+            .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30).setKR(0.3));
+    /**
+     * The floor of the scene
+     */
+    private final Plane floor = (Plane) new Plane(new Point(0, -50, 0), Vector.AXIS_Y)
+            .setEmission(new Color(20, 20, 40)).setMaterial(new Material().setKD(0.6));
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder camera = Camera.getBuilder()
+            .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+            .setVpDistance(100).setVpSize(200, 200)
+            .setResolution(RESOLUTION, RESOLUTION);
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    PixelFeaturesTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates the scene of the tests - a reflective sphere above a floor
+     *
+     * @return the scene
+     */
+    private Scene scene() {
+        Scene scene = new Scene("AOV scene").setAmbientLight(new AmbientLight(new Color(30, 30, 30)));
+        scene.geometries.add(sphere, floor);
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 100, 0)));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link Camera#getFeatures()} with {@link Camera.Builder#setAovs(boolean)}
+     *
+     * @throws IOException if a written image cannot be read
+     */
+    @Test
+    void testAovs() throws IOException {
+        camera.setRayTracer(scene(), RayTracerType.SIMPLE);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the color of a pixel is its direct light plus its indirect light
+        Camera aovs = camera.setAovs(true).build().renderImage().writeToImage("aov test");
+        PixelFeatures features = aovs.getFeatures();
+        int center = RESOLUTION / 2;
+        BufferedImage image = ImageIO.read(new File(FOLDER + "aov test.png"));
+        java.awt.Color pixel = new java.awt.Color(image.getRGB(center, center));
+        Color sum = features.getDirect(center, center).add(features.getIndirect(center, center));
+        assertEquals(pixel, sum.getColor(), "The direct and the indirect light do not add up to the pixel");
+        assertNotEquals(Color.BLACK.getColor(), features.getIndirect(center, center).getColor(),
+                "The reflection of the sphere is not indirect light");
+
+        // EP02: the geometries and the materials of the pixels
+        assertSame(sphere, features.getGeometry(center, center), "Wrong geometry of the sphere");
+        assertSame(floor, features.getGeometry(center, RESOLUTION - 1), "Wrong geometry of the floor");
+        assertSame(floor.getMaterial().compile(), features.getMaterial(center, RESOLUTION - 1),
+                "Wrong material of the floor");
+        assertEquals(1, features.getSamples(center, center), "Wrong amount of rays of a pixel");
+
+        // EP03: collecting the features does not change the image
+        camera.setAovs(false).build().renderImage().writeToImage("aov test plain");
+        BufferedImage plain = ImageIO.read(new File(FOLDER + "aov test plain.png"));
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j)
+                assertEquals(plain.getRGB(j, i), image.getRGB(j, i), "The features changed pixel " + j + "," + i);
+
+        // EP04: the features are written as float maps
+        aovs.writeAovs("aov test");
+        byte[] depth = Files.readAllBytes(new File(FOLDER + "aov test-depth.pfm").toPath());
+        String header = "Pf\n" + RESOLUTION + " " + RESOLUTION + "\n-1.0\n";
+        assertEquals(header, new String(depth, 0, header.length()), "Wrong header of the depth map");
+        assertEquals(header.length() + 4 * RESOLUTION * RESOLUTION, depth.length, "Wrong size of the depth map");
+        // the rows are written from the bottom, so the first row of the file is the floor
+        ByteBuffer values = ByteBuffer.wrap(depth, header.length(), depth.length - header.length())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(features.getDepth(0, RESOLUTION - 1), values.getFloat(), 1e-3, "Wrong depth in the map");
+        assertEquals(header.length() + 12 * RESOLUTION * RESOLUTION,
+                new File(FOLDER + "aov test-normal.pfm").length(), "Wrong size of the normal map");
+        for (String aov : new String[]{"albedo", "direct", "indirect", "variance", "samples", "geometry", "material"})
+            assertTrue(new File(FOLDER + "aov test-" + aov + ".pfm").exists(), "The " + aov + " map was not written");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a pixel of the background
+        assertNull(features.getGeometry(0, 0), "A pixel of the background has a geometry");
+        assertEquals(Color.BLACK.getColor(), features.getDirect(0, 0).getColor(), "The background has direct light");
+        assertEquals(1, features.getSamples(0, 0), "Wrong amount of rays of a pixel of the background");
+
+        // BV02: several rays for each pixel
+        PixelFeatures dof = camera.setAovs(true).setDepthOfField(4, 1, 150).build().renderImage().getFeatures();
+        assertEquals(4, dof.getSamples(center, center), "Wrong amount of rays of a pixel");
+
+        // BV03: the features are not collected
+        Camera disabled = camera.setAovs(false).setDepthOfField(1, 0, 150).build();
+        assertNull(disabled.renderImage().getFeatures(), "Features were collected while disabled");
+        assertThrows(IllegalStateException.class, () -> disabled.writeAovs("aov test"));
+    }
+
+    /**
+     * Test method for the contents of the direct and the indirect light of {@link PixelFeatures}
+     */
+    @Test
+    void testDirectIndirect() {
+        int center = RESOLUTION / 2;
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the emission of an unlit geometry is only direct light
+        Scene emissive = new Scene("Emissive scene");
+        emissive.geometries.add(new Sphere(new Point(0, 0, -200), 50).setEmission(new Color(40, 20, 20)));
+        PixelFeatures features = camera.setRayTracer(emissive, RayTracerType.SIMPLE).setAovs(true)
+                .build().renderImage().getFeatures();
+        assertEquals(Color.BLACK.getColor(), features.getIndirect(center, center).getColor(),
+                "The emission is in the indirect light");
+        assertNotEquals(Color.BLACK.getColor(), features.getDirect(center, center).getColor(),
+                "The emission is not in the direct light");
+
+        // EP02: the ambient light of a geometry without emission and lights is only indirect light
+        Scene ambient = new Scene("Ambient scene").setAmbientLight(new AmbientLight(new Color(30, 30, 30)));
+        ambient.geometries.add(new Sphere(new Point(0, 0, -200), 50));
+        features = camera.setRayTracer(ambient, RayTracerType.SIMPLE).build().renderImage().getFeatures();
+        assertEquals(Color.BLACK.getColor(), features.getDirect(center, center).getColor(),
+                "The ambient light is in the direct light");
+        assertEquals(new Color(30, 30, 30).getColor(), features.getIndirect(center, center).getColor(),
+                "The ambient light is not the indirect light");
+    }
+}
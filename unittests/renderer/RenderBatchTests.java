@@ -0,0 +1,122 @@
+package renderer;
+
+import geometries.Intersectable;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+import voxel.AABB;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.RenderBatch} - rendering several cameras of one scene together
+ */
+class RenderBatchTests {
+    /**
+     * Resolution of the rendered images
+     */
+    private static final int RESOLUTION = 48;
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    RenderBatchTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates a camera builder looking at a target
+     *
+     * @param target the point in the center of the image
+     * @return the camera builder
+     */
+    private static Camera.Builder camera(Point target) {
+        return Camera.getBuilder().setLocation(Point.ZERO).setDirection(target, Vector.AXIS_Y)
+                .setVpDistance(100).setVpSize(100, 100).setResolution(RESOLUTION, RESOLUTION);
+    }
+
+    /**
+     * Reads the color of the center pixel of a written image
+     *
+     * @param name the name of the image
+     * @return the RGB value of the center pixel
+     * @throws IOException if the image cannot be read
+     */
+    private static int center(String name) throws IOException {
+        BufferedImage image = ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + name + ".png"));
+        return image.getRGB(RESOLUTION / 2, RESOLUTION / 2) & 0xFFFFFF;
+    }
+
+    /**
+     * Test method for {@link RenderBatch#render()}
+     *
+     * @throws IOException if an image cannot be read
+     */
+    @Test
+    void testRender() throws IOException {
+        Scene scene = new Scene("Render batch scene");
+        scene.geometries.add(new Sphere(new Point(0, 0, -200), 30).setEmission(new Color(255, 0, 0)),
+                new Sphere(new Point(200, 0, 0), 30).setEmission(new Color(0, 255, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: each camera writes its own image, over one ray tracer
+        RenderBatch batch = new RenderBatch(scene, RayTracerType.VOXEL).setMultithreading(3)
+                .add(camera(new Point(0, 0, -200)), "batch red")
+                .add(camera(new Point(200, 0, 0)), "batch green")
+                .add(camera(new Point(0, 0, 200)), "batch empty");
+        batch.render();
+        assertEquals(0xFF0000, center("batch red"), "Wrong image of the first camera");
+        assertEquals(0x00FF00, center("batch green"), "Wrong image of the second camera");
+        assertEquals(0, center("batch empty"), "Wrong image of the third camera");
+        assertEquals(3, batch.getCameras().size(), "Wrong amount of cameras");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: rendered by the calling thread
+        new RenderBatch(scene, RayTracerType.SIMPLE).setMultithreading(0)
+                .add(camera(new Point(200, 0, 0)), "batch single").render();
+        assertEquals(0x00FF00, center("batch single"), "Wrong image rendered by the calling thread");
+        // BV02: no cameras
+        assertThrows(IllegalStateException.class, () -> new RenderBatch(scene, RayTracerType.SIMPLE).render());
+    }
+
+    /**
+     * Test method for {@link RenderBatch#render()} of a camera whose tiles fail
+     */
+    @Test
+    void testRenderFailure() {
+        Scene scene = new Scene("Failing batch scene");
+        scene.geometries.add(new Intersectable() {
+            @Override
+            protected List<Intersection> calculateIntersectionsHelper(Ray ray, double maxDistance) {
+                throw new UnsupportedOperationException("failing geometry");
+            }
+
+            @Override
+            public AABB getBoundingBox() {
+                return null;
+            }
+        });
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a tile fails in a rendering thread - the failure is thrown by the batch
+        RenderBatch threads = new RenderBatch(scene, RayTracerType.SIMPLE).setMultithreading(3)
+                .add(camera(new Point(0, 0, -200)), "batch failed");
+        IllegalStateException e = assertThrows(IllegalStateException.class, threads::render);
+        assertTrue(e.getCause() instanceof UnsupportedOperationException, "Wrong cause of the failure");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a tile fails in the calling thread
+        RenderBatch single = new RenderBatch(scene, RayTracerType.SIMPLE).setMultithreading(0)
+                .add(camera(new Point(0, 0, -200)), "batch failed");
+        e = assertThrows(IllegalStateException.class, single::render);
+        assertTrue(e.getCause() instanceof UnsupportedOperationException, "Wrong cause of the failure");
+    }
+}
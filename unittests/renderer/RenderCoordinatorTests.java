@@ -0,0 +1,167 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.RenderCoordinator} with worker processes on localhost
+ */
+class RenderCoordinatorTests {
+    /**
+     * The xml scene rendered by the workers
+     */
+    private static final String SCENE_FILE = "renderTestTwoColors.xml";
+    /**
+     * The token shared with the remote workers of the tests
+     */
+    private static final String TOKEN = "test token";
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder camera = Camera.getBuilder()
+            .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+            .setVpDistance(100).setVpSize(500, 500)
+            .setResolution(300, 300)
+            .setRayTracer(new Scene(SCENE_FILE), RayTracerType.SIMPLE);
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    RenderCoordinatorTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Test method for {@link RenderCoordinator#render()}
+     *
+     * @throws IOException if the images cannot be read back
+     */
+    @Test
+    void testDistributedRender() throws IOException {
+        camera.build().renderImage().writeToImage("distributed local");
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: several worker processes render the same image as a single process
+        new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setLocalWorkers(3).setTileSize(40)
+                .render()
+                .writeToImage("distributed workers");
+        assertSameImage("distributed local", "distributed workers");
+
+        // EP02: the tile of a dead worker is rendered by the other workers
+        int port = 47311;
+        Thread deadWorker = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                try (Socket socket = new Socket("localhost", port)) {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    in.readInt();
+                    out.writeUTF(TOKEN);
+                    out.flush();
+                    in.readUTF();
+                    out.writeInt(RenderWorker.READY);
+                    out.flush();
+                    in.readInt(); // take a tile and die
+                }
+            } catch (IOException | InterruptedException ignored) {
+            }
+        });
+        deadWorker.start();
+        new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setLocalWorkers(2).setRemoteWorkers(1).setPort(port).setToken(TOKEN).setTileSize(50)
+                .render()
+                .writeToImage("distributed dead worker");
+        assertSameImage("distributed local", "distributed dead worker");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: no workers
+        assertThrows(IllegalStateException.class,
+                () -> new RenderCoordinator(camera.build(), SCENE_FILE).setLocalWorkers(0).render());
+        // BV02: a scene which is not loaded from xml
+        assertThrows(IllegalArgumentException.class, () -> new RenderCoordinator(camera.build(), "Test scene"));
+    }
+
+    /**
+     * Connects a fake remote worker to a coordinator, which presents a token and then does nothing
+     *
+     * @param port  the port of the coordinator
+     * @param token the token the worker presents
+     * @return the thread of the worker
+     */
+    private static Thread fakeWorker(int port, String token) {
+        Thread worker = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                try (Socket socket = new Socket("localhost", port)) {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    in.readInt();
+                    out.writeUTF(token);
+                    out.flush();
+                    // hang while "loading the scene", until the coordinator drops the connection
+                    while (in.read() >= 0) ;
+                }
+            } catch (IOException | InterruptedException ignored) {
+            }
+        });
+        worker.setDaemon(true);
+        worker.start();
+        return worker;
+    }
+
+    /**
+     * Test method for the handshake of {@link RenderCoordinator#render()} with remote workers
+     */
+    @Test
+    void testHandshake() {
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a worker which hangs while loading the scene fails the render instead of blocking it
+        fakeWorker(47312, TOKEN);
+        assertThrows(IllegalStateException.class, () -> new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setLocalWorkers(0).setRemoteWorkers(1).setPort(47312).setToken(TOKEN)
+                .setHandshakeTimeout(1000).render(), "A hanging worker blocked the render");
+
+        // EP02: a worker with another token gets no tiles
+        fakeWorker(47313, "another token");
+        assertThrows(IllegalStateException.class, () -> new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setLocalWorkers(0).setRemoteWorkers(1).setPort(47313).setToken(TOKEN).render(),
+                "A worker with a wrong token rendered");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: remote workers without a token
+        assertThrows(IllegalStateException.class, () -> new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setRemoteWorkers(1).render(), "Remote workers accepted without a token");
+        // BV02: invalid token and handshake timeout
+        assertThrows(IllegalArgumentException.class, () -> new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setToken(""));
+        assertThrows(IllegalArgumentException.class, () -> new RenderCoordinator(camera.build(), SCENE_FILE)
+                .setHandshakeTimeout(0));
+    }
+
+    /**
+     * Asserts two images in the images directory are identical
+     *
+     * @param expected the name of the expected image
+     * @param actual   the name of the actual image
+     * @throws IOException if the images cannot be read
+     */
+    private static void assertSameImage(String expected, String actual) throws IOException {
+        String folder = System.getProperty("user.dir") + "/images/";
+        BufferedImage image1 = ImageIO.read(new File(folder + expected + ".png"));
+        BufferedImage image2 = ImageIO.read(new File(folder + actual + ".png"));
+        for (int y = 0; y < image1.getHeight(); y++)
+            for (int x = 0; x < image1.getWidth(); x++)
+                assertEquals(image1.getRGB(x, y), image2.getRGB(x, y), "Bad pixel (" + x + "," + y + ")");
+    }
+}
@@ -0,0 +1,101 @@
+package renderer;
+
+import geometries.Sphere;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.RenderEvents} - the flight recorder events of the renderer
+ */
+class RenderEventsTests {
+    /**
+     * Resolution of the rendered images
+     */
+    private static final int RESOLUTION = 40;
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    RenderEventsTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Counts the recorded events of a type
+     *
+     * @param events the recorded events
+     * @param name   the name of the event type
+     * @return the amount of events of the type
+     */
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+    }
+
+    /**
+     * Test method for the events recorded while rendering
+     *
+     * @throws IOException if the recording cannot be written or read
+     */
+    @Test
+    void testRenderEvents() throws IOException {
+        Scene scene = new Scene("Events scene");
+        scene.geometries.add(new Sphere(new Point(0, 0, -200), 50).setEmission(new Color(40, 20, 20))
+                .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30).setKR(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 100, 0)));
+
+        Path file = Files.createTempFile("render", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("renderer.Render");
+            recording.enable("renderer.AccelerationBuild");
+            recording.enable("renderer.Tile");
+            recording.enable("renderer.SlowPixel").withThreshold(Duration.ZERO);
+            recording.start();
+            Camera camera = Camera.getBuilder()
+                    .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+                    .setVpDistance(100).setVpSize(200, 200).setResolution(RESOLUTION, RESOLUTION)
+                    .setRayTracer(scene, RayTracerType.VOXEL).setMultithreading(2)
+                    .build();
+            camera.renderImage();
+            recording.stop();
+            recording.dump(file);
+
+            // ============ Equivalence Partitions Tests ==============
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            // EP01: one render with its resolution and ray tracer
+            assertEquals(1, count(events, "renderer.Render"), "Wrong amount of render events");
+            RecordedEvent render = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("renderer.Render")).findFirst().orElseThrow();
+            assertEquals(RESOLUTION, render.getInt("width"), "Wrong width of the render");
+            assertEquals("VOXEL", render.getString("rayTracer"), "Wrong ray tracer of the render");
+            // EP02: the voxel grid build
+            assertEquals(1, count(events, "renderer.AccelerationBuild"), "Wrong amount of build events");
+            // EP03: every tile is recorded
+            int tiles = (RESOLUTION + PixelManager.TILE_SIZE - 1) / PixelManager.TILE_SIZE;
+            assertEquals(tiles * tiles, count(events, "renderer.Tile"), "Wrong amount of tile events");
+            // EP04: with no threshold every pixel is slow, and its rays are counted
+            assertEquals(RESOLUTION * RESOLUTION, count(events, "renderer.SlowPixel"), "Wrong amount of pixel events");
+            assertTrue(events.stream().filter(e -> e.getEventType().getName().equals("renderer.SlowPixel"))
+                    .allMatch(e -> e.getLong("rays") >= 1), "A pixel without rays was recorded");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: counting the rays of the slow pixels does not enable the statistics of the camera
+            assertNull(camera.getStatistics(), "Statistics were enabled by the recording");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.RenderHeatmap} - the cost of rendering each pixel
+ */
+class RenderHeatmapTests {
+    /**
+     * Resolution of the rendered images
+     */
+    private static final int RESOLUTION = 64;
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder camera = Camera.getBuilder()
+            .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+            .setVpDistance(100).setVpSize(200, 200)
+            .setResolution(RESOLUTION, RESOLUTION);
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    RenderHeatmapTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Test method for {@link Camera#getHeatmap()} and {@link Camera#writeHeatmap(String)}
+     *
+     * @throws IOException if the written CSV cannot be read
+     */
+    @Test
+    void testHeatmap() throws IOException {
+        Scene scene = new Scene("Heatmap scene");
+        scene.geometries.add(new Sphere(new Point(0, 0, -200), 50).setEmission(new Color(40, 20, 20))
+                .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30).setKT(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 100, 0)));
+        camera.setRayTracer(scene, RayTracerType.VOXEL).setHeatmap(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a pixel of the sphere costs more rays than a pixel of the background
+        Camera single = camera.setMultithreading(0).build().renderImage();
+        RenderHeatmap heatmap = single.getHeatmap();
+        int center = RESOLUTION / 2;
+        assertEquals(1, heatmap.getRays(0, 0), "A background pixel traced more than its primary ray");
+        assertTrue(heatmap.getRays(center, center) > 1, "A pixel of the sphere traced no secondary rays");
+        assertTrue(heatmap.getNanos(center, center) > 0, "The pixel was not timed");
+        assertNotNull(single.getStatistics(), "The heatmap does not collect statistics");
+
+        // EP02: every multi-threading mode records the same rays
+        for (int threads : new int[]{-1, 3}) {
+            RenderHeatmap threaded = camera.setMultithreading(threads).build().renderImage().getHeatmap();
+            for (int i = 0; i < RESOLUTION; ++i)
+                for (int j = 0; j < RESOLUTION; ++j)
+                    assertEquals(heatmap.getRays(j, i), threaded.getRays(j, i),
+                            "Wrong rays of pixel " + j + "," + i + " with " + threads + " threads");
+        }
+
+        // EP03: the heatmap is written as an image and a CSV of the tiles
+        single.writeHeatmap("heatmap test");
+        String folder = System.getProperty("user.dir") + "/images/";
+        assertTrue(new File(folder + "heatmap test-heatmap.png").exists(), "The heatmap image was not written");
+        List<String> csv = Files.readAllLines(new File(folder + "heatmap test-heatmap.csv").toPath());
+        int tiles = (RESOLUTION + PixelManager.TILE_SIZE - 1) / PixelManager.TILE_SIZE;
+        assertEquals(1 + tiles * tiles, csv.size(), "Wrong amount of tiles in the CSV");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: the heatmap is disabled
+        Camera disabled = camera.setHeatmap(false).build().renderImage();
+        assertNull(disabled.getHeatmap(), "A heatmap was collected while disabled");
+        assertThrows(IllegalStateException.class, () -> disabled.writeHeatmap("heatmap test"));
+    }
+}
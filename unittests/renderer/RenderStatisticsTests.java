@@ -0,0 +1,184 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static renderer.RenderStatistics.Counter.*;
+
+/**
+ * Tests for {@link renderer.RenderStatistics} - the statistics collected while rendering
+ */
+class RenderStatisticsTests {
+    /**
+     * Resolution of the rendered images
+     */
+    private static final int RESOLUTION = 100;
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder camera = Camera.getBuilder()
+            .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+            .setVpDistance(100).setVpSize(200, 200)
+            .setResolution(RESOLUTION, RESOLUTION);
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    RenderStatisticsTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates a scene with a reflective and transparent sphere in front of a triangle
+     *
+     * @return the scene
+     */
+    private static Scene createScene() {
+        Scene scene = new Scene("Statistics scene");
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -200), 50).setEmission(new Color(40, 20, 20))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30).setKR(0.3).setKT(0.3)),
+                new Triangle(new Point(-300, -300, -400), new Point(300, -300, -400), new Point(0, 300, -400))
+                        .setEmission(new Color(20, 20, 60)).setMaterial(new Material().setKD(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 100, 0)));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link Camera#getStatistics()}
+     */
+    @Test
+    void testStatistics() {
+        Scene scene = createScene();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: simple ray tracer - every pixel casts one primary ray, and there are secondary rays
+        RenderStatistics simple = camera.setRayTracer(scene, RayTracerType.SIMPLE).setStatistics(true)
+                .build().renderImage().getStatistics();
+        assertEquals(RESOLUTION * RESOLUTION, simple.get(PRIMARY_RAYS), "Wrong amount of primary rays");
+        assertTrue(simple.get(REFLECTION_RAYS) > 0, "No reflection rays were counted");
+        assertTrue(simple.get(REFRACTION_RAYS) > 0, "No refraction rays were counted");
+        assertTrue(simple.get(SHADOW_RAYS) > 0, "No shadow rays were counted");
+        assertTrue(simple.get(HITS) > 0, "No hits were counted");
+        assertEquals(0, simple.get(VOXELS_VISITED), "The simple ray tracer does not visit voxels");
+        assertTrue(simple.getTime(RenderStatistics.Phase.RENDER) > 0, "The render was not timed");
+        assertEquals(2 * simple.getTotalRays(), simple.get(INTERSECTION_TESTS), "Every ray tests both shapes");
+
+        // EP02: voxel ray tracer - the same rays are traced, through voxels
+        RenderStatistics voxel = camera.setRayTracer(scene, RayTracerType.VOXEL)
+                .build().renderImage().getStatistics();
+        assertEquals(simple.getTotalRays(), voxel.getTotalRays(), "The tracers traced different rays");
+        assertTrue(voxel.get(VOXELS_VISITED) > 0, "No voxels were visited");
+        assertTrue(voxel.get(INTERSECTION_TESTS) > 0, "No intersection tests were counted");
+
+        // EP03: counting by several threads gives the same totals
+        RenderStatistics threads = camera.setMultithreading(3).build().renderImage().getStatistics();
+        assertEquals(voxel.getTotalRays(), threads.getTotalRays(), "Threads lost counts");
+        assertEquals(voxel.get(VOXELS_VISITED), threads.get(VOXELS_VISITED), "Threads lost voxel counts");
+
+        // EP04: the statistics are exported as JSON
+        String json = threads.toJson();
+        assertTrue(json.contains("\"primary\": " + RESOLUTION * RESOLUTION), "Wrong JSON export");
+        assertTrue(json.contains("\"raysPerSecond\""), "Wrong JSON export");
+
+        // EP05: the shapes of a nested collection are counted as tests of the simple ray tracer
+        Scene nested = new Scene("Nested scene");
+        nested.geometries.add(new Geometries(scene.geometries.getGeometries().toArray(new Intersectable[0])));
+        nested.lights.addAll(scene.lights);
+        RenderStatistics group = camera.setRayTracer(nested, RayTracerType.SIMPLE).build().renderImage().getStatistics();
+        assertEquals(simple.getTotalRays(), group.getTotalRays(), "The nested shapes traced different rays");
+        assertEquals(simple.get(INTERSECTION_TESTS), group.get(INTERSECTION_TESTS), "The nested shapes were not counted");
+        camera.setRayTracer(scene, RayTracerType.VOXEL);
+
+        // =============== Boundary Values Tests ==================
+        // BV01: statistics are disabled
+        Camera disabled = camera.setStatistics(false).build().renderImage();
+        assertNull(disabled.getStatistics(), "Statistics were collected while disabled");
+        assertThrows(IllegalStateException.class, () -> disabled.writeStatistics("statistics"));
+        // BV02: a second render of the same camera reports only its own rays
+        Camera twice = camera.setStatistics(true).setMultithreading(0).build().renderImage().renderImage();
+        assertEquals(RESOLUTION * RESOLUTION, twice.getStatistics().get(PRIMARY_RAYS), "Renders were summed");
+        // BV03: a camera built later over the same ray tracer does not take the statistics of the first camera
+        Camera first = camera.build();
+        Camera second = camera.build();
+        first.renderImage();
+        assertEquals(RESOLUTION * RESOLUTION, first.getStatistics().get(PRIMARY_RAYS), "The statistics were detached");
+        assertEquals(0, second.getStatistics().get(PRIMARY_RAYS), "The rays were counted by another camera");
+    }
+
+    /**
+     * Test method for the occluder cache counters of the statistics
+     */
+    @Test
+    void testOccluderCache() {
+        Scene scene = new Scene("Occluder scene");
+        scene.geometries.add(
+                new Triangle(new Point(-300, -300, -400), new Point(300, -300, -400), new Point(0, 300, -400))
+                        .setMaterial(new Material().setKD(0.5)),
+                new Sphere(new Point(0, 0, -300), 60).setMaterial(new Material().setKD(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(150, 150, 0)));
+        Region frame = new Region(0, 0, RESOLUTION, RESOLUTION);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: shadow rays in the shadow are blocked by the cached occluder
+        Camera single = camera.setRayTracer(scene, RayTracerType.VOXEL).setStatistics(true)
+                .setMultithreading(0).build();
+        int[] pixels = single.renderTile(frame);
+        RenderStatistics statistics = single.getStatistics();
+        assertTrue(statistics.get(OCCLUDER_HITS) > 0, "The cached occluder blocked no shadow rays");
+        assertTrue(statistics.get(OCCLUDER_HITS) + statistics.get(OCCLUDER_MISSES) <= statistics.get(SHADOW_RAYS),
+                "The occluder cache was tested by more rays than the shadow rays");
+        assertTrue(statistics.getOccluderHitRate() > 0, "Wrong hit rate of the occluder cache");
+        assertTrue(statistics.toJson().contains("\"occluderCache\""), "Wrong JSON export");
+
+        // EP02: the caches of several threads render the same image
+        assertArrayEquals(pixels, camera.setMultithreading(3).build().renderTile(frame),
+                "The occluder caches changed the image");
+    }
+
+    /**
+     * Test method for the voxel grid reported by the statistics, with {@link Camera.Builder#setGridTuning(int)}
+     */
+    @Test
+    void testGridSize() {
+        Scene scene = createScene();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the statistics report the grid of the voxel ray tracer
+        Camera voxel = camera.setRayTracer(scene, RayTracerType.VOXEL).setStatistics(true).setMultithreading(0)
+                .build().renderImage();
+        int[] grid = voxel.getStatistics().getGridSize();
+        assertNotNull(grid, "The grid was not reported");
+        assertTrue(voxel.getStatistics().toJson().contains("\"grid\": [" + grid[0] + ", " + grid[1] + ", " + grid[2]
+                + "]"), "Wrong JSON export of the grid");
+
+        // EP02: the grid tuned by probe rays is reported
+        Camera tuned = camera.setGridTuning(64).build().renderImage();
+        RenderStatistics statistics = tuned.getStatistics();
+        assertNotNull(statistics.getGridSize(), "The tuned grid was not reported");
+        assertTrue(statistics.getTime(RenderStatistics.Phase.BUILD) > 0, "The tuning was not timed");
+
+        // EP03: a camera built later over the tuned ray tracer does not tune it again
+        Camera later = camera.setLocation(new Point(0, 0, 50)).build().renderImage();
+        assertEquals(statistics.getTime(RenderStatistics.Phase.BUILD),
+                later.getStatistics().getTime(RenderStatistics.Phase.BUILD), "The grid was tuned again");
+        camera.setLocation(Point.ZERO);
+
+        // =============== Boundary Values Tests ==================
+        // BV01: the simple ray tracer has no grid
+        RenderStatistics simple = camera.setGridTuning(0).setRayTracer(scene, RayTracerType.SIMPLE)
+                .build().renderImage().getStatistics();
+        assertNull(simple.getGridSize(), "The simple ray tracer reported a grid");
+        assertTrue(simple.toJson().contains("\"grid\": null"), "Wrong JSON export without a grid");
+        // BV02: a negative amount of probe rays
+        assertThrows(IllegalArgumentException.class, () -> camera.setGridTuning(-1), "Negative probe rays accepted");
+    }
+}
@@ -0,0 +1,93 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link renderer.RenderTask} - cancellation and deadlines of background renders
+ */
+class RenderTaskTests {
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder camera = Camera.getBuilder()
+            .setLocation(Point.ZERO).setDirection(new Point(0, 0, -1), Vector.AXIS_Y)
+            .setVpDistance(100).setVpSize(500, 500)
+            .setResolution(400, 400);
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    RenderTaskTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Test method for {@link Camera#renderImageAsync()} and
+     * {@link Camera#renderImageAsync(long, TimeUnit)}
+     *
+     * @throws InterruptedException if the test is interrupted
+     * @throws ExecutionException   if a render fails
+     */
+    @Test
+    void testRenderImageAsync() throws InterruptedException, ExecutionException {
+        Scene scene = new Scene("renderTestTwoColors.xml");
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(50, 50, 0)));
+        camera.setRayTracer(scene, RayTracerType.VOXEL).setMultithreading(2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a render without a deadline completes
+        RenderTask task = camera.build().renderImageAsync();
+        Camera result = task.get();
+        assertTrue(task.isDone(), "The render is not done");
+        assertTrue(task.isComplete(), "The render is not complete");
+        result.writeToImage("async complete");
+
+        // EP02: a cancelled render stops and still has a whole image
+        task = camera.setDofRays(16).build().renderImageAsync();
+        assertTrue(task.cancel(false), "The render was not cancelled");
+        assertTrue(task.isCancelled(), "The render is not cancelled");
+        assertThrows(CancellationException.class, task::get);
+        task.join().writeToImage("async cancelled");
+        assertFalse(task.isComplete(), "A cancelled render is complete");
+
+        // EP03: a cancelled slow render throws at once, without waiting for the render to stop
+        Scene heavy = new Scene("heavy");
+        for (int i = 0; i < 40_000; ++i)
+            heavy.geometries.add(new Sphere(new Point(i % 200 - 100, i / 200 - 100, -300 - i % 7), 0.4));
+        heavy.lights.add(new PointLight(new Color(300, 300, 300), new Point(50, 50, 0)));
+        RenderTask slow = camera.setRayTracer(heavy, RayTracerType.SIMPLE).build().renderImageAsync();
+        assertTrue(slow.cancel(false), "The slow render was not cancelled");
+        assertThrows(CancellationException.class, () -> slow.get(1, TimeUnit.NANOSECONDS));
+        long cancelled = System.nanoTime();
+        assertThrows(CancellationException.class, slow::get);
+        assertTrue(System.nanoTime() - cancelled < TimeUnit.MILLISECONDS.toNanos(50), "get() waited for the render");
+        // EP04: the low resolution pass of a cancelled render stops as well
+        slow.join();
+        assertTrue(System.nanoTime() - cancelled < TimeUnit.MILLISECONDS.toNanos(500),
+                "The low resolution pass was not stopped");
+        camera.setRayTracer(scene, RayTracerType.VOXEL);
+
+        // EP05: a render stops at its deadline
+        long start = System.nanoTime();
+        task = camera.setDofRays(16).build().renderImageAsync(100, TimeUnit.MILLISECONDS);
+        task.get().writeToImage("async deadline");
+        assertFalse(task.isComplete(), "A render out of time is complete");
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "The render did not stop in time");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a finished render cannot be cancelled
+        assertFalse(task.cancel(true), "A finished render was cancelled");
+        // BV02: no time for the render
+        assertThrows(IllegalArgumentException.class, () -> camera.build().renderImageAsync(0, TimeUnit.SECONDS));
+    }
+}
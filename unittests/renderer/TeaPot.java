@@ -44,6 +44,16 @@ class TeapotTest {
      * @return camera builder with all the data for the test
      */
     Camera.Builder prepareTeapot() {
+        return prepareTeapot(RayTracerType.VOXEL);
+    }
+
+    /**
+     * Prepare data for test that generates a teapot picture with a given ray tracer
+     *
+     * @param type the type of ray tracer to use
+     * @return camera builder with all the data for the test
+     */
+    Camera.Builder prepareTeapot(RayTracerType type) {
         Scene scene = new Scene("Test scene");
         addTeapotToScene(scene);
 
@@ -60,7 +70,7 @@ class TeapotTest {
         return Camera.getBuilder() //
                 .setResolution(1000, 1000) //
                 // .setResolution(1, 1) //
-                .setRayTracer(scene, RayTracerType.VOXEL) //
+                .setRayTracer(scene, type) //
                 .setLocation(new Point(0, 0, -1000)).setDirection(Point.ZERO, Vector.AXIS_Y) //
                 .setVpDistance(1000).setVpSize(200, 200) //
                 // .setMultithreading(-3) // fail - paging file size
@@ -0,0 +1,212 @@
+package scene;
+
+import geometries.*;
+import lighting.*;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link scene.SceneBinary} - the binary scene format
+ */
+class SceneBinaryTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    SceneBinaryTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Writes a scene into a temporary binary file and reads it back
+     *
+     * @param scene the scene
+     * @return the read scene
+     * @throws IOException if the file cannot be written or read
+     */
+    private static Scene roundTrip(Scene scene) throws IOException {
+        Path file = Files.createTempFile("scene", SceneBinary.EXTENSION);
+        try {
+            SceneBinary.write(scene, file);
+            Scene read = new Scene("read");
+            SceneBinary.read(file, read);
+            return read;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test method for {@link SceneBinary#write(Scene, Path)} and {@link SceneBinary#read(Path, Scene)}
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        Material shiny = new Material().setKD(0.5).setKS(0.25).setKR(new Double3(0.1, 0.2, 0.3)).setShininess(30);
+        Color red = new Color(200, 10, 0);
+        Scene scene = new Scene("binary").setBackground(new Color(1, 2, 3))
+                .setAmbientLight(new AmbientLight(new Color(10, 20, 30)));
+        scene.geometries.add(
+                new Sphere(new Point(1, 2, 3), 4).setMaterial(shiny).setEmission(red),
+                new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0)).setMaterial(shiny),
+                new Triangle(new Point(0, 0, 1), new Point(1, 0, 1), new Point(0, 1, 1)).setEmission(red),
+                new Geometries(new Polygon(new Point(0, 0, 2), new Point(1, 0, 2), new Point(1, 1, 2), new Point(0, 1, 2))),
+                new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)),
+                new Tube(2, new Ray(new Point(5, 0, 0), new Vector(0, 1, 0))),
+                new Cylinder(3, new Ray(new Point(-5, 0, 0), new Vector(0, 0, 1)), 7));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(1, -1, -1)));
+        scene.lights.add(new PointLight(new Color(200, 0, 0), new Point(0, 10, 0)).setKl(0.001).setKq(0.0002));
+        scene.lights.add(new SpotLight(new Color(0, 200, 0), new Point(0, 0, 10), new Vector(0, 0, -1))
+                .setKc(2).setNarrowBeam(12));
+
+        Scene read = roundTrip(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the background and the ambient light
+        assertEquals(new Double3(1, 2, 3), read.background.getRgb(), "Wrong background");
+        assertEquals(new Double3(10, 20, 30), read.ambientlight.getIntensity().getRgb(), "Wrong ambient light");
+
+        // EP02: the geometries in order, with nested geometries flattened
+        List<Intersectable> geometries = read.geometries.getGeometries();
+        assertEquals(List.of(Sphere.class, Triangle.class, Triangle.class, Polygon.class, Plane.class, Tube.class,
+                        Cylinder.class), geometries.stream().map(Object::getClass).toList(), "Wrong geometries");
+        Sphere sphere = (Sphere) geometries.get(0);
+        assertEquals(new Point(1, 2, 3), sphere.getCenter(), "Wrong center");
+        assertEquals(4, sphere.getRadius(), "Wrong radius");
+        assertEquals(new Double3(200, 10, 0), sphere.getEmission().getRgb(), "Wrong emission");
+        assertEquals(new Double3(0.1, 0.2, 0.3), sphere.getMaterial().kR, "Wrong material");
+        assertEquals(30, sphere.getMaterial().nSH, "Wrong shininess");
+        assertEquals(new Point(1, 0, 1), ((Triangle) geometries.get(2)).getVertices().get(1), "Wrong vertex");
+        assertEquals(4, ((Polygon) geometries.get(3)).getVertices().size(), "Wrong amount of vertices");
+        assertEquals(new Vector(0, 0, 1), ((Plane) geometries.get(4)).getNormal(), "Wrong normal");
+        assertEquals(new Point(5, 0, 0), ((Tube) geometries.get(5)).getAxis().getPoint(0), "Wrong axis");
+        assertEquals(7, ((Cylinder) geometries.get(6)).getHeight(), "Wrong height");
+
+        // EP03: equal materials are shared
+        assertSame(sphere.getMaterial(), ((Geometry) geometries.get(1)).getMaterial(), "Equal materials are not shared");
+
+        // EP04: the lights in order
+        assertEquals(List.of(DirectionalLight.class, PointLight.class, SpotLight.class),
+                read.lights.stream().map(Object::getClass).toList(), "Wrong lights");
+        PointLight point = (PointLight) read.lights.get(1);
+        assertEquals(new Point(0, 10, 0), point.getPosition(), "Wrong position");
+        assertEquals(0.0002, point.getKq(), "Wrong attenuation");
+        SpotLight spot = (SpotLight) read.lights.get(2);
+        assertEquals(new Vector(0, 0, -1), spot.getDirection(), "Wrong direction");
+        assertEquals(12, spot.getNarrowBeam(), "Wrong narrow beam");
+        assertEquals(2, spot.getKc(), "Wrong attenuation");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: an empty scene
+        Scene empty = roundTrip(new Scene("empty"));
+        assertTrue(empty.geometries.getGeometries().isEmpty(), "Geometries were read from an empty scene");
+        assertTrue(empty.lights.isEmpty(), "Lights were read from an empty scene");
+    }
+
+    /**
+     * Test method for {@link SceneBinary#read(Path, Scene)} of a block read in parallel
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testReadLargeBlock() throws IOException {
+        final int triangles = 5000;
+        Scene scene = new Scene("large");
+        for (int i = 0; i < triangles; ++i)
+            scene.geometries.add(new Triangle(new Point(3 * i, 0, -100), new Point(3 * i + 1, 0, -100),
+                    new Point(3 * i, 1, -100)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: all the geometries are read, in order
+        List<Intersectable> geometries = roundTrip(scene).geometries.getGeometries();
+        assertEquals(triangles, geometries.size(), "Wrong amount of geometries");
+        for (int i = 0; i < triangles; i += 97)
+            assertEquals(new Point(3 * i, 0, -100), ((Triangle) geometries.get(i)).getVertices().getFirst(),
+                    "Geometry " + i + " is out of order");
+    }
+
+    /**
+     * Test method for {@link SceneBinary#write(Scene, Path)} and {@link SceneBinary#read(Path, Scene)}
+     * of single-precision mesh triangles
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void testRoundTripMesh() throws IOException {
+        float[] square = {0, 0, -10, 1, 0, -10, 1, 1, -10, 0, 1, -10};
+        float[] other = {5, 0, -20, 6, 0, -20, 5, 1, -20};
+        Color red = new Color(200, 10, 0);
+        Scene scene = new Scene("mesh");
+        scene.geometries.add(
+                new MeshTriangle(square, 0, 1, 2).setEmission(red),
+                new MeshTriangle(square, 0, 2, 3),
+                new MeshTriangle(other, 0, 1, 2),
+                new Sphere(new Point(0, 0, -30), 1),
+                new MeshTriangle(square, 3, 2, 1));
+
+        List<Intersectable> geometries = roundTrip(scene).geometries.getGeometries();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the mesh triangles are read in order, with their vertices and emission
+        assertEquals(List.of(MeshTriangle.class, MeshTriangle.class, MeshTriangle.class, Sphere.class,
+                MeshTriangle.class), geometries.stream().map(Object::getClass).toList(), "Wrong geometries");
+        MeshTriangle first = (MeshTriangle) geometries.get(0);
+        MeshTriangle second = (MeshTriangle) geometries.get(1);
+        assertEquals(new Point(1, 1, -10), second.getVertex(1), "Wrong vertex");
+        assertEquals(3, second.getVertexIndex(2), "Wrong vertex index");
+        assertEquals(new Double3(200, 10, 0), first.getEmission().getRgb(), "Wrong emission");
+        assertEquals(new Point(6, 0, -20), ((MeshTriangle) geometries.get(2)).getVertex(1), "Wrong vertex of a mesh");
+        assertEquals(new Point(0, 1, -10), ((MeshTriangle) geometries.get(4)).getVertex(0), "Wrong vertex");
+
+        // EP02: the triangles of a mesh block share the vertices of the mesh
+        assertSame(first.getMeshVertices(), second.getMeshVertices(), "The vertices of the mesh are not shared");
+        assertNotSame(first.getMeshVertices(), ((MeshTriangle) geometries.get(2)).getMeshVertices(),
+                "Different meshes share vertices");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: a mesh of a single triangle
+        Scene single = new Scene("single");
+        single.geometries.add(new MeshTriangle(other, 2, 1, 0));
+        MeshTriangle triangle = (MeshTriangle) roundTrip(single).geometries.getGeometries().getFirst();
+        assertEquals(new Point(5, 1, -20), triangle.getVertex(0), "Wrong vertex of a single triangle");
+        assertArrayEquals(other, triangle.getMeshVertices(), "Wrong vertices of the mesh");
+    }
+
+    /**
+     * Test method for reading and writing invalid scenes
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    void testInvalid() throws IOException {
+        // =============== Boundary Values Tests ==================
+        // BV01: a file which is not a binary scene
+        Path file = Files.createTempFile("scene", SceneBinary.EXTENSION);
+        try {
+            Files.writeString(file, "<scene/>");
+            assertThrows(IllegalArgumentException.class, () -> SceneBinary.read(file, new Scene("invalid")));
+
+            // BV02: a geometry which the format does not support
+            Scene scene = new Scene("unsupported");
+            scene.geometries.add(new Intersectable() {
+                @Override
+                protected List<Intersection> calculateIntersectionsHelper(Ray ray, double maxDistance) {
+                    return null;
+                }
+
+                @Override
+                public voxel.AABB getBoundingBox() {
+                    return null;
+                }
+            });
+            assertThrows(IllegalArgumentException.class, () -> SceneBinary.write(scene, file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package voxel;
+
+import geometries.Intersectable;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.VoxelRayTracer;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link voxel.VoxelGridCache} - the cache of built voxel grids
+ */
+class VoxelGridCacheTests {
+    /**
+     * Size of the grids along each axis
+     */
+    private static final int SIZE = 8;
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    VoxelGridCacheTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates objects along a diagonal
+     *
+     * @param count amount of objects
+     * @return the objects
+     */
+    private static List<Intersectable> objects(int count) {
+        List<Intersectable> objects = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            objects.add(new Sphere(new Point(10 * i, 10 * i, -100), 3));
+            objects.add(new Triangle(new Point(10 * i, 0, -50), new Point(10 * i + 5, 0, -50), new Point(10 * i, 5, -50)));
+        }
+        return objects;
+    }
+
+    /**
+     * Finds the bounding boxes of objects
+     *
+     * @param objects the objects
+     * @return the bounding boxes
+     */
+    private static List<AABB> boxes(List<Intersectable> objects) {
+        return objects.stream().map(Intersectable::getBoundingBox).toList();
+    }
+
+    /**
+     * Builds a grid of objects
+     *
+     * @param bounds  the bounds of the grid
+     * @param objects the objects
+     * @return the grid
+     */
+    private static VoxelGrid build(AABB bounds, List<Intersectable> objects) {
+        VoxelGrid grid = new VoxelGrid(bounds, SIZE, SIZE, SIZE);
+        for (Intersectable object : objects) grid.addObject(object, object.getBoundingBox());
+        return grid;
+    }
+
+    /**
+     * Finds the bounds of objects
+     *
+     * @param objects the objects
+     * @return the union of their bounding boxes
+     */
+    private static AABB bounds(List<Intersectable> objects) {
+        return objects.stream().map(Intersectable::getBoundingBox).reduce(AABB::union).orElseThrow();
+    }
+
+    /**
+     * Deletes a temporary directory
+     *
+     * @param directory the directory
+     * @throws IOException if the directory cannot be deleted
+     */
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link VoxelGridCache#store(String, VoxelGrid, List)} and
+     * {@link VoxelGridCache#load(String, AABB, List)}
+     *
+     * @throws IOException if the cache directory cannot be created or deleted
+     */
+    @Test
+    void testStoreAndLoad() throws IOException {
+        Path directory = Files.createTempDirectory("grids");
+        try {
+            VoxelGridCache cache = new VoxelGridCache(directory.resolve("cache"));
+            List<Intersectable> objects = objects(10);
+            AABB bounds = bounds(objects);
+            String key = VoxelGridCache.key(bounds, SIZE, SIZE, SIZE, boxes(objects));
+            VoxelGrid built = build(bounds, objects);
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: a grid which was not stored
+            assertNull(cache.load(key, bounds, objects), "Loaded a grid which was not stored");
+            // EP02: a stored grid is loaded with the same voxels, referring to the given objects
+            assertTrue(cache.store(key, built, objects), "The grid was not stored");
+            VoxelGrid loaded = cache.load(key, bounds, objects);
+            assertNotNull(loaded, "The stored grid was not loaded");
+            assertEquals(built.getCells(), loaded.getCells(), "Wrong voxels of the loaded grid");
+            Ray ray = new Ray(new Point(50, 50, 0), new Vector(0, 0, -1));
+            assertSame(built.findClosestIntersection(ray).geometry, loaded.findClosestIntersection(ray).geometry,
+                    "Wrong intersection of the loaded grid");
+            // EP03: the key depends on the geometries and on the size of the grid
+            List<Intersectable> moved = objects(11);
+            assertNotEquals(key, VoxelGridCache.key(bounds(moved), SIZE, SIZE, SIZE, boxes(moved)),
+                    "Same key of different geometries");
+            assertNotEquals(key, VoxelGridCache.key(bounds, SIZE + 1, SIZE, SIZE, boxes(objects)),
+                    "Same key of different grid sizes");
+            assertEquals(key, VoxelGridCache.key(bounds, SIZE, SIZE, SIZE, boxes(objects(10))),
+                    "Different keys of equal geometries");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: a corrupt file is not loaded
+            try (Stream<Path> files = Files.list(directory.resolve("cache"))) {
+                for (Path file : files.toList()) Files.write(file, new byte[]{1, 2, 3});
+            }
+            assertNull(cache.load(key, bounds, objects), "Loaded a corrupt grid");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.VoxelRayTracer#VoxelRayTracer(Scene, Path)} with a cache
+     *
+     * @throws IOException if the cache directory cannot be created or deleted
+     */
+    @Test
+    void testRayTracerCache() throws IOException {
+        Path directory = Files.createTempDirectory("grids");
+        try {
+            Scene scene = new Scene("cached");
+            scene.geometries.add(objects(10).toArray(new Intersectable[0]));
+            Ray ray = new Ray(new Point(50, 50, 0), new Vector(0, 0, -1));
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: the first ray tracer builds the grid, and the next one loads it
+            VoxelRayTracer first = new VoxelRayTracer(scene, directory);
+            assertFalse(first.isCached(), "The first grid was loaded");
+            VoxelRayTracer second = new VoxelRayTracer(scene, directory);
+            assertTrue(second.isCached(), "The grid was built again");
+            assertEquals(first.traceRay(ray).toString(), second.traceRay(ray).toString(),
+                    "Wrong color of the loaded grid");
+
+            // EP02: another scene builds its own grid
+            Scene other = new Scene("other");
+            other.geometries.add(objects(5).toArray(new Intersectable[0]));
+            assertFalse(new VoxelRayTracer(other, directory).isCached(), "Loaded the grid of another scene");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: no cache
+            assertFalse(new VoxelRayTracer(scene).isCached(), "Loaded a grid without a cache");
+        } finally {
+            delete(directory);
+        }
+    }
+}
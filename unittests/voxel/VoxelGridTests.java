@@ -0,0 +1,226 @@
+package voxel;
+
+import geometries.Intersectable;
+import geometries.Intersectable.Intersection;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.VoxelRayTracer;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link voxel.VoxelGrid} - the parallel build and the hierarchical grid of the dense voxels
+ */
+class VoxelGridTests {
+    /**
+     * Seed of the random objects and rays
+     */
+    private static final long SEED = 11;
+
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    VoxelGridTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates a dense cluster of small spheres near the origin, and a few spheres scattered far away
+     *
+     * @return the spheres
+     */
+    private static List<Intersectable> cluster() {
+        Random random = new Random(SEED);
+        List<Intersectable> objects = new ArrayList<>();
+        for (int i = 0; i < 400; ++i)
+            objects.add(new Sphere(new Point(random.nextDouble(-10, 10), random.nextDouble(-10, 10),
+                    random.nextDouble(-10, 10)), 0.5));
+        for (int i = 0; i < 20; ++i)
+            objects.add(new Sphere(new Point(random.nextDouble(-1000, 1000), random.nextDouble(-1000, 1000),
+                    random.nextDouble(-1000, 1000)), 5));
+        return objects;
+    }
+
+    /**
+     * Builds the grid of objects, sized by {@link VoxelGridTuner#size(AABB, List)}
+     *
+     * @param objects the objects
+     * @return the grid
+     */
+    private static VoxelGrid grid(List<Intersectable> objects) {
+        List<AABB> boxes = objects.stream().map(Intersectable::getBoundingBox).toList();
+        AABB bounds = boxes.stream().reduce(AABB::union).orElseThrow();
+        return VoxelGridTuner.build(bounds, VoxelGridTuner.size(bounds, boxes), objects, boxes);
+    }
+
+    /**
+     * Creates rays from far away through the cluster
+     *
+     * @return the rays
+     */
+    private static List<Ray> rays() {
+        Random random = new Random(SEED);
+        List<Ray> rays = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            Point origin = new Point(random.nextDouble(-50, 50), random.nextDouble(-50, 50), 1500);
+            Point target = new Point(random.nextDouble(-10, 10), random.nextDouble(-10, 10), 0);
+            rays.add(new Ray(origin, target.subtract(origin)));
+        }
+        return rays;
+    }
+
+    /**
+     * Counts the intersection tests of tracing rays through a grid
+     *
+     * @param grid the grid
+     * @param rays the rays
+     * @return the amount of intersection tests
+     */
+    private static int tests(VoxelGrid grid, List<Ray> rays) {
+        int[] tests = {0};
+        grid.setTraversalListener((voxels, count) -> tests[0] += count);
+        for (Ray ray : rays) grid.findClosestIntersection(ray);
+        grid.setTraversalListener(null);
+        return tests[0];
+    }
+
+    /**
+     * Test method for {@link VoxelGrid#subdivide(int, int)}
+     */
+    @Test
+    void testSubdivide() {
+        List<Intersectable> objects = cluster();
+        VoxelGrid flat = grid(objects);
+        VoxelGrid hierarchical = grid(objects).subdivide(8, 2);
+        List<Ray> rays = rays();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the dense voxels of the cluster are subdivided
+        assertTrue(hierarchical.getSubGridCount() > 0, "The dense voxels were not subdivided");
+        assertArrayEquals(flat.getSize(), hierarchical.getSize(), "The top level of the grid was changed");
+
+        // EP02: the hierarchical grid finds the same intersections as the flat grid
+        for (Ray ray : rays) {
+            Intersection expected = flat.findClosestIntersection(ray);
+            Intersection result = hierarchical.findClosestIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, result == null ? null : result.point,
+                    "Wrong closest intersection of the hierarchical grid");
+            assertEquals(flat.findIntersections(ray, 2000).size(), hierarchical.findIntersections(ray, 2000).size(),
+                    "Wrong intersections of the hierarchical grid");
+        }
+
+        // EP03: the rays through the cluster test fewer objects
+        int flatTests = tests(flat, rays);
+        int hierarchicalTests = tests(hierarchical, rays);
+        assertTrue(hierarchicalTests < flatTests / 2,
+                "The sub-grids did not save tests: " + flatTests + " -> " + hierarchicalTests);
+
+        // EP04: a voxel whose objects all span it is not subdivided
+        List<Intersectable> nested = new ArrayList<>();
+        for (int i = 1; i <= 40; ++i) nested.add(new Sphere(Point.ZERO, 100 + i));
+        assertEquals(0, grid(nested).subdivide(8, 2).getSubGridCount(), "Overlapping objects were subdivided");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: no voxel has more objects than the threshold
+        assertEquals(0, grid(objects).subdivide(objects.size(), 2).getSubGridCount(), "Sparse voxels were subdivided");
+        // BV02: no levels below the grid
+        assertEquals(0, grid(objects).subdivide(8, 0).getSubGridCount(), "Subdivided without levels");
+        // BV03: a single level of sub-grids
+        int oneLevel = grid(objects).subdivide(8, 1).getSubGridCount();
+        assertTrue(oneLevel > 0 && oneLevel <= hierarchical.getSubGridCount(), "Wrong sub-grids of a single level");
+    }
+
+    /**
+     * Builds a grid by adding its objects one by one
+     *
+     * @param bounds  the bounds of the grid
+     * @param size    the amount of voxels along each axis
+     * @param objects the objects
+     * @param boxes   the bounding boxes of the objects, null for an unbounded object
+     * @return the grid
+     */
+    private static VoxelGrid sequential(AABB bounds, int size, List<Intersectable> objects, List<AABB> boxes) {
+        VoxelGrid grid = new VoxelGrid(bounds, size, size, size);
+        for (int i = 0; i < objects.size(); ++i)
+            if (boxes.get(i) != null) grid.addObject(objects.get(i), boxes.get(i));
+        return grid;
+    }
+
+    /**
+     * Test method for {@link VoxelGrid#addObjects(List, List)}
+     */
+    @Test
+    void testAddObjects() {
+        Random random = new Random(SEED);
+        List<Intersectable> objects = new ArrayList<>();
+        for (int i = 0; i < VoxelGrid.PARALLEL_BUILD_THRESHOLD * 2; ++i)
+            objects.add(new Sphere(new Point(random.nextDouble(-100, 100), random.nextDouble(-100, 100),
+                    random.nextDouble(-100, 100)), i % 100 == 0 ? 30 : 1));
+        List<AABB> boxes = new ArrayList<>(VoxelGrid.boundingBoxes(objects));
+        // an unbounded object is skipped
+        boxes.set(1, null);
+        AABB bounds = VoxelGrid.bounds(boxes);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the bounding boxes and their bounds are found in the order of the objects
+        for (int i = 2; i < objects.size(); i += 997)
+            assertEquals(objects.get(i).getBoundingBox().getMin(), boxes.get(i).getMin(), "Wrong bounding box");
+        assertEquals(objects.stream().skip(2).map(Intersectable::getBoundingBox).reduce(AABB::union)
+                .orElseThrow().getMax(), VoxelGrid.bounds(boxes.subList(2, boxes.size())).getMax(), "Wrong bounds");
+
+        // EP02: many objects are added in parallel to the same voxels, in the same order, as one by one
+        VoxelGrid parallel = new VoxelGrid(bounds, 40, 40, 40);
+        parallel.addObjects(objects, boxes);
+        assertEquals(sequential(bounds, 40, objects, boxes).getCells(), parallel.getCells(),
+                "The objects added in parallel differ");
+
+        // EP03: objects are added after the objects already in the grid
+        VoxelGrid twice = new VoxelGrid(bounds, 40, 40, 40);
+        twice.addObjects(objects.subList(0, 100), boxes.subList(0, 100));
+        twice.addObjects(objects.subList(100, objects.size()), boxes.subList(100, boxes.size()));
+        assertEquals(parallel.getCells(), twice.getCells(), "The objects were not added after the others");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: too many voxels for the objects - added one by one
+        VoxelGrid fine = new VoxelGrid(bounds, 120, 120, 120);
+        fine.addObjects(objects, boxes);
+        assertEquals(sequential(bounds, 120, objects, boxes).getCells(), fine.getCells(), "Wrong grid of many voxels");
+        // BV02: no bounding boxes
+        assertNull(VoxelGrid.bounds(List.of()), "Bounds of no boxes");
+    }
+
+    /**
+     * Test method for {@link renderer.VoxelRayTracer#VoxelRayTracer(Scene, java.nio.file.Path, boolean)}
+     */
+    @Test
+    void testHierarchicalRayTracer() {
+        Scene scene = new Scene("cluster");
+        for (Intersectable object : cluster())
+            scene.geometries.add(((Sphere) object).setEmission(new Color(40, 20, 20))
+                    .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(20)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(0, 100, 100)));
+        VoxelRayTracer flat = new VoxelRayTracer(scene);
+        VoxelRayTracer hierarchical = new VoxelRayTracer(scene, null, true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the hierarchical ray tracer traces the same colors as the flat one
+        assertTrue(hierarchical.isHierarchical(), "The ray tracer is not hierarchical");
+        assertFalse(flat.isHierarchical(), "The ray tracer is hierarchical");
+        for (Ray ray : rays())
+            assertEquals(flat.traceRay(ray).toString(), hierarchical.traceRay(ray).toString(), "Wrong color");
+
+        // EP02: the grid is subdivided again when the ray tracer is refitted
+        hierarchical.refit();
+        Ray ray = new Ray(new Point(0, 0, 1500), new Vector(0, 0, -1));
+        assertEquals(flat.traceRay(ray).toString(), hierarchical.traceRay(ray).toString(), "Wrong color after refit");
+    }
+}
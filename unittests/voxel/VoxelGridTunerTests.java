@@ -0,0 +1,175 @@
+package voxel;
+
+import geometries.Intersectable;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.VoxelRayTracer;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link voxel.VoxelGridTuner} - the resolution of the voxel grids
+ */
+class VoxelGridTunerTests {
+    /**
+     * Default constructor to satisfy JavaDoc generator
+     */
+    VoxelGridTunerTests() { /* to satisfy JavaDoc generator */ }
+
+    /**
+     * Creates small spheres on a regular lattice
+     *
+     * @param nx amount of spheres along the X axis
+     * @param ny amount of spheres along the Y axis
+     * @param nz amount of spheres along the Z axis
+     * @return the spheres
+     */
+    private static List<Intersectable> lattice(int nx, int ny, int nz) {
+        List<Intersectable> objects = new ArrayList<>();
+        for (int i = 0; i < nx; ++i)
+            for (int j = 0; j < ny; ++j)
+                for (int k = 0; k < nz; ++k)
+                    objects.add(new Sphere(new Point(10 * i, 10 * j, -10 * k), 1));
+        return objects;
+    }
+
+    /**
+     * Finds the bounding boxes of objects
+     *
+     * @param objects the objects
+     * @return the bounding boxes
+     */
+    private static List<AABB> boxes(List<Intersectable> objects) {
+        return objects.stream().map(Intersectable::getBoundingBox).toList();
+    }
+
+    /**
+     * Finds the bounds of objects
+     *
+     * @param objects the objects
+     * @return the union of their bounding boxes
+     */
+    private static AABB bounds(List<Intersectable> objects) {
+        return objects.stream().map(Intersectable::getBoundingBox).reduce(AABB::union).orElseThrow();
+    }
+
+    /**
+     * Calculates the heuristic resolution of the grid of objects
+     *
+     * @param objects the objects
+     * @return the amounts of voxels along the X, Y and Z axes
+     */
+    private static int[] size(List<Intersectable> objects) {
+        return VoxelGridTuner.size(bounds(objects), boxes(objects));
+    }
+
+    /**
+     * Test method for {@link VoxelGridTuner#size(AABB, List)}
+     */
+    @Test
+    void testSize() {
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a cube gets the same amount of voxels along each axis, about 4 for each object
+        int[] cube = size(lattice(5, 5, 5));
+        assertEquals(cube[0], cube[1], "Different resolutions of the axes of a cube");
+        assertEquals(cube[0], cube[2], "Different resolutions of the axes of a cube");
+        assertEquals(500, cube[0] * cube[1] * cube[2], 150, "Wrong amount of voxels");
+
+        // EP02: an elongated scene gets more voxels along its long axis
+        int[] elongated = size(lattice(64, 2, 2));
+        assertTrue(elongated[0] > 8 * elongated[1] && elongated[0] > 8 * elongated[2],
+                "The long axis has too few voxels: " + elongated[0] + "x" + elongated[1] + "x" + elongated[2]);
+
+        // EP03: a flat scene gets a single voxel along its flat axis and the voxels of the other axes
+        List<Intersectable> flat = new ArrayList<>();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                flat.add(new Triangle(new Point(10 * i, 10 * j, 0), new Point(10 * i + 5, 10 * j, 0),
+                        new Point(10 * i, 10 * j + 5, 0)));
+        int[] plane = size(flat);
+        assertEquals(1, plane[2], "A flat axis has more than one voxel");
+        assertEquals(400, plane[0] * plane[1], 100, "Wrong amount of voxels of a flat scene");
+
+        // EP04: voxels are not much smaller than large objects
+        List<Intersectable> large = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) large.add(new Sphere(new Point(i % 10, i / 10 % 10, -i / 100), 50));
+        int[] coarse = size(large);
+        for (int axis = 0; axis < 3; ++axis)
+            assertTrue(coarse[axis] <= 5, "Voxels much smaller than the objects: " + coarse[axis]);
+
+        // =============== Boundary Values Tests ==================
+        // BV01: no objects
+        assertArrayEquals(new int[]{1, 1, 1}, VoxelGridTuner.size(null, List.of()), "Wrong size without objects");
+        // BV02: a single object
+        for (int axis : size(lattice(1, 1, 1)))
+            assertTrue(axis >= 1, "An axis of a single object has no voxels");
+        // BV03: a single point has a single voxel
+        List<AABB> point = List.of(new AABB(Point.ZERO, Point.ZERO));
+        assertArrayEquals(new int[]{1, 1, 1}, VoxelGridTuner.size(point.getFirst(), point), "Wrong size of a point");
+    }
+
+    /**
+     * Test method for {@link VoxelGridTuner#tune}
+     */
+    @Test
+    void testTune() {
+        List<Intersectable> objects = lattice(5, 5, 5);
+        AABB bounds = bounds(objects);
+        List<AABB> boxes = boxes(objects);
+        int[] base = VoxelGridTuner.size(bounds, boxes);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the tuning descends to the cheapest resolution along each axis
+        int[] target = {base[0] * 4, base[1], Math.max(base[2] / 2, 1)};
+        int[] tuned = VoxelGridTuner.tune(bounds, objects, boxes, grid -> {
+            int[] size = grid.getSize();
+            return Math.abs(Math.log((double) size[0] / target[0])) + Math.abs(Math.log((double) size[1] / target[1]))
+                    + Math.abs(Math.log((double) size[2] / target[2]));
+        });
+        assertArrayEquals(target, tuned, "The tuning did not find the cheapest resolution");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: the heuristic resolution is the cheapest
+        assertArrayEquals(base, VoxelGridTuner.tune(bounds, objects, boxes, grid -> grid.getSize()[0] == base[0]
+                && grid.getSize()[1] == base[1] && grid.getSize()[2] == base[2] ? 0 : 1), "The tuning left the best resolution");
+    }
+
+    /**
+     * Test method for {@link renderer.VoxelRayTracer#tune(List)}
+     */
+    @Test
+    void testRayTracerTune() {
+        Scene scene = new Scene("tuned");
+        scene.geometries.add(lattice(8, 2, 8).toArray(new Intersectable[0]));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(0, 200, 100)));
+        VoxelRayTracer rayTracer = new VoxelRayTracer(scene);
+        List<Ray> probes = new ArrayList<>();
+        for (int i = 0; i < 16; ++i)
+            for (int j = 0; j < 16; ++j)
+                probes.add(new Ray(new Point(4.4 * i, 0.6 * j, 100), new Vector(0, 0, -1)));
+        Ray ray = new Ray(new Point(20, 10, 100), new Vector(0, 0, -1));
+        String color = rayTracer.traceRay(ray).toString();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: the tuned grid replaces the grid of the ray tracer, and traces the same colors
+        assertFalse(rayTracer.isTuned(), "The grid is tuned before tuning");
+        int[] tuned = rayTracer.tune(probes);
+        assertTrue(rayTracer.isTuned(), "The grid is not tuned");
+        assertArrayEquals(tuned, rayTracer.getGridSize(), "The tuned grid does not replace the grid");
+        assertEquals(color, rayTracer.traceRay(ray).toString(), "Wrong color of the tuned grid");
+
+        // EP02: the tuned resolution is kept when the ray tracer is refitted
+        rayTracer.refit();
+        assertArrayEquals(tuned, rayTracer.getGridSize(), "The tuned resolution was not kept");
+    }
+}